@@ -0,0 +1,260 @@
+package org.geogebra.common.jre.cas;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.geogebra.common.GeoGebraConstants;
+import org.geogebra.common.cas.CasResultCache;
+import org.geogebra.common.cas.CasResultStore;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Append-only file with CAS results. The file starts with the GeoGebra
+ * version (results of other versions are dropped), followed by records of
+ * input and result strings. Duplicate or damaged records are removed when
+ * the file is loaded. New results are collected in memory and written by a
+ * background timer or when the store is closed.
+ */
+public class CasResultFileStore implements CasResultStore {
+
+	private static final String MAGIC = "GeoGebraCasCache";
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	/** longest string that is read from the file */
+	private static final int MAX_STRING_LENGTH = 1 << 24;
+	/** delay between storing a result and writing it to the file (ms) */
+	private static final long FLUSH_DELAY = 2000;
+
+	private final File file;
+	private DataOutputStream out;
+	/** inputs and results not written yet */
+	private ArrayList<String> pending = new ArrayList<>();
+	private Timer timer;
+	private boolean flushScheduled;
+	/** serializes writing and closing the file, acquired before this */
+	private final Object writeLock = new Object();
+
+	/**
+	 * @param file
+	 *            file to store results in
+	 */
+	public CasResultFileStore(File file) {
+		this.file = file;
+	}
+
+	@Override
+	public void load(CasResultCache cache) {
+		close();
+		synchronized (this) {
+			read(cache);
+		}
+	}
+
+	private void read(CasResultCache cache) {
+		LinkedHashMap<String, String> results = new LinkedHashMap<>();
+		boolean compact = !file.exists();
+		long validLength = 0;
+		int records = 0;
+		if (file.exists()) {
+			DataInputStream in = null;
+			try {
+				in = new DataInputStream(
+						new BufferedInputStream(new FileInputStream(file)));
+				if (MAGIC.equals(in.readUTF()) && GeoGebraConstants
+						.VERSION_STRING.equals(in.readUTF())) {
+					validLength = getHeaderLength();
+					while (true) {
+						String input = readString(in);
+						String result = readString(in);
+						validLength += 8 + getByteLength(input)
+								+ getByteLength(result);
+						// keep the order of last occurrences
+						results.remove(input);
+						results.put(input, result);
+						records++;
+					}
+				}
+			} catch (EOFException e) {
+				// end of file or damaged last record
+			} catch (IOException e) {
+				Log.debug(e);
+			} finally {
+				closeQuietly(in);
+			}
+			compact = validLength == 0 || validLength != file.length()
+					|| records != results.size();
+		}
+		for (Entry<String, String> entry : results.entrySet()) {
+			cache.put(entry.getKey(), entry.getValue());
+		}
+		if (compact) {
+			rewrite(results, cache);
+		} else {
+			open();
+		}
+	}
+
+	private void open() {
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(file, true)));
+		} catch (IOException e) {
+			Log.debug(e);
+			out = null;
+		}
+	}
+
+	/**
+	 * Writes header and results that are still cached to the file and keeps
+	 * it open for appending.
+	 */
+	private void rewrite(LinkedHashMap<String, String> results,
+			CasResultCache cache) {
+		try {
+			out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(file)));
+			out.writeUTF(MAGIC);
+			out.writeUTF(GeoGebraConstants.VERSION_STRING);
+			for (Entry<String, String> entry : results.entrySet()) {
+				if (cache.contains(entry.getKey())) {
+					writeString(out, entry.getKey());
+					writeString(out, entry.getValue());
+				}
+			}
+			out.flush();
+		} catch (IOException e) {
+			Log.debug(e);
+			closeQuietly(out);
+			out = null;
+		}
+	}
+
+	@Override
+	public synchronized void store(String input, String result) {
+		if (out == null) {
+			return;
+		}
+		pending.add(input);
+		pending.add(result);
+		if (!flushScheduled) {
+			flushScheduled = true;
+			if (timer == null) {
+				timer = new Timer("CAS cache writer", true);
+			}
+			timer.schedule(new TimerTask() {
+				@Override
+				public void run() {
+					flush();
+				}
+			}, FLUSH_DELAY);
+		}
+	}
+
+	/**
+	 * Writes results stored since last flush to the file; the store is not
+	 * locked while writing, so results can be stored meanwhile.
+	 */
+	public void flush() {
+		synchronized (writeLock) {
+			ArrayList<String> records;
+			DataOutputStream stream;
+			synchronized (this) {
+				flushScheduled = false;
+				if (pending.isEmpty() || out == null) {
+					return;
+				}
+				records = pending;
+				pending = new ArrayList<>();
+				stream = out;
+			}
+			try {
+				for (String str : records) {
+					writeString(stream, str);
+				}
+				stream.flush();
+			} catch (IOException e) {
+				Log.debug(e);
+				close();
+			}
+		}
+	}
+
+	/**
+	 * Writes pending results and closes the file; stored results are ignored
+	 * until the store is loaded again.
+	 */
+	public void close() {
+		synchronized (writeLock) {
+			flush();
+			synchronized (this) {
+				closeQuietly(out);
+				out = null;
+				pending.clear();
+				flushScheduled = false;
+				if (timer != null) {
+					timer.cancel();
+					timer = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Deletes all stored results.
+	 */
+	public void clear() {
+		close();
+		synchronized (this) {
+			rewrite(new LinkedHashMap<String, String>(), null);
+		}
+	}
+
+	private static long getHeaderLength() {
+		return 4 + getByteLength(MAGIC)
+				+ getByteLength(GeoGebraConstants.VERSION_STRING);
+	}
+
+	private static int getByteLength(String str) {
+		return str.getBytes(UTF_8).length;
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > MAX_STRING_LENGTH) {
+			throw new EOFException("invalid record");
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	private static void writeString(DataOutputStream stream, String str)
+			throws IOException {
+		byte[] bytes = str.getBytes(UTF_8);
+		stream.writeInt(bytes.length);
+		stream.write(bytes);
+	}
+
+	private static void closeQuietly(Closeable stream) {
+		if (stream != null) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				Log.debug(e);
+			}
+		}
+	}
+}
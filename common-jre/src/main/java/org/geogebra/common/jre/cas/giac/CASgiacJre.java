@@ -1,5 +1,12 @@
 package org.geogebra.common.jre.cas.giac;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.geogebra.common.cas.CASparser;
 import org.geogebra.common.cas.error.TimeoutException;
 import org.geogebra.common.cas.giac.CASgiacB;
@@ -12,6 +19,10 @@ import org.geogebra.common.util.debug.Log;
  */
 public abstract class CASgiacJre extends CASgiacB {
 
+	private GiacEvaluationPool pool;
+	/** background evaluations by input */
+	private final HashMap<String, Future<String>> prefetched = new HashMap<>();
+
     /**
      * @param casParser casParser
      */
@@ -56,6 +67,56 @@ public abstract class CASgiacJre extends CASgiacB {
         }
     }
 
+	@Override
+	synchronized public void prefetch(List<String> inputs) {
+		if (!useThread()) {
+			return;
+		}
+		if (pool == null) {
+			pool = new GiacEvaluationPool(this, Math.max(1,
+					Runtime.getRuntime().availableProcessors() - 1));
+		}
+		for (String input : inputs) {
+			String exp = casParser.replaceIndices(input, false);
+			if (!prefetched.containsKey(exp)) {
+				prefetched.put(exp, pool.submit(exp, timeoutMillis));
+			}
+		}
+	}
+
+	@Override
+	synchronized public void clearPrefetch() {
+		for (Future<String> request : new ArrayList<>(prefetched.values())) {
+			request.cancel(true);
+		}
+		prefetched.clear();
+	}
+
+	@Override
+	protected String evaluate(String exp, long timeoutMillis0)
+			throws Throwable {
+		Future<String> request;
+		synchronized (this) {
+			request = prefetched.remove(exp);
+		}
+		if (request == null || request.isCancelled()) {
+			return super.evaluate(exp, timeoutMillis0);
+		}
+		String result;
+		try {
+			result = request.get(timeoutMillis0, TimeUnit.MILLISECONDS);
+		} catch (java.util.concurrent.TimeoutException e) {
+			request.cancel(true);
+			Log.debug("Thread timeout from Giac");
+			throw new TimeoutException("Thread timeout from Giac");
+		} catch (ExecutionException e) {
+			Log.debug("problem from JNI Giac: " + e.getCause());
+			// force error in GeoGebra
+			result = FORCE_ERROR;
+		}
+		return processResult(result);
+	}
+
     protected abstract boolean useThread();
 
     protected abstract void stopThread(Thread thread);
@@ -0,0 +1,112 @@
+package org.geogebra.common.jre.cas.giac;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.cas.giac.binding.Context;
+
+/**
+ * Pool of worker threads for Giac evaluations, each worker owns an
+ * independent Giac context. Requests are queued and evaluated in parallel;
+ * queued requests can be cancelled, running requests are bounded by Giac's
+ * timeout and their result is discarded on cancellation.
+ */
+public class GiacEvaluationPool {
+
+	/** idle workers (and their contexts) are released after this time */
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	private final CASgiacJre cas;
+	private final ThreadPoolExecutor executor;
+	private final ThreadLocal<Context> contexts = new ThreadLocal<>();
+
+	/**
+	 * @param cas
+	 *            CAS
+	 * @param threads
+	 *            number of worker threads
+	 */
+	public GiacEvaluationPool(CASgiacJre cas, int threads) {
+		this.cas = cas;
+		executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "Giac evaluation");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * @param exp
+	 *            input in Giac syntax
+	 * @param timeoutMilliseconds
+	 *            timeout in milliseconds
+	 * @return future for the raw result from Giac
+	 */
+	public Future<String> submit(final String exp,
+			final long timeoutMilliseconds) {
+		Request request = new Request(new Callable<String>() {
+
+			@Override
+			public String call() {
+				return cas.evalRaw(exp, timeoutMilliseconds, getContext());
+			}
+		});
+		executor.execute(request);
+		return request;
+	}
+
+	/**
+	 * @return context of the current worker thread
+	 */
+	Context getContext() {
+		Context context = contexts.get();
+		if (context == null) {
+			context = cas.createBinding().createContext();
+			contexts.set(context);
+		}
+		return context;
+	}
+
+	/**
+	 * @return number of requests waiting for a worker
+	 */
+	public int getQueueLength() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * Cancels all waiting requests and stops the workers.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private class Request extends FutureTask<String> {
+
+		Request(Callable<String> callable) {
+			super(callable);
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			// Giac doesn't react to interrupts
+			boolean cancelled = super.cancel(false);
+			if (cancelled) {
+				executor.remove(this);
+			}
+			return cancelled;
+		}
+	}
+}
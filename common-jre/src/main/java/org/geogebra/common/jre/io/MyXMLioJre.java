@@ -19,7 +19,6 @@ the Free Software Foundation.
 package org.geogebra.common.jre.io;
 
 import java.io.BufferedOutputStream;
-import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -30,6 +29,7 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.TreeSet;
@@ -40,6 +40,7 @@ import java.util.zip.ZipOutputStream;
 import org.geogebra.common.io.MyXMLHandler;
 import org.geogebra.common.io.MyXMLio;
 import org.geogebra.common.io.QDParser;
+import org.geogebra.common.io.XMLOutput;
 import org.geogebra.common.io.file.ByteArrayZipFile;
 import org.geogebra.common.io.file.ZipFile;
 import org.geogebra.common.jre.gui.MyImageJre;
@@ -63,6 +64,12 @@ public abstract class MyXMLioJre extends MyXMLio {
 	// Use the default (non-validating) parser
 	// private static XMLReaderFactory factory;
 
+	/**
+	 * Larger XML buffers are tokenized in a separate thread, see
+	 * {@link PipelinedXMLParser}
+	 */
+	private static final int PIPELINE_MIN_BYTES = 1 << 16;
+
 	private QDParser xmlParser;
 
 	/**
@@ -144,7 +151,9 @@ public abstract class MyXMLioJre extends MyXMLio {
 			boolean isGGTOrDefaults) throws Exception {
 		// handle the data in the memory buffer
 		ByteArrayInputStream bs = new ByteArrayInputStream(buffer);
-		XMLStreamInputStream ir = new XMLStreamInputStream(bs);
+		XMLStreamInputStream ir = buffer.length < PIPELINE_MIN_BYTES
+				? new XMLStreamInputStream(bs)
+				: new XMLStreamPipelined(bs);
 
 		// process xml file
 		doParseXML(ir, clearConstruction, isGGTOrDefaults, true, true, true);
@@ -220,7 +229,7 @@ public abstract class MyXMLioJre extends MyXMLio {
 		try {
 			// zip stream
 			ZipOutputStream zip = new ZipOutputStream(os);
-			OutputStreamWriter osw = new OutputStreamWriter(zip,
+			final OutputStreamWriter osw = new OutputStreamWriter(zip,
 					Charsets.getUtf8());
 
 			// write construction images
@@ -273,7 +282,14 @@ public abstract class MyXMLioJre extends MyXMLio {
 
 			// write XML file for construction
 			zip.putNextEntry(new ZipEntry(XML_FILE));
-			osw.write(getFullXML());
+			// stream the XML without building the whole document
+			writeFullXML(new XMLOutput() {
+
+				@Override
+				public void write(StringBuilder chunk) throws IOException {
+					osw.append(chunk);
+				}
+			});
 			osw.flush();
 			zip.closeEntry();
 
@@ -555,10 +571,13 @@ public abstract class MyXMLioJre extends MyXMLio {
 			throws IOException {
 		ZipOutputStream z = new ZipOutputStream(os);
 		z.putNextEntry(new ZipEntry(XML_FILE));
-		BufferedWriter w = new BufferedWriter(
-				new OutputStreamWriter(z, Charsets.getUtf8()));
-		for (int i = 0; i < xmlString.length(); i++) {
-			w.write(xmlString.charAt(i));
+		Writer w = new OutputStreamWriter(z, Charsets.getUtf8());
+		// copy in chunks: no String copy of the whole builder
+		char[] buffer = new char[8192];
+		for (int i = 0; i < xmlString.length(); i += buffer.length) {
+			int end = Math.min(xmlString.length(), i + buffer.length);
+			xmlString.getChars(i, end, buffer, 0);
+			w.write(buffer, 0, end - i);
 		}
 		w.close();
 		z.close();
@@ -573,7 +592,11 @@ public abstract class MyXMLioJre extends MyXMLio {
 	final protected void parseXML(MyXMLHandler xmlHandler, XMLStream stream)
 			throws Exception {
 		XMLStreamJre streamJre = (XMLStreamJre) stream;
-		xmlParser.parse(xmlHandler, streamJre.getReader());
+		if (stream instanceof XMLStreamPipelined) {
+			new PipelinedXMLParser().parse(xmlHandler, streamJre.getReader());
+		} else {
+			xmlParser.parse(xmlHandler, streamJre.getReader());
+		}
 		streamJre.closeReader();
 
 	}
@@ -656,4 +679,18 @@ public abstract class MyXMLioJre extends MyXMLio {
 			reader.close();
 		}
 	}
+
+	/**
+	 * Input stream to be tokenized in a separate thread
+	 */
+	protected static class XMLStreamPipelined extends XMLStreamInputStream {
+
+		/**
+		 * @param is
+		 *            input stream
+		 */
+		public XMLStreamPipelined(InputStream is) {
+			super(is);
+		}
+	}
 }
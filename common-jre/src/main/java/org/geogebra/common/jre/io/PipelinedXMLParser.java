@@ -0,0 +1,176 @@
+package org.geogebra.common.jre.io;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.io.DocHandler;
+import org.geogebra.common.io.QDParser;
+
+/**
+ * Runs {@link QDParser} in a worker thread and passes its events to the
+ * handler on the calling thread, so that reading and tokenizing the XML
+ * overlaps with parsing expressions and building the construction. The
+ * handler receives the same events in the same order as with QDParser.
+ */
+public class PipelinedXMLParser {
+
+	private static final int BATCH_SIZE = 256;
+	private static final int QUEUE_LENGTH = 16;
+
+	private static final int START_DOCUMENT = 0;
+	private static final int START_ELEMENT = 1;
+	private static final int END_ELEMENT = 2;
+	private static final int TEXT = 3;
+	private static final int END_DOCUMENT = 4;
+	/** parser finished */
+	private static final int DONE = 5;
+	/** parser failed */
+	private static final int ERROR = 6;
+
+	/**
+	 * @param handler
+	 *            handler
+	 * @param reader
+	 *            source of XML data
+	 * @throws Exception
+	 *             if XML is not valid or handler fails
+	 */
+	public void parse(DocHandler handler, final Reader reader)
+			throws Exception {
+		final Tokenizer tokenizer = new Tokenizer();
+		Thread thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				tokenizer.run(reader);
+			}
+		}, "XML tokenizer");
+		thread.setDaemon(true);
+		thread.start();
+		try {
+			while (true) {
+				ArrayList<Event> batch = tokenizer.queue.take();
+				for (Event event : batch) {
+					switch (event.type) {
+					case START_DOCUMENT:
+						handler.startDocument();
+						break;
+					case START_ELEMENT:
+						handler.startElement(event.text, event.attrs);
+						break;
+					case END_ELEMENT:
+						handler.endElement(event.text);
+						break;
+					case TEXT:
+						handler.text(event.text);
+						break;
+					case END_DOCUMENT:
+						handler.endDocument();
+						break;
+					case ERROR:
+						if (event.error instanceof Error) {
+							throw (Error) event.error;
+						}
+						throw (Exception) event.error;
+					default:
+						return;
+					}
+				}
+			}
+		} finally {
+			tokenizer.cancelled = true;
+			tokenizer.queue.clear();
+		}
+	}
+
+	private static class Event {
+		final int type;
+		final String text;
+		final LinkedHashMap<String, String> attrs;
+		final Throwable error;
+
+		Event(int type, String text, LinkedHashMap<String, String> attrs,
+				Throwable error) {
+			this.type = type;
+			this.text = text;
+			this.attrs = attrs;
+			this.error = error;
+		}
+	}
+
+	/**
+	 * Collects parser events in batches.
+	 */
+	private static class Tokenizer implements DocHandler {
+
+		final BlockingQueue<ArrayList<Event>> queue = new ArrayBlockingQueue<>(
+				QUEUE_LENGTH);
+		volatile boolean cancelled;
+		private ArrayList<Event> batch = new ArrayList<>(BATCH_SIZE);
+
+		void run(Reader reader) {
+			try {
+				new QDParser().parse(this, reader);
+				add(new Event(DONE, null, null, null));
+			} catch (Throwable e) {
+				// also errors, otherwise the consumer would wait forever
+				if (!cancelled) {
+					try {
+						batch.add(new Event(ERROR, null, null, e));
+						flush();
+					} catch (InterruptedException e1) {
+						// consumer is gone
+					}
+				}
+			}
+		}
+
+		private void add(Event event) throws InterruptedException {
+			batch.add(event);
+			if (batch.size() >= BATCH_SIZE || event.type == DONE) {
+				flush();
+			}
+		}
+
+		private void flush() throws InterruptedException {
+			while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+				if (cancelled) {
+					throw new InterruptedException("parsing cancelled");
+				}
+			}
+			batch = new ArrayList<>(BATCH_SIZE);
+		}
+
+		@Override
+		public void startElement(String tag, LinkedHashMap<String, String> h)
+				throws InterruptedException {
+			// parser reuses the map
+			add(new Event(START_ELEMENT, tag,
+					new LinkedHashMap<String, String>(h), null));
+		}
+
+		@Override
+		public void endElement(String tag) throws InterruptedException {
+			add(new Event(END_ELEMENT, tag, null, null));
+		}
+
+		@Override
+		public void startDocument() throws InterruptedException {
+			add(new Event(START_DOCUMENT, null, null, null));
+		}
+
+		@Override
+		public void endDocument() throws InterruptedException {
+			add(new Event(END_DOCUMENT, null, null, null));
+		}
+
+		@Override
+		public void text(String str) throws InterruptedException {
+			add(new Event(TEXT, str, null, null));
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package org.geogebra.common.jre.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.geogebra.common.util.ParallelExecutor;
+
+/**
+ * Parallel executor backed by a shared fork-join pool.
+ */
+public class ParallelExecutorJre extends ParallelExecutor {
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates executor with one worker per available processor.
+	 */
+	public ParallelExecutorJre() {
+		pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+	}
+
+	@Override
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	@Override
+	protected void executeAll(int count, IndexTask task) {
+		RangeAction action = new RangeAction(task, 0, count,
+				Math.max(1, count / (4 * getParallelism())));
+		if (ForkJoinTask.inForkJoinPool()) {
+			// nested call from a worker: split within the current pool
+			action.invoke();
+		} else {
+			pool.invoke(action);
+		}
+	}
+
+	private static class RangeAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final IndexTask task;
+		private final int from;
+		private final int to;
+		private final int threshold;
+
+		RangeAction(IndexTask task, int from, int to, int threshold) {
+			this.task = task;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= threshold) {
+				for (int i = from; i < to; i++) {
+					task.run(i);
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new RangeAction(task, from, mid, threshold),
+					new RangeAction(task, mid, to, threshold));
+		}
+	}
+}
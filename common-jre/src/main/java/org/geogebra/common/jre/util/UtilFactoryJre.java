@@ -1,12 +1,23 @@
 package org.geogebra.common.jre.util;
 
 import org.geogebra.common.factories.UtilFactory;
+import org.geogebra.common.util.ParallelExecutor;
 import org.geogebra.common.util.Reflection;
 
 public abstract class UtilFactoryJre extends UtilFactory  {
 
+	private ParallelExecutor parallelExecutor;
+
 	@Override
 	public Reflection newReflection(Class clazz) {
 		return new ReflectionJre(clazz);
 	}
+
+	@Override
+	public synchronized ParallelExecutor getParallelExecutor() {
+		if (parallelExecutor == null) {
+			parallelExecutor = new ParallelExecutorJre();
+		}
+		return parallelExecutor;
+	}
 }
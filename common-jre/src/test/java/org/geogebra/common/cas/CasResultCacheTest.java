@@ -0,0 +1,91 @@
+package org.geogebra.common.cas;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+public class CasResultCacheTest {
+
+	@Test
+	public void leastRecentlyUsedShouldBeEvicted() {
+		CasResultCache cache = new CasResultCache(
+				3 * CasResultCache.getWeight("a", "1"));
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.put("c", "3");
+		assertEquals("1", cache.get("a"));
+		cache.put("d", "4");
+		assertTrue(cache.contains("a"));
+		assertFalse(cache.contains("b"));
+		assertTrue(cache.contains("c"));
+		assertTrue(cache.contains("d"));
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void evictionShouldDependOnWeight() {
+		CasResultCache cache = new CasResultCache(
+				CasResultCache.getWeight("a", "1")
+						+ CasResultCache.getWeight("b", "22"));
+		cache.put("a", "1");
+		cache.put("b", "22");
+		assertEquals(2, cache.size());
+		cache.put("a", "111");
+		assertEquals(1, cache.size());
+		assertEquals(CasResultCache.getWeight("a", "111"), cache.getWeight());
+		cache.put("c", longString(1000));
+		assertNull(cache.get("c"));
+		assertEquals("111", cache.get("a"));
+	}
+
+	@Test
+	public void shouldCountHitsAndMisses() {
+		CasResultCache cache = new CasResultCache(1000);
+		assertNull(cache.get("a"));
+		cache.recordEvaluation(5);
+		cache.put("a", "1");
+		cache.get("a");
+		cache.get("a");
+		assertEquals(2, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getEvaluationCount());
+		assertEquals(5, cache.getEvaluationTime());
+	}
+
+	@Test
+	public void storeShouldWarmCacheAndGetDefinedResults() {
+		final ArrayList<String> stored = new ArrayList<>();
+		CasResultStore store = new CasResultStore() {
+
+			@Override
+			public void load(CasResultCache cache) {
+				cache.put("a", "1");
+			}
+
+			@Override
+			public void store(String input, String result) {
+				stored.add(input + "=" + result);
+			}
+		};
+		CasResultCache cache = new CasResultCache(1000);
+		cache.setStore(store);
+		assertEquals("1", cache.get("a"));
+		cache.put("b", "2");
+		cache.put("c", "?");
+		cache.put("a", "1");
+		assertEquals("[b=2]", stored.toString());
+	}
+
+	private static String longString(int length) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			sb.append('x');
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,137 @@
+package org.geogebra.common.euclidian;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.awt.GPoint;
+import org.geogebra.common.euclidian.event.PointerEventType;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HitDetectorTest extends BaseUnitTest {
+
+	private EuclidianView view;
+
+	/**
+	 * Creates a point cloud large enough for the spatial index.
+	 */
+	@Before
+	public void setupView() {
+		view = getApp().getActiveEuclidianView();
+		view.setCoordSystem(400, 300, 50, 50);
+		for (int i = 0; i < 20; i++) {
+			for (int j = 0; j < 15; j++) {
+				add("P_{" + i + "," + j + "}=(" + (i * 0.7 - 7) + ","
+						+ (j * 0.7 - 5) + ")");
+			}
+		}
+		for (int i = 0; i < 10; i++) {
+			double x = i * 1.4 - 6.65;
+			add("s_{" + i + "}=Segment((" + x + ",-5.35),(" + (x + 0.5)
+					+ ",-4.95))");
+			add("c_{" + i + "}=Circle((" + x + ",4.45),0.2)");
+			add("Polygon((" + x + ",-2.2),(" + (x + 0.4) + ",-2.2),(" + x
+					+ ",-1.8))");
+		}
+		add("x=7.7");
+		add("f(x)=x^2");
+	}
+
+	@Test
+	public void candidatesShouldContainAllHits() {
+		int threshold = getApp().getCapturingThreshold(PointerEventType.MOUSE);
+		for (int x = -10; x < view.getWidth() + 10; x += 7) {
+			for (int y = -10; y < view.getHeight() + 10; y += 7) {
+				ArrayList<Drawable> candidates = new ArrayList<>();
+				GPoint p = new GPoint(x, y);
+				for (Drawable d : view.getHitDetector().getCandidates(p,
+						threshold)) {
+					candidates.add(d);
+				}
+				ArrayList<Drawable> hit = new ArrayList<>();
+				for (Drawable d : view.allDrawableList) {
+					if (d.hit(x, y, threshold) || d.hitLabel(x, y)) {
+						hit.add(d);
+					}
+				}
+				assertTrue(candidates.containsAll(hit));
+				assertOrdered(candidates);
+				if (x >= 0 && y >= 0 && x < view.getWidth()
+						&& y < view.getHeight()) {
+					assertTrue(candidates.size() < 20);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void movedPointShouldBeHit() {
+		GeoPoint point = (GeoPoint) lookup("P_{0,0}");
+		GPoint p = new GPoint(view.toScreenCoordX(7.5),
+				view.toScreenCoordY(5.5));
+		view.setHits(p, PointerEventType.MOUSE);
+		assertEquals(0, view.getHits().size());
+		point.setCoords(7.5, 5.5, 1);
+		point.updateRepaint();
+		view.setHits(p, PointerEventType.MOUSE);
+		assertEquals(1, view.getHits().size());
+		assertEquals(point, view.getHits().get(0));
+	}
+
+	@Test
+	public void indexShouldAvoidHitTests() {
+		int threshold = getApp().getCapturingThreshold(PointerEventType.MOUSE);
+		int queries = 0;
+		int hitTests = 0;
+		for (int x = 5; x < view.getWidth(); x += 10) {
+			for (int y = 5; y < view.getHeight(); y += 10) {
+				for (Drawable d : view.getHitDetector()
+						.getCandidates(new GPoint(x, y), threshold)) {
+					if (d.isEuclidianVisible()) {
+						hitTests++;
+					}
+				}
+				queries++;
+			}
+		}
+		int allHitTests = queries * view.allDrawableList.size();
+		// setHits calls hit() only for visible candidates
+		assertTrue(hitTests * 10 < allHitTests);
+	}
+
+	@Test
+	public void movedPointShouldNotRebuildIndex() {
+		GPoint p = new GPoint(view.toScreenCoordX(7.5),
+				view.toScreenCoordY(5.5));
+		view.setHits(p, PointerEventType.MOUSE);
+		HitDetector hitDetector = view.getHitDetector();
+		int builds = hitDetector.getIndexBuildCount();
+		for (int i = 0; i < 5; i++) {
+			GeoPoint point = (GeoPoint) lookup("P_{" + i + ",0}");
+			point.setCoords(7.5, 5.5, 1);
+			point.updateRepaint();
+			view.repaintView();
+		}
+		view.setHits(p, PointerEventType.MOUSE);
+		assertEquals(5, view.getHits().size());
+		assertEquals(builds, hitDetector.getIndexBuildCount());
+	}
+
+	private void assertOrdered(ArrayList<Drawable> candidates) {
+		int last = -1;
+		ArrayList<GeoElement> all = new ArrayList<>();
+		for (Drawable d : view.allDrawableList) {
+			all.add(d.getGeoElement());
+		}
+		for (Drawable d : candidates) {
+			int index = all.indexOf(d.getGeoElement());
+			assertTrue(index > last);
+			last = index;
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package org.geogebra.common.euclidian.plot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.euclidian.EuclidianView;
+import org.geogebra.common.euclidian.plot.CurvePlotter.Gap;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.SegmentType;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.matrix.CoordSys;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CurveSampleCacheTest extends BaseUnitTest {
+
+	private EuclidianView view;
+
+	private static class PointCollector implements PathPlotter {
+		private final ArrayList<MyPoint> points = new ArrayList<>();
+
+		@Override
+		public void drawTo(double[] pos, SegmentType lineTo) {
+			points.add(new MyPoint(pos[0], pos[1], lineTo));
+		}
+
+		@Override
+		public void lineTo(double[] pos) {
+			drawTo(pos, SegmentType.LINE_TO);
+		}
+
+		@Override
+		public void moveTo(double[] pos) {
+			drawTo(pos, SegmentType.MOVE_TO);
+		}
+
+		@Override
+		public void corner() {
+			// not needed
+		}
+
+		@Override
+		public void corner(double[] pos) {
+			// not needed
+		}
+
+		@Override
+		public void firstPoint(double[] pos, Gap moveToAllowed) {
+			moveTo(pos);
+		}
+
+		@Override
+		public double[] newDoubleArray() {
+			return new double[2];
+		}
+
+		@Override
+		public boolean copyCoords(MyPoint point, double[] ret,
+				CoordSys transformSys) {
+			return false;
+		}
+
+		@Override
+		public void endPlot() {
+			// not needed
+		}
+
+		@Override
+		public boolean supports(CoordSys transformSys) {
+			return false;
+		}
+	}
+
+	/**
+	 * Counts the points evaluated by the plotter.
+	 */
+	private static class CountingFunction extends GeoFunction {
+		private int evaluations;
+		private int batchEvaluations;
+
+		CountingFunction(GeoFunction f) {
+			super(f);
+		}
+
+		@Override
+		public void evaluateCurve(double t, double[] out) {
+			evaluations++;
+			super.evaluateCurve(t, out);
+		}
+
+		@Override
+		public void evaluateCurve(double[] ts, double[] out) {
+			evaluations += ts.length;
+			batchEvaluations += ts.length;
+			super.evaluateCurve(ts, out);
+		}
+	}
+
+	/**
+	 * Evaluates batches point by point.
+	 */
+	private static class SingleEvaluationFunction extends GeoFunction {
+
+		SingleEvaluationFunction(GeoFunction f) {
+			super(f);
+		}
+
+		@Override
+		public void evaluateCurve(double[] ts, double[] out) {
+			double[] point = newDoubleArray();
+			for (int i = 0; i < ts.length; i++) {
+				evaluateCurve(ts[i], point);
+				out[2 * i] = point[0];
+				out[2 * i + 1] = point[1];
+			}
+		}
+	}
+
+	@Before
+	public void setupView() {
+		view = getApp().getActiveEuclidianView();
+		view.setCoordSystem(400, 300, 50, 50);
+	}
+
+	@Test
+	public void panShouldGiveSameSamplesAsFreshPlot() {
+		GeoFunction f = add("f(x)=sin(3x) + ln(x)");
+		CurveSampleCache cache = new CurveSampleCache();
+		plot(cache, f);
+		view.setCoordSystem(250, 300, 50, 50);
+		ArrayList<MyPoint> panned = plot(cache, f);
+		ArrayList<MyPoint> fresh = plot(new CurveSampleCache(), f);
+		assertSamePoints(fresh, panned);
+		assertFalse(panned.isEmpty());
+	}
+
+	@Test
+	public void functionUpdateShouldInvalidateSamples() {
+		GeoNumeric a = add("a=1");
+		GeoFunction f = add("f(x)=a x^2");
+		CurveSampleCache cache = new CurveSampleCache();
+		ArrayList<MyPoint> before = plot(cache, f);
+		assertSamePoints(before, plot(cache, f));
+		a.setValue(2);
+		a.updateCascade();
+		ArrayList<MyPoint> after = plot(cache, f);
+		assertNotEquals(before.get(1).y, after.get(1).y, DELTA);
+		assertSamePoints(plot(new CurveSampleCache(), f), after);
+	}
+
+	@Test
+	public void repaintShouldReuseSamples() {
+		CountingFunction f = new CountingFunction(
+				(GeoFunction) add("f(x)=sin(3x) + ln(x)"));
+		CurveSampleCache cache = new CurveSampleCache();
+		ArrayList<MyPoint> first = plot(cache, f);
+		assertTrue(f.evaluations > 0);
+		f.evaluations = 0;
+		assertSamePoints(first, plot(cache, f));
+		assertEquals(0, f.evaluations);
+	}
+
+	@Test
+	public void functionChangeShouldEvaluateAgain() {
+		CountingFunction f = new CountingFunction(
+				(GeoFunction) add("f(x)=x^2"));
+		CurveSampleCache cache = new CurveSampleCache();
+		ArrayList<MyPoint> before = plot(cache, f);
+		f.set(add("g(x)=2x^2"));
+		f.update();
+		f.evaluations = 0;
+		ArrayList<MyPoint> after = plot(cache, f);
+		assertTrue(f.evaluations > 0);
+		assertNotEquals(before.get(1).y, after.get(1).y, DELTA);
+		assertSamePoints(plot(new CurveSampleCache(), f), after);
+	}
+
+	@Test
+	public void sampleGridShouldBeEvaluatedInBatch() {
+		GeoFunction g = add("g(x)=sin(3x) + ln(x)");
+		CountingFunction f = new CountingFunction(g);
+		ArrayList<MyPoint> batched = plot(new CurveSampleCache(), f);
+		assertTrue(f.batchEvaluations > 0);
+		assertSamePoints(plot(new CurveSampleCache(),
+				new SingleEvaluationFunction(g)), batched);
+	}
+
+	private ArrayList<MyPoint> plot(CurveSampleCache cache, GeoFunction f) {
+		PointCollector collector = new PointCollector();
+		cache.plot(f, view.getXmin(), view.getXmax(), view, collector, false);
+		return collector.points;
+	}
+
+	private static void assertSamePoints(ArrayList<MyPoint> expected,
+			ArrayList<MyPoint> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).x, actual.get(i).x, DELTA);
+			assertEquals(expected.get(i).y, actual.get(i).y, DELTA);
+			assertEquals(expected.get(i).getSegmentType(),
+					actual.get(i).getSegmentType());
+		}
+	}
+}
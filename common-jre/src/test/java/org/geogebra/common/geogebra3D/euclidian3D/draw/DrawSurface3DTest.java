@@ -0,0 +1,52 @@
+package org.geogebra.common.geogebra3D.euclidian3D.draw;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.common.kernel.matrix.Coords;
+import org.junit.Test;
+
+public class DrawSurface3DTest {
+
+	private static final Coords MIN = new Coords(-1, -1, 0);
+	private static final Coords MAX = new Coords(1, 1, 2);
+	private static final double[] SCALES = { 50, 50, 50 };
+	private static final double[] BOX = { -5, 5, -5, 5, -5, 5 };
+
+	private static boolean isMeshValid(double[] cullingBox, double[] scales) {
+		return DrawSurface3D.isMeshInCullingBox(false, MIN, MAX, cullingBox,
+				SCALES, scales);
+	}
+
+	@Test
+	public void meshShouldBeKeptOnTranslation() {
+		assertTrue(isMeshValid(new double[] { -3, 7, -6, 4, -4, 6 },
+				SCALES.clone()));
+	}
+
+	@Test
+	public void meshShouldBeRebuiltOnZoom() {
+		assertFalse(isMeshValid(BOX, new double[] { 100, 100, 100 }));
+		assertFalse(isMeshValid(BOX, new double[] { 50, 50, 25 }));
+	}
+
+	@Test
+	public void meshShouldBeKeptWhenClippingBoxContainsPoints() {
+		assertTrue(isMeshValid(new double[] { -2, 2, -2, 2, -1, 3 }, SCALES));
+		assertTrue(isMeshValid(new double[] { -9, 9, -9, 9, -9, 9 }, SCALES));
+	}
+
+	@Test
+	public void meshShouldBeRebuiltWhenPointsLeaveCullingBox() {
+		// translated
+		assertFalse(isMeshValid(new double[] { 0, 10, -5, 5, -5, 5 }, SCALES));
+		// clipping box reduced
+		assertFalse(isMeshValid(new double[] { -2, 2, -2, 2, -1, 1 }, SCALES));
+	}
+
+	@Test
+	public void culledMeshShouldBeRebuilt() {
+		assertFalse(DrawSurface3D.isMeshInCullingBox(true, MIN, MAX,
+				new double[] { -9, 9, -9, 9, -9, 9 }, SCALES, SCALES));
+	}
+}
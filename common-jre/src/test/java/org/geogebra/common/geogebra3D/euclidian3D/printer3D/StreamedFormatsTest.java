@@ -0,0 +1,169 @@
+package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.geogebra3D.euclidian3D.EuclidianView3D;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.discrete.PolygonTriangulation;
+import org.geogebra.common.kernel.geos.GeoPolygon;
+import org.geogebra.common.kernel.matrix.Coords;
+import org.geogebra.common.util.Charsets;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class StreamedFormatsTest extends BaseUnitTest {
+
+	/** 4 top and bottom triangles, 8 side triangles for the thickness */
+	private static final int TRIANGLES_PER_SQUARE = 12;
+
+	private static class CountingOutputStream extends OutputStream {
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+
+	@Override
+	public AppCommon createAppCommon() {
+		return AppCommonFactory.create3D();
+	}
+
+	/**
+	 * @param squares
+	 *            number of squares
+	 * @return exporter for a view showing a row of unit squares
+	 */
+	private ExportToPrinter3D exporter(final int squares) {
+		final GeoPolygon square = add("Polygon((0,0),(1,0),(1,1),(0,1))");
+		PolygonTriangulation pt = square.getPolygonTriangulation();
+		pt.clear();
+		pt.updatePoints();
+		EuclidianView3D view = mock(EuclidianView3D.class);
+		when(view.getXscale()).thenReturn(1.0);
+		when(view.getYscale()).thenReturn(1.0);
+		when(view.getZscale()).thenReturn(1.0);
+		when(view.getThicknessForSurface()).thenReturn(0.25f);
+		final ExportToPrinter3D exporter = new ExportToPrinter3D(view, null);
+		doAnswer(new Answer<Void>() {
+
+			@Override
+			public Void answer(InvocationOnMock invocation) {
+				for (int i = 0; i < squares; i++) {
+					Coords[] vertices = { new Coords(i, 0, 0),
+							new Coords(i + 1, 0, 0), new Coords(i + 1, 1, 0),
+							new Coords(i, 1, 0) };
+					exporter.export(square, vertices, null, 1);
+				}
+				return null;
+			}
+		}).when(view).exportToPrinter3D(exporter);
+		return exporter;
+	}
+
+	private static <T extends Format> T withScale(T format) {
+		format.setScale(1);
+		return format;
+	}
+
+	@Test
+	public void binarySTLShouldStartWithTriangleCount() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter(10).export(withScale(new FormatSTLBinary()), out);
+		byte[] bytes = out.toByteArray();
+		int triangles = 10 * TRIANGLES_PER_SQUARE;
+		assertEquals(84 + 50 * triangles, bytes.length);
+		assertEquals(triangles, (bytes[80] & 0xff) | (bytes[81] & 0xff) << 8
+				| (bytes[82] & 0xff) << 16 | (bytes[83] & 0xff) << 24);
+		assertFalse(new String(bytes, 0, 5, Charsets.getUtf8())
+				.startsWith("solid"));
+	}
+
+	@Test
+	public void objShouldWriteSharedVerticesOnce() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter(10).export(withScale(new FormatOBJ()), out);
+		int vertices = 0;
+		int faces = 0;
+		for (String line : new String(out.toByteArray(), Charsets.getUtf8())
+				.split("\n")) {
+			if (line.startsWith("v ")) {
+				vertices++;
+			} else if (line.startsWith("f ")) {
+				faces++;
+				for (String index : line.substring(2).split(" ")) {
+					int i = Integer.parseInt(index);
+					assertTrue(i >= 1 && i <= vertices);
+				}
+			}
+		}
+		// top and bottom of 11 x 2 grid points
+		assertEquals(2 * 11 * 2, vertices);
+		assertEquals(10 * TRIANGLES_PER_SQUARE, faces);
+	}
+
+	@Test
+	public void streamedTextShouldEqualStringExport() throws IOException {
+		Format[] formats = { new FormatOBJ(), new FormatSTL() };
+		for (Format format : formats) {
+			ExportToPrinter3D exporter = exporter(1000);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			exporter.export(withScale(format), out);
+			String streamed = new String(out.toByteArray(),
+					Charsets.getUtf8());
+			// several chunks were written
+			assertTrue(streamed.length() > 1 << 17);
+			assertEquals(exporter.export(format).toString(), streamed);
+		}
+	}
+
+	@Test
+	public void denseSurfaceShouldBeStreamed() throws IOException {
+		int squares = 50000;
+		long triangles = (long) squares * TRIANGLES_PER_SQUARE;
+		ExportToPrinter3D exporter = exporter(squares);
+		Stopwatch stopwatch = new Stopwatch();
+
+		CountingOutputStream binary = new CountingOutputStream();
+		stopwatch.start();
+		exporter.export(withScale(new FormatSTLBinary()), binary);
+		long binaryTime = stopwatch.stop();
+		assertEquals(84 + 50 * triangles, binary.count);
+
+		CountingOutputStream obj = new CountingOutputStream();
+		stopwatch.start();
+		exporter.export(withScale(new FormatOBJ()), obj);
+		long objTime = stopwatch.stop();
+
+		CountingOutputStream ascii = new CountingOutputStream();
+		stopwatch.start();
+		exporter.export(withScale(new FormatSTL()), ascii);
+		long asciiTime = stopwatch.stop();
+
+		Log.debug(triangles + " triangles: binary STL " + binary.count
+				+ " bytes in " + binaryTime + "ms, OBJ " + obj.count
+				+ " bytes in " + objTime + "ms, ASCII STL " + ascii.count
+				+ " bytes in " + asciiTime + "ms");
+		assertTrue(obj.count < ascii.count / 3);
+	}
+}
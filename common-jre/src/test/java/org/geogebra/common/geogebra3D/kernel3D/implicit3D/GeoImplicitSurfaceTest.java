@@ -0,0 +1,113 @@
+package org.geogebra.common.geogebra3D.kernel3D.implicit3D;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.geogebra3D.kernel3D.MyPoint3D;
+import org.geogebra.common.geogebra3D.kernel3D.geos.GeoTriangulatedSurface3D;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.arithmetic.Equation;
+import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.geos.GeoFunctionNVar;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.junit.Test;
+
+public class GeoImplicitSurfaceTest extends BaseUnitTest {
+
+	private static final double[] BOUNDS = new double[] { -3, 3, -3, 3, -3, 3,
+			200, 200, 200 };
+	private static final double[] MOVED_BOUNDS = new double[] { -2.5, 3.5, -3,
+			3, -3.25, 2.75, 200, 200, 200 };
+
+	@Override
+	public AppCommon createAppCommon() {
+		return AppCommonFactory.create3D();
+	}
+
+	private GeoImplicitSurface surface(String function) {
+		GeoFunctionNVar f = add(function);
+		Equation equation = new Equation(getKernel(),
+				f.getFunctionExpression(),
+				new ExpressionNode(getKernel(), 0.0));
+		return new GeoImplicitSurface(getConstruction(), equation);
+	}
+
+	@Test
+	public void verticesShouldBeOnSurface() {
+		GeoImplicitSurface sphere = surface("f(x,y,z)=x^2+y^2+z^2-4");
+		sphere.updateSurface(BOUNDS);
+		GeoTriangulatedSurface3D surf = sphere.getSurface3D();
+		assertTrue(surf.size() > 100);
+		MyPoint3D[] points = surf.getPoints();
+		for (int i = 0; i < surf.size(); i++) {
+			double r = Math.sqrt(points[i].x * points[i].x
+					+ points[i].y * points[i].y + points[i].z * points[i].z);
+			assertEquals(2, r, 0.1);
+		}
+	}
+
+	@Test
+	public void sameBoundsShouldNotTriangulateAgain() {
+		GeoImplicitSurface sphere = surface("f(x,y,z)=x^2+y^2+z^2-4");
+		sphere.updateSurface(BOUNDS);
+		sphere.getSurface3D().clear();
+		sphere.updateSurface(BOUNDS.clone());
+		assertEquals(0, sphere.getSurface3D().size());
+		sphere.updateSurface(MOVED_BOUNDS);
+		assertTrue(sphere.getSurface3D().size() > 100);
+	}
+
+	@Test
+	public void changedSliderShouldTriangulateAgain() {
+		GeoNumeric r = add("r=2");
+		GeoImplicitSurface surface = add("s:x^4+y^4+z^4=r^4");
+		surface.updateSurface(BOUNDS);
+		assertOnSurface(surface, 2);
+		r.setValue(1.5);
+		r.updateCascade();
+		surface.updateSurface(BOUNDS);
+		assertOnSurface(surface, 1.5);
+	}
+
+	private static void assertOnSurface(GeoImplicitSurface surface,
+			double r) {
+		GeoTriangulatedSurface3D surf = surface.getSurface3D();
+		assertTrue(surf.size() > 100);
+		MyPoint3D[] points = surf.getPoints();
+		for (int i = 0; i < surf.size(); i++) {
+			double norm = Math.pow(Math.pow(points[i].x, 4)
+					+ Math.pow(points[i].y, 4) + Math.pow(points[i].z, 4),
+					0.25);
+			assertEquals(r, norm, 0.1);
+		}
+	}
+
+	@Test
+	public void movedBoundsShouldGiveSameTriangles() {
+		String[] functions = { "f(x,y,z)=x^2+y^2+z^2-4",
+				"g(x,y,z)=sin(x)+sin(y)+sin(z)",
+				"h(x,y,z)=If(x>0,x^2,y)+z" };
+		for (String function : functions) {
+			GeoImplicitSurface moved = surface(function);
+			moved.updateSurface(BOUNDS);
+			moved.updateSurface(MOVED_BOUNDS);
+			GeoImplicitSurface fresh = (GeoImplicitSurface) moved.copy();
+			fresh.updateSurface(MOVED_BOUNDS);
+			assertSameTriangles(fresh.getSurface3D(), moved.getSurface3D());
+		}
+	}
+
+	private static void assertSameTriangles(GeoTriangulatedSurface3D expected,
+			GeoTriangulatedSurface3D actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			MyPoint3D p = expected.getPoints()[i];
+			MyPoint3D q = actual.getPoints()[i];
+			assertEquals(p.x, q.x, 0);
+			assertEquals(p.y, q.y, 0);
+			assertEquals(p.z, q.z, 0);
+		}
+	}
+}
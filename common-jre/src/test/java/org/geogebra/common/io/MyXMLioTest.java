@@ -1,5 +1,8 @@
 package org.geogebra.common.io;
 
+import java.io.IOException;
+import java.util.ArrayList;
+
 import org.geogebra.common.BaseUnitTest;
 import org.geogebra.common.main.settings.AppConfigGraphing;
 import org.junit.Assert;
@@ -10,12 +13,39 @@ public class MyXMLioTest extends BaseUnitTest {
 
 	@Test
 	public void testXmlContainsAppCode() {
-		MyXMLio myXMLio = Mockito.mock(MyXMLio.class, Mockito
-				.withSettings()
-				.defaultAnswer(Mockito.CALLS_REAL_METHODS)
-				.useConstructor(getKernel(), getConstruction()));
+		MyXMLio myXMLio = createXMLio();
 		getApp().setConfig(new AppConfigGraphing());
 		String fullXml = myXMLio.getFullXML();
 		Assert.assertTrue(fullXml.contains("app=\"graphing\""));
 	}
+
+	@Test
+	public void streamedXmlShouldMatchFullXml() throws IOException {
+		for (int i = 0; i < 300; i++) {
+			add("P_{" + i + "}=(" + i + ",1)");
+		}
+		final ArrayList<String> chunks = new ArrayList<>();
+		MyXMLio myXMLio = createXMLio();
+		myXMLio.writeFullXML(new XMLOutput() {
+
+			@Override
+			public void write(StringBuilder chunk) {
+				Assert.assertTrue(chunk.length() < 2 * XMLOutput.CHUNK_SIZE);
+				chunks.add(chunk.toString());
+			}
+		});
+		Assert.assertTrue(chunks.size() > 1);
+		StringBuilder streamed = new StringBuilder();
+		for (String chunk : chunks) {
+			streamed.append(chunk);
+		}
+		Assert.assertEquals(myXMLio.getFullXML(), streamed.toString());
+	}
+
+	private MyXMLio createXMLio() {
+		return Mockito.mock(MyXMLio.class, Mockito
+				.withSettings()
+				.defaultAnswer(Mockito.CALLS_REAL_METHODS)
+				.useConstructor(getKernel(), getConstruction()));
+	}
 }
@@ -0,0 +1,95 @@
+package org.geogebra.common.jre.cas;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.geogebra.common.cas.CasResultCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CasResultFileStoreTest {
+
+	private File file;
+
+	@Before
+	public void createFile() throws IOException {
+		file = File.createTempFile("cascache", ".bin");
+		file.delete();
+	}
+
+	@After
+	public void deleteFile() {
+		file.delete();
+	}
+
+	@Test
+	public void resultsShouldBeLoadedInNextSession() {
+		CasResultFileStore store = new CasResultFileStore(file);
+		CasResultCache cache = newCache(store);
+		cache.put("Solve(x^2=2)", "{x = -sqrt(2), x = sqrt(2)}");
+		cache.put("Factor(x^2-1)", "(x - 1) (x + 1)");
+		cache.put("Solve(x^2=2)", "{x = -√2, x = √2}");
+		store.close();
+
+		CasResultCache loaded = newCache(new CasResultFileStore(file));
+		assertEquals(2, loaded.size());
+		assertEquals("{x = -√2, x = √2}", loaded.get("Solve(x^2=2)"));
+		assertEquals("(x - 1) (x + 1)", loaded.get("Factor(x^2-1)"));
+	}
+
+	@Test
+	public void damagedRecordShouldBeDropped() throws IOException {
+		CasResultFileStore store = new CasResultFileStore(file);
+		newCache(store).put("a", "1");
+		store.close();
+		long length = file.length();
+		FileOutputStream out = new FileOutputStream(file, true);
+		out.write(new byte[] { 0, 0, 0, 5, 'b' });
+		out.close();
+
+		store = new CasResultFileStore(file);
+		CasResultCache loaded = newCache(store);
+		assertEquals("1", loaded.get("a"));
+		assertEquals(1, loaded.size());
+		assertEquals(length, file.length());
+		loaded.put("c", "3");
+		store.close();
+		assertEquals("3", newCache(new CasResultFileStore(file)).get("c"));
+	}
+
+	@Test
+	public void resultsShouldBeWrittenOnFlush() {
+		CasResultFileStore store = new CasResultFileStore(file);
+		CasResultCache cache = newCache(store);
+		long headerLength = file.length();
+		cache.put("a", "1");
+		cache.put("b", "2");
+		// written by timer, not while storing
+		assertEquals(headerLength, file.length());
+		store.flush();
+		// two length fields and one character for each string
+		assertEquals(headerLength + 2 * (8 + 2), file.length());
+		CasResultCache loaded = newCache(new CasResultFileStore(file));
+		assertEquals("2", loaded.get("b"));
+		store.close();
+	}
+
+	@Test
+	public void clearShouldRemoveResults() {
+		CasResultFileStore store = new CasResultFileStore(file);
+		newCache(store).put("a", "1");
+		store.clear();
+		assertNull(newCache(new CasResultFileStore(file)).get("a"));
+	}
+
+	private static CasResultCache newCache(CasResultFileStore store) {
+		CasResultCache cache = new CasResultCache(100000);
+		cache.setStore(store);
+		return cache;
+	}
+}
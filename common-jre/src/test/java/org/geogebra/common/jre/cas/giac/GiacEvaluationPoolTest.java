@@ -0,0 +1,129 @@
+package org.geogebra.common.jre.cas.giac;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.cas.giac.binding.CASGiacBinding;
+import org.geogebra.common.cas.giac.binding.Context;
+import org.geogebra.common.cas.giac.binding.Gen;
+import org.junit.After;
+import org.junit.Test;
+
+public class GiacEvaluationPoolTest {
+
+	private final HashSet<Context> usedContexts = new HashSet<>();
+	private final CountDownLatch started = new CountDownLatch(2);
+	private final CountDownLatch release = new CountDownLatch(1);
+	private GiacEvaluationPool pool;
+
+	@After
+	public void shutdown() {
+		release.countDown();
+		pool.shutdown();
+	}
+
+	@Test
+	public void requestsShouldRunInParallelContexts() throws Exception {
+		pool = new GiacEvaluationPool(new FakeCAS(), 2);
+		Future<String> first = pool.submit("wait(1)", 5000);
+		Future<String> second = pool.submit("wait(2)", 5000);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		release.countDown();
+		assertEquals("1", first.get());
+		assertEquals("2", second.get());
+		assertEquals(2, usedContexts.size());
+	}
+
+	@Test
+	public void queuedRequestShouldBeCancelled() throws Exception {
+		pool = new GiacEvaluationPool(new FakeCAS(), 1);
+		Future<String> first = pool.submit("wait(1)", 5000);
+		Future<String> second = pool.submit("wait(2)", 5000);
+		assertEquals(1, pool.getQueueLength());
+		assertTrue(second.cancel(true));
+		assertEquals(0, pool.getQueueLength());
+		release.countDown();
+		assertEquals("1", first.get());
+		assertTrue(second.isCancelled());
+		assertFalse(first.isCancelled());
+	}
+
+	private class FakeCAS extends CASgiacJre {
+
+		FakeCAS() {
+			super(null);
+		}
+
+		@Override
+		public CASGiacBinding createBinding() {
+			return new CASGiacBinding() {
+
+				@Override
+				public Context createContext() {
+					return new Context() {
+						// no state
+					};
+				}
+
+				@Override
+				public Gen createGen(String string, Context context) {
+					return new FakeGen(string);
+				}
+			};
+		}
+
+		@Override
+		protected void debug(String prefix, String giacString) {
+			// no logging
+		}
+
+		@Override
+		protected boolean useThread() {
+			return true;
+		}
+
+		@Override
+		protected void stopThread(Thread thread) {
+			// not needed
+		}
+	}
+
+	private class FakeGen implements Gen {
+
+		private final String string;
+
+		FakeGen(String string) {
+			this.string = string;
+		}
+
+		@Override
+		public Gen eval(int level, Context context) {
+			int start = string.indexOf("wait(");
+			if (start < 0) {
+				return this;
+			}
+			synchronized (usedContexts) {
+				usedContexts.add(context);
+			}
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return new FakeGen(string.substring(start + 5,
+					string.indexOf(')', start)));
+		}
+
+		@Override
+		public String print(Context context) {
+			return string;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package org.geogebra.common.jre.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import org.geogebra.common.io.DocHandler;
+import org.geogebra.common.io.QDParser;
+import org.junit.Test;
+
+public class PipelinedXMLParserTest {
+
+	@Test
+	public void eventsShouldMatchParser() throws Exception {
+		String xml = createXML(5000);
+		EventLog parsed = new EventLog();
+		new QDParser().parse(parsed, new StringReader(xml));
+		EventLog pipelined = new EventLog();
+		new PipelinedXMLParser().parse(pipelined, new StringReader(xml));
+		assertEquals(parsed.events, pipelined.events);
+	}
+
+	@Test
+	public void handlerErrorShouldStopParsing() throws Exception {
+		EventLog failing = new EventLog() {
+			@Override
+			public void startElement(String tag,
+					LinkedHashMap<String, String> h) throws Exception {
+				super.startElement(tag, h);
+				if (events.size() == 100) {
+					throw new IllegalStateException("handler failed");
+				}
+			}
+		};
+		try {
+			new PipelinedXMLParser().parse(failing,
+					new StringReader(createXML(50000)));
+			fail("exception expected");
+		} catch (IllegalStateException e) {
+			assertEquals(100, failing.events.size());
+		}
+	}
+
+	@Test
+	public void parseErrorShouldBeThrown() {
+		EventLog log = new EventLog();
+		try {
+			new PipelinedXMLParser().parse(log,
+					new StringReader("<geogebra><element></geogebra>"));
+			fail("exception expected");
+		} catch (Exception e) {
+			assertTrue(log.events.contains("start element {}"));
+		}
+	}
+
+	@Test
+	public void readerErrorShouldBeThrown() throws Exception {
+		Reader failing = new Reader() {
+			@Override
+			public int read(char[] cbuf, int off, int len) {
+				throw new OutOfMemoryError("reader failed");
+			}
+
+			@Override
+			public void close() {
+				// nothing to close
+			}
+		};
+		try {
+			new PipelinedXMLParser().parse(new EventLog(), failing);
+			fail("error expected");
+		} catch (OutOfMemoryError e) {
+			assertEquals("reader failed", e.getMessage());
+		}
+	}
+
+	private static String createXML(int elements) {
+		StringBuilder sb = new StringBuilder("<geogebra format=\"5.0\">\n");
+		for (int i = 0; i < elements; i++) {
+			sb.append("<element type=\"point\" label=\"A_{").append(i)
+					.append("}\"><coords x=\"").append(i)
+					.append("\" y=\"1\" z=\"1\"/>text &amp; more</element>\n");
+		}
+		sb.append("</geogebra>");
+		return sb.toString();
+	}
+
+	private static class EventLog implements DocHandler {
+
+		final ArrayList<String> events = new ArrayList<>();
+
+		@Override
+		public void startElement(String tag, LinkedHashMap<String, String> h)
+				throws Exception {
+			events.add("start " + tag + " " + h);
+		}
+
+		@Override
+		public void endElement(String tag) {
+			events.add("end " + tag);
+		}
+
+		@Override
+		public void startDocument() {
+			events.add("start document");
+		}
+
+		@Override
+		public void endDocument() {
+			events.add("end document");
+		}
+
+		@Override
+		public void text(String str) {
+			events.add("text " + str);
+		}
+	}
+}
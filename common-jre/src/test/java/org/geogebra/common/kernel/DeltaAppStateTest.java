@@ -0,0 +1,200 @@
+package org.geogebra.common.kernel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.test.UndoRedoTester;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeltaAppStateTest extends BaseUnitTest {
+
+	private UndoRedoTester undoRedo;
+
+	/**
+	 * Enable undo with delta storage
+	 */
+	@Before
+	public void setupUndo() {
+		undoRedo = new UndoRedoTester(getApp());
+		undoRedo.setupUndoRedo();
+		getConstruction().getUndoManager().setDeltaStorage(true);
+	}
+
+	@Test
+	public void deltaShouldReproduceXml() {
+		String xml1 = getXml();
+		DeltaAppState base = DeltaAppState.create(xml1, null);
+		add("A=(1,1)");
+		add("B=A+(1,0)");
+		String xml2 = getXml();
+		DeltaAppState delta = DeltaAppState.create(xml2, base);
+		assertFalse(delta.isBaseSnapshot());
+		assertEquals(xml1, base.getXml());
+		assertEquals(xml2, delta.getXml());
+	}
+
+	@Test
+	public void deltaShouldBeSmallerThanSnapshot() {
+		for (int i = 0; i < 50; i++) {
+			add("P_{" + i + "}=(" + i + ",1)");
+		}
+		DeltaAppState base = DeltaAppState.create(getXml(), null);
+		((GeoPoint) lookup("P_{1}")).setCoords(3, 3, 1);
+		DeltaAppState delta = DeltaAppState.create(getXml(), base);
+		assertTrue(delta.getStoredLength() * 10 < base.getStoredLength());
+		assertEquals(base.getLength(), base.getStoredLength());
+	}
+
+	@Test
+	public void undoShouldRestoreMovedPoint() {
+		add("A=(1,1)");
+		add("B=A+(1,0)");
+		getApp().storeUndoInfo();
+		GeoPoint pointA = (GeoPoint) lookup("A");
+		pointA.setCoords(2, 2, 1);
+		pointA.updateCascade();
+		getApp().storeUndoInfo();
+
+		GeoPoint pointB = undoRedo.getAfterUndo("B");
+		assertEquals(2, pointB.getInhomX(), DELTA);
+		assertEquals(1, pointB.getInhomY(), DELTA);
+
+		pointB = undoRedo.getAfterRedo("B");
+		assertEquals(3, pointB.getInhomX(), DELTA);
+		assertEquals(2, pointB.getInhomY(), DELTA);
+	}
+
+	@Test
+	public void changedElementsShouldBeComplete() {
+		add("A=(1,1)");
+		add("B=(5,5)");
+		add("s=Segment(A,B)");
+		DeltaAppState before = DeltaAppState.create(getXml(), null);
+		((GeoPoint) lookup("A")).setCoords(2, 2, 1);
+		((GeoPoint) lookup("B")).setCoords(6, 6, 1);
+		DeltaAppState after = DeltaAppState.create(getXml(), null);
+		List<String> changed = before.getChangedElements(after);
+		assertEquals(2, changed.size());
+		for (String element : changed) {
+			assertTrue(element.startsWith("<element "));
+			assertTrue(element.endsWith("</element>\n"));
+		}
+	}
+
+	@Test
+	public void undoShouldRestoreIndependentPoints() {
+		add("A=(1,1)");
+		add("B=(5,5)");
+		getApp().storeUndoInfo();
+		GeoPoint pointA = (GeoPoint) lookup("A");
+		GeoPoint pointB = (GeoPoint) lookup("B");
+		pointA.setCoords(2, 2, 1);
+		pointA.updateRepaint();
+		pointB.setCoords(6, 7, 1);
+		pointB.updateRepaint();
+		getApp().storeUndoInfo();
+
+		pointA = undoRedo.getAfterUndo("A");
+		pointB = (GeoPoint) lookup("B");
+		assertEquals(1, pointA.getInhomX(), DELTA);
+		assertEquals(1, pointA.getInhomY(), DELTA);
+		assertEquals(5, pointB.getInhomX(), DELTA);
+		assertEquals(5, pointB.getInhomY(), DELTA);
+
+		pointA = undoRedo.getAfterRedo("A");
+		pointB = (GeoPoint) lookup("B");
+		assertEquals(2, pointA.getInhomX(), DELTA);
+		assertEquals(6, pointB.getInhomX(), DELTA);
+		assertEquals(7, pointB.getInhomY(), DELTA);
+	}
+
+	@Test
+	public void undoShouldRemoveNewElements() {
+		add("A=(1,1)");
+		getApp().storeUndoInfo();
+		add("B=A+(1,0)");
+		getApp().storeUndoInfo();
+		undoRedo.getAfterUndo("A");
+		assertEquals(null, lookup("B"));
+	}
+
+	@Test
+	public void undoShouldReloadOnlyChangedElements() {
+		add("A=(1,1)");
+		add("B=(5,5)");
+		add("C=(0,3)");
+		add("M=Midpoint(A,B)");
+		getApp().storeUndoInfo();
+		GeoPoint pointA = move("A", 2, 2);
+		GeoPoint pointB = move("B", 6, 8);
+		GeoElement pointC = lookup("C");
+		GeoElement midpoint = lookup("M");
+		getApp().storeUndoInfo();
+
+		undoRedo.getAfterUndo("A");
+		assertSame(pointA, lookup("A"));
+		assertSame(pointB, lookup("B"));
+		assertSame(pointC, lookup("C"));
+		assertSame(midpoint, lookup("M"));
+		assertCoords(pointA, 1, 1);
+		assertCoords(pointB, 5, 5);
+		assertCoords((GeoPoint) midpoint, 3, 3);
+
+		undoRedo.getAfterRedo("A");
+		assertSame(pointA, lookup("A"));
+		assertSame(pointB, lookup("B"));
+		assertCoords(pointA, 2, 2);
+		assertCoords(pointB, 6, 8);
+		assertCoords((GeoPoint) midpoint, 4, 5);
+	}
+
+	@Test
+	public void restoreShouldUndoChangesNotStored() {
+		add("A=(1,1)");
+		add("B=(5,5)");
+		getApp().storeUndoInfo();
+		move("A", 2, 2);
+		getConstruction().getUndoManager().restoreCurrentUndoInfo();
+		assertCoords((GeoPoint) lookup("A"), 1, 1);
+		assertCoords((GeoPoint) lookup("B"), 5, 5);
+	}
+
+	@Test
+	public void undoShouldRecreateElementWithChangedType() {
+		add("a=3");
+		getApp().storeUndoInfo();
+		GeoElement number = lookup("a");
+		add("a=(1,2)");
+		getApp().storeUndoInfo();
+		GeoElement restored = undoRedo.getAfterUndo("a");
+		assertTrue(restored instanceof GeoNumeric);
+		assertNotSame(number, restored);
+		assertTrue(undoRedo.getAfterRedo("a") instanceof GeoPoint);
+	}
+
+	private GeoPoint move(String label, double x, double y) {
+		GeoPoint point = (GeoPoint) lookup(label);
+		point.setCoords(x, y, 1);
+		point.updateCascade();
+		return point;
+	}
+
+	private static void assertCoords(GeoPoint point, double x, double y) {
+		assertEquals(x, point.getInhomX(), DELTA);
+		assertEquals(y, point.getInhomY(), DELTA);
+	}
+
+	private String getXml() {
+		return getConstruction().getCurrentUndoXML(true).toString();
+	}
+}
@@ -0,0 +1,84 @@
+package org.geogebra.common.kernel;
+
+import static org.junit.Assert.assertEquals;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.junit.Before;
+import org.junit.Test;
+
+public class UpdateChangeDetectionTest extends BaseUnitTest {
+
+	private GeoNumeric a;
+
+	/**
+	 * Create construction with clamped value b
+	 */
+	@Before
+	public void setupConstruction() {
+		getKernel().setUpdateChangeDetection(true);
+		a = add("a=5");
+		add("b=Min(a, 2)");
+		add("c=b+1");
+		add("d=2c");
+		add("e=a+1");
+	}
+
+	@Test
+	public void unchangedOutputShouldStopCascade() {
+		setA(6);
+		assertEquals(2, getConstruction().getSkippedAlgos());
+		assertValue("c", 3);
+		assertValue("d", 6);
+		assertValue("e", 7);
+	}
+
+	@Test
+	public void changedOutputShouldUpdateCascade() {
+		setA(1);
+		assertEquals(0, getConstruction().getSkippedAlgos());
+		assertValue("c", 2);
+		assertValue("d", 4);
+		assertValue("e", 2);
+	}
+
+	@Test
+	public void noAlgosShouldBeSkippedWithoutChangeDetection() {
+		getKernel().setUpdateChangeDetection(false);
+		setA(6);
+		assertEquals(0, getConstruction().getSkippedAlgos());
+		assertValue("e", 7);
+	}
+
+	@Test
+	public void sequenceShouldUpdateLocalVariable() {
+		GeoNumeric n = add("n=5");
+		add("l=Sequence(k^2, k, 1, n)");
+		add("m=Sequence(k^2 + a, k, 1, 5)");
+		n.setValue(6);
+		n.updateCascade();
+		assertList("l", 1, 4, 9, 16, 25, 36);
+		setA(1);
+		assertList("m", 2, 5, 10, 17, 26);
+	}
+
+	private void assertList(String label, double... expected) {
+		GeoList list = (GeoList) lookup(label);
+		assertEquals(expected.length, list.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i],
+					((GeoNumeric) list.get(i)).getValue(), DELTA);
+		}
+	}
+
+	private void setA(double value) {
+		a.setValue(value);
+		a.updateCascade();
+	}
+
+	private void assertValue(String label, double expected) {
+		assertEquals(expected, ((GeoNumeric) lookup(label)).getValue(),
+				DELTA);
+	}
+}
@@ -0,0 +1,42 @@
+package org.geogebra.common.kernel.advanced;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.geos.GeoLocus;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.junit.Test;
+
+public class AlgoSlopeFieldTest extends BaseUnitTest {
+
+	@Test
+	public void viewUpdateShouldNotRecomputeSameGrid() {
+		GeoLocus field = add("SlopeField(x y, 10)");
+		assertTrue(field.getPointLength() >= 2 * 10 * 10);
+		MyPoint first = field.getPoints().get(0);
+		double x = first.x;
+		first.setLocation(x + 1, first.y);
+		field.getParentAlgorithm().euclidianViewUpdate();
+		assertEquals(x + 1, field.getPoints().get(0).x, DELTA);
+		field.getParentAlgorithm().update();
+		assertEquals(x, field.getPoints().get(0).x, DELTA);
+	}
+
+	@Test
+	public void sliderChangeShouldReusePoints() {
+		GeoNumeric a = add("a=1");
+		GeoLocus field = add("SlopeField(a x / (y + 0.5), 10)");
+		int length = field.getPointLength();
+		MyPoint first = field.getPoints().get(0);
+		double y = first.y;
+		a.setValue(2);
+		a.updateRepaint();
+		assertEquals(length, field.getPointLength());
+		assertSame(first, field.getPoints().get(0));
+		assertNotEquals(y, first.y, 1E-6);
+	}
+}
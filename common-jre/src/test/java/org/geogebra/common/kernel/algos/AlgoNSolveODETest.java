@@ -0,0 +1,60 @@
+package org.geogebra.common.kernel.algos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.geos.GeoLocus;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.junit.Test;
+
+public class AlgoNSolveODETest extends BaseUnitTest {
+
+	private static MyPoint last(GeoLocus locus) {
+		ArrayList<MyPoint> points = locus.getPoints();
+		return points.get(points.size() - 1);
+	}
+
+	private static void setValue(GeoNumeric num, double value) {
+		num.setValue(value);
+		num.updateRepaint();
+	}
+
+	@Test
+	public void movedEndShouldReuseSolution() {
+		GeoNumeric start = add("start = 1");
+		GeoNumeric end = add("end = 2");
+		add("y1'(t, y1) = y1");
+		GeoLocus solution = add("NSolveODE({y1'}, 0, {start}, end)");
+		MyPoint first = solution.getPoints().get(0);
+		assertEquals(2, last(solution).getX(), DELTA);
+		assertEquals(Math.exp(2), last(solution).getY(), 1E-3);
+
+		// continued
+		setValue(end, 3);
+		assertSame(first, solution.getPoints().get(0));
+		assertEquals(3, last(solution).getX(), DELTA);
+		assertEquals(Math.exp(3), last(solution).getY(), 1E-3);
+
+		// cut, end point from dense output
+		setValue(end, 0.5);
+		assertSame(first, solution.getPoints().get(0));
+		assertEquals(0.5, last(solution).getX(), DELTA);
+		assertEquals(Math.exp(0.5), last(solution).getY(), 1E-4);
+
+		// other direction needs new solution
+		setValue(end, -1);
+		assertNotSame(first, solution.getPoints().get(0));
+		assertEquals(Math.exp(-1), last(solution).getY(), 1E-4);
+
+		// new start value
+		first = solution.getPoints().get(0);
+		setValue(start, 2);
+		assertNotSame(first, solution.getPoints().get(0));
+		assertEquals(2 * Math.exp(-1), last(solution).getY(), 1E-4);
+	}
+}
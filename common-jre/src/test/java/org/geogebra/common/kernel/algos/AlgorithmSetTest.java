@@ -0,0 +1,208 @@
+package org.geogebra.common.kernel.algos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+
+public class AlgorithmSetTest extends BaseUnitTest {
+
+	/**
+	 * Linked list without link index, as AlgorithmSet was before: anchored
+	 * insertion and removal search the list from the head.
+	 */
+	private static class LinkedAlgorithmSet {
+		private final HashSet<AlgoElement> algos = new HashSet<>();
+		private Link head;
+		private Link tail;
+
+		private static class Link {
+			AlgoElement algo;
+			Link next;
+
+			Link(AlgoElement a, Link n) {
+				algo = a;
+				next = n;
+			}
+		}
+
+		boolean add(AlgoElement algo) {
+			if (!algos.add(algo)) {
+				return false;
+			}
+			if (head == null) {
+				head = new Link(algo, null);
+				tail = head;
+				return true;
+			}
+			AlgoElement parentAlgo = algo.getUpdateAfterAlgo();
+			if (parentAlgo == null || parentAlgo == tail.algo
+					|| !algos.contains(parentAlgo)) {
+				tail.next = new Link(algo, null);
+				tail = tail.next;
+			} else {
+				Link cur = head;
+				while (cur.algo != parentAlgo) {
+					cur = cur.next;
+				}
+				cur.next = new Link(algo, cur.next);
+			}
+			return true;
+		}
+
+		boolean remove(AlgoElement algo) {
+			if (!algos.remove(algo)) {
+				return false;
+			}
+			Link prev = null;
+			Link cur = head;
+			while (cur.algo != algo) {
+				prev = cur;
+				cur = cur.next;
+			}
+			if (prev == null) {
+				head = cur.next;
+				if (head == null) {
+					tail = null;
+				}
+			} else {
+				prev.next = cur.next;
+				if (prev.next == null) {
+					tail = prev;
+				}
+			}
+			return true;
+		}
+
+		ArrayList<AlgoElement> toList() {
+			ArrayList<AlgoElement> list = new ArrayList<>();
+			for (Link cur = head; cur != null; cur = cur.next) {
+				list.add(cur.algo);
+			}
+			return list;
+		}
+	}
+
+	private ArrayList<AlgoElement> createDependentAlgos(int count) {
+		add("a=1");
+		ArrayList<AlgoElement> algos = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			GeoElement geo = add("b_{" + i + "}=a+" + i);
+			algos.add(geo.getParentAlgorithm());
+		}
+		return algos;
+	}
+
+	@Test
+	public void updateSetShouldBeInConstructionOrder() {
+		ArrayList<AlgoElement> algos = createDependentAlgos(50);
+		AlgorithmSet updateSet = lookup("a").getAlgoUpdateSet();
+		assertEquals(50, updateSet.getSize());
+		Iterator<AlgoElement> it = updateSet.iterator();
+		for (AlgoElement algo : algos) {
+			assertSame(algo, it.next());
+		}
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void addShouldInsertAfterParentAlgo() {
+		ArrayList<AlgoElement> algos = createDependentAlgos(4);
+		AlgorithmSet set = new AlgorithmSet();
+		set.add(algos.get(0));
+		set.add(algos.get(1));
+		set.add(algos.get(2));
+		algos.get(3).setUpdateAfterAlgo(algos.get(0));
+		assertTrue(set.add(algos.get(3)));
+		assertFalse(set.add(algos.get(3)));
+		assertOrder(set, algos.get(0), algos.get(3), algos.get(1),
+				algos.get(2));
+	}
+
+	@Test
+	public void removeShouldKeepLinksConsistent() {
+		ArrayList<AlgoElement> algos = createDependentAlgos(4);
+		AlgorithmSet set = new AlgorithmSet();
+		for (AlgoElement algo : algos) {
+			set.add(algo);
+		}
+		assertTrue(set.remove(algos.get(3)));
+		assertTrue(set.remove(algos.get(0)));
+		assertFalse(set.remove(algos.get(0)));
+		assertOrder(set, algos.get(1), algos.get(2));
+		// new tail must be usable as anchor
+		set.add(algos.get(0));
+		algos.get(3).setUpdateAfterAlgo(algos.get(1));
+		set.add(algos.get(3));
+		assertOrder(set, algos.get(1), algos.get(3), algos.get(2),
+				algos.get(0));
+	}
+
+	@Test
+	public void addAllSortedShouldAppendNewerAlgos() {
+		ArrayList<AlgoElement> algos = createDependentAlgos(3);
+		AlgorithmSet first = new AlgorithmSet();
+		first.add(algos.get(0));
+		AlgorithmSet second = new AlgorithmSet();
+		second.add(algos.get(1));
+		second.add(algos.get(2));
+		first.addAllSorted(second);
+		assertOrder(first, algos.get(0), algos.get(1), algos.get(2));
+	}
+
+	/**
+	 * Compares building update sets where every algo is anchored to a parent
+	 * with the linked list without index.
+	 */
+	@Test
+	public void anchoredInsertionBenchmark() {
+		int count = 5000;
+		ArrayList<AlgoElement> algos = createDependentAlgos(count);
+		for (int i = 1; i < count; i++) {
+			algos.get(i).setUpdateAfterAlgo(algos.get(i / 2));
+		}
+		Stopwatch stopwatch = new Stopwatch();
+		stopwatch.start();
+		AlgorithmSet set = new AlgorithmSet();
+		for (int i = 0; i < count; i++) {
+			set.add(algos.get(i));
+		}
+		for (int i = 0; i < count; i += 2) {
+			set.remove(algos.get(i));
+		}
+		long setTime = stopwatch.stop();
+
+		stopwatch.start();
+		LinkedAlgorithmSet linkedSet = new LinkedAlgorithmSet();
+		for (int i = 0; i < count; i++) {
+			linkedSet.add(algos.get(i));
+		}
+		for (int i = 0; i < count; i += 2) {
+			linkedSet.remove(algos.get(i));
+		}
+		long linkedTime = stopwatch.stop();
+		Log.debug("AlgorithmSet: " + setTime + "ms, without index: "
+				+ linkedTime + "ms");
+		assertOrder(set, linkedSet.toList().toArray(new AlgoElement[0]));
+	}
+
+	private static void assertOrder(AlgorithmSet set,
+			AlgoElement... expected) {
+		assertEquals(expected.length, set.getSize());
+		Iterator<AlgoElement> it = set.iterator();
+		for (AlgoElement algo : expected) {
+			assertSame(algo, it.next());
+		}
+		assertFalse(it.hasNext());
+	}
+}
@@ -0,0 +1,123 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.geos.GeoFunctionNVar;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+
+public class CompiledExpressionTest extends BaseUnitTest {
+
+	private static final String[] FUNCTIONS = { "sin(x) / x",
+			"x^3 - 2x + 1", "exp(-x^2)", "tan(x) + cos(2x)", "abs(x) + ln(x)",
+			"x^(1/3)", "sqrt(x^2 + 1) / (x - 1)", "atan(x) + sinh(x / 3)",
+			"log(2, x) + log(10, x)", "sgn(x) cbrt(x) + erf(x)" };
+
+	@Test
+	public void compiledShouldMatchEvaluator() {
+		for (String definition : FUNCTIONS) {
+			Function fun = getFunction(definition);
+			CompiledExpression compiled = fun.compile();
+			assertNotNull(definition, compiled);
+			checkValues(definition, fun, compiled);
+		}
+	}
+
+	@Test
+	public void numbersShouldBeReadOnEvaluation() {
+		GeoNumeric a = add("a=2");
+		Function fun = getFunction("a x^2 + pi");
+		CompiledExpression compiled = fun.compile();
+		assertEquals(2 * 9 + Math.PI, compiled.evaluate(3), DELTA);
+		a.setValue(-1);
+		assertEquals(-9 + Math.PI, compiled.evaluate(3), DELTA);
+	}
+
+	@Test
+	public void unsupportedOperationsShouldFallBack() {
+		add("g(x)=x^2");
+		Function partial = getFunction("sqrt(x) + If(x > 0, g(x), -1)");
+		CompiledExpression compiled = partial.compile();
+		assertNotNull(compiled);
+		checkValues("partial", partial, compiled);
+		assertNull(getFunction("If(x > 0, x, -x)").compile());
+	}
+
+	@Test
+	public void multivariateShouldMatchEvaluator() {
+		add("f(x, y) = x^2 + sin(x y) - y / 2");
+		FunctionNVar fun = ((GeoFunctionNVar) lookup("f")).getFunction();
+		CompiledExpression compiled = fun.compile();
+		double[] vals = new double[2];
+		for (double x = -3; x <= 3; x += 0.25) {
+			for (double y = -3; y <= 3; y += 0.25) {
+				vals[0] = x;
+				vals[1] = y;
+				double expected = fun.evaluate(vals);
+				assertEquals(expected, compiled.evaluate(vals), DELTA);
+			}
+		}
+	}
+
+	@Test
+	public void sharedExpressionShouldUseScratchNumber() {
+		CompiledExpression compiled = getFunction("tan(exp(x)) + abs(x)")
+				.compile();
+		MyDouble scratch = new MyDouble(getKernel());
+		double[] vals = new double[1];
+		for (double x = -2; x <= 2; x += 0.125) {
+			vals[0] = x;
+			assertEquals(compiled.evaluate(vals),
+					compiled.evaluate(vals, scratch), 0);
+		}
+	}
+
+	/**
+	 * Compares evaluation of typical functions by compiled expressions and by
+	 * the expression tree.
+	 */
+	@Test
+	public void evaluationBenchmark() {
+		int samples = 200000;
+		Stopwatch stopwatch = new Stopwatch();
+		for (String definition : FUNCTIONS) {
+			Function fun = getFunction(definition);
+			CompiledExpression compiled = fun.compile();
+			double sum = 0;
+			stopwatch.start();
+			for (int i = 0; i < samples; i++) {
+				sum += fun.value(i * 1E-4);
+			}
+			long treeTime = stopwatch.stop();
+			double compiledSum = 0;
+			stopwatch.start();
+			for (int i = 0; i < samples; i++) {
+				compiledSum += compiled.evaluate(i * 1E-4);
+			}
+			long compiledTime = stopwatch.stop();
+			Log.debug(definition + ": tree " + treeTime + "ms, compiled "
+					+ compiledTime + "ms");
+			assertEquals(sum, compiledSum, Math.abs(sum) * 1E-12);
+		}
+	}
+
+	private Function getFunction(String definition) {
+		GeoFunction geo = add(definition);
+		return geo.getFunction();
+	}
+
+	private static void checkValues(String definition, Function fun,
+			CompiledExpression compiled) {
+		for (double x = -5; x <= 5; x += 0.125) {
+			double expected = fun.value(x);
+			assertEquals(definition + " at " + x, expected,
+					compiled.evaluate(x), DELTA);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package org.geogebra.common.kernel.discrete.delaunay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+
+public class IncrementalDelaunayTest {
+
+	private static PointDt[] randomPoints(Random random, int count) {
+		PointDt[] points = new PointDt[count];
+		for (int i = 0; i < count; i++) {
+			points[i] = new PointDt(random.nextDouble(), random.nextDouble());
+		}
+		return points;
+	}
+
+	@Test
+	public void movedInnerPointShouldBeUpdatedLocally() {
+		Random random = new Random(42);
+		PointDt[] points = randomPoints(random, 200);
+		IncrementalDelaunay incremental = new IncrementalDelaunay();
+		DelaunayTriangulation first = incremental.update(points);
+		assertTrue(first.isValid());
+		for (int i = 0; i < 20; i++) {
+			int index = random.nextInt(points.length);
+			PointDt old = points[index];
+			points[index] = new PointDt(
+					old.x() + 0.02 * (random.nextDouble() - 0.5),
+					old.y() + 0.02 * (random.nextDouble() - 0.5));
+			DelaunayTriangulation dt = incremental.update(points);
+			assertTrue(dt.isValid());
+			DelaunayTriangulation rebuilt = new DelaunayTriangulation(points);
+			assertEquals(rebuilt.size(), dt.size());
+			assertEquals(rebuilt.trianglesSize(), dt.trianglesSize());
+		}
+		// the point at this index is inside the hull
+		points[0] = new PointDt(0.5, 0.5);
+		DelaunayTriangulation dt = incremental.update(points);
+		points[0] = new PointDt(0.51, 0.49);
+		assertSame(dt, incremental.update(points));
+	}
+
+	@Test
+	public void movedHullPointShouldTriggerRebuild() {
+		PointDt[] points = randomPoints(new Random(1), 100);
+		IncrementalDelaunay incremental = new IncrementalDelaunay();
+		points[0] = new PointDt(2, 2);
+		DelaunayTriangulation dt = incremental.update(points);
+		points[0] = new PointDt(3, 2);
+		DelaunayTriangulation moved = incremental.update(points);
+		assertNotSame(dt, moved);
+		assertTrue(moved.isValid());
+	}
+
+	@Test
+	public void pointsAfterNullShouldBeIgnored() {
+		PointDt[] points = randomPoints(new Random(2), 10);
+		points[5] = null;
+		assertEquals(5, new IncrementalDelaunay().update(points).size());
+	}
+
+	@Test
+	public void largeTriangulationShouldBeFast() {
+		for (int count : new int[] { 10000, 100000 }) {
+			Random random = new Random(count);
+			PointDt[] points = randomPoints(random, count);
+			IncrementalDelaunay incremental = new IncrementalDelaunay();
+			Stopwatch stopwatch = new Stopwatch();
+			stopwatch.start();
+			DelaunayTriangulation dt = incremental.update(points);
+			long buildTime = stopwatch.stop();
+			assertEquals(count, dt.size());
+
+			stopwatch.start();
+			for (int i = 0; i < 10; i++) {
+				points[i] = new PointDt(0.25 + 0.5 * random.nextDouble(),
+						0.25 + 0.5 * random.nextDouble());
+				assertSame(dt, incremental.update(points));
+			}
+			long moveTime = stopwatch.stop();
+			Log.debug(count + " points: build " + buildTime + "ms, 10 moves "
+					+ moveTime + "ms");
+			assertTrue(dt.isValid());
+		}
+	}
+}
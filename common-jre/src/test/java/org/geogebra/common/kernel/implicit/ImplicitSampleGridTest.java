@@ -0,0 +1,76 @@
+package org.geogebra.common.kernel.implicit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ImplicitSampleGridTest {
+
+	private static final double[][] COEFFS = { { -1, 0, 1 }, { 0 }, { 1 } };
+
+	/** the grid may be sampled by several threads */
+	private final AtomicInteger evaluations = new AtomicInteger();
+
+	private ImplicitSampleGrid.Evaluator evaluator =
+			new ImplicitSampleGrid.Evaluator() {
+
+		@Override
+		public double evaluate(double x, double y) {
+			evaluations.incrementAndGet();
+			return GeoImplicitCurve.evalPolyCoeffAt(x, y, COEFFS);
+		}
+	};
+
+	@Test
+	public void stepShouldBeRoundedUp() {
+		assertEquals(1, ImplicitSampleGrid.roundStep(1), 1E-12);
+		assertEquals(Math.pow(2, 0.25), ImplicitSampleGrid.roundStep(1.1),
+				1E-12);
+		assertEquals(ImplicitSampleGrid.roundStep(0.3),
+				ImplicitSampleGrid.roundStep(0.31), 1E-12);
+	}
+
+	@Test
+	public void panShouldReuseSamples() {
+		ImplicitSampleGrid grid = new ImplicitSampleGrid();
+		double step = ImplicitSampleGrid.roundStep(0.5);
+		grid.update(step, step, -10, -10, 21, 21, COEFFS, evaluator);
+		assertEquals(21 * 21, evaluations.get());
+		evaluations.set(0);
+		double[][] values = grid.update(step, step, -7, -9, 21, 21, COEFFS,
+				evaluator);
+		assertEquals(21 * 21 - 18 * 20, evaluations.get());
+		checkValues(values, step, -7, -9);
+	}
+
+	@Test
+	public void coefficientChangeShouldInvalidateSamples() {
+		ImplicitSampleGrid grid = new ImplicitSampleGrid();
+		grid.update(1, 1, 0, 0, 5, 5, new double[][] { { 1 } }, evaluator);
+		evaluations.set(0);
+		double[][] values = grid.update(1, 1, 0, 0, 5, 5, COEFFS, evaluator);
+		assertEquals(25, evaluations.get());
+		checkValues(values, 1, 0, 0);
+	}
+
+	@Test
+	public void nonPolynomialShouldNotReuseSamples() {
+		ImplicitSampleGrid grid = new ImplicitSampleGrid();
+		grid.update(1, 1, 0, 0, 5, 5, null, evaluator);
+		evaluations.set(0);
+		grid.update(1, 1, 0, 0, 5, 5, null, evaluator);
+		assertEquals(25, evaluations.get());
+	}
+
+	private static void checkValues(double[][] values, double step, long col0,
+			long row0) {
+		for (int i = 0; i < values.length; i++) {
+			for (int j = 0; j < values[i].length; j++) {
+				assertEquals(GeoImplicitCurve.evalPolyCoeffAt((col0 + j) * step,
+						(row0 + i) * step, COEFFS), values[i][j], 1E-12);
+			}
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package org.geogebra.common.kernel.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.math3.analysis.UnivariateFunction;
+import org.apache.commons.math3.analysis.integration.LegendreGaussIntegrator;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.integration.AdaptiveGaussQuadrature.BatchFunction;
+import org.geogebra.common.util.DoubleUtil;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+
+public class AdaptiveGaussQuadratureTest {
+
+	private static final UnivariateFunction[] INTEGRANDS = {
+			new UnivariateFunction() {
+
+				@Override
+				public double value(double x) {
+					return Math.sin(x);
+				}
+			}, new UnivariateFunction() {
+
+				@Override
+				public double value(double x) {
+					return Math.sin(20 * x) * Math.exp(-x / 5);
+				}
+			}, new UnivariateFunction() {
+
+				@Override
+				public double value(double x) {
+					return Math.exp(-x * x);
+				}
+			}, new UnivariateFunction() {
+
+				@Override
+				public double value(double x) {
+					return 1 / (1 + 25 * x * x);
+				}
+			}, new UnivariateFunction() {
+
+				@Override
+				public double value(double x) {
+					return Math.sqrt(Math.abs(x));
+				}
+			} };
+
+	private static final BatchFunction SIN = AdaptiveGaussQuadrature
+			.batch(INTEGRANDS[0]);
+
+	private static final BatchFunction OSCILLATING = AdaptiveGaussQuadrature
+			.batch(INTEGRANDS[1]);
+
+	/**
+	 * Adaptive quadrature as done by AlgoIntegralDefinite with commons-math
+	 * integrators before AdaptiveGaussQuadrature.
+	 */
+	private static class LegendreGaussReference {
+		private final LegendreGaussIntegrator firstGauss = new LegendreGaussIntegrator(
+				3, 1, 5);
+		private final LegendreGaussIntegrator secondGauss = new LegendreGaussIntegrator(
+				5, 1, 5);
+		private int calls;
+
+		double integrate(UnivariateFunction fun, double a, double b) {
+			calls = 0;
+			if (a > b) {
+				return -adaptive(fun, b, a);
+			}
+			return adaptive(fun, a, b);
+		}
+
+		private double adaptive(UnivariateFunction fun, double a, double b) {
+			if (++calls > AdaptiveGaussQuadrature.MAX_GAUSS_QUAD_CALLS) {
+				return Double.NaN;
+			}
+			double firstSum = 0;
+			double secondSum = 0;
+			boolean error = false;
+			try {
+				firstSum = firstGauss.integrate(500, fun, a, b);
+				if (Double.isNaN(firstSum)) {
+					return Double.NaN;
+				}
+				secondSum = secondGauss.integrate(500, fun, a, b);
+				if (Double.isNaN(secondSum)) {
+					return Double.NaN;
+				}
+			} catch (IllegalArgumentException e) {
+				return Double.NaN;
+			} catch (RuntimeException e) {
+				// too many evaluations: split
+				error = true;
+			}
+			if (!error && DoubleUtil.isEqual(firstSum, secondSum,
+					Kernel.STANDARD_PRECISION)) {
+				return secondSum;
+			}
+			double mid = (a + b) / 2;
+			double left = adaptive(fun, a, mid);
+			if (Double.isNaN(left)) {
+				return Double.NaN;
+			}
+			return left + adaptive(fun, mid, b);
+		}
+	}
+
+	private static double integrateFresh(BatchFunction fun, double a,
+			double b) {
+		return new AdaptiveGaussQuadrature().integrate(fun, a, b, 1);
+	}
+
+	@Test
+	public void shouldMatchLegendreGaussIntegrator() {
+		LegendreGaussReference reference = new LegendreGaussReference();
+		double[][] limits = { { 0, 1 }, { -2, 3 }, { 10, 0.5 }, { 0, 20 } };
+		for (UnivariateFunction fun : INTEGRANDS) {
+			for (double[] ab : limits) {
+				double expected = reference.integrate(fun, ab[0], ab[1]);
+				assertEquals(expected, integrateFresh(
+						AdaptiveGaussQuadrature.batch(fun), ab[0], ab[1]),
+						1E-10);
+			}
+		}
+	}
+
+	@Test
+	public void shouldIntegrateInBothDirections() {
+		assertEquals(2, integrateFresh(SIN, 0, Math.PI), 1E-8);
+		assertEquals(-2, integrateFresh(SIN, Math.PI, 0), 1E-8);
+		assertEquals(0, integrateFresh(SIN, 1, 1), 0);
+	}
+
+	@Test
+	public void memoizedResultShouldNotEvaluate() {
+		AdaptiveGaussQuadrature quadrature = new AdaptiveGaussQuadrature();
+		double value = quadrature.integrate(OSCILLATING, 0, 0, 10, 1);
+		long evaluations = quadrature.getEvaluationCount();
+		assertEquals(value, quadrature.integrate(OSCILLATING, 0, 0, 10, 1), 0);
+		assertEquals(-value, quadrature.integrate(OSCILLATING, 0, 10, 0, 1),
+				0);
+		assertEquals(evaluations, quadrature.getEvaluationCount());
+		quadrature.integrate(OSCILLATING, 1, 0, 10, 1);
+		assertTrue(quadrature.getEvaluationCount() > evaluations);
+	}
+
+	@Test
+	public void movedLimitShouldReuseSubintervals() {
+		AdaptiveGaussQuadrature quadrature = new AdaptiveGaussQuadrature();
+		quadrature.integrate(OSCILLATING, 0, 0, 10, 1);
+		assertTrue(quadrature.getSubintervalCount() > 1);
+		double[] limits = { 10.5, 9.3, 12, 0.7, 15 };
+		for (double b : limits) {
+			long before = quadrature.getEvaluationCount();
+			double value = quadrature.integrate(OSCILLATING, 0, 0, b, 1);
+			long reusedEvaluations = quadrature.getEvaluationCount() - before;
+			AdaptiveGaussQuadrature fresh = new AdaptiveGaussQuadrature();
+			assertEquals(fresh.integrate(OSCILLATING, 0, b, 1), value, 1E-8);
+			assertTrue(reusedEvaluations <= fresh.getEvaluationCount());
+		}
+		// moving the lower limit
+		double value = quadrature.integrate(OSCILLATING, 0, 2.5, 15, 1);
+		assertEquals(integrateFresh(OSCILLATING, 2.5, 15), value, 1E-8);
+	}
+
+	@Test
+	public void benchmarkDraggedLimit() {
+		int steps = 200;
+		Stopwatch stopwatch = new Stopwatch();
+		AdaptiveGaussQuadrature quadrature = new AdaptiveGaussQuadrature();
+		AdaptiveGaussQuadrature fresh = new AdaptiveGaussQuadrature();
+		double[] memoValues = new double[steps + 1];
+		double[] freshValues = new double[steps + 1];
+		stopwatch.start();
+		for (int i = 1; i <= steps; i++) {
+			memoValues[i] = quadrature.integrate(OSCILLATING, 0, 0, i * 0.1,
+					1);
+		}
+		long memoTime = stopwatch.stop();
+		stopwatch.start();
+		for (int i = 1; i <= steps; i++) {
+			freshValues[i] = fresh.integrate(OSCILLATING, 0, i * 0.1, 1);
+		}
+		long freshTime = stopwatch.stop();
+		double maxError = 0;
+		for (int i = 1; i <= steps; i++) {
+			maxError = Math.max(maxError,
+					Math.abs(memoValues[i] - freshValues[i]));
+		}
+		Log.debug(steps + " limits: memoized " + memoTime + "ms, "
+				+ quadrature.getEvaluationCount() + " evaluations; fresh "
+				+ freshTime + "ms, " + fresh.getEvaluationCount()
+				+ " evaluations; max difference " + maxError);
+		assertTrue(quadrature.getEvaluationCount() < fresh
+				.getEvaluationCount());
+		assertEquals(0, maxError, 1E-10);
+	}
+}
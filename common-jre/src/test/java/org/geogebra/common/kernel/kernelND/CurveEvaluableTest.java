@@ -0,0 +1,60 @@
+package org.geogebra.common.kernel.kernelND;
+
+import static org.junit.Assert.assertEquals;
+
+import org.geogebra.common.AppCommonFactory;
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.jre.headless.AppCommon;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.junit.Test;
+
+public class CurveEvaluableTest extends BaseUnitTest {
+
+	@Override
+	public AppCommon createAppCommon() {
+		return AppCommonFactory.create3D();
+	}
+
+	@Test
+	public void batchEvaluationShouldMatchFunction() {
+		GeoFunction f = add("f(x)=sin(x) / x + If(x > 1, x, 0)");
+		checkBatchEvaluation(f);
+		f.swapEval();
+		checkBatchEvaluation(f);
+	}
+
+	@Test
+	public void batchEvaluationShouldMatchCurve() {
+		checkBatchEvaluation(
+				(CurveEvaluable) add("a=Curve(cos(t), t^2 sin(t), t, 0, 5)"));
+		checkBatchEvaluation((CurveEvaluable) add(
+				"b=Curve(cos(t), sin(t), sqrt(t), t, 0, 5)"));
+	}
+
+	@Test
+	public void batchEvaluationOfUndefinedFunctionShouldGiveNaN() {
+		GeoFunction f = add("f(x)=x^2");
+		f.setUndefined();
+		double[] out = new double[4];
+		f.evaluateCurve(new double[] { 1, 2 }, out);
+		assertEquals(2, out[2], DELTA);
+		assertEquals(Double.NaN, out[3], DELTA);
+	}
+
+	private static void checkBatchEvaluation(CurveEvaluable curve) {
+		double[] ts = new double[41];
+		for (int i = 0; i < ts.length; i++) {
+			ts[i] = -5 + i * 0.25;
+		}
+		double[] point = curve.newDoubleArray();
+		int dim = point.length;
+		double[] out = new double[ts.length * dim];
+		curve.evaluateCurve(ts, out);
+		for (int i = 0; i < ts.length; i++) {
+			curve.evaluateCurve(ts[i], point);
+			for (int k = 0; k < dim; k++) {
+				assertEquals(point[k], out[i * dim + k], DELTA);
+			}
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package org.geogebra.common.kernel.statistics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.geos.GeoLine;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.junit.Test;
+
+public class NumericColumnTest extends BaseUnitTest {
+
+	@Test
+	public void sortedViewShouldFollowChanges() {
+		add("a=5");
+		add("b=-2");
+		GeoList list = add("l={a,3,b,8,1,a,7}");
+		NumericColumn column = list.getNumericColumn();
+		assertTrue(column.updateNumbers(list));
+		assertArrayEquals(new double[] { -2, 1, 3, 5, 5, 7, 8 },
+				column.getSorted(), 0);
+
+		setValue("a", 0);
+		setValue("b", 10);
+		assertTrue(column.updateNumbers(list));
+		assertArrayEquals(new double[] { 0, 0, 1, 3, 7, 8, 10 },
+				column.getSorted(), 0);
+		assertEquals(29, column.getSumX(), DELTA);
+		assertEquals(223, column.getSumXX(), DELTA);
+	}
+
+	@Test
+	public void statisticsShouldUpdateWithElements() {
+		add("a=5");
+		add("l={a,3,-2,8,1,9,7}");
+		GeoNumeric median = add("Median(l)");
+		GeoNumeric q1 = add("Q1(l)");
+		GeoNumeric q3 = add("Q3(l)");
+		GeoNumeric mean = add("Mean(l)");
+		assertEquals(5, median.getValue(), DELTA);
+		assertEquals(1, q1.getValue(), DELTA);
+		assertEquals(8, q3.getValue(), DELTA);
+
+		setValue("a", 20);
+		assertEquals(7, median.getValue(), DELTA);
+		assertEquals(1, q1.getValue(), DELTA);
+		assertEquals(9, q3.getValue(), DELTA);
+		assertEquals(46 / 7.0, mean.getValue(), DELTA);
+	}
+
+	@Test
+	public void pointStatisticsShouldUpdateWithElements() {
+		add("A=(1,1)");
+		add("l={A,(2,3),(3,5)}");
+		GeoNumeric sxy = add("SXY(l)");
+		assertEquals(4, sxy.getValue(), DELTA);
+		GeoLine fit = add("FitLineY(l)");
+		assertEquals(0, fit.x * 4 + fit.y * 7 + fit.z, 1E-12);
+
+		GeoPoint point = (GeoPoint) lookup("A");
+		point.setCoords(1, 2, 1);
+		point.updateCascade();
+		assertEquals(3, sxy.getValue(), DELTA);
+		assertEquals(0, fit.x * 4 + fit.y * (19 / 3.0) + fit.z, 1E-12);
+	}
+
+	@Test
+	public void statisticsShouldFollowQueuedElements() {
+		GeoList list = add("l={1,2,3,4}");
+		GeoNumeric sd = add("SD(l)");
+		GeoNumeric sum = add("Sum(l)");
+		for (int i = 5; i < 100; i++) {
+			list.addQueue(new GeoNumeric(getConstruction(), i * i));
+			list.updateCascade();
+		}
+		// last values: 96^2, 97^2, 98^2, 99^2
+		double mean = (9216 + 9409 + 9604 + 9801) / 4.0;
+		double sxx = sq(9216 - mean) + sq(9409 - mean) + sq(9604 - mean)
+				+ sq(9801 - mean);
+		assertEquals(4 * mean, sum.getValue(), DELTA);
+		assertEquals(Math.sqrt(sxx / 4), sd.getValue(), 1E-9);
+		assertEquals(4, list.getNumericColumn().size());
+	}
+
+	private static double sq(double x) {
+		return x * x;
+	}
+
+	@Test
+	public void mixedListsShouldBeRejected() {
+		GeoList list = add("l={1,(1,2)}");
+		NumericColumn column = list.getNumericColumn();
+		assertFalse(column.updateNumbers(list));
+		assertFalse(column.updatePoints(list));
+		assertFalse(add("Median(l)").isDefined());
+	}
+
+	private void setValue(String label, double value) {
+		GeoNumeric number = (GeoNumeric) lookup(label);
+		number.setValue(value);
+		number.updateCascade();
+	}
+}
@@ -1,10 +1,12 @@
 package org.geogebra.common.main;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.times;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -249,6 +251,80 @@ public class GgbApiTest {
 		assertEquals(1, dragEndEvents);
 	}
 
+	@Test
+	public void batchShouldUpdateDependentObjects() {
+		api.evalCommand("a=1");
+		api.evalCommand("b=2");
+		api.evalCommand("c=a+b");
+		api.evalCommand("A=(1,1)");
+		api.evalCommand("B=(2,2)");
+		api.evalCommand("d=Distance(A,B)");
+		api.setValues(new String[] { "a", "b", "c" }, new double[] { 3, 4, 0 });
+		api.setCoords(new String[] { "A", "B" }, new double[] { 0, 3 },
+				new double[] { 0, 4 });
+		double[] values = api
+				.getValues(new String[] { "a", "c", "d", "2a", "missing" });
+		assertEquals(3, values[0], 0);
+		assertEquals(7, values[1], 0);
+		assertEquals(5, values[2], 1E-10);
+		assertEquals(6, values[3], 0);
+		assertEquals(0, values[4], 0);
+	}
+
+	@Test
+	public void handleShouldBeIgnoredAfterDelete() {
+		api.evalCommand("a=1");
+		GeoElement a = api.getHandle("a");
+		api.setValue(a, 5);
+		assertEquals(5, api.getValue(a), 0);
+		api.deleteObject("a");
+		api.evalCommand("a=2");
+		api.setValue(a, 7);
+		assertEquals(0, api.getValue(a), 0);
+		assertEquals(2, api.getValue("a"), 0);
+	}
+
+	@Test
+	public void batchShouldUpdateDependentsOnce() {
+		int n = 50;
+		String[] names = new String[n];
+		StringBuilder sum = new StringBuilder("s=Sum({");
+		for (int i = 0; i < n; i++) {
+			names[i] = "a" + i;
+			api.evalCommand(names[i] + "=0");
+			sum.append(i == 0 ? "" : ",").append(names[i]);
+		}
+		api.evalCommand(sum.append("})").toString());
+		GeoElement[] handles = new GeoElement[n];
+		for (int i = 0; i < n; i++) {
+			handles[i] = api.getHandle(names[i]);
+		}
+		MockScriptManager scriptManager = prepareScriptManager();
+		scriptManager.registerObjectUpdateListener("s", "onUpdate");
+		String sumUpdated = "onUpdate(\"s\");";
+
+		for (int i = 0; i < n; i++) {
+			api.setValue(names[i], 1);
+		}
+		assertEquals(n, api.getValue("s"), 0);
+		Mockito.verify(scriptManager, times(n)).evalJavaScript(sumUpdated);
+
+		double[] values = new double[n];
+		Arrays.fill(values, 2);
+		api.setValues(handles, values);
+		assertEquals(2 * n, api.getValue("s"), 0);
+		assertArrayEquals(values, api.getValues(handles), 0);
+		Mockito.verify(scriptManager, times(n + 1))
+				.evalJavaScript(sumUpdated);
+
+		Arrays.fill(values, 3);
+		api.setValues(names, values);
+		assertEquals(3 * n, api.getValue("s"), 0);
+		assertArrayEquals(values, api.getValues(names), 0);
+		Mockito.verify(scriptManager, times(n + 2))
+				.evalJavaScript(sumUpdated);
+	}
+
 	private class MockScriptManager extends ScriptManagerJre {
 		public MockScriptManager() {
 			super(GgbApiTest.this.app);
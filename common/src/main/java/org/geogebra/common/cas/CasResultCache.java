@@ -0,0 +1,201 @@
+package org.geogebra.common.cas;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import org.geogebra.common.cas.giac.CASgiac;
+
+/**
+ * Cache for CAS results: least recently used entries are evicted once the
+ * estimated memory size of all entries exceeds the limit. Counts hits,
+ * misses, evictions and time spent on evaluation of missed inputs. Results
+ * may be written to a {@link CasResultStore} to reuse them in next sessions.
+ */
+public class CasResultCache {
+
+	/** estimated size of map entry without the strings (bytes) */
+	private static final int ENTRY_OVERHEAD = 64;
+
+	private final LinkedHashMap<String, String> results = new LinkedHashMap<>(
+			16, 0.75f, true);
+	private final long maxWeight;
+	private long weight;
+	private CasResultStore store;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long evaluations;
+	private long evaluationTime;
+
+	/**
+	 * @param maxWeight
+	 *            maximum estimated size of cached results in bytes
+	 */
+	public CasResultCache(long maxWeight) {
+		this.maxWeight = maxWeight;
+	}
+
+	/**
+	 * @param input
+	 *            CAS input
+	 * @return cached result, null if not cached
+	 */
+	public synchronized String get(String input) {
+		String result = results.get(input);
+		if (result == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return result;
+	}
+
+	/**
+	 * @param input
+	 *            CAS input
+	 * @return whether result for given input is cached (does not change
+	 *         order of entries or counters)
+	 */
+	public synchronized boolean contains(String input) {
+		return results.containsKey(input);
+	}
+
+	/**
+	 * Caches a result and writes it to the store (if defined).
+	 *
+	 * @param input
+	 *            CAS input
+	 * @param result
+	 *            CAS result
+	 */
+	public synchronized void put(String input, String result) {
+		if (input == null || result == null) {
+			return;
+		}
+		long entryWeight = getWeight(input, result);
+		if (entryWeight > maxWeight) {
+			return;
+		}
+		String old = results.put(input, result);
+		if (old != null) {
+			weight -= getWeight(input, old);
+		}
+		weight += entryWeight;
+		evict();
+		if (store != null && !result.equals(old)
+				&& !CASgiac.isUndefined(result)) {
+			store.store(input, result);
+		}
+	}
+
+	private void evict() {
+		Iterator<Entry<String, String>> it = results.entrySet().iterator();
+		while (weight > maxWeight && it.hasNext()) {
+			Entry<String, String> eldest = it.next();
+			weight -= getWeight(eldest.getKey(), eldest.getValue());
+			it.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * @param input
+	 *            CAS input
+	 * @param result
+	 *            CAS result
+	 * @return estimated memory size of cache entry in bytes
+	 */
+	public static long getWeight(String input, String result) {
+		return ENTRY_OVERHEAD + 2L * (input.length() + result.length());
+	}
+
+	/**
+	 * Sets the persistent store and loads all stored results.
+	 *
+	 * @param store
+	 *            persistent store, null to keep results in memory only
+	 */
+	public synchronized void setStore(CasResultStore store) {
+		this.store = null;
+		if (store != null) {
+			store.load(this);
+		}
+		this.store = store;
+	}
+
+	/**
+	 * @param time
+	 *            time spent on evaluating a missed input in milliseconds
+	 */
+	public synchronized void recordEvaluation(long time) {
+		evaluations++;
+		evaluationTime += time;
+	}
+
+	/**
+	 * Removes all results from memory, the store is not affected.
+	 */
+	public synchronized void clear() {
+		results.clear();
+		weight = 0;
+	}
+
+	/**
+	 * @return number of cached results
+	 */
+	public synchronized int size() {
+		return results.size();
+	}
+
+	/**
+	 * @return estimated memory size of cached results in bytes
+	 */
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return number of lookups that found a result
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * @return number of lookups that did not find a result
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * @return number of results removed because of size limit
+	 */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * @return number of recorded evaluations
+	 */
+	public synchronized long getEvaluationCount() {
+		return evaluations;
+	}
+
+	/**
+	 * @return total time of recorded evaluations in milliseconds
+	 */
+	public synchronized long getEvaluationTime() {
+		return evaluationTime;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "CAS cache: " + results.size() + " results, " + weight
+				+ " bytes, " + hits + " hits, " + misses + " misses, "
+				+ evictions + " evictions, " + evaluations + " evaluations in "
+				+ evaluationTime + "ms";
+	}
+}
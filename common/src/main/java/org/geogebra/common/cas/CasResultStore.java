@@ -0,0 +1,25 @@
+package org.geogebra.common.cas;
+
+/**
+ * Persistent storage of CAS results, shared by sessions.
+ */
+public interface CasResultStore {
+
+	/**
+	 * Puts all stored results into the cache, oldest first.
+	 *
+	 * @param cache
+	 *            cache to be warmed
+	 */
+	void load(CasResultCache cache);
+
+	/**
+	 * Stores a new result.
+	 *
+	 * @param input
+	 *            CAS input
+	 * @param result
+	 *            CAS result
+	 */
+	void store(String input, String result);
+}
@@ -1,9 +1,10 @@
 package org.geogebra.common.cas;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -41,7 +42,6 @@ import org.geogebra.common.kernel.kernelND.GeoQuadricND;
 import org.geogebra.common.main.App;
 import org.geogebra.common.main.MyError.Errors;
 import org.geogebra.common.main.error.ErrorHelper;
-import org.geogebra.common.util.MaxSizeHashMap;
 import org.geogebra.common.util.debug.Log;
 
 /**
@@ -58,9 +58,11 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 
 	private ArrayList<String> varSwaps = new ArrayList<>();
 	// these variables are cached to gain some speed in getPolynomialCoeffs
-	private Map<String, String[]> getPolynomialCoeffsCache = new MaxSizeHashMap<>(
-			Kernel.GEOGEBRA_CAS_CACHE_SIZE);
+	private CasResultCache getPolynomialCoeffsCache = new CasResultCache(
+			Kernel.GEOGEBRA_CAS_CACHE_WEIGHT / 4);
 	private StringBuilder getPolynomialCoeffsSB = new StringBuilder();
+	/** parsed coefficients by cached result */
+	private HashMap<String, String[]> parsedPolynomialCoeffs = new HashMap<>();
 	private StringBuilder sbPolyCoeffs = new StringBuilder();
 	private int counter = 1;
 
@@ -218,10 +220,10 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 		getPolynomialCoeffsSB.append(',');
 		getPolynomialCoeffsSB.append(variable);
 
-		String[] result = getPolynomialCoeffsCache
+		String cached = getPolynomialCoeffsCache
 				.get(getPolynomialCoeffsSB.toString());
-		if (result != null) {
-			return result.length == 0 ? null : result;
+		if (cached != null) {
+			return copyPolynomialCoeffs(cached);
 		}
 
 		sbPolyCoeffs.setLength(0);
@@ -240,12 +242,15 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 		try {
 			// expand expression and get coefficients of
 			// "3*a*x^2 + b" in form "{ b, 0, 3*a }"
+			long start = System.currentTimeMillis();
 			String tmp = evaluate(sbPolyCoeffs.toString());
+			getPolynomialCoeffsCache
+					.recordEvaluation(System.currentTimeMillis() - start);
 
 			// not a polynomial -- cache
 			if ("{}".equals(tmp)) {
 				getPolynomialCoeffsCache.put(getPolynomialCoeffsSB.toString(),
-						new String[0]);
+						tmp);
 				return null;
 			}
 			// invalid output -- don't cache
@@ -262,12 +267,9 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 			// e.g. "ggbcasvara" needs to be changed to "a"
 			tmp = Kernel.removeCASVariablePrefix(tmp);
 
-			tmp = tmp.substring(1, tmp.length() - 1); // strip '{' and '}'
-			result = tmp.split(",");
-
 			getPolynomialCoeffsCache.put(getPolynomialCoeffsSB.toString(),
-					result);
-			return result;
+					tmp);
+			return copyPolynomialCoeffs(tmp);
 		} catch (Throwable e) {
 			Log.debug("GeoGebraCAS.getPolynomialCoeffs(): " + e.getMessage());
 			// e.printStackTrace();
@@ -276,6 +278,31 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 		return null;
 	}
 
+	/**
+	 * @param coeffs
+	 *            cached coefficients in form "{ b, 0, 3*a }"
+	 * @return copy of parsed coefficients, null for empty list (not a
+	 *         polynomial)
+	 */
+	private String[] copyPolynomialCoeffs(String coeffs) {
+		if ("{}".equals(coeffs)) {
+			return null;
+		}
+		String[] parsed = parsedPolynomialCoeffs.get(coeffs);
+		if (parsed == null) {
+			if (parsedPolynomialCoeffs.size() > getPolynomialCoeffsCache
+					.size()) {
+				// drop arrays of results evicted from the cache
+				parsedPolynomialCoeffs.clear();
+			}
+			// strip '{' and '}'
+			parsed = coeffs.substring(1, coeffs.length() - 1).split(",");
+			parsedPolynomialCoeffs.put(coeffs, parsed);
+		}
+		// callers may change the array
+		return Arrays.copyOf(parsed, parsed.length);
+	}
+
 	final private static String toString(final ExpressionValue ev,
 			final boolean symbolic, StringTemplate tpl) {
 		/*
@@ -1184,6 +1211,7 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 	@Override
 	public void clearCache() {
 		getPolynomialCoeffsCache.clear();
+		parsedPolynomialCoeffs.clear();
 	}
 
 	/**
@@ -406,7 +406,7 @@ public abstract class CASgiac implements CASGenericInterface {
 		final public String functionName;
 		/** definition string */
 		final public String definitionString;
-		private static List<Entry<CustomFunctions, CustomFunctions>> CustomFunctionsDependencies;
+		private static volatile List<Entry<CustomFunctions, CustomFunctions>> CustomFunctionsDependencies;
 
 		CustomFunctions(String functionName, String definitionString) {
 			this.functionName = functionName;
@@ -418,34 +418,47 @@ public abstract class CASgiac implements CASGenericInterface {
 			return functionName;
 		}
 
-		private static void setDependency(CustomFunctions cf1,
-				CustomFunctions cf2) {
+		private static void setDependency(
+				List<Entry<CustomFunctions, CustomFunctions>> dependencies,
+				CustomFunctions cf1, CustomFunctions cf2) {
 			Entry<CustomFunctions, CustomFunctions> pair = new SimpleEntry<>(
 					cf1, cf2);
-			CustomFunctionsDependencies.add(pair);
+			dependencies.add(pair);
 		}
 
 		/**
 		 * Create dependencies between two CAS custom functions. This is
 		 * required to ensure that all dependencies will be loaded when a custom
-		 * function is loaded.
+		 * function is loaded. The dependencies are only computed once.
 		 */
 		public static void setDependencies() {
-			CustomFunctionsDependencies = new ArrayList<>();
-			setDependency(IMPLICIT_CURVE_COEFFS, COEFF_MATRIX);
-			setDependency(IMPLICIT_CURVE_COEFFS, COEFF_MATRICES);
-			setDependency(IMPLICIT_CURVE_COEFFS, FACTOR_SQR_FREE);
-			setDependency(GEOM_ELIM, PRIM_POLY);
-			setDependency(LOCUS_EQU, IMPLICIT_CURVE_COEFFS);
-			setDependency(LOCUS_EQU, GEOM_ELIM);
-			setDependency(LOCUS_EQU, JACOBI_PREPARE);
-			setDependency(ENVELOPE_EQU, LOCUS_EQU);
-			setDependency(ENVELOPE_EQU, GEOM_JACOBI_DET);
-			setDependency(GEOM_JACOBI_DET, JACOBI_PREPARE);
-			setDependency(GEOM_JACOBI_DET, JACOBI_DET);
-			setDependency(AFACTOR_ALG_NUM, IRRED);
-			setDependency(ABSFACT, AFACTOR_ALG_NUM);
-			setDependency(COS_2PI_OVER_N_MINPOLY, FACTOR_SQR_FREE);
+			if (CustomFunctionsDependencies != null) {
+				return;
+			}
+			// fill a local list first: Giac may be initialized from several
+			// threads
+			List<Entry<CustomFunctions, CustomFunctions>> dependencies =
+					new ArrayList<>();
+			setDependency(dependencies, IMPLICIT_CURVE_COEFFS,
+					COEFF_MATRIX);
+			setDependency(dependencies, IMPLICIT_CURVE_COEFFS,
+					COEFF_MATRICES);
+			setDependency(dependencies, IMPLICIT_CURVE_COEFFS,
+					FACTOR_SQR_FREE);
+			setDependency(dependencies, GEOM_ELIM, PRIM_POLY);
+			setDependency(dependencies, LOCUS_EQU,
+					IMPLICIT_CURVE_COEFFS);
+			setDependency(dependencies, LOCUS_EQU, GEOM_ELIM);
+			setDependency(dependencies, LOCUS_EQU, JACOBI_PREPARE);
+			setDependency(dependencies, ENVELOPE_EQU, LOCUS_EQU);
+			setDependency(dependencies, ENVELOPE_EQU, GEOM_JACOBI_DET);
+			setDependency(dependencies, GEOM_JACOBI_DET, JACOBI_PREPARE);
+			setDependency(dependencies, GEOM_JACOBI_DET, JACOBI_DET);
+			setDependency(dependencies, AFACTOR_ALG_NUM, IRRED);
+			setDependency(dependencies, ABSFACT, AFACTOR_ALG_NUM);
+			setDependency(dependencies, COS_2PI_OVER_N_MINPOLY,
+					FACTOR_SQR_FREE);
+			CustomFunctionsDependencies = dependencies;
 		}
 
 		/**
@@ -481,7 +494,6 @@ public abstract class CASgiac implements CASGenericInterface {
 	 */
 	public long timeoutMillis = 5000;
 	final private static String EVALFA = "evalfa(";
-	private StringBuilder expSB = new StringBuilder(EVALFA);
 
 	// eg {(ggbtmpvarx>(-sqrt(110)/5)) && ((sqrt(110)/5)>ggbtmpvarx)}
 	// eg {(ggbtmpvarx>=(-sqrt(110)/5)) && ((sqrt(110)/5)>=ggbtmpvarx)}
@@ -587,7 +599,7 @@ public abstract class CASgiac implements CASGenericInterface {
 		Command cmd = casInput.getTopLevelCommand();
 		boolean keepInput = (cell != null && cell.isKeepInputUsed())
 				|| (cmd != null && "KeepInput".equals(cmd.getName()));
-		String plainResult = getPlainResult(casInput, kernel);
+		String plainResult = getPlainResult(casInput, kernel, cell);
 
 		if (keepInput) {
 			// remove KeepInput[] command and take argument
@@ -672,7 +684,7 @@ public abstract class CASgiac implements CASGenericInterface {
 	final public synchronized ExpressionValue evaluateToExpression(
 			final ValidExpression inputExpression, MyArbitraryConstant arbconst,
 			Kernel kernel) throws CASException {
-		String result = getPlainResult(inputExpression, kernel);
+		String result = getPlainResult(inputExpression, kernel, null);
 		// standard case
 		if ("".equals(result)) {
 			return null;
@@ -681,7 +693,8 @@ public abstract class CASgiac implements CASGenericInterface {
 
 	}
 
-	private String getPlainResult(ValidExpression casInput, Kernel kernel) {
+	private String getPlainResult(ValidExpression casInput, Kernel kernel,
+			GeoCasCell cell) {
 		// KeepInput[] command should set flag keepinput!!:=1
 		// so that commands like Substitute can work accordingly
 		Command cmd = casInput.getTopLevelCommand();
@@ -708,6 +721,9 @@ public abstract class CASgiac implements CASGenericInterface {
 		// convert parsed input to Giac string
 		String giacInput = casParser.translateToCAS(casInput,
 				StringTemplate.giacTemplate, this);
+		if (cell != null) {
+			cell.setCasRequest(giacInput);
+		}
 
 		// evaluate in Giac
 		String plainResult = evaluateCAS(giacInput);
@@ -1452,11 +1468,18 @@ public abstract class CASgiac implements CASGenericInterface {
 	 * @return "evalfa(" + s + ")"
 	 */
 	protected String wrapInevalfa(String s) {
-		expSB.setLength(EVALFA.length());
-		expSB.append(s);
-		expSB.append(")");
+		// no shared buffer: may be called from several Giac threads
+		return EVALFA + s + ")";
+	}
 
-		return expSB.toString();
+	@Override
+	public void prefetch(List<String> inputs) {
+		// evaluate on demand by default
+	}
+
+	@Override
+	public void clearPrefetch() {
+		// nothing prefetched
 	}
 
 	/**
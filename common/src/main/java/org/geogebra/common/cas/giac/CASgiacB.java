@@ -58,10 +58,22 @@ public abstract class CASgiacB extends CASgiac {
      * @return String from Giac
      */
     final String evalRaw(String exp0, long timeoutMilliseconds) {
+        return evalRaw(exp0, timeoutMilliseconds, context);
+    }
+
+    /**
+     * @param exp0                String to send to Giac
+     * @param timeoutMilliseconds timeout in milliseconds
+     * @param context             Giac context, must not be used by other
+     *                            threads during this call
+     * @return String from Giac
+     */
+    public final String evalRaw(String exp0, long timeoutMilliseconds,
+            Context context) {
         CASGiacBinding binding = createBinding();
         // #5439
         // reset Giac before each call
-        init(exp0, timeoutMilliseconds);
+        init(exp0, timeoutMilliseconds, context);
 
         String exp = wrapInevalfa(exp0);
 
@@ -91,7 +103,7 @@ public abstract class CASgiacB extends CASgiac {
 
 	}
 
-	private void init(String exp, long timeoutMilliseconds) {
+	private void init(String exp, long timeoutMilliseconds, Context context) {
         CASGiacBinding binding = createBinding();
         Gen g = binding.createGen(initString, context);
         g.eval(1, context);
@@ -165,7 +177,19 @@ public abstract class CASgiacB extends CASgiac {
 
         callEvaluateFunction(evalFunction);
 
-        String ret = postProcess(threadResult);
+        return processResult(threadResult);
+    }
+
+	/**
+	 * @param rawResult
+	 *            result of {@link #evalRaw(String, long, Context)}
+	 * @return post-processed result
+	 * @throws TimeoutException
+	 *             when Giac was interrupted
+	 */
+	protected final String processResult(String rawResult)
+			throws TimeoutException {
+		String ret = postProcess(rawResult);
 
         // Log.debug("giac output: " + ret);
         if (ret.contains("user interruption")) {
@@ -220,6 +220,57 @@ public abstract class Drawable extends DrawableND {
 		return null;
 	}
 
+	/**
+	 * Returns a rectangle in screen coordinates that contains everything
+	 * this Drawable draws and all positions where {@link #hit(int, int, int)}
+	 * or {@link #hitLabel(int, int)} may be true; used for spatial index of
+	 * the view.
+	 * 
+	 * @param hitThreshold
+	 *            maximal pixel threshold of hit tests
+	 * @return hit bounds or null if unknown (drawable is always tested)
+	 */
+	public GRectangle getHitBounds(int hitThreshold) {
+		return null;
+	}
+
+	/**
+	 * @param shapeBounds
+	 *            bounds of the shape checked by hit test, null if the shape
+	 *            cannot be hit
+	 * @param hitThreshold
+	 *            maximal pixel threshold of hit tests
+	 * @return shape bounds extended by hit threshold and line width, including
+	 *         the label; null for shapes too large for screen coords
+	 */
+	protected final GRectangle getHitBounds(GRectangle shapeBounds,
+			int hitThreshold) {
+		boolean hasLabel = labelRectangle.getWidth() > 0
+				&& labelRectangle.getHeight() > 0;
+		if (shapeBounds == null) {
+			// empty rectangle outside of the view if nothing can be hit
+			return hasLabel
+					? AwtFactory.getPrototype().newRectangle(labelRectangle)
+					: AwtFactory.getPrototype().newRectangle(-1, -1, 0, 0);
+		}
+		if (!(Math.abs(shapeBounds.getX()) < Integer.MAX_VALUE / 4
+				&& Math.abs(shapeBounds.getY()) < Integer.MAX_VALUE / 4
+				&& shapeBounds.getWidth() < Integer.MAX_VALUE / 4
+				&& shapeBounds.getHeight() < Integer.MAX_VALUE / 4)) {
+			return null;
+		}
+		int r = hitThreshold + (int) Math.ceil(objStroke.getLineWidth()) + 1;
+		GRectangle bounds = AwtFactory.getPrototype().newRectangle(
+				(int) Math.floor(shapeBounds.getX()) - r,
+				(int) Math.floor(shapeBounds.getY()) - r,
+				(int) Math.ceil(shapeBounds.getWidth()) + 2 * r + 1,
+				(int) Math.ceil(shapeBounds.getHeight()) + 2 * r + 1);
+		if (hasLabel) {
+			bounds.add(labelRectangle);
+		}
+		return bounds;
+	}
+
 	/**
 	 * Returns the minimum width of drawable
 	 * 
@@ -248,6 +299,20 @@ public abstract class Drawable extends DrawableND {
 		if (labelDesc == null) {
 			return;
 		}
+		double oldX = labelRectangle.getX();
+		double oldY = labelRectangle.getY();
+		double oldWidth = labelRectangle.getWidth();
+		double oldHeight = labelRectangle.getHeight();
+		drawLabelText(g2);
+		// label position is only known after drawing
+		if (oldX != labelRectangle.getX() || oldY != labelRectangle.getY()
+				|| oldWidth != labelRectangle.getWidth()
+				|| oldHeight != labelRectangle.getHeight()) {
+			invalidateHitBounds();
+		}
+	}
+
+	private void drawLabelText(GGraphics2D g2) {
 		String label = labelDesc;
 
 		// stripping off helper syntax from captions
@@ -963,6 +1028,16 @@ public abstract class Drawable extends DrawableND {
 		if (needsUpdate()) {
 			setNeedsUpdate(false);
 			update();
+			invalidateHitBounds();
+		}
+	}
+
+	/**
+	 * Marks hit bounds outdated in the spatial index of the view.
+	 */
+	final void invalidateHitBounds() {
+		if (view != null) {
+			view.getHitDetector().invalidateIndex(this);
 		}
 	}
 }
@@ -0,0 +1,371 @@
+package org.geogebra.common.euclidian;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.geogebra.common.awt.GRectangle;
+
+/**
+ * Spatial index for hit testing: uniform grid of screen cells, each cell
+ * knows the drawables whose hit bounds intersect it. Drawables with unknown
+ * or large hit bounds are candidates for every query. Candidates are
+ * returned in the order of the drawable list. Drawables that changed their
+ * hit bounds are moved to their new cells before the next query.
+ */
+class DrawableHitGrid {
+
+	/** cell size in pixels */
+	private static final int CELL_SIZE = 32;
+	/** drawables covering more cells are tested for every query */
+	private static final int MAX_CELLS_PER_DRAWABLE = 64;
+	/** placement of drawables tested for every query */
+	private static final int ALWAYS_TESTED = -1;
+	/** placement of drawables outside of the view */
+	private static final int OUTSIDE = -2;
+
+	private final ArrayList<Drawable> drawables = new ArrayList<>();
+	private final HashMap<Drawable, Integer> ordinals = new HashMap<>();
+	/** for each drawable first and last column, first and last row */
+	private int[] placements = new int[0];
+	/** drawables whose hit bounds may have changed since last query */
+	private final ArrayList<Drawable> changed = new ArrayList<>();
+	private int[][] cells = new int[0][];
+	private int[] cellSizes = new int[0];
+	private int[] alwaysTested = new int[16];
+	private int alwaysTestedSize;
+	private int columns;
+	private int rows;
+	private int width = -1;
+	private int height = -1;
+	private int hitThreshold;
+	private boolean valid;
+	private int buildCount;
+
+	/** query number for each drawable, to avoid duplicate candidates */
+	private int[] queryStamps = new int[0];
+	private int queryStamp;
+	private int[] candidates = new int[16];
+
+	/**
+	 * Marks the grid as outdated.
+	 */
+	void invalidate() {
+		valid = false;
+		changed.clear();
+	}
+
+	/**
+	 * Marks hit bounds of a drawable as outdated.
+	 *
+	 * @param d
+	 *            drawable that was updated or whose label moved
+	 */
+	void invalidate(Drawable d) {
+		if (!valid) {
+			return;
+		}
+		if (changed.size() >= drawables.size()) {
+			// rebuilding is cheaper than updating all drawables one by one
+			invalidate();
+			return;
+		}
+		changed.add(d);
+	}
+
+	/**
+	 * Moves changed drawables to the cells of their current hit bounds.
+	 */
+	void updateChanged() {
+		for (Drawable d : changed) {
+			Integer ordinal = ordinals.get(d);
+			if (ordinal != null) {
+				place(ordinal, d.getHitBounds(hitThreshold));
+			}
+		}
+		changed.clear();
+	}
+
+	/**
+	 * @param viewWidth
+	 *            view width
+	 * @param viewHeight
+	 *            view height
+	 * @param threshold
+	 *            hit threshold
+	 * @return whether the grid was built for current drawables, given view
+	 *         size and at least given threshold
+	 */
+	boolean isValid(int viewWidth, int viewHeight, int threshold) {
+		return valid && width == viewWidth && height == viewHeight
+				&& threshold <= hitThreshold;
+	}
+
+	/**
+	 * @param list
+	 *            all drawables of the view
+	 * @param viewWidth
+	 *            view width
+	 * @param viewHeight
+	 *            view height
+	 * @param threshold
+	 *            maximal hit threshold of queries
+	 */
+	void build(DrawableList list, int viewWidth, int viewHeight,
+			int threshold) {
+		width = viewWidth;
+		height = viewHeight;
+		hitThreshold = threshold;
+		columns = Math.max(1, (width + CELL_SIZE - 1) / CELL_SIZE);
+		rows = Math.max(1, (height + CELL_SIZE - 1) / CELL_SIZE);
+		if (cells.length != columns * rows) {
+			cells = new int[columns * rows][];
+			cellSizes = new int[columns * rows];
+		} else {
+			Arrays.fill(cellSizes, 0);
+		}
+		drawables.clear();
+		ordinals.clear();
+		changed.clear();
+		alwaysTestedSize = 0;
+		if (placements.length < 4 * list.size()) {
+			placements = new int[4 * list.size()];
+		}
+		for (Drawable d : list) {
+			int ordinal = drawables.size();
+			drawables.add(d);
+			ordinals.put(d, ordinal);
+			placements[4 * ordinal] = OUTSIDE;
+			place(ordinal, d.getHitBounds(threshold));
+		}
+		if (queryStamps.length < drawables.size()) {
+			queryStamps = new int[drawables.size()];
+			queryStamp = 0;
+		}
+		valid = true;
+		buildCount++;
+	}
+
+	/**
+	 * @return number of times the grid was built from scratch
+	 */
+	int getBuildCount() {
+		return buildCount;
+	}
+
+	/**
+	 * Moves drawable to the cells covered by given bounds.
+	 *
+	 * @param ordinal
+	 *            position of the drawable in drawable list
+	 * @param bounds
+	 *            hit bounds
+	 */
+	private void place(int ordinal, GRectangle bounds) {
+		int col0 = ALWAYS_TESTED;
+		int col1 = 0;
+		int row0 = 0;
+		int row1 = 0;
+		if (bounds != null) {
+			col0 = Math.max(0, toCell(bounds.getX()));
+			col1 = Math.min(columns - 1,
+					toCell(bounds.getX() + bounds.getWidth()));
+			row0 = Math.max(0, toCell(bounds.getY()));
+			row1 = Math.min(rows - 1,
+					toCell(bounds.getY() + bounds.getHeight()));
+			if (col0 > col1 || row0 > row1) {
+				// outside of view: only found by queries outside of the
+				// grid that test all drawables
+				col0 = OUTSIDE;
+			} else if ((col1 - col0 + 1)
+					* (row1 - row0 + 1) > MAX_CELLS_PER_DRAWABLE) {
+				col0 = ALWAYS_TESTED;
+			}
+		}
+		int offset = 4 * ordinal;
+		if (placements[offset] == col0 && (col0 < 0
+				|| placements[offset + 1] == col1
+						&& placements[offset + 2] == row0
+						&& placements[offset + 3] == row1)) {
+			return;
+		}
+		forEachCell(offset, ordinal, false);
+		placements[offset] = col0;
+		placements[offset + 1] = col1;
+		placements[offset + 2] = row0;
+		placements[offset + 3] = row1;
+		forEachCell(offset, ordinal, true);
+	}
+
+	/**
+	 * Adds drawable to or removes it from all cells of its placement.
+	 */
+	private void forEachCell(int offset, int ordinal, boolean add) {
+		int col0 = placements[offset];
+		if (col0 == OUTSIDE) {
+			return;
+		}
+		if (col0 == ALWAYS_TESTED) {
+			if (add) {
+				alwaysTested = insert(alwaysTested, alwaysTestedSize++,
+						ordinal);
+			} else if (remove(alwaysTested, alwaysTestedSize, ordinal)) {
+				alwaysTestedSize--;
+			}
+			return;
+		}
+		for (int row = placements[offset + 2]; row <= placements[offset
+				+ 3]; row++) {
+			for (int col = col0; col <= placements[offset + 1]; col++) {
+				int cell = row * columns + col;
+				if (add) {
+					if (cells[cell] == null) {
+						cells[cell] = new int[4];
+					}
+					cells[cell] = insert(cells[cell], cellSizes[cell]++,
+							ordinal);
+				} else if (remove(cells[cell], cellSizes[cell], ordinal)) {
+					cellSizes[cell]--;
+				}
+			}
+		}
+	}
+
+	private static int toCell(double coord) {
+		return (int) Math.floor(coord / CELL_SIZE);
+	}
+
+	private static int[] add(int[] array, int index, int value) {
+		int[] ret = array;
+		if (index >= array.length) {
+			ret = Arrays.copyOf(array, 2 * array.length);
+		}
+		ret[index] = value;
+		return ret;
+	}
+
+	/**
+	 * Inserts value into sorted array.
+	 *
+	 * @param array
+	 *            sorted array
+	 * @param size
+	 *            number of used entries
+	 * @param value
+	 *            new value
+	 * @return array containing the value (may be reallocated)
+	 */
+	private static int[] insert(int[] array, int size, int value) {
+		int index = search(array, size, value);
+		int[] ret = add(array, size, value);
+		System.arraycopy(ret, index, ret, index + 1, size - index);
+		ret[index] = value;
+		return ret;
+	}
+
+	/**
+	 * Removes value from sorted array.
+	 *
+	 * @return whether the value was found
+	 */
+	private static boolean remove(int[] array, int size, int value) {
+		int index = search(array, size, value);
+		if (index >= size || array[index] != value) {
+			return false;
+		}
+		System.arraycopy(array, index + 1, array, index, size - index - 1);
+		return true;
+	}
+
+	/**
+	 * @return index of first entry not smaller than value
+	 */
+	private static int search(int[] array, int size, int value) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (array[mid] < value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Collects drawables that may be hit at given position.
+	 *
+	 * @param x
+	 *            screen x-coord
+	 * @param y
+	 *            screen y-coord
+	 * @param result
+	 *            list for candidates, in the order of drawable list
+	 * @return false if the position is outside of the grid and all drawables
+	 *         need to be tested
+	 */
+	boolean query(int x, int y, ArrayList<Drawable> result) {
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			return false;
+		}
+		int cell = toCell(y) * columns + toCell(x);
+		int[] cellDrawables = cells[cell];
+		int cellSize = cellSizes[cell];
+		// merge two sorted lists
+		int i = 0;
+		int j = 0;
+		while (i < cellSize || j < alwaysTestedSize) {
+			if (j >= alwaysTestedSize
+					|| (i < cellSize && cellDrawables[i] < alwaysTested[j])) {
+				result.add(drawables.get(cellDrawables[i++]));
+			} else {
+				result.add(drawables.get(alwaysTested[j++]));
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Collects drawables that may intersect given rectangle.
+	 *
+	 * @param rect
+	 *            rectangle in screen coords
+	 * @param result
+	 *            list for candidates, in the order of drawable list
+	 * @return false if the rectangle is not within the grid and all
+	 *         drawables need to be tested
+	 */
+	boolean query(GRectangle rect, ArrayList<Drawable> result) {
+		if (rect.getX() < 0 || rect.getY() < 0
+				|| rect.getX() + rect.getWidth() >= width
+				|| rect.getY() + rect.getHeight() >= height) {
+			return false;
+		}
+		queryStamp++;
+		int count = 0;
+		for (int row = toCell(rect.getY()); row <= toCell(
+				rect.getY() + rect.getHeight()); row++) {
+			for (int col = toCell(rect.getX()); col <= toCell(
+					rect.getX() + rect.getWidth()); col++) {
+				int cell = row * columns + col;
+				for (int k = 0; k < cellSizes[cell]; k++) {
+					int ordinal = cells[cell][k];
+					if (queryStamps[ordinal] != queryStamp) {
+						queryStamps[ordinal] = queryStamp;
+						candidates = add(candidates, count++, ordinal);
+					}
+				}
+			}
+		}
+		for (int k = 0; k < alwaysTestedSize; k++) {
+			candidates = add(candidates, count++, alwaysTested[k]);
+		}
+		Arrays.sort(candidates, 0, count);
+		for (int k = 0; k < count; k++) {
+			result.add(drawables.get(candidates[k]));
+		}
+		return true;
+	}
+}
@@ -1691,6 +1691,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			return;
 		}
 		allDrawableList.updateAll();
+		hitDetector.invalidateIndex();
 		if (repaint) {
 			repaint();
 		}
@@ -1706,6 +1707,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			return;
 		}
 		allDrawableList.updateAllForView();
+		hitDetector.invalidateIndex();
 		if (repaint) {
 			repaint();
 		}
@@ -1727,6 +1729,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		this.batchUpdate = false;
 		if (this.needsAllDrawablesUpdate) {
 			allDrawableList.updateAll();
+			hitDetector.invalidateIndex();
 			repaint();
 		}
 	}
@@ -1860,6 +1863,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		Object d = drawableMap.get(geo);
 		if (d != null) {
 			((Drawable) d).update();
+			hitDetector.invalidateIndex((Drawable) d);
 			repaint();
 		}
 	}
@@ -1885,6 +1889,9 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 				return;
 			}
 			d.update();
+			if (d instanceof Drawable) {
+				hitDetector.invalidateIndex((Drawable) d);
+			}
 		} else if (drawableNeeded(geo) && geosWaiting.contains(geo)) {
 			geosWaiting.remove(geo);
 			add(geo);
@@ -2086,6 +2093,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			((RemoveNeeded) d).remove();
 		}
 		allDrawableList.remove(d);
+		hitDetector.invalidateIndex();
 
 		drawableMap.remove(geo);
 		if (geo.isGeoPoint()) {
@@ -2164,7 +2172,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		if (!getApplication().isLabelDragsEnabled()) {
 			return null;
 		}
-		for (Drawable d : allDrawableList) {
+		for (Drawable d : hitDetector.getCandidates(p, 0)) {
 			if (d.hitLabel(p.x, p.y)) {
 				GeoElement geo = d.getGeoElement();
 				if (geo.isEuclidianVisible()) {
@@ -2298,6 +2306,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 
 		if (d != null) {
 			allDrawableList.add(d);
+			hitDetector.invalidateIndex();
 		}
 	}
 
@@ -2413,6 +2422,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	 */
 	protected void updateDrawableFontSize() {
 		allDrawableList.updateFontSizeAll();
+		hitDetector.invalidateIndex();
 		repaint();
 	}
 
@@ -4405,6 +4415,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		drawableMap.clear();
 		stickyPointList.clear();
 		allDrawableList.clear();
+		hitDetector.invalidateIndex();
 		bgImageList.clear();
 		previewFromInputBarGeos = null;
 		this.geosWaiting.clear();
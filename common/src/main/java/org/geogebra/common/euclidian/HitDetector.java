@@ -13,16 +13,94 @@ import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.TestGeo;
 
 public class HitDetector {
+	/** for smaller constructions all drawables are tested */
+	private static final int MIN_INDEXED_DRAWABLES = 200;
+
 	private ArrayList<GeoElement> hitPointOrBoundary;
 	private ArrayList<GeoElement> hitFilling;
 	private ArrayList<GeoElement> hitLabel;
 	private final EuclidianView view;
 	private Hits hits;
+	private final DrawableHitGrid grid = new DrawableHitGrid();
+	private final ArrayList<Drawable> candidates = new ArrayList<>();
 
 	public HitDetector(EuclidianView view) {
 		this.view = view;
 	}
 
+	/**
+	 * Marks spatial index outdated, needs to be called whenever drawables
+	 * are added, removed or updated.
+	 */
+	void invalidateIndex() {
+		grid.invalidate();
+	}
+
+	/**
+	 * Marks hit bounds of one drawable outdated, needs to be called whenever
+	 * a drawable is updated or its label moves.
+	 * 
+	 * @param d
+	 *            drawable
+	 */
+	void invalidateIndex(Drawable d) {
+		grid.invalidate(d);
+	}
+
+	/**
+	 * @return number of times the spatial index was built from scratch
+	 */
+	int getIndexBuildCount() {
+		return grid.getBuildCount();
+	}
+
+	/**
+	 * @param p
+	 *            screen position
+	 * @param hitThreshold
+	 *            hit threshold
+	 * @return drawables that may be hit at given position, in drawing order
+	 */
+	Iterable<Drawable> getCandidates(GPoint p, int hitThreshold) {
+		if (view.allDrawableList.size() < MIN_INDEXED_DRAWABLES) {
+			return view.allDrawableList;
+		}
+		if (!grid.isValid(view.getWidth(), view.getHeight(), hitThreshold)) {
+			grid.build(view.allDrawableList, view.getWidth(), view.getHeight(),
+					hitThreshold);
+		} else {
+			grid.updateChanged();
+		}
+		candidates.clear();
+		if (grid.query(p.x, p.y, candidates)) {
+			return candidates;
+		}
+		return view.allDrawableList;
+	}
+
+	/**
+	 * @param rect
+	 *            rectangle in screen coords
+	 * @return drawables that may intersect given rectangle, in drawing order
+	 */
+	private Iterable<Drawable> getCandidates(GRectangle rect) {
+		if (view.allDrawableList.size() < MIN_INDEXED_DRAWABLES) {
+			return view.allDrawableList;
+		}
+		if (!grid.isValid(view.getWidth(), view.getHeight(), 0)) {
+			grid.build(view.allDrawableList, view.getWidth(), view.getHeight(),
+					view.getApplication()
+							.getCapturingThreshold(PointerEventType.MOUSE));
+		} else {
+			grid.updateChanged();
+		}
+		candidates.clear();
+		if (grid.query(rect, candidates)) {
+			return candidates;
+		}
+		return view.allDrawableList;
+	}
+
 	private void setHits(GPoint p, int hitThreshold) {
 		hits.init();
 		if (hitPointOrBoundary == null) {
@@ -39,7 +117,7 @@ public class HitDetector {
 		}
 		boolean hitMask = false;
 
-		for (Drawable d : view.allDrawableList) {
+		for (Drawable d : getCandidates(p, hitThreshold)) {
 			if (d.isEuclidianVisible()) {
 				if (d.hit(p.x, p.y, hitThreshold)) {
 					GeoElement geo = d.getGeoElement();
@@ -167,7 +245,7 @@ public class HitDetector {
 			return;
 		}
 
-		for (Drawable d : view.allDrawableList) {
+		for (Drawable d : getCandidates(rect)) {
 			GeoElement geo = d.getGeoElement();
 			if (geo.isEuclidianVisible() && filter.check(geo) && !hits.contains(geo)
 					&& d.intersectsRectangle(rect)) {
@@ -197,7 +275,7 @@ public class HitDetector {
 			return;
 		}
 
-		for (Drawable d : view.allDrawableList) {
+		for (Drawable d : getCandidates(rect)) {
 			GeoElement geo = d.getGeoElement();
 			if (geo.isEuclidianVisible() && d.isInside(rect)) {
 				hits.add(geo);
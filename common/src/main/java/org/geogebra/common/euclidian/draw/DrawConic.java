@@ -1535,6 +1535,17 @@ public class DrawConic extends SetDrawable implements Previewable {
 		}
 	}
 
+	@Override
+	public GRectangle getHitBounds(int hitThreshold) {
+		if (conic.isInverseFill() || (type != GeoConicNDConstants.CONIC_CIRCLE
+				&& type != GeoConicNDConstants.CONIC_ELLIPSE)) {
+			return null;
+		}
+		// filling is tested 3 pixels around the hit position
+		return getHitBounds(isVisible ? getBounds() : null,
+				hitThreshold + 3);
+	}
+
 	private GRectangle rectForRotatedEllipse() {
 		double sin = conic.eigenvec[1].getX();
 		double cos = conic.eigenvec[1].getY();
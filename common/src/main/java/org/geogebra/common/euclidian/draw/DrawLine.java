@@ -807,6 +807,11 @@ public class DrawLine extends SetDrawable implements Previewable {
 		return AwtFactory.getPrototype().newRectangle(line.getBounds());
 	}
 
+	@Override
+	public GRectangle getHitBounds(int hitThreshold) {
+		return getHitBounds(isVisible ? getBounds() : null, hitThreshold);
+	}
+
 	/**
 	 * @return whether this is visible
 	 */
@@ -24,6 +24,7 @@ import org.geogebra.common.awt.GShape;
 import org.geogebra.common.euclidian.Drawable;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.euclidian.plot.CurvePlotter;
+import org.geogebra.common.euclidian.plot.CurveSampleCache;
 import org.geogebra.common.euclidian.plot.GeneralPathClippedForCurvePlotter;
 import org.geogebra.common.factories.AwtFactory;
 import org.geogebra.common.kernel.StringTemplate;
@@ -57,6 +58,7 @@ public class DrawParametricCurve extends Drawable {
 
 	private CurveEvaluable curve;
 	private GeneralPathClippedForCurvePlotter gp;
+	private CurveSampleCache sampleCache;
 	private boolean isVisible;
 	private boolean labelVisible;
 	private boolean fillCurve;
@@ -162,6 +164,14 @@ public class DrawParametricCurve extends Drawable {
 			curve.evaluateCurve(min, eval);
 			view.toScreenCoords(eval);
 			labelPoint = new GPoint((int) eval[0], (int) eval[1]);
+		} else if (toPlot == curve && curve instanceof GeoFunction
+				&& !fillCurve) {
+			// reuse samples unless function or view scale changed
+			if (sampleCache == null) {
+				sampleCache = new CurveSampleCache();
+			}
+			labelPoint = sampleCache.plot((GeoFunction) curve, min, max, view,
+					gp, labelVisible);
 		} else {
 			labelPoint = CurvePlotter.plotCurve(toPlot, min, max, view, gp,
 					labelVisible, fillCurve ? CurvePlotter.Gap.CORNER
@@ -539,6 +549,15 @@ public class DrawParametricCurve extends Drawable {
 		return AwtFactory.getPrototype().newRectangle(gp.getBounds());
 	}
 
+	@Override
+	public GRectangle getHitBounds(int hitThreshold) {
+		if (dataExpression != null || geo.isInverseFill()) {
+			return null;
+		}
+		return getHitBounds(isVisible && gp != null ? gp.getBounds() : null,
+				hitThreshold);
+	}
+
 	@Override
 	public GRectangle2D getBoundsForStylebarPosition() {
 		if (!geo.isDefined() || !geo.isEuclidianVisible()) {
@@ -562,6 +562,29 @@ public final class DrawPoint extends SetDrawable {
 				2 * selRadius, 2 * selRadius);
 	}
 
+	@Override
+	public GRectangle getHitBounds(int hitThreshold) {
+		if (!isPointFinite()) {
+			return null;
+		}
+		int threshold = isPreview ? hitThreshold * 2 : hitThreshold;
+		int r = Math.max(pointSize, getSelectionThreshold(threshold)) + 1;
+		GRectangle bounds = AwtFactory.getPrototype().newRectangle(
+				(int) Math.floor(coords[0]) - r,
+				(int) Math.floor(coords[1]) - r, 2 * r + 1, 2 * r + 1);
+		// label hit test does not check visibility
+		if (labelRectangle.getWidth() > 0 && labelRectangle.getHeight() > 0) {
+			bounds.add(labelRectangle);
+		}
+		return bounds;
+	}
+
+	private boolean isPointFinite() {
+		// coords may be large for points far away from the view
+		return Math.abs(coords[0]) < Integer.MAX_VALUE / 2
+				&& Math.abs(coords[1]) < Integer.MAX_VALUE / 2;
+	}
+
 	@Override
 	public GeoElement getGeoElement() {
 		return geo;
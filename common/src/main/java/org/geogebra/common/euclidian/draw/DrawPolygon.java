@@ -392,6 +392,14 @@ public class DrawPolygon extends Drawable implements Previewable {
 		return gp.getBounds();
 	}
 
+	@Override
+	public GRectangle getHitBounds(int hitThreshold) {
+		if (geo.isInverseFill()) {
+			return null;
+		}
+		return getHitBounds(getBounds(), hitThreshold);
+	}
+
 	@Override
 	public GArea getShape() {
 		if (geo.isInverseFill() || super.getShape() != null) {
@@ -592,6 +592,11 @@ public class DrawSegment extends SetDrawable implements Previewable {
 		return AwtFactory.getPrototype().newRectangle(line.getBounds());
 	}
 
+	@Override
+	public GRectangle getHitBounds(int hitThreshold) {
+		return getHitBounds(isVisible ? getBounds() : null, hitThreshold);
+	}
+
 	/**
 	 * set visible
 	 */
@@ -82,6 +82,16 @@ public class DrawSurface extends Drawable {
 
 		}
 
+		@Override
+		public void evaluateCurve(double[] ts, double[] out) {
+			double[] point = newDoubleArray();
+			for (int i = 0; i < ts.length; i++) {
+				evaluateCurve(ts[i], point);
+				System.arraycopy(point, 0, out, i * point.length,
+						point.length);
+			}
+		}
+
 		@Override
 		public double[] getDefinedInterval(double a, double b) {
 			// TODO Auto-generated method stub
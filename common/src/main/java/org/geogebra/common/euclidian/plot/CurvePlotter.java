@@ -8,6 +8,7 @@ import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.SegmentType;
+import org.geogebra.common.kernel.geos.GeoFunction;
 import org.geogebra.common.kernel.kernelND.CurveEvaluable;
 import org.geogebra.common.kernel.matrix.CoordSys;
 import org.geogebra.common.util.DoubleUtil;
@@ -86,12 +87,16 @@ public class CurvePlotter {
 			double t2, EuclidianView view, PathPlotter gp, boolean calcLabelPos,
 			Gap moveToAllowed) {
 
-		// ensure MIN_PLOT_POINTS
-		double minSamplePoints = Math.max(MIN_SAMPLE_POINTS, view.getWidth() / 6);
-		double max_param_step = Math.abs(t2 - t1) / minSamplePoints;
+		double max_param_step = getMaxParamStep(t1, t2, view);
 		// plot Interval [t1, t2]
-		GPoint labelPoint = plotInterval(curve, t1, t2, 0, max_param_step, view,
-				gp, calcLabelPos, moveToAllowed);
+		GPoint labelPoint;
+		startCompiledEvaluation(curve);
+		try {
+			labelPoint = plotInterval(curve, t1, t2, 0, max_param_step, view,
+					gp, calcLabelPos, moveToAllowed);
+		} finally {
+			stopCompiledEvaluation(curve);
+		}
 		if (moveToAllowed == Gap.CORNER) {
 			gp.corner();
 		}
@@ -99,6 +104,88 @@ public class CurvePlotter {
 		return labelPoint;
 	}
 
+	/**
+	 * @param t1
+	 *            min value of parameter
+	 * @param t2
+	 *            max value of parameter
+	 * @param view
+	 *            view
+	 * @return largest parameter step that ensures MIN_PLOT_POINTS
+	 */
+	static double getMaxParamStep(double t1, double t2, EuclidianView view) {
+		double minSamplePoints = Math.max(MIN_SAMPLE_POINTS, view.getWidth() / 6);
+		return Math.abs(t2 - t1) / minSamplePoints;
+	}
+
+	/**
+	 * Samples curve for t in [t1, t2] without computing label position,
+	 * segments are separated by moveTo.
+	 * 
+	 * @param curve
+	 *            curve to be drawn
+	 * @param t1
+	 *            min value of parameter
+	 * @param t2
+	 *            max value of parameter
+	 * @param max_param_step
+	 *            largest parameter step width allowed
+	 * @param view
+	 *            Euclidian view to be used
+	 * @param gp
+	 *            path plotter
+	 */
+	static void plotSamples(CurveEvaluable curve, double t1, double t2,
+			double max_param_step, EuclidianView view, PathPlotter gp) {
+		startCompiledEvaluation(curve);
+		try {
+			plotInterval(curve, t1, t2, 0, max_param_step, view, gp, false,
+					Gap.MOVE_TO);
+		} finally {
+			stopCompiledEvaluation(curve);
+		}
+	}
+
+	/**
+	 * Functions do not change while plotting, evaluate compiled expression.
+	 */
+	private static void startCompiledEvaluation(CurveEvaluable curve) {
+		if (curve instanceof GeoFunction) {
+			((GeoFunction) curve).setCompiledEvaluation(true);
+		}
+	}
+
+	private static void stopCompiledEvaluation(CurveEvaluable curve) {
+		if (curve instanceof GeoFunction) {
+			((GeoFunction) curve).setCompiledEvaluation(false);
+		}
+	}
+
+	/**
+	 * @param eval
+	 *            point in real world coordinates
+	 * @param view
+	 *            view
+	 * @return label position for curve passing through given point
+	 */
+	static GPoint getLabelPoint(double[] eval, EuclidianView view) {
+		double xLabel = view.toScreenCoordXd(eval[0]) + 10;
+		if (xLabel < 20) {
+			xLabel = 5;
+		}
+		if (xLabel > view.getWidth() - 30) {
+			xLabel = view.getWidth() - 15;
+		}
+		double yLabel = view.toScreenCoordYd(eval[1]) + 15;
+		if (yLabel < 40) {
+			yLabel = 15;
+		} else if (yLabel > view.getHeight() - 30) {
+			yLabel = view.getHeight() - 5;
+		}
+
+		return new GPoint((int) xLabel, (int) yLabel);
+	}
+
 	/**
 	 * Draws a parametric curve (x(t), y(t)) for t in [t1, t2].
 	 * 
@@ -169,6 +256,16 @@ public class CurvePlotter {
 		for (int i = 1; i < length; i++) {
 			divisors[i] = divisors[i - 1] / 2;
 		}
+		// parameters down to this depth are always sampled, evaluate them in
+		// one batch
+		int gridDepth = 0;
+		while (gridDepth < MAX_DEFINED_BISECTIONS
+				&& divisors[gridDepth] > max_param_step) {
+			gridDepth++;
+		}
+		double[] grid = gridDepth == 0 ? null
+				: evaluateGrid(curve, t1, divisors[gridDepth], 1 << gridDepth,
+						eval.length);
 		int i = 1;
 		dyadicStack[0] = 1;
 		depthStack[0] = 0;
@@ -224,7 +321,13 @@ public class CurvePlotter {
 				t = t1 + i * divisors[depth]; // t=t1+(t2-t1)*(i/2^depth)
 
 				// evaluate curve for parameter t
-				curve.evaluateCurve(t, eval);
+				if (depth <= gridDepth) {
+					int k = i << (gridDepth - depth);
+					System.arraycopy(grid, (k - 1) * eval.length, eval, 0,
+							eval.length);
+				} else {
+					curve.evaluateCurve(t, eval);
+				}
 				onScreen = view.isOnView(eval);
 				// check for singularity:
 				// c(t) undefined; c(t-eps) and c(t+eps) both defined
@@ -299,21 +402,7 @@ public class CurvePlotter {
 
 			// remember first point on screen for label position
 			if (needLabelPos && onScreen) {
-				double xLabel = view.toScreenCoordXd(eval1[0]) + 10;
-				if (xLabel < 20) {
-					xLabel = 5;
-				}
-				if (xLabel > view.getWidth() - 30) {
-					xLabel = view.getWidth() - 15;
-				}
-				double yLabel = view.toScreenCoordYd(eval1[1]) + 15;
-				if (yLabel < 40) {
-					yLabel = 15;
-				} else if (yLabel > view.getHeight() - 30) {
-					yLabel = view.getHeight() - 5;
-				}
-
-				labelPoint = new GPoint((int) xLabel, (int) yLabel);
+				labelPoint = getLabelPoint(eval1, view);
 				needLabelPos = false;
 			}
 
@@ -338,6 +427,33 @@ public class CurvePlotter {
 		return labelPoint;
 	}
 
+	/**
+	 * Evaluates the curve at the inner points of a uniform grid.
+	 * 
+	 * @param curve
+	 *            curve
+	 * @param t1
+	 *            start parameter
+	 * @param step
+	 *            parameter step
+	 * @param count
+	 *            number of steps
+	 * @param dim
+	 *            dimension of curve points
+	 * @return coords of the point for t1 + k * step (0 &lt; k &lt; count)
+	 *         starting at index (k - 1) * dim
+	 */
+	private static double[] evaluateGrid(CurveEvaluable curve, double t1,
+			double step, int count, int dim) {
+		double[] ts = new double[count - 1];
+		for (int k = 1; k < count; k++) {
+			ts[k - 1] = t1 + k * step;
+		}
+		double[] out = new double[ts.length * dim];
+		curve.evaluateCurve(ts, out);
+		return out;
+	}
+
 	/**
 	 * Returns true when x is either NaN or infinite.
 	 */
@@ -0,0 +1,235 @@
+package org.geogebra.common.euclidian.plot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+
+import org.geogebra.common.awt.GPoint;
+import org.geogebra.common.euclidian.EuclidianView;
+import org.geogebra.common.euclidian.plot.CurvePlotter.Gap;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.SegmentType;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.matrix.CoordSys;
+import org.geogebra.common.util.DoubleUtil;
+
+/**
+ * Plotted points of a function graph, split into chunks of the parameter
+ * range aligned to multiples of the chunk width. Samples are kept as long as
+ * the function and the view scale do not change; after horizontal panning
+ * only the newly exposed chunks (and the ones on the view border) are
+ * sampled again.
+ */
+public class CurveSampleCache {
+
+	/** number of chunks per view width */
+	private static final int CHUNKS_PER_VIEW = 8;
+
+	private final HashMap<Long, Chunk> chunks = new HashMap<>();
+	private GeoFunction function;
+	private int updateCount;
+	private double xscale;
+	private double yscale;
+	private double ymin;
+	private int width;
+	private int height;
+	private double maxParamStep;
+	private double chunkWidth;
+
+	private static class Chunk {
+		protected final double t1;
+		protected final double t2;
+		/** visible x-range when the chunk was sampled */
+		protected final double xmin;
+		protected final double xmax;
+		protected final ArrayList<MyPoint> points = new ArrayList<>();
+
+		protected Chunk(double t1, double t2, double xmin, double xmax) {
+			this.t1 = t1;
+			this.t2 = t2;
+			this.xmin = xmin;
+			this.xmax = xmax;
+		}
+
+		/**
+		 * Points are sampled more densely on screen: reuse is possible if
+		 * the chunk was and is fully visible (on screen status of points
+		 * did not change) or if the view did not move at all.
+		 */
+		protected boolean isValid(double t1new, double t2new,
+				double xminNew, double xmaxNew) {
+			if (t1 != t1new || t2 != t2new) {
+				return false;
+			}
+			return (xmin == xminNew && xmax == xmaxNew)
+					|| (isInside(xmin, xmax) && isInside(xminNew, xmaxNew));
+		}
+
+		private boolean isInside(double min, double max) {
+			return t1 >= min && t2 <= max;
+		}
+	}
+
+	/**
+	 * Collects drawn points of a chunk.
+	 */
+	private static class Recorder implements PathPlotter {
+		private ArrayList<MyPoint> points;
+
+		protected Recorder(ArrayList<MyPoint> points) {
+			this.points = points;
+		}
+
+		@Override
+		public void drawTo(double[] pos, SegmentType lineTo) {
+			points.add(new MyPoint(pos[0], pos[1], lineTo));
+		}
+
+		@Override
+		public void lineTo(double[] pos) {
+			drawTo(pos, SegmentType.LINE_TO);
+		}
+
+		@Override
+		public void moveTo(double[] pos) {
+			drawTo(pos, SegmentType.MOVE_TO);
+		}
+
+		@Override
+		public void corner() {
+			// only used for filling
+		}
+
+		@Override
+		public void corner(double[] pos) {
+			// only used for filling
+		}
+
+		@Override
+		public void firstPoint(double[] pos, Gap moveToAllowed) {
+			moveTo(pos);
+		}
+
+		@Override
+		public double[] newDoubleArray() {
+			return new double[2];
+		}
+
+		@Override
+		public boolean copyCoords(MyPoint point, double[] ret,
+				CoordSys transformSys) {
+			return false;
+		}
+
+		@Override
+		public void endPlot() {
+			// nothing to do
+		}
+
+		@Override
+		public boolean supports(CoordSys transformSys) {
+			return false;
+		}
+	}
+
+	/**
+	 * Plots function graph for x in [t1, t2], reusing samples from previous
+	 * call where possible. Segments are separated by moveTo (no filling).
+	 *
+	 * @param fun
+	 *            function
+	 * @param t1
+	 *            min value of parameter
+	 * @param t2
+	 *            max value of parameter
+	 * @param view
+	 *            view
+	 * @param gp
+	 *            path plotter
+	 * @param calcLabelPos
+	 *            whether label position should be calculated and returned
+	 * @return label position or null
+	 */
+	public GPoint plot(GeoFunction fun, double t1, double t2,
+			EuclidianView view, PathPlotter gp, boolean calcLabelPos) {
+		double step = CurvePlotter.getMaxParamStep(t1, t2, view);
+		double viewWidth = view.getXmax() - view.getXmin();
+		double newChunkWidth = Math.pow(2, Math.floor(
+				Math.log(viewWidth / CHUNKS_PER_VIEW) / Math.log(2)));
+		if (fun != function || fun.getUpdateCount() != updateCount
+				|| view.getXscale() != xscale || view.getYscale() != yscale
+				|| view.getYmin() != ymin || view.getWidth() != width
+				|| view.getHeight() != height
+				// view width in RW coords may change by rounding when panning
+				|| !DoubleUtil.isEqual(step, maxParamStep, step * 1E-9)
+				|| newChunkWidth != chunkWidth) {
+			chunks.clear();
+			function = fun;
+			updateCount = fun.getUpdateCount();
+			xscale = view.getXscale();
+			yscale = view.getYscale();
+			ymin = view.getYmin();
+			width = view.getWidth();
+			height = view.getHeight();
+			maxParamStep = step;
+			chunkWidth = newChunkWidth;
+		}
+		long first = (long) Math.floor(t1 / chunkWidth);
+		long last = (long) Math.ceil(t2 / chunkWidth) - 1;
+		removeChunksOutside(first, last);
+
+		MyPoint lastPoint = null;
+		GPoint labelPoint = null;
+		boolean needLabelPos = calcLabelPos;
+		double[] pos = new double[2];
+		for (long k = first; k <= last; k++) {
+			double a = Math.max(t1, k * chunkWidth);
+			double b = Math.min(t2, (k + 1) * chunkWidth);
+			Chunk chunk = chunks.get(k);
+			if (chunk == null
+					|| !chunk.isValid(a, b, view.getXmin(), view.getXmax())) {
+				chunk = new Chunk(a, b, view.getXmin(), view.getXmax());
+				CurvePlotter.plotSamples(fun, a, b, maxParamStep, view,
+						new Recorder(chunk.points));
+				chunks.put(k, chunk);
+			}
+			for (int i = 0; i < chunk.points.size(); i++) {
+				MyPoint point = chunk.points.get(i);
+				// curve continues from previous chunk
+				if (i == 0 && lastPoint != null
+						&& point.getSegmentType() == SegmentType.MOVE_TO
+						&& point.x == lastPoint.x && point.y == lastPoint.y) {
+					continue;
+				}
+				pos[0] = point.x;
+				pos[1] = point.y;
+				gp.drawTo(pos, point.getSegmentType());
+				if (needLabelPos && view.isOnView(pos)) {
+					labelPoint = CurvePlotter.getLabelPoint(pos, view);
+					needLabelPos = false;
+				}
+				lastPoint = point;
+			}
+		}
+		gp.endPlot();
+		return labelPoint;
+	}
+
+	private void removeChunksOutside(long first, long last) {
+		Iterator<Long> it = chunks.keySet().iterator();
+		while (it.hasNext()) {
+			long k = it.next();
+			if (k < first || k > last) {
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Forget all samples.
+	 */
+	public void clear() {
+		chunks.clear();
+		function = null;
+	}
+}
@@ -3,6 +3,7 @@ package org.geogebra.common.factories;
 import org.geogebra.common.util.GTimer;
 import org.geogebra.common.util.GTimerListener;
 import org.geogebra.common.util.HttpRequest;
+import org.geogebra.common.util.ParallelExecutor;
 import org.geogebra.common.util.Prover;
 import org.geogebra.common.util.Reflection;
 import org.geogebra.common.util.URLEncoder;
@@ -76,4 +77,12 @@ public abstract class UtilFactory {
 	 * @return new GTimer object
 	 */
 	public abstract GTimer newTimer(GTimerListener listener, int delay);
+
+	/**
+	 * @return executor for parallel computations, null if the platform does
+	 *         not support threads
+	 */
+	public ParallelExecutor getParallelExecutor() {
+		return null;
+	}
 }
@@ -168,10 +168,42 @@ public class EuclidianView3DForExport extends EuclidianView3D {
 	 *            3D format
 	 * @param dialog
 	 *            settings dialog
-	 * @return 3D export
+	 * @return 3D export, null if the dialog exports to a file
 	 */
 	public StringBuilder export3D(final Format format,
 			final Export3dDialogInterface dialog) {
+		if (!prepareExport(format, dialog)) {
+			return null;
+		}
+		return newExportToPrinter().export(format);
+	}
+
+	/**
+	 * Export to a file, streamed if possible (see
+	 * {@link ExportToPrinter3D#exportToFile(Format)})
+	 * 
+	 * @param format
+	 *            3D format
+	 * @param dialog
+	 *            settings dialog
+	 */
+	public void export3DToFile(final Format format,
+			final Export3dDialogInterface dialog) {
+		if (prepareExport(format, dialog)) {
+			newExportToPrinter().exportToFile(format);
+		}
+	}
+
+	private ExportToPrinter3D newExportToPrinter() {
+		return new ExportToPrinter3D(this, renderer.getGeometryManager());
+	}
+
+	/**
+	 * @return false if the settings dialog is shown, it will export to a file
+	 *         when closed
+	 */
+	private boolean prepareExport(final Format format,
+			final Export3dDialogInterface dialog) {
 		settingsChanged(getSettings());
 		useSpecificThickness = false;
 		updateScene();
@@ -219,27 +251,20 @@ public class EuclidianView3DForExport extends EuclidianView3D {
 											dialog.getCurrentThickness() / 2,
 											dialog.getCurrentScale(),
 											dialog.wantsFilledSolids());
-									ExportToPrinter3D exportToPrinter = new ExportToPrinter3D(
-											EuclidianView3DForExport.this,
-											renderer.getGeometryManager());
+									ExportToPrinter3D exportToPrinter = newExportToPrinter();
 									getApplication().getKernel().detach(
 											EuclidianView3DForExport.this);
-									getApplication().exportStringToFile(
-											format.getExtension(),
-											exportToPrinter.export(format)
-													.toString());
+									exportToPrinter.exportToFile(format);
 								}
 							});
-					return null;
+					return false;
 				}
 				setThicknessAndScale(format, thickness, scale, true);
 			} else {
 				format.setScale(10); // default value: 1unit = 10mm
 			}
 		}
-		ExportToPrinter3D exportToPrinter = new ExportToPrinter3D(this,
-				renderer.getGeometryManager());
-		return exportToPrinter.export(format);
+		return true;
 	}
 
 	/**
@@ -1,6 +1,7 @@
 package org.geogebra.common.geogebra3D.euclidian3D.draw;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.geogebra.common.awt.GColor;
 import org.geogebra.common.euclidian.EuclidianController;
@@ -24,7 +25,6 @@ import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoFunctionNVar;
 import org.geogebra.common.kernel.kernelND.SurfaceEvaluable;
-import org.geogebra.common.kernel.kernelND.SurfaceEvaluable.LevelOfDetail;
 import org.geogebra.common.kernel.matrix.Coords;
 import org.geogebra.common.kernel.matrix.Coords3;
 import org.geogebra.common.kernel.matrix.CoordsDouble3;
@@ -133,6 +133,15 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 	private boolean splitsStartedNotFinished;
 	private boolean stillRoomLeft;
+	/** number of times the split stacks were swapped */
+	private int splitLevels;
+	/**
+	 * true if a defined point was outside the culling box, i.e. the mesh
+	 * depends on the culling box
+	 */
+	private boolean culled;
+	/** view scales the points were scaled with */
+	private double[] meshScales = new double[3];
 
 	private Coords boundsMin = new Coords(3);
 	private Coords boundsMax = new Coords(3);
@@ -327,18 +336,12 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 			}
 		}
 
-		boolean drawOccured = false;
+		boolean rootMeshCreated = false;
 
 		if (drawFromScratch) {
 			borders.clear();
 			drawUpToDate = false;
 
-			if (levelOfDetail == LevelOfDetail.QUALITY
-					&& splitsStartedNotFinished) {
-				draw();
-				drawOccured = true;
-			}
-
 			// maybe set to null after redefine
 			surfaceGeo.setDerivatives();
 
@@ -360,6 +363,8 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 			updateCullingBox();
 
 			initBounds();
+			culled = false;
+			getViewScales(meshScales);
 
 			debug("\nmax distances = " + maxRWDistance + ", "
 					+ maxRWDistanceNoAngleCheck);
@@ -396,6 +401,7 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 				// now splitted root mesh is ready
 				drawFromScratch = false;
+				rootMeshCreated = true;
 			} catch (NotEnoughCornersException e) {
 				e.caught();
 			}
@@ -411,6 +417,7 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 		// start recursive split
 		loopSplitIndex = 0;
+		int oldSplitLevels = splitLevels;
 		// long time = System.currentTimeMillis();
 		try {
 			stillRoomLeft = split();
@@ -449,16 +456,15 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 			splitsStartedNotFinished = splitsStartedNotFinished
 					&& stillRoomLeft;
 			if (!splitsStartedNotFinished) {
-				if (!drawOccured) {
-					// no draw at start: can do the draw now
-					draw();
-					drawUpToDate = true;
-					return true;
-				}
-				// no room left or no split to do: update is finished, but
-				// the
-				// object may change
-				return false;
+				// no room left or no split to do: update is finished
+				draw();
+				drawUpToDate = true;
+				return true;
+			}
+			if (rootMeshCreated || splitLevels != oldSplitLevels) {
+				// show the coarse mesh now, and a finer one each time a level
+				// of splits is done
+				draw();
 			}
 			// still room left and still split to do: still to update
 			return false;
@@ -666,12 +672,76 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 
 	@Override
 	protected void updateForView() {
-		if (getView3D().viewChangedByZoom()
-				|| getView3D().viewChangedByTranslate()) {
+		if ((getView3D().viewChangedByZoom()
+				|| getView3D().viewChangedByTranslate())
+				&& !isMeshValidForView()) {
 			setWaitForUpdate();
 		}
 	}
 
+	/**
+	 * Checks if the corner tree can be kept after the view was translated or
+	 * the clipping box changed, see {@link #isMeshInCullingBox}. The
+	 * parameter borders must not depend on the view either. Updates the
+	 * culling box for next splits.
+	 * 
+	 * @return true if the current mesh is the same as a new one would be
+	 */
+	private boolean isMeshValidForView() {
+		if (drawFromScratch || firstCorner == null) {
+			return false;
+		}
+		updateCullingBox();
+		double[] scales = new double[3];
+		getViewScales(scales);
+		if (!isMeshInCullingBox(culled, boundsMin, boundsMax, cullingBox,
+				meshScales, scales)) {
+			return false;
+		}
+		SurfaceParameter param = new SurfaceParameter();
+		param.initBorder(surfaceGeo, getView3D(), 0);
+		if (!param.hasSameBorder(uParam)) {
+			return false;
+		}
+		param.initBorder(surfaceGeo, getView3D(), 1);
+		return param.hasSameBorder(vParam);
+	}
+
+	/**
+	 * Points are stored scaled, so the mesh can't be kept when the view is
+	 * zoomed. Culled parts would need to be evaluated if the culling box
+	 * grows, and triangles crossing the border would need to be split again
+	 * if it shrinks, so the mesh is only kept if no point was culled and all
+	 * points are still inside the culling box.
+	 * 
+	 * @param culled
+	 *            whether a defined point was outside the culling box
+	 * @param min
+	 *            min coordinates of the evaluated points
+	 * @param max
+	 *            max coordinates of the evaluated points
+	 * @param cullingBox
+	 *            new culling box {xmin, xmax, ymin, ymax, zmin, zmax}
+	 * @param meshScales
+	 *            view scales the points were scaled with
+	 * @param scales
+	 *            current view scales
+	 * @return whether the mesh is the same as a new one would be
+	 */
+	static boolean isMeshInCullingBox(boolean culled, Coords min, Coords max,
+			double[] cullingBox, double[] meshScales, double[] scales) {
+		return !culled && Arrays.equals(meshScales, scales)
+				&& min.getX() > cullingBox[0] && max.getX() < cullingBox[1]
+				&& min.getY() > cullingBox[2] && max.getY() < cullingBox[3]
+				&& min.getZ() > cullingBox[4] && max.getZ() < cullingBox[5];
+	}
+
+	private void getViewScales(double[] scales) {
+		scales[0] = getView3D().getXscale();
+		scales[1] = getView3D().getYscale();
+		scales[2] = getView3D().getZscale();
+	}
+
 	@Override
 	public void setWaitForUpdate() {
 		drawFromScratch = true;
@@ -919,6 +989,9 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 			currentSplitIndex = nextSplitIndex;
 			nextSplitIndex = 0;
 			currentSplitStoppedIndex = 0;
+			if (currentSplitIndex > 0) {
+				splitLevels++;
+			}
 		}
 
 		while (currentSplitStoppedIndex < currentSplitIndex
@@ -977,6 +1050,7 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 			return evaluatedPoint.copyVector();
 		}
 
+		culled = true;
 		return Coords3.UNDEFINED;
 	}
 
@@ -997,6 +1071,7 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 				return evaluatedPoint.copyVector();
 			}
 
+			culled = true;
 			return Coords3.UNDEFINED;
 		}
 
@@ -1014,6 +1089,7 @@ public class DrawSurface3D extends Drawable3DSurfaces implements HasZPick {
 			return p;
 		}
 
+		culled = true;
 		return Coords3.UNDEFINED;
 	}
 
@@ -26,6 +26,8 @@ public class SurfaceParameter {
 	public double borderMin;
 	public double borderMax;
 	public double step;
+	/** wireframe step given by the view (step may be changed by init) */
+	private double gridStep;
 	public double max;
 	public int n;
 
@@ -139,6 +141,20 @@ public class SurfaceParameter {
 		}
 
 		delta = borderMax - borderMin;
+		gridStep = step;
+	}
+
+	/**
+	 * @param other
+	 *            other parameter
+	 * @return true if both parameters got the same borders and wireframe step
+	 *         from {@link #initBorder(SurfaceEvaluable, EuclidianView3D, int)}
+	 */
+	public boolean hasSameBorder(SurfaceParameter other) {
+		return Double.compare(borderMin, other.borderMin) == 0
+				&& Double.compare(borderMax, other.borderMax) == 0
+				&& Double.compare(gridStep, other.gridStep) == 0
+				&& wireframeBorder == other.wireframeBorder;
 	}
 
 	/**
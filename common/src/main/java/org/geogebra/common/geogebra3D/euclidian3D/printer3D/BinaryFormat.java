@@ -0,0 +1,27 @@
+package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Format that writes bytes to a stream instead of text to the string builder.
+ * {@link ExportToPrinter3D#export(Format, OutputStream)} runs the export
+ * twice: first without output (e.g. to count triangles for a header), then
+ * with output.
+ */
+public interface BinaryFormat {
+
+	/**
+	 * @param out
+	 *            stream for next export, null if next export only counts
+	 */
+	void setOutput(OutputStream out);
+
+	/**
+	 * write buffered bytes to the output
+	 *
+	 * @throws IOException
+	 *             if writing failed during the export
+	 */
+	void flush() throws IOException;
+}
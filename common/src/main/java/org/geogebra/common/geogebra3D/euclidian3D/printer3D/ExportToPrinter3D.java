@@ -1,5 +1,7 @@
 package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.TreeSet;
 
@@ -22,6 +24,9 @@ import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoPolygon;
 import org.geogebra.common.kernel.kernelND.GeoQuadricNDConstants;
 import org.geogebra.common.kernel.matrix.Coords;
+import org.geogebra.common.main.App;
+import org.geogebra.common.util.Charsets;
+import org.geogebra.common.util.debug.Log;
 
 /**
  * Export to 3D printer
@@ -54,6 +59,9 @@ public class ExportToPrinter3D {
 	protected EuclidianView3D view;
 
 	private StringBuilder sb;
+	/** stream the text is written to while exporting, may be null */
+	private OutputStream output;
+	private IOException outputException;
 
 	private boolean reverse = false;
 
@@ -65,6 +73,9 @@ public class ExportToPrinter3D {
 	 */
 	public final static String NEWLINE = "\n";
 
+	/** text is written to the output when it reaches this length */
+	private final static int CHUNK_SIZE = 1 << 16;
+
 	private TreeSet<SegmentIndex> segmentsForThickness;
 	private SegmentIndex reverseSegment;
 
@@ -801,6 +812,7 @@ public class ExportToPrinter3D {
 		double x = x0;
 		double y = y0;
 		double z = z0;
+		writeChunk(false);
 		if (notFirst) {
 			format.getVerticesSeparator(sb);
 		}
@@ -868,6 +880,7 @@ public class ExportToPrinter3D {
 
 	private boolean getFace(boolean notFirst, int v1, int v2, int v3,
 			int normal) {
+		writeChunk(false);
 		if (notFirst) {
 			format.getFacesSeparator(sb);
 		}
@@ -897,6 +910,92 @@ public class ExportToPrinter3D {
 		return sb;
 	}
 
+	/**
+	 * Writes the export to the stream. Text is written in chunks while
+	 * exporting and binary formats write their bytes directly, so that memory
+	 * doesn't grow with the number of triangles.
+	 * 
+	 * @param format1
+	 *            export format
+	 * @param out
+	 *            output stream (not closed)
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public void export(Format format1, OutputStream out) throws IOException {
+		if (format1 instanceof BinaryFormat) {
+			BinaryFormat binary = (BinaryFormat) format1;
+			try {
+				// first pass e.g. to count triangles for the header
+				binary.setOutput(null);
+				export(format1);
+				binary.setOutput(out);
+				export(format1);
+				binary.flush();
+			} finally {
+				binary.setOutput(null);
+			}
+			return;
+		}
+		output = out;
+		outputException = null;
+		try {
+			export(format1);
+			writeChunk(true);
+		} finally {
+			output = null;
+		}
+		if (outputException != null) {
+			throw outputException;
+		}
+	}
+
+	/**
+	 * Exports to a file of the application: streamed if the application
+	 * provides an output stream for it, as one string otherwise.
+	 * 
+	 * @param format1
+	 *            export format
+	 */
+	public void exportToFile(Format format1) {
+		App app = view.getApplication();
+		OutputStream out = app.getExportFileStream(format1.getExtension());
+		if (out == null) {
+			if (format1 instanceof BinaryFormat) {
+				Log.debug("Binary export not supported");
+			} else {
+				app.exportStringToFile(format1.getExtension(),
+						export(format1).toString());
+			}
+			return;
+		}
+		try {
+			export(format1, out);
+		} catch (IOException e) {
+			Log.error("Export failed: " + e.getMessage());
+		} finally {
+			try {
+				out.close();
+			} catch (IOException e) {
+				Log.debug(e);
+			}
+		}
+	}
+
+	private void writeChunk(boolean force) {
+		if (output == null || (!force && sb.length() < CHUNK_SIZE)) {
+			return;
+		}
+		if (outputException == null) {
+			try {
+				output.write(sb.toString().getBytes(Charsets.getUtf8()));
+			} catch (IOException e) {
+				outputException = e;
+			}
+		}
+		sb.setLength(0);
+	}
+
 	private void initSegmentsForThickness() {
 		if (segmentsForThickness == null) {
 			segmentsForThickness = new TreeSet<>();
@@ -0,0 +1,117 @@
+package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
+
+import java.util.HashMap;
+
+/**
+ * Wavefront OBJ format, with the same triangles as STL. Each vertex is written
+ * once and faces refer to it by index.
+ */
+public class FormatOBJ extends FormatSTL {
+
+	/**
+	 * the vertex map is cleared when it reaches this size, so that memory
+	 * stays bounded (vertices may then be written again)
+	 */
+	private static final int MAX_SHARED_VERTICES = 1 << 16;
+
+	private HashMap<VertexKey, Integer> vertexIndices = new HashMap<>();
+	private VertexKey tmpKey = new VertexKey();
+	private int vertexCount;
+
+	/**
+	 * Vertex as written in the file, i.e. coordinates with two decimals.
+	 */
+	private static class VertexKey {
+		private int x;
+		private int y;
+		private int z;
+
+		public VertexKey() {
+			// set later
+		}
+
+		public VertexKey(VertexKey key) {
+			x = key.x;
+			y = key.y;
+			z = key.z;
+		}
+
+		public void set(double x0, double y0, double z0) {
+			x = (int) (x0 * 100);
+			y = (int) (y0 * 100);
+			z = (int) (z0 * 100);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof VertexKey)) {
+				return false;
+			}
+			VertexKey key = (VertexKey) o;
+			return key.x == x && key.y == y && key.z == z;
+		}
+
+		@Override
+		public int hashCode() {
+			return (x * 31 + y) * 31 + z;
+		}
+	}
+
+	@Override
+	public String getExtension() {
+		return "obj";
+	}
+
+	@Override
+	public void getScriptStart(StringBuilder sb) {
+		resetPolygons();
+		vertexIndices.clear();
+		vertexCount = 0;
+		sb.append("o geogebra");
+	}
+
+	@Override
+	public void getScriptEnd(StringBuilder sb) {
+		getFilledSolidsTriangles(sb);
+		appendNewline(sb);
+	}
+
+	@Override
+	public void getTriangle(StringBuilder sb, double nx, double ny, double nz,
+			double v1x, double v1y, double v1z, double v2x, double v2y,
+			double v2z, double v3x, double v3y, double v3z) {
+		// vertices order gives the normal orientation
+		int i1 = getVertexIndex(sb, v1x, v1y, v1z);
+		int i2 = getVertexIndex(sb, v2x, v2y, v2z);
+		int i3 = getVertexIndex(sb, v3x, v3y, v3z);
+		appendNewline(sb);
+		sb.append("f ");
+		sb.append(i1);
+		sb.append(" ");
+		sb.append(i2);
+		sb.append(" ");
+		sb.append(i3);
+	}
+
+	private int getVertexIndex(StringBuilder sb, double x, double y,
+			double z) {
+		tmpKey.set(x, y, z);
+		Integer index = vertexIndices.get(tmpKey);
+		if (index != null) {
+			return index;
+		}
+		if (vertexIndices.size() >= MAX_SHARED_VERTICES) {
+			vertexIndices.clear();
+		}
+		vertexCount++;
+		vertexIndices.put(new VertexKey(tmpKey), vertexCount);
+		appendNewline(sb);
+		sb.append("v ");
+		appendValue(sb, x);
+		sb.append(" ");
+		appendValue(sb, y);
+		sb.append(" ");
+		appendValue(sb, z);
+		return vertexCount;
+	}
+}
@@ -41,17 +41,38 @@ public class FormatSTL extends Format {
 
 	@Override
 	public void getScriptStart(StringBuilder sb) {
+		resetPolygons();
 		sb.append("solid geogebra");
 	}
 
 	@Override
 	public void getScriptEnd(StringBuilder sb) {
+		getFilledSolidsTriangles(sb);
+		appendNewline(sb);
+		sb.append("endsolid geogebra");
+	}
+
+	/**
+	 * forget polygons of a previous export
+	 */
+	protected void resetPolygons() {
+		if (wantsFilledSolids) {
+			polygonHandler = new FormatPolygonsHandler();
+		}
+	}
+
+	/**
+	 * write triangles of filled solids, they can only be oriented when all
+	 * polygons are known
+	 * 
+	 * @param sb
+	 *            string builder
+	 */
+	protected void getFilledSolidsTriangles(StringBuilder sb) {
 		if (wantsFilledSolids()) {
 			polygonHandler.setOrientedNormals();
 			polygonHandler.getTriangles(sb, this);
 		}
-		appendNewline(sb);
-		sb.append("endsolid geogebra");
 	}
 
 	@Override
@@ -330,7 +351,15 @@ public class FormatSTL extends Format {
 		this.scale = scale;
 	}
 
-	private static void appendValue(StringBuilder sb, double v) {
+	/**
+	 * append value with two decimals
+	 * 
+	 * @param sb
+	 *            string builder
+	 * @param v
+	 *            value
+	 */
+	protected static void appendValue(StringBuilder sb, double v) {
 		int v1 = (int) Math.abs(v * 100);
 		int integerValue = v1 / 100;
 		int decimals = v1 % 100;
@@ -0,0 +1,116 @@
+package org.geogebra.common.geogebra3D.euclidian3D.printer3D;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Binary STL format: 80 bytes header, number of triangles, then for each
+ * triangle normal and vertices as little-endian floats and 2 unused bytes
+ */
+public class FormatSTLBinary extends FormatSTL implements BinaryFormat {
+
+	private static final int HEADER_LENGTH = 80;
+	/** must not start with "solid", which is used to detect ASCII files */
+	private static final String HEADER_TEXT = "GeoGebra binary STL";
+	private static final int TRIANGLE_LENGTH = 50;
+	private static final int BUFFERED_TRIANGLES = 1024;
+
+	private OutputStream output;
+	private byte[] buffer = new byte[TRIANGLE_LENGTH * BUFFERED_TRIANGLES];
+	private int bufferLength;
+	private int triangleCount;
+	/** number of triangles written in the header */
+	private int headerCount;
+	private IOException exception;
+
+	@Override
+	public void setOutput(OutputStream out) {
+		this.output = out;
+	}
+
+	@Override
+	public void getScriptStart(StringBuilder sb) {
+		resetPolygons();
+		// triangles counted in the previous export
+		headerCount = triangleCount;
+		triangleCount = 0;
+		bufferLength = 0;
+		exception = null;
+		if (output != null) {
+			for (int i = 0; i < HEADER_TEXT.length(); i++) {
+				buffer[i] = (byte) HEADER_TEXT.charAt(i);
+			}
+			for (int i = HEADER_TEXT.length(); i < HEADER_LENGTH; i++) {
+				buffer[i] = 0;
+			}
+			bufferLength = HEADER_LENGTH;
+			putInt(headerCount);
+		}
+	}
+
+	@Override
+	public void getScriptEnd(StringBuilder sb) {
+		getFilledSolidsTriangles(sb);
+	}
+
+	@Override
+	public void getTriangle(StringBuilder sb, double nx, double ny, double nz,
+			double v1x, double v1y, double v1z, double v2x, double v2y,
+			double v2z, double v3x, double v3y, double v3z) {
+		triangleCount++;
+		if (output == null) {
+			return;
+		}
+		if (bufferLength + TRIANGLE_LENGTH > buffer.length) {
+			writeBuffer();
+		}
+		putFloat(nx);
+		putFloat(ny);
+		putFloat(nz);
+		putFloat(v1x);
+		putFloat(v1y);
+		putFloat(v1z);
+		putFloat(v2x);
+		putFloat(v2y);
+		putFloat(v2z);
+		putFloat(v3x);
+		putFloat(v3y);
+		putFloat(v3z);
+		buffer[bufferLength++] = 0;
+		buffer[bufferLength++] = 0;
+	}
+
+	private void putFloat(double v) {
+		putInt(Float.floatToIntBits((float) v));
+	}
+
+	private void putInt(int v) {
+		buffer[bufferLength++] = (byte) v;
+		buffer[bufferLength++] = (byte) (v >> 8);
+		buffer[bufferLength++] = (byte) (v >> 16);
+		buffer[bufferLength++] = (byte) (v >> 24);
+	}
+
+	private void writeBuffer() {
+		if (output != null && exception == null && bufferLength > 0) {
+			try {
+				output.write(buffer, 0, bufferLength);
+			} catch (IOException e) {
+				exception = e;
+			}
+		}
+		bufferLength = 0;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writeBuffer();
+		if (exception != null) {
+			throw exception;
+		}
+		if (output != null && triangleCount != headerCount) {
+			throw new IOException("Expected " + headerCount
+					+ " triangles, exported " + triangleCount);
+		}
+	}
+}
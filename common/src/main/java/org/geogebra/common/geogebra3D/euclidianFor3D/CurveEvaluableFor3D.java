@@ -74,6 +74,22 @@ public class CurveEvaluableFor3D implements CurveEvaluable {
 
 	}
 
+	@Override
+	public void evaluateCurve(double[] ts, double[] out) {
+		double[] parentPoints = new double[3 * ts.length];
+		parent.evaluateCurve(ts, parentPoints);
+		for (int i = 0; i < ts.length; i++) {
+			double z = parentPoints[3 * i + 2];
+			if (Double.isInfinite(z) || Double.isNaN(z)
+					|| !DoubleUtil.isZero(z)) {
+				out[2 * i] = Double.NaN;
+			} else {
+				out[2 * i] = parentPoints[3 * i];
+				out[2 * i + 1] = parentPoints[3 * i + 1];
+			}
+		}
+	}
+
 	@Override
 	public double[] getDefinedInterval(double a, double b) {
 		funZ.setParentFun(parent.getFun(2));
@@ -83,6 +83,15 @@ public class CurveEvaluableForPlane implements CurveEvaluable {
 
 	}
 
+	@Override
+	public void evaluateCurve(double[] ts, double[] out) {
+		double[] point = newDoubleArray();
+		for (int i = 0; i < ts.length; i++) {
+			evaluateCurve(ts[i], point);
+			System.arraycopy(point, 0, out, i * point.length, point.length);
+		}
+	}
+
 	@Override
 	public double[] getDefinedInterval(double a, double b) {
 		return GeoCurveCartesian3D.getDefinedInterval(a, b, parent.getFun(0),
@@ -0,0 +1,776 @@
+package org.geogebra.common.geogebra3D.kernel3D.implicit3D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+import org.geogebra.common.geogebra3D.kernel3D.geos.GeoTriangulatedSurface3D;
+import org.geogebra.common.geogebra3D.kernel3D.implicit3D.GeoImplicitSurface.CompiledEvaluator;
+import org.geogebra.common.kernel.arithmetic.MyDouble;
+import org.geogebra.common.kernel.matrix.Coords;
+import org.geogebra.common.util.ParallelExecutor;
+
+/**
+ * Marching cubes triangulation of an implicit surface. Inner grid planes lie
+ * on a lattice (i * dx, j * dy, k * dz) whose spacing is rounded to powers of
+ * 2^(1/4), only the outermost planes are on the bounds. Function values are
+ * kept by grid coordinates and triangles by blocks of cells, so that an update
+ * with unchanged bounds (e.g. rotating the view) does nothing and moving the
+ * bounds only evaluates and meshes the new blocks. Blocks are meshed in
+ * parallel if the function can be evaluated concurrently.
+ */
+class MarchingCubes {
+
+	private static final int AVE_PXL = 40;
+	private static final int MAX_SUB_DIV = 25;
+	/** cells per block along each axis */
+	private static final int BLOCK_SIZE = 8;
+	private static final double STEPS_PER_OCTAVE = 4;
+	/** minimal number of new values for parallel evaluation */
+	private static final int PARALLEL_THRESHOLD = 400;
+	private static final int EMPTY_OR_INVALID = 0x1ff;
+
+	private static final int[][] EDGE_TABLE = new int[][] { {}, // 0x00, 0xff
+			{ 0, 4, 3 }, // 0x01, 00000001
+			{ 0, 5, 1 }, // 0x02, 00000010
+			{ 1, 3, 4, 4, 5, 1 }, // 0x03, 00000011
+			{ 1, 2, 6 }, // 0x04, 00000100
+			{ 0, 4, 3, 1, 2, 6 }, // 0x05, 00000101
+			{ 6, 5, 0, 0, 2, 6 }, // 0x06, 00000110
+			{ 6, 5, 4, 6, 4, 3, 3, 2, 6 }, // 0x07, 0x00000111
+			{ 2, 3, 7 }, // 0x08, 00001000
+			{ 0, 4, 7, 7, 2, 0 }, // 0x09, 00001001
+			{ 2, 3, 7, 0, 5, 1 }, // 0x0A, 00001010
+			{ 5, 4, 7, 7, 2, 1, 1, 5, 7 }, // 0x0B, 00001011
+			{ 1, 3, 7, 7, 6, 1 }, // 0x0C, 0x00001100
+			{ 4, 7, 6, 6, 1, 0, 0, 4, 6 }, // 0x0D, 0x00001101
+			{ 7, 6, 5, 5, 0, 3, 3, 7, 5 }, // 0x0E, 0x00001110
+			{ 5, 4, 7, 7, 6, 5 }, // 0x0F, 00001111
+			{ 4, 8, 11 }, // 0x10, 00010000
+			{ 0, 8, 11, 0, 3, 11 }, // 0x11, 00010001
+			{ 4, 8, 11, 0, 1, 5 }, // 0x12, 00010010
+			{ 1, 3, 11, 1, 8, 11, 1, 8, 5 }, // 0x13, 00010011
+			{ 4, 8, 11, 1, 2, 6 }, // 0x14, 00010100
+			{ 0, 8, 11, 0, 3, 11, 1, 2, 6 }, // 0x15, 00010101
+			{ 4, 8, 11, 2, 6, 5, 5, 0, 2 }, // 0x16, 00010110
+			{ 8, 5, 11, 8, 10, 11, 5, 2, 3, 5, 2, 6 }, // 0x17, 000010111
+			{ 4, 8, 11, 2, 3, 7 }, // 0x18, 00011000
+			{ 0, 2, 8, 2, 8, 11, 11, 2, 7 }, // 0x19, 00011001
+			{ 4, 8, 11, 2, 3, 7, 0, 1, 5 }, // 0x1A, 00011010
+			{ 1, 5, 8, 1, 2, 8, 2, 8, 11, 2, 7, 11 }, // 0x1B, 00011011
+			{ 4, 8, 11, 1, 3, 6, 3, 6, 7 }, // 0x1C, 00011100
+			{ 0, 1, 8, 1, 6, 7, 1, 7, 8, 7, 8, 11 }, // 0x1D, 00011101
+			{ 5, 6, 7, 0, 5, 7, 3, 7, 0, 4, 8, 11 }, // 0x1E, 00011110
+			{ 5, 6, 7, 5, 8, 11, 5, 11, 7 }, // 0x1F, 00011111
+			{ 5, 8, 9 }, // 0x20, 00100000
+			{ 5, 8, 9, 0, 3, 4 }, // 0x21, 00100001
+			{ 1, 8, 9, 1, 0, 8 }, // 0x22, 00100010
+			{ 1, 3, 9, 9, 3, 8, 3, 8, 4 }, // 0x23, 00100011
+			{ 5, 8, 9, 1, 2, 6 }, // 0x24, 00100100
+			{ 5, 8, 9, 1, 2, 6, 0, 3, 4 }, // 0x25, 00100101
+			{ 0, 2, 8, 8, 9, 2, 9, 2, 6 }, // 0x26, 00100110
+			{ 4, 8, 9, 3, 4, 9, 2, 3, 6, 3, 6, 9 }, // 0x27, 00100111
+			{ 5, 8, 9, 2, 3, 7 }, // 0x28, 00101000
+			{ 5, 8, 9, 0, 4, 7, 0, 2, 7 }, // 0x29, 00101001
+			{ 1, 8, 9, 1, 0, 8, 2, 3, 7 }, // 0x2A, 00101010
+			{ 2, 4, 7, 2, 4, 8, 1, 2, 8, 1, 8, 9 }, // 0x2B, 00101011
+			{ 5, 8, 9, 1, 3, 6, 3, 6, 7 }, // 0x2C, 00101100
+			{ 4, 6, 7, 4, 6, 1, 4, 1, 0, 5, 8, 9 }, // 0x2D, 00101101
+			{ 0, 3, 8, 3, 8, 9, 3, 7, 9, 6, 7, 9 }, // 0x2E, 00101110
+			{ 4, 6, 7, 4, 8, 9, 4, 9, 6 }, // 0x2F, 00101111
+			{ 4, 5, 9, 4, 9, 11 }, // 0x30, 00110000
+			{ 3, 9, 11, 0, 3, 9, 0, 5, 9 }, // 0x31, 00110001
+			{ 1, 9, 11, 0, 1, 11, 0, 4, 11 }, // 0x32, 00110010
+			{ 1, 9, 11, 11, 3, 1 }, // 0x33, 00110011
+			{ 4, 5, 9, 4, 9, 11, 1, 2, 6 }, // 0x34, 00110100
+			{ 3, 9, 11, 0, 3, 9, 0, 5, 9, 1, 2, 6 }, // 0x35, 00110101
+			{ 6, 8, 10, 4, 6, 8, 1, 4, 6, 1, 3, 4 }, // 0x36, 00110110
+			{ 3, 9, 11, 3, 6, 9, 6, 2, 3 }, // 0x37, 00110111
+			{ 4, 5, 9, 4, 9, 11, 2, 3, 7 }, // 0x38, 00111000
+			{ 6, 9, 11, 4, 6, 9, 0, 2, 4, 2, 4, 6 }, // 0x39, 00111001
+			{ 1, 9, 11, 0, 1, 11, 0, 4, 11, 2, 3, 7 }, // 0x3A, 00111010
+			{ 1, 9, 11, 1, 2, 7, 1, 7, 11 }, // 0x3B, 00111011
+			{ 4, 5, 9, 4, 9, 11, 1, 3, 6, 3, 6, 7 }, // 0x3C, 00111100
+			{ 7, 9, 11, 6, 7, 9, 0, 1, 5 }, // 0x3D, 00111101
+			{ 7, 9, 11, 6, 7, 9, 0, 3, 4 }, // 0x3E, 00111110
+			{ 7, 9, 11, 6, 7, 9 }, // 0x3F, 00111111
+			{ 6, 9, 10 }, // 0x40, 01000000
+			{ 6, 9, 10, 0, 3, 4 }, // 0x41, 01000001
+			{ 6, 9, 10, 0, 1, 5 }, // 0x42, 01000010
+			{ 6, 9, 10, 1, 3, 4, 1, 4, 5 }, // 0x43, 01000011
+			{ 1, 2, 9, 2, 9, 10 }, // 0x44, 01000100
+			{ 1, 2, 9, 2, 9, 10, 0, 3, 4 }, // 0x45, 01000101
+			{ 0, 2, 10, 0, 5, 10, 5, 9, 10 }, // 0x46, 01000110
+			{ 4, 5, 9, 3, 4, 9, 2, 3, 10, 3, 9, 10 }, // 0x47, 01000111
+			{ 6, 9, 10, 2, 3, 7 }, // 0x48, 01001000
+			{ 6, 9, 10, 0, 4, 7, 0, 2, 7 }, // 0x49, 01001001
+			{ 6, 9, 10, 2, 3, 7, 0, 1, 5 }, // 0x4A, 01001010
+			{ 4, 5, 7, 2, 5, 7, 1, 2, 5, 6, 9, 10 }, // 0x4B, 01001011
+			{ 1, 9, 3, 3, 9, 10, 3, 10, 7 }, // 0x4C, 01001100
+			{ 4, 7, 10, 0, 4, 10, 0, 1, 9, 0, 9, 10 }, // 0x4D, 01001101
+			{ 0, 3, 5, 3, 5, 9, 3, 7, 9, 7, 9, 10 }, // 0x4E, 01001110
+			{ 4, 5, 7, 9, 10, 7, 9, 7, 5 }, // 0x4F, 01001111
+			{ 6, 9, 10, 4, 8, 11 }, // 0x50, 01010000
+			{ 6, 9, 10, 0, 8, 11, 0, 3, 11 }, // 0x51, 01010001
+			{ 6, 9, 10, 4, 8, 11, 0, 1, 5 }, // 0x52, 01010010
+			{ 1, 3, 11, 1, 8, 11, 1, 8, 5, 6, 9, 10 }, // 0x53, 01010011
+			{ 1, 9, 10, 1, 2, 10, 3, 4, 11 }, // 0x54, 01010100
+			{ 0, 8, 11, 0, 3, 11, 1, 9, 10, 1, 2, 10 }, // 0x55, 01010101
+			{ 0, 2, 10, 0, 5, 10, 5, 9, 10, 4, 8, 11 }, // 0x56, 01010110
+			{ 2, 3, 11, 2, 10, 11, 5, 8, 9 }, // 0x57, 01010111
+			{ 2, 3, 7, 6, 9, 10, 4, 8, 11 }, // 0x58, 01011000
+			{ 0, 2, 8, 2, 8, 11, 11, 2, 7, 6, 9, 10 }, // 0x59, 01011001
+			{ 0, 1, 5, 2, 3, 7, 4, 8, 11, 6, 9, 10 }, // 0x5A, 01011010
+			{ 1, 2, 6, 5, 8, 9, 7, 11, 10 }, // 0x5B, 01011011
+			{ 1, 9, 3, 3, 9, 10, 3, 10, 7, 4, 8, 11 }, // 0x5C, 01011100
+			{ 0, 1, 8, 1, 8, 9, 7, 10, 11 }, // 0x5D, 01011101
+			{ 0, 3, 4, 5, 8, 9, 7, 10, 11 }, // 0x5E, 01011110
+			{ 5, 8, 9, 7, 10, 11 }, // 0x5F, 01011111
+			{ 5, 6, 10, 5, 8, 10 }, // 0x60, 01100000
+			{ 5, 6, 10, 5, 8, 10, 0, 3, 4 }, // 0x61, 01100001
+			{ 0, 8, 10, 0, 1, 6, 0, 6, 10 }, // 0x62, 01100010
+			{ 6, 8, 10, 4, 6, 8, 1, 3, 4, 1, 4, 6 }, // 0x63, 01100011
+			{ 2, 8, 10, 1, 2, 8, 1, 5, 8 }, // 0x64, 01100100
+			{ 2, 8, 10, 1, 2, 8, 1, 5, 8, 0, 3, 4 }, // 0x65, 01100101
+			{ 0, 2, 10, 0, 10, 8 }, // 0x66, 01100110
+			{ 2, 8, 10, 2, 3, 4, 2, 4, 8 }, // 0x67, 01100111
+			{ 5, 6, 10, 5, 8, 10, 2, 3, 7 }, // 0x68, 01101000
+			{ 0, 4, 7, 0, 2, 7, 5, 6, 10, 5, 8, 10 }, // 0x69, 01101001
+			{ 0, 8, 10, 0, 1, 6, 0, 6, 10, 2, 3, 7 }, // 0x6A, 01101010
+			{ 4, 8, 10, 10, 7, 4, 1, 2, 6 }, // 0x6B, 01101011
+			{ 7, 8, 10, 5, 7, 8, 1, 3, 5, 3, 5, 7 }, // 0x6C, 01101100
+			{ 4, 8, 10, 10, 7, 4, 0, 1, 5 }, // 0x6D, 01101101
+			{ 0, 8, 10, 0, 3, 10, 3, 7, 10 }, // 0x6E, 01101110
+			{ 4, 8, 10, 10, 7, 4 }, // 0x6F, 01101111
+			{ 4, 5, 6, 4, 6, 10, 4, 10, 11 }, // 0x70, 01110000
+			{ 3, 10, 11, 0, 3, 10, 0, 6, 10, 0, 5, 6 }, // 0x71, 01110001
+			{ 0, 1, 4, 1, 4, 6, 4, 6, 11, 6, 10, 11 }, // 0x72, 01110010
+			{ 1, 3, 11, 1, 6, 10, 1, 10, 11 }, // 0x73, 01110011
+			{ 1, 2, 10, 1, 10, 11, 1, 5, 11, 4, 5, 11 }, // 0x74, 01110100
+			{ 3, 10, 11, 2, 3, 10, 0, 1, 5 }, // 0x75, 01110101
+			{ 0, 2, 10, 0, 4, 10, 4, 10, 11 }, // 0x76, 01110110
+			{ 3, 10, 11, 2, 3, 10 }, // 0x77, 01110111
+			{ 4, 5, 6, 4, 6, 10, 4, 10, 11, 2, 3, 7 }, // 0x78, 01111000
+			{ 7, 10, 11, 0, 5, 6, 0, 2, 6 }, // 0x79, 01111001
+			{ 7, 10, 11, 0, 3, 4, 1, 2, 6 }, // 0x7A, 01111010
+			{ 7, 10, 11, 1, 2, 6 }, // 0x7B, 01111011
+			{ 7, 10, 11, 1, 5, 4, 4, 3, 1 }, // 0x7C, 01111100
+			{ 7, 10, 11, 0, 1, 5 }, // 0x7D, 01111101
+			{ 7, 10, 11, 0, 3, 4 }, // 0x7E, 01111110
+			{ 7, 10, 11 }, // 0x7F, 01111111
+	};
+
+	private final GeoImplicitSurface s;
+
+	/** false if the function changed since the last update */
+	private boolean valid;
+	private double[] bounds;
+	private double[] steps;
+	private Axis[] axes;
+	/** values indexed by (k * ny + j) * nx + i */
+	private double[] values;
+	private HashMap<BlockKey, Mesh> meshes = new HashMap<>();
+
+	/**
+	 * Evaluates the function and its derivatives. An instance is only used
+	 * by one thread at a time.
+	 */
+	interface Evaluator {
+		/**
+		 * @param xyz
+		 *            coordinates
+		 * @return function value
+		 */
+		double evaluate(double[] xyz);
+
+		/**
+		 * @param xyz
+		 *            coordinates
+		 * @param gradient
+		 *            output: partial derivatives at xyz
+		 * @return false if the function has no derivatives
+		 */
+		boolean evaluateGradient(double[] xyz, double[] gradient);
+	}
+
+	/**
+	 * @param s
+	 *            surface
+	 */
+	MarchingCubes(GeoImplicitSurface s) {
+		this.s = s;
+	}
+
+	/**
+	 * Forget values and triangles, needs to be called whenever the function
+	 * changes.
+	 */
+	void invalidate() {
+		valid = false;
+		values = null;
+		meshes.clear();
+	}
+
+	/**
+	 * Triangulates the surface and stores the triangles in surf; does nothing
+	 * if the function and the bounds did not change since the last update.
+	 * 
+	 * @param newBounds
+	 *            surface bounds: {xmin, xmax, ymin, ymax, zmin, zmax, xscale,
+	 *            yscale, zscale}
+	 * @param surf
+	 *            output surface
+	 */
+	void update(double[] newBounds, GeoTriangulatedSurface3D surf) {
+		if (valid && Arrays.equals(bounds, newBounds)) {
+			return;
+		}
+		double[] newSteps = new double[3];
+		Axis[] newAxes = new Axis[3];
+		for (int d = 0; d < 3; d++) {
+			double min = newBounds[2 * d];
+			double max = newBounds[2 * d + 1];
+			int size = Math.min(MAX_SUB_DIV,
+					pixels(min, max, newBounds[6 + d]) / AVE_PXL + 1);
+			newSteps[d] = roundStep((max - min) / size);
+			newAxes[d] = new Axis(min, max, newSteps[d]);
+		}
+		GeoImplicitSurface.debug("{x:" + newAxes[0].cells() + ";y:"
+				+ newAxes[1].cells() + ";z:" + newAxes[2].cells() + "}");
+		if (!valid || !Arrays.equals(steps, newSteps)) {
+			invalidate();
+		}
+		// compiled once, shared by all tasks
+		CompiledEvaluator compiled = ParallelExecutor.isAvailable()
+				? s.createConcurrentEvaluator() : null;
+		updateValues(newAxes, compiled);
+		updateMeshes(compiled);
+
+		bounds = newBounds.clone();
+		steps = newSteps;
+		valid = true;
+
+		surf.clear();
+		for (Mesh mesh : meshes.values()) {
+			mesh.addTo(surf);
+		}
+	}
+
+	private static int pixels(double c1, double c2, double scale) {
+		return (int) Math.ceil((Math.abs(c1 - c2) * scale));
+	}
+
+	/**
+	 * @param step
+	 *            requested step
+	 * @return step rounded up to power of 2^(1/4)
+	 */
+	static double roundStep(double step) {
+		double exp = Math.ceil(
+				Math.log(step) / Math.log(2) * STEPS_PER_OCTAVE - 1E-9);
+		return Math.pow(2, exp / STEPS_PER_OCTAVE);
+	}
+
+	/**
+	 * Fills values for new grid, reusing values at the same coordinates.
+	 * 
+	 * @param newAxes
+	 *            axes of the new grid
+	 * @param compiled
+	 *            evaluator for parallel tasks, null to evaluate serially
+	 */
+	private void updateValues(Axis[] newAxes,
+			final CompiledEvaluator compiled) {
+		final int nx = newAxes[0].coords.length;
+		final int ny = newAxes[1].coords.length;
+		final int nz = newAxes[2].coords.length;
+		final double[] newValues = new double[nx * ny * nz];
+		final boolean[] known = new boolean[newValues.length];
+		int missing = newValues.length;
+		if (values != null) {
+			int[] oldX = newAxes[0].find(axes[0]);
+			int[] oldY = newAxes[1].find(axes[1]);
+			int[] oldZ = newAxes[2].find(axes[2]);
+			int oldNx = axes[0].coords.length;
+			int oldNy = axes[1].coords.length;
+			for (int k = 0; k < nz; k++) {
+				for (int j = 0; j < ny; j++) {
+					for (int i = 0; i < nx; i++) {
+						if (oldX[i] >= 0 && oldY[j] >= 0 && oldZ[k] >= 0) {
+							int index = (k * ny + j) * nx + i;
+							newValues[index] = values[(oldZ[k] * oldNy
+									+ oldY[j]) * oldNx + oldX[i]];
+							known[index] = true;
+							missing--;
+						}
+					}
+				}
+			}
+		}
+		final double[] xs = newAxes[0].coords;
+		final double[] ys = newAxes[1].coords;
+		final double[] zs = newAxes[2].coords;
+		final boolean concurrent = compiled != null
+				&& missing >= PARALLEL_THRESHOLD;
+		ParallelExecutor.IndexTask planeTask = new ParallelExecutor.IndexTask() {
+
+			@Override
+			public void run(int k) {
+				Evaluator evaluator = concurrent ? compiled.copy()
+						: s.getEvaluator();
+				double[] xyz = new double[] { 0, 0, zs[k] };
+				for (int j = 0; j < ny; j++) {
+					xyz[1] = ys[j];
+					for (int i = 0; i < nx; i++) {
+						int index = (k * ny + j) * nx + i;
+						if (!known[index]) {
+							xyz[0] = xs[i];
+							newValues[index] = evaluator.evaluate(xyz);
+						}
+					}
+				}
+			}
+		};
+		if (concurrent) {
+			ParallelExecutor.execute(nz, planeTask);
+		} else if (missing > 0) {
+			for (int k = 0; k < nz; k++) {
+				planeTask.run(k);
+			}
+		}
+		axes = newAxes;
+		values = newValues;
+	}
+
+	/**
+	 * Keeps triangles of blocks that exist in the new grid and meshes the
+	 * other blocks.
+	 * 
+	 * @param compiled
+	 *            evaluator for parallel tasks, null to mesh serially
+	 */
+	private void updateMeshes(final CompiledEvaluator compiled) {
+		ArrayList<BlockKey> keys = new ArrayList<>();
+		int[][] xRuns = axes[0].blockRuns();
+		int[][] yRuns = axes[1].blockRuns();
+		int[][] zRuns = axes[2].blockRuns();
+		for (int[] zRun : zRuns) {
+			for (int[] yRun : yRuns) {
+				for (int[] xRun : xRuns) {
+					keys.add(new BlockKey(xRun, yRun, zRun, axes));
+				}
+			}
+		}
+		final ArrayList<BlockKey> toMesh = new ArrayList<>();
+		for (BlockKey key : keys) {
+			if (!meshes.containsKey(key)) {
+				toMesh.add(key);
+			}
+		}
+		final Mesh[] results = new Mesh[toMesh.size()];
+		final boolean concurrent = compiled != null && toMesh.size() > 1;
+		ParallelExecutor.IndexTask blockTask = new ParallelExecutor.IndexTask() {
+
+			@Override
+			public void run(int index) {
+				Evaluator evaluator = concurrent ? compiled.copy()
+						: s.getEvaluator();
+				BlockMesher mesher = new BlockMesher(evaluator);
+				results[index] = mesher.mesh(toMesh.get(index));
+			}
+		};
+		if (concurrent) {
+			ParallelExecutor.execute(results.length, blockTask);
+		} else {
+			for (int i = 0; i < results.length; i++) {
+				blockTask.run(i);
+			}
+		}
+		for (int i = 0; i < results.length; i++) {
+			meshes.put(toMesh.get(i), results[i]);
+		}
+		// keep only the blocks of the new grid, in grid order
+		LinkedHashMap<BlockKey, Mesh> newMeshes = new LinkedHashMap<>();
+		for (BlockKey key : keys) {
+			newMeshes.put(key, meshes.get(key));
+		}
+		meshes = newMeshes;
+	}
+
+	private static long floorDiv(long a, long b) {
+		return a >= 0 ? a / b : -((-a - 1) / b) - 1;
+	}
+
+	/**
+	 * Grid planes along one axis.
+	 */
+	private static class Axis {
+		/** plane coordinates, ascending */
+		final double[] coords;
+		/** block index of each cell */
+		final long[] blocks;
+
+		Axis(double min, double max, double step) {
+			if (!(max > min) || !(step > 0)
+					|| !(Math.abs(min / step) + Math.abs(max / step) < 1E15)) {
+				coords = new double[] { min, max };
+				blocks = new long[1];
+				return;
+			}
+			long first = (long) Math.floor(min / step) + 1;
+			long last = (long) Math.ceil(max / step) - 1;
+			// no thin cells at the bounds
+			while (first <= last && first * step - min < step / 4) {
+				first++;
+			}
+			while (last >= first && max - last * step < step / 4) {
+				last--;
+			}
+			int inner = (int) Math.max(0, last - first + 1);
+			coords = new double[inner + 2];
+			coords[0] = min;
+			for (int i = 0; i < inner; i++) {
+				coords[i + 1] = (first + i) * step;
+			}
+			coords[inner + 1] = max;
+			blocks = new long[inner + 1];
+			for (int i = 0; i <= inner; i++) {
+				// cell i is above lattice plane first + i - 1
+				blocks[i] = floorDiv(first + i - 1, BLOCK_SIZE);
+			}
+		}
+
+		int cells() {
+			return blocks.length;
+		}
+
+		/**
+		 * @param old
+		 *            previous axis
+		 * @return for each plane the index of the plane with the same
+		 *         coordinate in the old axis, or -1
+		 */
+		int[] find(Axis old) {
+			int[] ret = new int[coords.length];
+			for (int i = 0; i < coords.length; i++) {
+				ret[i] = Math.max(-1,
+						Arrays.binarySearch(old.coords, coords[i]));
+			}
+			return ret;
+		}
+
+		/**
+		 * @return {first cell, end cell} for each block
+		 */
+		int[][] blockRuns() {
+			ArrayList<int[]> runs = new ArrayList<>();
+			int start = 0;
+			for (int i = 1; i <= blocks.length; i++) {
+				if (i == blocks.length || blocks[i] != blocks[start]) {
+					runs.add(new int[] { start, i });
+					start = i;
+				}
+			}
+			return runs.toArray(new int[0][]);
+		}
+	}
+
+	/**
+	 * Identifies a block of cells by its lattice index and its bounding
+	 * planes; inner planes are lattice planes, so blocks with the same key
+	 * have the same triangles.
+	 */
+	private static class BlockKey {
+		final int[] cells;
+		final long[] index;
+		final double[] box;
+
+		BlockKey(int[] xRun, int[] yRun, int[] zRun, Axis[] axes) {
+			cells = new int[] { xRun[0], xRun[1], yRun[0], yRun[1], zRun[0],
+					zRun[1] };
+			index = new long[3];
+			box = new double[6];
+			for (int d = 0; d < 3; d++) {
+				index[d] = axes[d].blocks[cells[2 * d]];
+				box[2 * d] = axes[d].coords[cells[2 * d]];
+				box[2 * d + 1] = axes[d].coords[cells[2 * d + 1]];
+			}
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof BlockKey
+					&& Arrays.equals(index, ((BlockKey) o).index)
+					&& Arrays.equals(box, ((BlockKey) o).box);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(index) * 31 + Arrays.hashCode(box);
+		}
+	}
+
+	/**
+	 * Triangles of one block: vertex and normal coordinates, 18 numbers per
+	 * triangle.
+	 */
+	private static class Mesh {
+		private double[] data = new double[0];
+		private int size;
+
+		void add(double[] p, double[] n) {
+			if (size + 6 > data.length) {
+				data = Arrays.copyOf(data, Math.max(72, 2 * data.length));
+			}
+			System.arraycopy(p, 0, data, size, 3);
+			System.arraycopy(n, 0, data, size + 3, 3);
+			size += 6;
+		}
+
+		void addTo(GeoTriangulatedSurface3D surf) {
+			double[] p = new double[3];
+			double[] n = new double[3];
+			for (int i = 0; i < size; i += 18) {
+				surf.beginTriangulation();
+				for (int j = i; j < i + 18; j += 6) {
+					System.arraycopy(data, j, p, 0, 3);
+					System.arraycopy(data, j + 3, n, 0, 3);
+					surf.insertPoint(p, n);
+				}
+				surf.endTriangulation();
+			}
+		}
+	}
+
+	/**
+	 * Triangulates blocks of the current grid.
+	 */
+	private class BlockMesher {
+		private final Evaluator evaluator;
+		private final Cube cube = new Cube();
+		private final Coords p1 = new Coords(0, 0, 0);
+		private final Coords p2 = new Coords(0, 0, 0);
+		private final Coords p3 = new Coords(0, 0, 0);
+		private final Coords p4 = new Coords(0, 0, 0);
+		private final Coords p5 = new Coords(0, 0, 0);
+		private final Coords n1 = new Coords(0, 0, 0);
+		private final Coords n2 = new Coords(0, 0, 0);
+		private final Coords n3 = new Coords(0, 0, 0);
+		private final double[] xyz = new double[3];
+
+		BlockMesher(Evaluator evaluator) {
+			this.evaluator = evaluator;
+		}
+
+		Mesh mesh(BlockKey block) {
+			Mesh mesh = new Mesh();
+			double[] xs = axes[0].coords;
+			double[] ys = axes[1].coords;
+			double[] zs = axes[2].coords;
+			int nx = xs.length;
+			int ny = ys.length;
+			int[] c = block.cells;
+			for (int k = c[4] + 1; k <= c[5]; k++) {
+				cube.coords[Cube.Z1] = zs[k - 1];
+				cube.coords[Cube.Z2] = zs[k];
+				for (int j = c[2] + 1; j <= c[3]; j++) {
+					cube.coords[Cube.Y1] = ys[j - 1];
+					cube.coords[Cube.Y2] = ys[j];
+					int top = (k * ny + j) * nx;
+					int front = (k * ny + j - 1) * nx;
+					int back = ((k - 1) * ny + j) * nx;
+					int bottom = ((k - 1) * ny + j - 1) * nx;
+					for (int i = c[0] + 1; i <= c[1]; i++) {
+						cube.coords[Cube.X1] = xs[i - 1];
+						cube.coords[Cube.X2] = xs[i];
+						cube.cache[Cube.V0] = values[top + i - 1];
+						cube.cache[Cube.V1] = values[top + i];
+						cube.cache[Cube.V2] = values[back + i];
+						cube.cache[Cube.V3] = values[back + i - 1];
+						cube.cache[Cube.V4] = values[front + i - 1];
+						cube.cache[Cube.V5] = values[front + i];
+						cube.cache[Cube.V6] = values[bottom + i];
+						cube.cache[Cube.V7] = values[bottom + i - 1];
+						addSurface(mesh);
+					}
+				}
+			}
+			return mesh;
+		}
+
+		private int config() {
+			int config = cube.sign(Cube.V7);
+			config = (config << 1) | cube.sign(Cube.V6);
+			config = (config << 1) | cube.sign(Cube.V5);
+			config = (config << 1) | cube.sign(Cube.V4);
+			config = (config << 1) | cube.sign(Cube.V3);
+			config = (config << 1) | cube.sign(Cube.V2);
+			config = (config << 1) | cube.sign(Cube.V1);
+			config = (config << 1) | cube.sign(Cube.V0);
+			if (config <= 0 || config == 0xff) {
+				return EMPTY_OR_INVALID;
+			}
+			return config > 0x7f ? (config ^ 0xff) : config;
+		}
+
+		private void addSurface(Mesh mesh) {
+			int config = config();
+			double det;
+			if (config != EMPTY_OR_INVALID) {
+				int[] edges = EDGE_TABLE[config];
+				int len = edges.length;
+				for (int i = 0; i < len; i += 3) {
+					cube.pointOfIntersection(edges[i], p1.val);
+					cube.pointOfIntersection(edges[i + 1], p2.val);
+					cube.pointOfIntersection(edges[i + 2], p3.val);
+					p2.sub(p1, p4);
+					p3.sub(p1, p5);
+					GeoImplicitSurface.evaluateNormal(evaluator, p1, n1,
+							xyz);
+					GeoImplicitSurface.evaluateNormal(evaluator, p2, n2,
+							xyz);
+					GeoImplicitSurface.evaluateNormal(evaluator, p3, n3,
+							xyz);
+					det = p4.dotCrossProduct(n1, p5);
+					if (det < 0) {
+						mesh.add(p1.val, n1.val);
+						mesh.add(p2.val, n2.val);
+						mesh.add(p3.val, n3.val);
+					} else {
+						mesh.add(p1.val, n1.val);
+						mesh.add(p3.val, n3.val);
+						mesh.add(p2.val, n2.val);
+					}
+				}
+			}
+		}
+	}
+
+	// Here is vertices and edges numbering convention used throughout the
+	// marching cube. Thus we can see vertices 7 and 1 map to (x1, y1, z1) and
+	// (x2, y2, z2) respectively
+	// ...........0___________0____________1
+	// ........../|......................./|
+	// ........./.|....................../.|
+	// ......../..|...................../..|
+	// .......4...|....................5...|
+	// ....../....|.................../....|
+	// ...../.....3................../.....1
+	// ..../......|................./......|
+	// ...4_______|____8___________5.......|
+	// ...|.......|................|.......|
+	// ...|.......|................|.......|
+	// ...|.......3__________2_____|_______2
+	// ...|....../.................|....../
+	// ..11...../..................9...../
+	// ...|..../...................|..../
+	// ...|...7....................|...6
+	// ...|../.....................|../
+	// ...|./......................|./
+	// ...7/___________10__________6/
+	//
+	private static class Cube {
+
+		public static final int X1 = 0x00;
+		public static final int Y1 = 0x01;
+		public static final int Z1 = 0x02;
+		public static final int X2 = 0x03;
+		public static final int Y2 = 0x04;
+		public static final int Z2 = 0x05;
+
+		public static final int V0 = 0x00;
+		public static final int V1 = 0x01;
+		public static final int V2 = 0x02;
+		public static final int V3 = 0x03;
+		public static final int V4 = 0x04;
+		public static final int V5 = 0x05;
+		public static final int V6 = 0x06;
+		public static final int V7 = 0x07;
+
+		private static final int[][] EDGES = { { 0, 1 }, { 1, 2 }, { 2, 3 },
+				{ 3, 0 }, { 0, 4 }, { 1, 5 }, { 2, 6 }, { 3, 7 }, { 4, 5 },
+				{ 5, 6 }, { 6, 7 }, { 7, 4 } };
+
+		private static final int[][] VERTICES = { { 0, 4, 5 }, { 3, 4, 5 },
+				{ 3, 4, 2 }, { 0, 4, 2 }, { 0, 1, 5 }, { 3, 1, 5 }, { 3, 1, 2 },
+				{ 0, 1, 2 } };
+
+		/**
+		 * Coordinates of the cube (x1, y1, z1) (x2, y2, z2)
+		 */
+		public double[] coords = new double[6];
+		/**
+		 * Cached evaluated value at each corner of the cube
+		 */
+		public double[] cache = new double[8];
+
+		protected Cube() {
+
+		}
+
+		/**
+		 * Fill point array with point of intersection of edge e with the plane.
+		 * Caveat: It does not check if the given edge intersect with the
+		 * surface
+		 * 
+		 * @param e
+		 *            the edge number as per the convention
+		 * @param pts
+		 *            an array of length >= 3
+		 */
+		public void pointOfIntersection(int e, double[] pts) {
+			int[] v = EDGES[e];
+			int[] v1 = VERTICES[v[0]];
+			int[] v2 = VERTICES[v[1]];
+			double fa = eval(v[0]);
+			double fb = eval(v[1]);
+			if ((e & 4) == 4) {
+				// y is changing (edges 4, 5, 6, and 7)
+				pts[0] = coords[v1[0]];
+				pts[1] = interpolate(fa, fb, coords[v1[1]], coords[v2[1]]);
+				pts[2] = coords[v1[2]];
+			} else if ((e & 1) == 1) {
+				// z is changing (odd numbered edges)
+				pts[0] = coords[v1[0]];
+				pts[1] = coords[v1[1]];
+				pts[2] = interpolate(fa, fb, coords[v1[2]], coords[v2[2]]);
+			} else {
+				// x is changing (even numbered edges)
+				pts[0] = interpolate(fa, fb, coords[v1[0]], coords[v2[0]]);
+				pts[1] = coords[v1[1]];
+				pts[2] = coords[v1[2]];
+			}
+		}
+
+		/**
+		 * Sign of the vertex
+		 * 
+		 * @param vertex
+		 *            vertex
+		 * @return isFinite(v) ? ((v &lt;= 0) ? 0 : 1) : -1, where v is
+		 *         evaluated value at given vertex
+		 * 
+		 */
+		public int sign(int vertex) {
+			double v = eval(vertex);
+			if (MyDouble.isFinite(v)) {
+				return v <= 0.0 ? 0 : 1;
+			}
+			return -1;
+		}
+
+		public double eval(int vertex) {
+			return cache[vertex];
+		}
+
+		public static double interpolate(double fa, double fb, double p1,
+				double p2) {
+			double r = -fb / (fa - fb);
+			if (r <= 1.0 && r >= 0.0) {
+				return r * (p1 - p2) + p2;
+			}
+			return p2 + (p1 - p2) * 0.5;
+		}
+	}
+}
@@ -335,15 +335,8 @@ public abstract class App3DCompanion extends AppCompanion {
 			if (dialogManager != null) {
 				dialog = dialogManager.getExport3dDialog(exportView3D);
 			}
-			if (dialog != null) {
-				exportView3D.export3D(format, dialog);
-				app.getKernel().detach(exportView3D);
-			} else {
-				StringBuilder export = exportView3D.export3D(format);
-				app.getKernel().detach(exportView3D);
-				app.exportStringToFile(format.getExtension(),
-						export.toString());
-			}
+			exportView3D.export3DToFile(format, dialog);
+			app.getKernel().detach(exportView3D);
 		} else {
 			if (app.isEuclidianView3Dinited()) {
 				EuclidianView3DInterface view3D = app.getEuclidianView3D();
@@ -356,9 +349,8 @@ public abstract class App3DCompanion extends AppCompanion {
 			EuclidianView3DForExport exportView3D = new EuclidianView3DForExport(
 					new EuclidianController3DForExport(app),
 					app.getSettings().getEuclidian(3));
-			StringBuilder export = exportView3D.export3D(format);
+			exportView3D.export3DToFile(format, null);
 			app.getKernel().detach(exportView3D);
-			app.exportStringToFile(format.getExtension(), export.toString());
 		}
 	}
 
@@ -6,6 +6,7 @@ import java.util.List;
 
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.geos.GeoFunction;
 import org.geogebra.common.kernel.kernelND.GeoEvaluatable;
 
 /**
@@ -89,12 +90,30 @@ class SimpleTableValuesModel implements TableValuesModel {
 		Double[] valuesColumn = doubleColumns.get(column);
 		Double value = valuesColumn[row];
 		if (value == null) {
-			value = evaluateAt(row, column);
-			valuesColumn[row] = value;
+			GeoEvaluatable evaluatable = evaluatables.get(column - 1);
+			if (evaluatable instanceof GeoFunction) {
+				evaluateColumn((GeoFunction) evaluatable, valuesColumn);
+				value = valuesColumn[row];
+			} else {
+				value = evaluateAt(row, column);
+				valuesColumn[row] = value;
+			}
 		}
 		return value;
 	}
 
+	/**
+	 * Evaluates function for all x-values at once (expression is compiled
+	 * only once).
+	 */
+	private void evaluateColumn(GeoFunction function, Double[] valuesColumn) {
+		double[] functionValues = new double[values.length];
+		function.values(values, functionValues, 0, 1);
+		for (int i = 0; i < values.length; i++) {
+			valuesColumn[i] = functionValues[i];
+		}
+	}
+
 	private double evaluateAt(int row, int column) {
 		GeoEvaluatable evaluatable = evaluatables.get(column - 1);
 		double x = values[row];
@@ -12,6 +12,7 @@ the Free Software Foundation.
 
 package org.geogebra.common.io;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.geogebra.common.GeoGebraConstants;
@@ -251,6 +252,35 @@ public abstract class MyXMLio {
 	 */
 	public String getFullXML() {
 		StringBuilder sb = new StringBuilder();
+		appendFullXMLHeader(sb);
+
+		// save construction
+		cons.getConstructionXML(sb, false);
+
+		sb.append("</geogebra>");
+		return sb.toString();
+	}
+
+	/**
+	 * Writes the same XML as {@link #getFullXML()} to output in chunks.
+	 * 
+	 * @param out
+	 *            output
+	 * @throws IOException
+	 *             when output fails
+	 */
+	public void writeFullXML(XMLOutput out) throws IOException {
+		StringBuilder sb = new StringBuilder(XMLOutput.CHUNK_SIZE);
+		appendFullXMLHeader(sb);
+
+		// save construction
+		cons.writeConstructionXML(sb, false, out);
+
+		sb.append("</geogebra>");
+		out.write(sb);
+	}
+
+	private void appendFullXMLHeader(StringBuilder sb) {
 		addXMLHeader(sb);
 		addGeoGebraHeader(sb, false, app.getUniqueId(), app.getPlatform(),
 				app.getConfig().getAppCode());
@@ -264,12 +294,6 @@ public abstract class MyXMLio {
 
 		// save gui settings
 		sb.append(app.getCompleteUserInterfaceXML(false));
-
-		// save construction
-		cons.getConstructionXML(sb, false);
-
-		sb.append("</geogebra>");
-		return sb.toString();
 	}
 
 	/**
@@ -0,0 +1,21 @@
+package org.geogebra.common.io;
+
+import java.io.IOException;
+
+/**
+ * Receives XML in chunks while it is being created, so that large documents
+ * don't need to be kept in memory as a whole.
+ */
+public interface XMLOutput {
+
+	/** builders are passed to the output once they reach this length */
+	int CHUNK_SIZE = 1 << 16;
+
+	/**
+	 * @param chunk
+	 *            next part of the document; cleared by the caller afterwards
+	 * @throws IOException
+	 *             when writing fails
+	 */
+	void write(StringBuilder chunk) throws IOException;
+}
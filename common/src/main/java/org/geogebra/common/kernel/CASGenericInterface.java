@@ -2,6 +2,7 @@ package org.geogebra.common.kernel;
 
 import java.math.BigInteger;
 import java.util.HashMap;
+import java.util.List;
 
 import org.geogebra.common.kernel.arithmetic.ExpressionValue;
 import org.geogebra.common.kernel.arithmetic.MyArbitraryConstant;
@@ -99,6 +100,21 @@ public interface CASGenericInterface extends SettingListener {
 	 */
 	String evaluateCAS(String exp);
 
+	/**
+	 * Starts evaluating independent inputs in the background; results are
+	 * used when the same input is passed to {@link #evaluateCAS(String)}
+	 * before {@link #clearPrefetch()}.
+	 * 
+	 * @param inputs
+	 *            inputs in CAS syntax
+	 */
+	void prefetch(List<String> inputs);
+
+	/**
+	 * Cancels prefetched evaluations that were not used.
+	 */
+	void clearPrefetch();
+
 	/**
 	 * Creates a program to return the elimination ideal in factorized form.
 	 * 
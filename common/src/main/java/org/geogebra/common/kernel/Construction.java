@@ -1,5 +1,6 @@
 package org.geogebra.common.kernel;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -16,6 +17,7 @@ import java.util.TreeSet;
 import org.geogebra.common.euclidian.EuclidianConstants;
 import org.geogebra.common.euclidian.event.PointerEventType;
 import org.geogebra.common.io.MyXMLio;
+import org.geogebra.common.io.XMLOutput;
 import org.geogebra.common.kernel.algos.AlgoDistancePoints;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.algos.AlgoJoinPointsSegment;
@@ -55,6 +57,7 @@ import org.geogebra.common.main.SelectionManager;
 import org.geogebra.common.plugin.GeoClass;
 import org.geogebra.common.plugin.ScriptManager;
 import org.geogebra.common.util.StringUtil;
+import org.geogebra.common.util.debug.GeoGebraProfiler;
 import org.geogebra.common.util.debug.Log;
 
 import com.himamis.retex.editor.share.input.Character;
@@ -194,6 +197,11 @@ public class Construction {
 	private boolean casCellUpdate = false;
 	private boolean notXmlLoading = false;
 	private boolean updateConstructionRunning;
+	// counter for change detection in update cascades
+	private long updateStamp = 0;
+	// start of the current change detecting cascade, -1 if none is running
+	private long changeDetectionStamp = -1;
+	private int skippedAlgos = 0;
 	private LabelManager labelManager;
 
 	/**
@@ -1030,13 +1038,18 @@ public class Construction {
 	 * Updates all algorithms in this construction
 	 */
 	public final void updateAllAlgorithms() {
-		// update all algorithms
-
-		// *** algoList.size() can change during the loop
-		for (int i = 0; i < algoList.size(); ++i) {
-			AlgoElement algo = algoList.get(i);
-			algo.update();
-			// AbstractApplication.debug("#"+i+" : "+algo);
+		// update all algorithms, even if their input did not change
+		long outerStamp = changeDetectionStamp;
+		changeDetectionStamp = -1;
+		try {
+			// *** algoList.size() can change during the loop
+			for (int i = 0; i < algoList.size(); ++i) {
+				AlgoElement algo = algoList.get(i);
+				algo.update();
+				// AbstractApplication.debug("#"+i+" : "+algo);
+			}
+		} finally {
+			changeDetectionStamp = outerStamp;
 		}
 	}
 
@@ -1269,6 +1282,7 @@ public class Construction {
 	final public void updateCasCells() {
 		// collect notifyUpdate calls using xAxis as dummy geo
 		updateConstructionRunning = true;
+		CASGenericInterface cas = prefetchCasCells();
 		try {
 			// update all independent GeoElements
 			// check the size every time as Delete may change it
@@ -1281,10 +1295,38 @@ public class Construction {
 				}
 			}
 		} finally {
+			if (cas != null) {
+				cas.clearPrefetch();
+			}
 			updateConstructionRunning = false;
 		}
 	}
 
+	/**
+	 * Lets the CAS evaluate cells that do not depend on other cells in
+	 * parallel, using their inputs from the last computation. Results are
+	 * only used by cells whose CAS input did not change.
+	 * 
+	 * @return CAS that was asked to prefetch, null if nothing was prefetched
+	 */
+	private CASGenericInterface prefetchCasCells() {
+		ArrayList<String> requests = new ArrayList<>();
+		for (ConstructionElement ce : ceList) {
+			if (ce instanceof GeoCasCell) {
+				String request = ((GeoCasCell) ce).getIndependentCasRequest();
+				if (request != null) {
+					requests.add(request);
+				}
+			}
+		}
+		if (requests.size() < 2) {
+			return null;
+		}
+		CASGenericInterface cas = kernel.getGeoGebraCAS().getCurrentCAS();
+		cas.prefetch(requests);
+		return cas;
+	}
+
 	/**
 	 * Returns this construction in XML format. GeoGebra File Format.
 	 * 
@@ -1294,6 +1336,29 @@ public class Construction {
 	 *            whether to include JS listener names
 	 */
 	public void getConstructionXML(StringBuilder sb, boolean getListenersToo) {
+		try {
+			writeConstructionXML(sb, getListenersToo, null);
+		} catch (IOException e) {
+			// only thrown by output
+			Log.debug(e);
+		}
+	}
+
+	/**
+	 * Appends this construction in XML format to given builder, passing the
+	 * builder to output whenever it reaches {@link XMLOutput#CHUNK_SIZE}.
+	 * 
+	 * @param sb
+	 *            StringBuilder to which the XML is appended
+	 * @param getListenersToo
+	 *            whether to include JS listener names
+	 * @param out
+	 *            output for full chunks, null to keep everything in builder
+	 * @throws IOException
+	 *             when output fails
+	 */
+	public void writeConstructionXML(StringBuilder sb, boolean getListenersToo,
+			XMLOutput out) throws IOException {
 
 		try {
 			// save construction elements
@@ -1314,9 +1379,18 @@ public class Construction {
 				sb.append("\"/>\n");
 			}
 
-			getConstructionElementsXML(sb, getListenersToo);
+			int size = ceList.size();
+			for (int i = 0; i < size; ++i) {
+				ceList.get(i).getXML(getListenersToo, sb);
+				if (out != null && sb.length() >= XMLOutput.CHUNK_SIZE) {
+					out.write(sb);
+					sb.setLength(0);
+				}
+			}
 
 			sb.append("</construction>\n");
+		} catch (IOException e) {
+			throw e;
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -3363,6 +3437,85 @@ public class Construction {
 		return algoSetCurrentlyUpdated;
 	}
 
+	/**
+	 * Starts an update cascade in which algos with unchanged input are
+	 * skipped, see {@link Kernel#setUpdateChangeDetection(boolean)}.
+	 * 
+	 * @return start of the enclosing change detecting cascade, needs to be
+	 *         passed to {@link #stopChangeDetection(long)}
+	 */
+	public long startChangeDetection() {
+		long outerStamp = changeDetectionStamp;
+		if (outerStamp < 0) {
+			skippedAlgos = 0;
+		}
+		changeDetectionStamp = ++updateStamp;
+		return outerStamp;
+	}
+
+	/**
+	 * Ends change detecting update cascade.
+	 * 
+	 * @param outerStamp
+	 *            value returned by {@link #startChangeDetection()}
+	 */
+	public void stopChangeDetection(long outerStamp) {
+		changeDetectionStamp = outerStamp;
+		if (outerStamp < 0) {
+			GeoGebraProfiler.addSkippedAlgos(skippedAlgos);
+		}
+	}
+
+	/**
+	 * Switches change detection off, e.g. for nested updates of local
+	 * variables of Sequence, Zip, ... that are not marked as changed.
+	 * 
+	 * @return start of the enclosing change detecting cascade, needs to be
+	 *         passed to {@link #stopChangeDetection(long)}
+	 */
+	public long suspendChangeDetection() {
+		long outerStamp = changeDetectionStamp;
+		changeDetectionStamp = -1;
+		return outerStamp;
+	}
+
+	/**
+	 * @return whether algos with unchanged input may be skipped now
+	 */
+	public boolean isChangeDetectionRunning() {
+		return changeDetectionStamp >= 0 && !updateConstructionRunning;
+	}
+
+	/**
+	 * @return start of the current change detecting cascade; geos with update
+	 *         stamp greater or equal changed during that cascade
+	 */
+	public long getChangeDetectionStamp() {
+		return changeDetectionStamp;
+	}
+
+	/**
+	 * @return current update stamp
+	 */
+	public long getUpdateStamp() {
+		return updateStamp;
+	}
+
+	/**
+	 * Counts an algo skipped by change detection.
+	 */
+	public void addSkippedAlgo() {
+		skippedAlgos++;
+	}
+
+	/**
+	 * @return number of algos skipped in the current or last change
+	 *         detecting cascade
+	 */
+	public int getSkippedAlgos() {
+		return skippedAlgos;
+	}
+
 	/**
 	 * @param b
 	 *            new value of update construction flag
@@ -20,6 +20,7 @@ public class DefaultUndoManager extends UndoManager {
 	 */
     public DefaultUndoManager(Construction cons) {
         super(cons);
+        setDeltaStorage(true);
     }
 
     @Override
@@ -44,7 +45,7 @@ public class DefaultUndoManager extends UndoManager {
      *            string builder with construction XML
      */
     private synchronized void doStoreUndoInfo(final StringBuilder undoXML) {
-        AppState appStateToAdd = new StringAppState(undoXML.toString());
+        AppState appStateToAdd = createAppState(undoXML.toString());
         UndoCommand command = createUndoCommand(appStateToAdd);
         maybeStoreUndoCommand(command);
         pruneStateList();
@@ -52,6 +53,11 @@ public class DefaultUndoManager extends UndoManager {
         updateUndoActions();
     }
 
+	private AppState createAppState(String xml) {
+		return isDeltaStorage() ? createDeltaAppState(xml)
+				: new StringAppState(xml);
+	}
+
     protected UndoCommand createUndoCommand(AppState appState) {
     	return new UndoCommand(appState);
     }
@@ -59,7 +65,7 @@ public class DefaultUndoManager extends UndoManager {
     @Override
 	protected void loadUndoInfo(AppState state, String slideID) {
         try {
-			processXML(state.getXml(), false, null);
+			loadXMLState(state);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -0,0 +1,302 @@
+package org.geogebra.common.kernel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * App State that stores the XML split into chunks (one per top level tag of
+ * the construction) and only keeps chunks that differ from a base snapshot.
+ */
+public class DeltaAppState implements AppState {
+
+	/** maximal number of delta states sharing one base snapshot */
+	static final int MAX_DELTA_STEPS = 20;
+
+	private static final String HEAD_KEY = "#head";
+	private static final String TAIL_KEY = "#tail";
+	private static final String CONSTRUCTION_START = "<construction";
+	private static final String CONSTRUCTION_END = "</construction>";
+
+	/** base snapshot, null if this is a base snapshot itself */
+	private final DeltaAppState base;
+	private String[] keys;
+	/** chunks; for delta states null means same as in base */
+	private String[] chunks;
+	/** base snapshot only: chunks by key */
+	private HashMap<String, String> chunksByKey;
+	private int steps;
+	private int length;
+	private int storedLength;
+
+	private DeltaAppState(DeltaAppState base, String[] keys, String[] chunks,
+			int length, int steps) {
+		this.base = base;
+		this.keys = keys;
+		this.chunks = chunks;
+		this.length = length;
+		this.steps = steps;
+		for (String chunk : chunks) {
+			if (chunk != null) {
+				storedLength += chunk.length();
+			}
+		}
+		if (base == null) {
+			chunksByKey = new HashMap<>();
+			for (int i = 0; i < keys.length; i++) {
+				chunksByKey.put(keys[i], chunks[i]);
+			}
+		}
+	}
+
+	/**
+	 * Creates new state; only chunks that differ from the base of previous
+	 * state are stored unless too many steps were made since the last base
+	 * snapshot or most of the construction changed.
+	 *
+	 * @param xml
+	 *            full XML
+	 * @param previous
+	 *            previous state (may be null)
+	 * @return new state
+	 */
+	public static DeltaAppState create(String xml, DeltaAppState previous) {
+		ArrayList<String> keyList = new ArrayList<>();
+		ArrayList<String> chunkList = new ArrayList<>();
+		split(xml, keyList, chunkList);
+		String[] keys = keyList.toArray(new String[0]);
+		String[] chunks = chunkList.toArray(new String[0]);
+		if (previous == null || previous.chunks == null
+				|| previous.steps >= MAX_DELTA_STEPS) {
+			return new DeltaAppState(null, keys, chunks, xml.length(), 0);
+		}
+		DeltaAppState base = previous.getBaseSnapshot();
+		String[] delta = new String[chunks.length];
+		int changedLength = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (!chunks[i].equals(base.chunksByKey.get(keys[i]))) {
+				delta[i] = chunks[i];
+				changedLength += chunks[i].length();
+			}
+		}
+		if (changedLength > xml.length() / 2) {
+			return new DeltaAppState(null, keys, chunks, xml.length(), 0);
+		}
+		return new DeltaAppState(base, keys, delta, xml.length(),
+				previous.steps + 1);
+	}
+
+	/**
+	 * Splits XML into head (up to the construction tag), top level children
+	 * of the construction and tail.
+	 */
+	private static void split(String xml, List<String> keys,
+			List<String> chunks) {
+		int start = xml.indexOf(CONSTRUCTION_START);
+		int end = xml.lastIndexOf(CONSTRUCTION_END);
+		if (start < 0 || end < start) {
+			keys.add(HEAD_KEY);
+			chunks.add(xml);
+			return;
+		}
+		start = xml.indexOf('\n', start) + 1;
+		keys.add(HEAD_KEY);
+		chunks.add(xml.substring(0, start));
+		HashMap<String, Integer> occurrences = new HashMap<>();
+		int chunkStart = start;
+		while (chunkStart < end) {
+			int chunkEnd = getChunkEnd(xml, chunkStart, end);
+			String chunk = xml.substring(chunkStart, chunkEnd);
+			String key = getKey(chunk);
+			Integer count = occurrences.get(key);
+			occurrences.put(key, count == null ? 1 : count + 1);
+			keys.add(count == null ? key : key + "#" + count);
+			chunks.add(chunk);
+			chunkStart = chunkEnd;
+		}
+		keys.add(TAIL_KEY);
+		chunks.add(xml.substring(end));
+	}
+
+	/**
+	 * Top level tags start at the beginning of a line, so do their closing
+	 * tags; nested tags are indented.
+	 *
+	 * @return end of the top level tag (including closing tag) starting at
+	 *         chunkStart
+	 */
+	private static int getChunkEnd(String xml, int chunkStart, int end) {
+		int lineEnd = xml.indexOf('\n', chunkStart);
+		if (lineEnd < 0 || lineEnd >= end) {
+			return end;
+		}
+		int tagEnd = chunkStart + 1;
+		while (tagEnd < lineEnd && isTagNameChar(xml.charAt(tagEnd))) {
+			tagEnd++;
+		}
+		if (xml.charAt(chunkStart) == '<' && tagEnd > chunkStart + 1
+				&& !xml.substring(chunkStart, lineEnd).trim().endsWith("/>")) {
+			String closingTag = "\n</" + xml.substring(chunkStart + 1, tagEnd)
+					+ ">";
+			int closing = xml.indexOf(closingTag, chunkStart);
+			if (closing >= 0 && closing < end) {
+				lineEnd = xml.indexOf('\n', closing + closingTag.length());
+				if (lineEnd < 0 || lineEnd >= end) {
+					return end;
+				}
+			}
+		}
+		return lineEnd + 1;
+	}
+
+	private static boolean isTagNameChar(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '-';
+	}
+
+	private static String getKey(String chunk) {
+		int tagEnd = 1;
+		while (tagEnd < chunk.length()
+				&& Character.isLetter(chunk.charAt(tagEnd))) {
+			tagEnd++;
+		}
+		String tag = chunk.substring(0, tagEnd);
+		String label = getLabel(chunk);
+		int output = chunk.indexOf("<output ");
+		if (label == null && output >= 0) {
+			// commands are identified by their first output
+			label = getAttribute(chunk.substring(output), "a0=\"");
+		}
+		return label == null ? tag : tag + ":" + label;
+	}
+
+	/**
+	 * @param chunk
+	 *            element XML
+	 * @return label of the element, null if not found
+	 */
+	public static String getLabel(String chunk) {
+		return getAttribute(chunk, "label=\"");
+	}
+
+	private static String getType(String chunk) {
+		String type = getAttribute(chunk, "type=\"");
+		return type == null ? "" : type;
+	}
+
+	private static String getAttribute(String chunk, String prefix) {
+		int start = chunk.indexOf(prefix);
+		if (start < 0) {
+			return null;
+		}
+		start += prefix.length();
+		int end = chunk.indexOf('"', start);
+		return end < 0 ? null : chunk.substring(start, end);
+	}
+
+	private DeltaAppState getBaseSnapshot() {
+		return base == null ? this : base;
+	}
+
+	private String getChunk(int i) {
+		return chunks[i] == null ? base.chunksByKey.get(keys[i]) : chunks[i];
+	}
+
+	@Override
+	public String getXml() {
+		if (chunks == null) {
+			return null;
+		}
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < keys.length; i++) {
+			sb.append(getChunk(i));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Base snapshots may still be referenced by later states, so only the
+	 * data of deltas is released.
+	 */
+	@Override
+	public void delete() {
+		if (base != null) {
+			keys = null;
+			chunks = null;
+		}
+	}
+
+	@Override
+	public boolean equalsTo(AppState state) {
+		if (state instanceof DeltaAppState) {
+			DeltaAppState other = (DeltaAppState) state;
+			if (chunks == null || other.chunks == null
+					|| keys.length != other.keys.length) {
+				return false;
+			}
+			for (int i = 0; i < keys.length; i++) {
+				if (!keys[i].equals(other.keys[i])
+						|| !getChunk(i).equals(other.getChunk(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return state != null && chunks != null
+				&& getXml().equals(state.getXml());
+	}
+
+	/**
+	 * Finds chunks that need to be processed to get from other state to this
+	 * one, if only style / value of existing elements changed and no element
+	 * changed its type.
+	 *
+	 * @param current
+	 *            state of the construction
+	 * @return changed element tags or null if full reload is needed
+	 */
+	public List<String> getChangedElements(DeltaAppState current) {
+		if (chunks == null || current.chunks == null
+				|| keys.length != current.keys.length) {
+			return null;
+		}
+		ArrayList<String> changed = new ArrayList<>();
+		for (int i = 0; i < keys.length; i++) {
+			if (!keys[i].equals(current.keys[i])) {
+				return null;
+			}
+			String chunk = getChunk(i);
+			String currentChunk = current.getChunk(i);
+			if (!chunk.equals(currentChunk)) {
+				// redefinition to other type needs the element recreated
+				if (!chunk.startsWith("<element ")
+						|| !getType(chunk).equals(getType(currentChunk))) {
+					return null;
+				}
+				changed.add(chunk);
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * @return length of the full XML
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @return number of characters stored by this state (not shared with the
+	 *         base snapshot)
+	 */
+	public int getStoredLength() {
+		return storedLength;
+	}
+
+	/**
+	 * @return whether this is a base snapshot
+	 */
+	public boolean isBaseSnapshot() {
+		return base == null;
+	}
+}
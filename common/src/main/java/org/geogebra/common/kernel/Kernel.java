@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.TreeSet;
 
 import org.geogebra.common.GeoGebraConstants;
+import org.geogebra.common.cas.CasResultCache;
 import org.geogebra.common.cas.GeoGebraCAS;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.euclidian.EuclidianViewInterfaceCommon;
@@ -88,7 +89,6 @@ import org.geogebra.common.plugin.script.GgbScript;
 import org.geogebra.common.plugin.script.Script;
 import org.geogebra.common.util.DoubleUtil;
 import org.geogebra.common.util.LRUMap;
-import org.geogebra.common.util.MaxSizeHashMap;
 import org.geogebra.common.util.MyMath;
 import org.geogebra.common.util.NumberFormatAdapter;
 import org.geogebra.common.util.ScientificFormatAdapter;
@@ -242,6 +242,8 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 
 	/** maximum CAS results cached */
 	final public static int GEOGEBRA_CAS_CACHE_SIZE = 500;
+	/** maximum estimated size of cached CAS results in bytes */
+	final public static long GEOGEBRA_CAS_CACHE_WEIGHT = 2 * 1024 * 1024;
 	private MySpecialDouble eulerConstant;
 
 	/** print precision */
@@ -317,6 +319,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 
 	private boolean wantAnimationStarted = false;
 
+	// skip algos whose inputs did not change in update cascades
+	private boolean updateChangeDetection = false;
+
 	// setResolveUnkownVarsAsDummyGeos
 	private SymbolicMode symbolicMode = SymbolicMode.NONE;
 
@@ -375,7 +380,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	private String libraryJavaScript = defaultLibraryJavaScript;
 
 	private boolean isSaving;
-	private MaxSizeHashMap<String, String> ggbCasCache;
+	private CasResultCache ggbCasCache;
 	/** min real world x for all views */
 	protected double[] xmin = new double[1];
 	/** max real world x for all views */
@@ -2685,6 +2690,28 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		getConstruction().setSuppressLabelCreation(silentMode);
 	}
 
+	/**
+	 * Turns change detection in update cascades on or off. If on, algorithms
+	 * are only recomputed in an update cascade if one of their inputs changed
+	 * and outputs that end up with the same value are not updated.
+	 * 
+	 * @param updateChangeDetection
+	 *            whether to skip algos with unchanged input
+	 */
+	public final void setUpdateChangeDetection(
+			boolean updateChangeDetection) {
+		this.updateChangeDetection = updateChangeDetection;
+	}
+
+	/**
+	 * @return whether algos with unchanged input are skipped in update
+	 *         cascades
+	 * @see #setUpdateChangeDetection(boolean)
+	 */
+	public final boolean isUpdateChangeDetection() {
+		return updateChangeDetection;
+	}
+
 	/**
 	 * Sets whether unknown variables should be resolved as GeoDummyVariable
 	 * objects.
@@ -2784,9 +2811,11 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		}
 
 		// evaluate in GeoGebraCAS
+		long start = System.currentTimeMillis();
 		result = getGeoGebraCAS().evaluateGeoGebraCAS(exp, arbconst, tpl, this);
 
 		if (useCaching) {
+			getCasCache().recordEvaluation(System.currentTimeMillis() - start);
 			getCasCache().put(exp, result);
 		}
 		return result;
@@ -2811,8 +2840,10 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		}
 
 		// evaluate in GeoGebraCAS
+		long start = System.currentTimeMillis();
 		result = getGeoGebraCAS().evaluateRaw(exp);
 
+		getCasCache().recordEvaluation(System.currentTimeMillis() - start);
 		getCasCache().put(exp, result);
 
 		return result;
@@ -2873,16 +2904,25 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	}
 
 	/**
-	 * @return Hash map for caching CAS results.
+	 * @return cache for CAS results.
 	 */
-	public MaxSizeHashMap<String, String> getCasCache() {
+	public CasResultCache getCasCache() {
 		if (ggbCasCache == null) {
-			ggbCasCache = new MaxSizeHashMap<>(
-					GEOGEBRA_CAS_CACHE_SIZE);
+			ggbCasCache = new CasResultCache(GEOGEBRA_CAS_CACHE_WEIGHT);
 		}
 		return ggbCasCache;
 	}
 
+	/**
+	 * Replaces the cache for CAS results, e.g. by one with persistent store.
+	 * 
+	 * @param cache
+	 *            cache for CAS results
+	 */
+	public void setCasCache(CasResultCache cache) {
+		ggbCasCache = cache;
+	}
+
 	/**
 	 * @return Whether kernel is already using CAS caching.
 	 */
@@ -4,9 +4,13 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.TreeSet;
 
+import org.geogebra.common.GeoGebraConstants;
 import org.geogebra.common.euclidian.EmbedManager;
+import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.commands.EvalInfo;
+import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.undoredo.UndoInfoStoredListener;
 import org.geogebra.common.main.App;
 import org.geogebra.common.plugin.EventType;
@@ -32,6 +36,10 @@ public abstract class UndoManager {
 	private ListIterator<UndoCommand> iterator;
 	private boolean storeUndoInfoNeededForProperties = false;
 	private List<UndoInfoStoredListener> undoInfoStoredListeners;
+	private boolean deltaStorage = false;
+	/** last stored or loaded state, null if not stored as delta */
+	private DeltaAppState currentDeltaState;
+	private boolean restoringCurrentState = false;
 
 	/**
 	 * @param cons
@@ -217,7 +225,13 @@ public abstract class UndoManager {
 	final public synchronized void restoreCurrentUndoInfo() {
 		app.getSelectionManager().storeSelectedGeosNames();
 		if (iterator != null) {
-			loadUndoInfo(iterator.previous().getAppState(), null);
+			// construction may differ from the stored state in any element
+			restoringCurrentState = true;
+			try {
+				loadUndoInfo(iterator.previous().getAppState(), null);
+			} finally {
+				restoringCurrentState = false;
+			}
 			iterator.next();
 			updateUndoActions();
 		}
@@ -293,6 +307,109 @@ public abstract class UndoManager {
 	public synchronized void clearUndoInfo() {
 		undoInfoList.clear();
 		iterator = undoInfoList.listIterator();
+		currentDeltaState = null;
+	}
+
+	/**
+	 * Switches between storing full XML for every undo point and storing
+	 * only elements that changed since the last base snapshot.
+	 * 
+	 * @param deltaStorage
+	 *            whether to store undo points as deltas
+	 */
+	public void setDeltaStorage(boolean deltaStorage) {
+		this.deltaStorage = deltaStorage;
+		currentDeltaState = null;
+	}
+
+	/**
+	 * @return whether undo points are stored as deltas
+	 */
+	public boolean isDeltaStorage() {
+		return deltaStorage;
+	}
+
+	/**
+	 * Creates undo point that shares unchanged elements with the last stored
+	 * or loaded state.
+	 * 
+	 * @param xml
+	 *            construction XML
+	 * @return new state
+	 */
+	protected DeltaAppState createDeltaAppState(String xml) {
+		currentDeltaState = DeltaAppState.create(xml, currentDeltaState);
+		Log.debug("Undo step: " + currentDeltaState.getLength()
+				+ " chars, stored " + currentDeltaState.getStoredLength()
+				+ " chars");
+		return currentDeltaState;
+	}
+
+	/**
+	 * Loads state from its XML; if both the state and the construction are
+	 * stored as deltas, only the changed elements are reloaded.
+	 * 
+	 * @param state
+	 *            state to restore
+	 * @throws Exception
+	 *             on trouble with parsing the XML
+	 */
+	protected void loadXMLState(AppState state) throws Exception {
+		DeltaAppState deltaState = state instanceof DeltaAppState
+				? (DeltaAppState) state : null;
+		if (deltaState == null || !loadChangedElements(deltaState)) {
+			processXML(state.getXml(), false, null);
+		}
+		currentDeltaState = deltaState;
+	}
+
+	/**
+	 * Reloads only elements that differ between the last stored or loaded
+	 * state and given state, if all other parts of the XML are the same.
+	 * 
+	 * @param state
+	 *            state to restore
+	 * @return whether the state was restored
+	 * @throws Exception
+	 *             on trouble with parsing the XML
+	 */
+	private boolean loadChangedElements(DeltaAppState state)
+			throws Exception {
+		if (currentDeltaState == null || restoringCurrentState
+				|| storeUndoInfoNeededForProperties) {
+			return false;
+		}
+		List<String> changed = state.getChangedElements(currentDeltaState);
+		if (changed == null) {
+			return false;
+		}
+		if (changed.isEmpty()) {
+			return true;
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append("<geogebra format=\"");
+		sb.append(GeoGebraConstants.XML_FILE_FORMAT);
+		sb.append("\">\n<construction>\n");
+		for (String element : changed) {
+			sb.append(element);
+		}
+		sb.append("</construction>\n</geogebra>");
+		construction.getXMLio().processXMLString(sb.toString(), false, false,
+				true, false);
+
+		ArrayList<GeoElement> geos = new ArrayList<>();
+		for (String element : changed) {
+			GeoElement geo = construction.getKernel()
+					.lookupLabel(DeltaAppState.getLabel(element));
+			if (geo != null) {
+				geos.add(geo);
+			}
+		}
+		if (!geos.isEmpty()) {
+			GeoElement.updateCascade(geos, new TreeSet<AlgoElement>(), true);
+		}
+		construction.getKernel().notifyRepaint();
+		return true;
 	}
 
 	/**
@@ -1,6 +1,7 @@
 package org.geogebra.common.kernel.advanced;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.kernel.Construction;
@@ -8,19 +9,27 @@ import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.algos.AlgoNumeratorDenominatorFun;
+import org.geogebra.common.kernel.arithmetic.CompiledExpression;
 import org.geogebra.common.kernel.arithmetic.Evaluate2Var;
 import org.geogebra.common.kernel.arithmetic.FunctionalNVar;
+import org.geogebra.common.kernel.arithmetic.MyDouble;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoFunctionNVar;
 import org.geogebra.common.kernel.geos.GeoLocus;
 import org.geogebra.common.kernel.geos.GeoNumeric;
 import org.geogebra.common.util.DoubleUtil;
+import org.geogebra.common.util.ParallelExecutor;
 
 /**
  * 
  * eg SlopeField[ x/y ] eg SlopeField[ x/y, 20 ] eg SlopeField[ x/y, 20, 0.8 ]
  * eg SlopeField[ x/y, 20, 0.8, 0, 0, 5, 5 ]
  * 
+ * Gradients of pure functions of x and y are evaluated in parallel where
+ * possible; points of the locus are reused between updates and view changes
+ * that keep the grid (e.g. repaints) do not evaluate the function again.
+ * 
  * @author michael
  *
  */
@@ -44,6 +53,22 @@ public class AlgoSlopeField extends AlgoElement {
 	private FunctionalNVar den;
 	private boolean quotient;
 	private EuclidianView mainView;
+	private double scaleRatio;
+
+	/** minimal number of grid points for parallel evaluation */
+	private static final int PARALLEL_THRESHOLD = 400;
+	/** grid coordinates */
+	private double[] xs = new double[0];
+	private double[] ys = new double[0];
+	/** gradient numerators and denominators indexed by column * rows + row */
+	private double[] nums = new double[0];
+	private double[] dens = new double[0];
+	/** number of points of al used by the current field */
+	private int pointCount;
+	/** bounds, grid size, segment length and scale of last computation */
+	private double[] lastParams;
+	/** true while updating because of a view change */
+	private boolean viewUpdate;
 
 	/**
 	 * @param cons
@@ -173,14 +198,13 @@ public class AlgoSlopeField extends AlgoElement {
 	@Override
 	public final void compute() {
 		if (!((GeoElement) func).isDefined()) {
+			lastParams = null;
 			locus.setUndefined();
 			return;
 		}
 
 		if (al == null) {
 			al = new ArrayList<>();
-		} else {
-			al.clear();
 		}
 
 		mainView = null;
@@ -236,10 +260,12 @@ public class AlgoSlopeField extends AlgoElement {
 
 		if (mainView == null) {
 			// eg 3D Android app
+			lastParams = null;
 			locus.setUndefined();
 			return;
 		}
 
+		pointCount = 0;
 		// if it's visible in at least one view, calculate visible portion
 		if (xmax > -Double.MAX_VALUE) {
 			int nD = (int) (n == null ? 39 : n.getDouble() - 1);
@@ -259,76 +285,187 @@ public class AlgoSlopeField extends AlgoElement {
 				length = 0.5;
 			}
 
-			length = Math.min(xStep, yStep * mainView.getScaleRatio()) * length
-					* 0.5;
-			// double yLength = yStep * length * 0.5;
-
-			// AbstractApplication.debug(xStep+" "+yStep+" "+step);
-
-			for (double xx = xmin; xx < xmax + xStep / 2; xx += xStep) {
-				for (double yy = ymin; yy < ymax + yStep / 2; yy += yStep) {
-
-					// double[] input1 = { xx, yy };
-					// double gradient = func.evaluate(input1);
-
-					// AbstractApplication.debug(num.isDefined()+"
-					// "+den.isDefined());
-
-					if (num.isDefined() && den.isDefined()) {
-						// quotient function like x / y
+			scaleRatio = mainView.getScaleRatio();
+			length = Math.min(xStep, yStep * scaleRatio) * length * 0.5;
 
-						// make sure eg SlopeField[(2 - y) / 2] works
-
-						double numD = num.evaluate(xx, yy);
-						double denD = den.evaluate(xx, yy);
-
-						if (DoubleUtil.isZero(denD)) {
-							if (DoubleUtil.isZero(numD)) {
-								// just a dot
-								al.add(new MyPoint(xx, yy, SegmentType.MOVE_TO));
-								al.add(new MyPoint(xx, yy, SegmentType.LINE_TO));
-							} else {
-								// vertical line
-								drawLine(0, 1, length, xx, yy);
-							}
+			double[] params = new double[] { xmin, xmax, ymin, ymax, nD,
+					length, scaleRatio };
+			if (viewUpdate && locus.isDefined()
+					&& Arrays.equals(params, lastParams)) {
+				// view changed, but the field did not
+				return;
+			}
+			lastParams = params;
+
+			int cols = initCoords(xmin, xmax, xStep, nD, true);
+			int rows = initCoords(ymin, ymax, yStep, nD, false);
+			evaluateGradients(cols, rows);
+
+			for (int i = 0; i < cols; i++) {
+				for (int j = 0; j < rows; j++) {
+					double numD = nums[i * rows + j];
+					double denD = dens[i * rows + j];
+					double xx = xs[i];
+					double yy = ys[j];
+
+					if (DoubleUtil.isZero(denD)) {
+						if (DoubleUtil.isZero(numD)) {
+							// just a dot
+							addPoint(xx, yy, false);
+							addPoint(xx, yy, true);
 						} else {
-
-							// standard case
-							double gradient = numD / denD;
-							drawLine(1, gradient, length, xx, yy);
+							// vertical line
+							drawLine(0, 1, length, xx, yy);
 						}
 					} else {
-						// non-quotient function like x y
-						double gradient;
-
-						gradient = func.evaluate(xx, yy);
-
+						// standard case
+						double gradient = numD / denD;
 						drawLine(1, gradient, length, xx, yy);
-
 					}
-
 				}
 			}
+		} else {
+			lastParams = null;
 		}
 
+		while (al.size() > pointCount) {
+			al.remove(al.size() - 1);
+		}
 		locus.setPoints(al);
 		locus.setDefined(true);
 
 	}
 
+	/**
+	 * Fills xs (or ys) with grid coordinates min, min + step, ... up to max,
+	 * but at most nD + 2 values.
+	 * 
+	 * @return number of coordinates
+	 */
+	private int initCoords(double min, double max, double step, int nD,
+			boolean x) {
+		double[] coords = x ? xs : ys;
+		if (coords.length < nD + 2) {
+			coords = new double[nD + 2];
+			if (x) {
+				xs = coords;
+			} else {
+				ys = coords;
+			}
+		}
+		int count = 0;
+		for (double val = min; val < max + step / 2
+				&& count < coords.length; val += step) {
+			coords[count++] = val;
+		}
+		return count;
+	}
+
+	/**
+	 * Evaluates numerator and denominator of the gradient in each grid point;
+	 * for functions that are not quotients the denominator is 1.
+	 */
+	private void evaluateGradients(int cols, final int rows) {
+		if (nums.length < cols * rows) {
+			nums = new double[cols * rows];
+			dens = new double[cols * rows];
+		}
+		// quotient function like x / y
+		// make sure eg SlopeField[(2 - y) / 2] works
+		final boolean useQuotient = num.isDefined() && den.isDefined();
+		final Evaluate2Var numF = useQuotient ? num : func;
+		final Evaluate2Var denF = useQuotient ? den : null;
+		// compiled once, shared by all columns
+		final CompiledExpression numC = ParallelExecutor.isAvailable()
+				&& cols * rows >= PARALLEL_THRESHOLD ? compile(numF) : null;
+		final CompiledExpression denC = numC != null && denF != null
+				? compile(denF) : null;
+		final boolean parallel = numC != null
+				&& (denF == null || denC != null);
+		ParallelExecutor.IndexTask columnTask = new ParallelExecutor.IndexTask() {
+
+			@Override
+			public void run(int i) {
+				// own scratch number for concurrent evaluation
+				MyDouble scratch = parallel ? new MyDouble(kernel) : null;
+				double[] xy = new double[] { xs[i], 0 };
+				for (int j = 0; j < rows; j++) {
+					xy[1] = ys[j];
+					int k = i * rows + j;
+					nums[k] = parallel ? numC.evaluate(xy, scratch)
+							: numF.evaluate(xy[0], xy[1]);
+					if (denF == null) {
+						dens[k] = 1;
+					} else {
+						dens[k] = parallel ? denC.evaluate(xy, scratch)
+								: denF.evaluate(xy[0], xy[1]);
+					}
+				}
+			}
+		};
+		if (parallel) {
+			ParallelExecutor.execute(cols, columnTask);
+		} else {
+			for (int i = 0; i < cols; i++) {
+				columnTask.run(i);
+			}
+		}
+	}
+
+	/**
+	 * @param f
+	 *            function
+	 * @return compiled expression of a function of x and y if it can be
+	 *         evaluated concurrently, null otherwise
+	 */
+	private static CompiledExpression compile(Evaluate2Var f) {
+		if (!(f instanceof GeoFunctionNVar)
+				|| ((GeoFunctionNVar) f).getVarNumber() != 2) {
+			return null;
+		}
+		CompiledExpression compiled = f.getFunction().compile();
+		return compiled != null && compiled.isPure() ? compiled : null;
+	}
+
 	private void drawLine(double dx0, double dy0, double length, double xx,
 			double yy) {
 		/*
 		 * double theta = Math.atan(gradient); double dx = Math.cos(theta);
 		 * double dy = Math.sin(theta);
 		 */
-		double dyScaled = dy0 * mainView.getScaleRatio();
+		double dyScaled = dy0 * scaleRatio;
 		double coeff = Math.sqrt(dx0 * dx0 + dyScaled * dyScaled);
 		double dx = dx0 * length / coeff;
 		double dy = dy0 * length / coeff;
-		al.add(new MyPoint(xx - dx, yy - dy, SegmentType.MOVE_TO));
-		al.add(new MyPoint(xx + dx, yy + dy, SegmentType.LINE_TO));
+		addPoint(xx - dx, yy - dy, false);
+		addPoint(xx + dx, yy + dy, true);
+
+	}
+
+	/**
+	 * Adds point to the locus, reusing points from previous computation.
+	 */
+	private void addPoint(double x, double y, boolean lineTo) {
+		if (pointCount < al.size()) {
+			MyPoint pt = al.get(pointCount);
+			pt.setLocation(x, y);
+			pt.setLineTo(lineTo);
+		} else {
+			al.add(new MyPoint(x, y,
+					lineTo ? SegmentType.LINE_TO : SegmentType.MOVE_TO));
+		}
+		pointCount++;
+	}
 
+	@Override
+	public boolean euclidianViewUpdate() {
+		viewUpdate = true;
+		try {
+			update();
+		} finally {
+			viewUpdate = false;
+		}
+		return false;
 	}
 
 	@Override
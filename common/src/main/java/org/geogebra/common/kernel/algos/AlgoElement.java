@@ -37,6 +37,7 @@ import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.CasEvaluableFunction;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.GeoListForCellRange;
 import org.geogebra.common.kernel.geos.GeoScriptAction;
 import org.geogebra.common.kernel.geos.LabelManager;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
@@ -77,6 +78,7 @@ public abstract class AlgoElement extends ConstructionElement
 	 */
 	private List<OutputHandler<?>> outputHandler;
 	private boolean mayHaveRandomAncestors = true;
+	private AlgoOutputState outputState;
 	/** string builder */
 	protected StringBuilder sbAE = new StringBuilder();
 	/** flag stating whether remove() on this algo was already called */
@@ -587,6 +589,11 @@ public abstract class AlgoElement extends ConstructionElement
 			return;
 		}
 
+		if (cons.isChangeDetectionRunning()) {
+			updateIfInputChanged();
+			return;
+		}
+
 		updateUnlabeledRandomGeos();
 
 		// counter++;
@@ -605,6 +612,77 @@ public abstract class AlgoElement extends ConstructionElement
 		// updateTime += (endTime - startTime );
 	}
 
+	/**
+	 * Update used in change detecting cascades: skips compute() if no input
+	 * changed and does not update outputs if none of them changed.
+	 */
+	private void updateIfInputChanged() {
+		if (updateUnlabeledRandomGeos() || hasInputChanged()) {
+			if (outputState == null) {
+				outputState = new AlgoOutputState();
+			}
+			outputState.store(this);
+			// nested updates (e.g. of Sequence variables) must not be
+			// skipped, the local variables are not marked as changed
+			long outerStamp = cons.suspendChangeDetection();
+			try {
+				compute();
+			} finally {
+				cons.stopChangeDetection(outerStamp);
+			}
+			if (hasOutputChanged()) {
+				updateDependentGeos();
+			}
+		} else {
+			cons.addSkippedAlgo();
+		}
+	}
+
+	private boolean hasOutputChanged() {
+		for (int i = 0; i < getOutputLength(); i++) {
+			if (outputState.hasChanged(this, i)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean hasInputChanged() {
+		if (input == null || input.length == 0 || !canSkipUnchangedUpdate()) {
+			return true;
+		}
+		long stamp = cons.getChangeDetectionStamp();
+		for (int i = 0; i < input.length; i++) {
+			if (input[i].hasChangedSince(stamp) || input[i].isGeoCasCell()
+					|| input[i] instanceof GeoListForCellRange) {
+				return true;
+			}
+		}
+		return hasChangedSince(efficientInput, stamp) || hasChangedSince(
+				getInputForUpdateSetPropagation(), stamp);
+	}
+
+	private static boolean hasChangedSince(GeoElementND[] geos, long stamp) {
+		if (geos != null) {
+			for (int i = 0; i < geos.length; i++) {
+				if (geos[i].toGeoElement().hasChangedSince(stamp)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Algos that are registered in update sets of geos other than their input
+	 * (e.g. Object["A"]) must not be skipped in change detecting cascades.
+	 * 
+	 * @return whether compute() may be skipped when no input changed
+	 */
+	protected boolean canSkipUnchangedUpdate() {
+		return true;
+	}
+
 	/**
 	 * update input random numbers without label
 	 * 
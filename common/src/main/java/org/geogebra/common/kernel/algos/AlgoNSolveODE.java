@@ -1,9 +1,10 @@
 package org.geogebra.common.kernel.algos;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
+import org.apache.commons.math3.ode.ContinuousOutputModel;
 import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
-import org.apache.commons.math3.ode.FirstOrderIntegrator;
 import org.apache.commons.math3.ode.nonstiff.DormandPrince54Integrator;
 import org.apache.commons.math3.ode.sampling.StepHandler;
 import org.apache.commons.math3.ode.sampling.StepInterpolator;
@@ -20,6 +21,10 @@ import org.geogebra.common.kernel.geos.GeoNumeric;
 import org.geogebra.common.kernel.geos.LabelManager;
 
 /**
+ * Numerical solution of a system of ODEs. The dense output of the last
+ * solution is kept: if only the end point moves, the solution is cut or
+ * continued instead of being computed again from the start point.
+ * 
  * @author Bencze Balazs
  */
 public class AlgoNSolveODE extends AlgoElement {
@@ -38,6 +43,17 @@ public class AlgoNSolveODE extends AlgoElement {
 	/** dimension (number of functions) */
 	protected int dim;
 
+	private DormandPrince54Integrator integrator;
+	private FirstOrderDifferentialEquations ode;
+	/** dense output of the last solution, null if invalid */
+	private ContinuousOutputModel solution;
+	/** points of the last solution in each step */
+	private ArrayList<ArrayList<MyPoint>> steps;
+	private double solvedT0;
+	private double[] solvedY0;
+	/** update counts of the functions used for the last solution */
+	private int[] solvedVersions;
+
 	/**
 	 * @param cons
 	 *            cons
@@ -64,6 +80,7 @@ public class AlgoNSolveODE extends AlgoElement {
 
 		dim = fun.size();
 		y0 = new double[dim];
+		ode = new ODEN(fun);
 		setInputOutput();
 		compute();
 		LabelManager.setLabels(labels, out);
@@ -116,39 +133,138 @@ public class AlgoNSolveODE extends AlgoElement {
 		for (int i = 0; i < dim; i++) {
 			y0[i] = ((GeoNumeric) startY.get(i)).getDouble();
 		}
+		double t1 = endX.getDouble();
+		int[] versions = getInputVersions();
 
+		try {
+			if (canContinue(versions, t1)) {
+				if (isBeyondSolution(t1)) {
+					extendSolution(t1);
+				}
+			} else {
+				solve(t1);
+				solvedVersions = versions;
+			}
+		} catch (RuntimeException e) {
+			// catches ArithmeticException, IllegalStateException and
+			// ArithmeticException
+			setUndefined();
+			return;
+		}
+
+		int count = countStepsBefore(t1);
 		al = new ArrayList<>(dim);
+		for (int i = 0; i < dim; i++) {
+			al.add(new ArrayList<>(steps.get(i).subList(0, count)));
+		}
+		// end point from dense output
+		solution.setInterpolatedTime(t1);
+		double[] y1 = solution.getInterpolatedState();
+		for (int i = 0; i < dim; i++) {
+			al.get(i).add(new MyPoint(t1, y1[i], SegmentType.LINE_TO));
+		}
 
 		for (int i = 0; i < dim; i++) {
-			al.add(new ArrayList<MyPoint>());
+			out[i].setPoints(al.get(i));
+			out[i].setDefined(true);
 		}
+	}
 
-		FirstOrderIntegrator integrator = new DormandPrince54Integrator(0.001,
-				0.01, 0.000001, 0.0001);
-		FirstOrderDifferentialEquations ode = new ODEN(fun);
+	/**
+	 * @return update counts of the functions
+	 */
+	private int[] getInputVersions() {
+		int[] versions = new int[dim + 1];
+		versions[0] = fun.getUpdateCount();
+		for (int i = 0; i < dim; i++) {
+			versions[i + 1] = fun.get(i).getUpdateCount();
+		}
+		return versions;
+	}
 
-		integrator.addStepHandler(stepHandler);
+	/**
+	 * @return whether the last solution has the same functions and start
+	 *         point and goes in direction of t1
+	 */
+	private boolean canContinue(int[] versions, double t1) {
+		return solution != null && Arrays.equals(versions, solvedVersions)
+				&& t0 == solvedT0 && Arrays.equals(y0, solvedY0)
+				&& Math.signum(t1 - t0) == Math
+						.signum(solution.getFinalTime() - t0);
+	}
+
+	private boolean isBeyondSolution(double t1) {
+		return Math.abs(t1 - t0) > Math.abs(solution.getFinalTime() - t0);
+	}
 
+	/**
+	 * Integrates from the start point to t1.
+	 */
+	private void solve(double t1) {
+		solution = null;
+		steps = new ArrayList<>(dim);
 		for (int i = 0; i < dim; i++) {
-			al.get(i).add(new MyPoint(startX.getDouble(), y0[i],
-					SegmentType.MOVE_TO));
+			steps.add(new ArrayList<MyPoint>());
+			steps.get(i).add(new MyPoint(t0, y0[i], SegmentType.MOVE_TO));
 		}
+		ContinuousOutputModel model = integrate(t0, y0, t1);
+		solution = model;
+		solvedT0 = t0;
+		solvedY0 = y0.clone();
+	}
+
+	/**
+	 * Continues the last solution from its end to t1.
+	 */
+	private void extendSolution(double t1) {
+		double tEnd = solution.getFinalTime();
+		solution.setInterpolatedTime(tEnd);
+		double[] yEnd = solution.getInterpolatedState().clone();
 		try {
-			integrator.integrate(ode, t0, y0, endX.getDouble(), y0);
+			solution.append(integrate(tEnd, yEnd, t1));
 		} catch (RuntimeException e) {
-			// catches ArithmeticException, IllegalStateException and
-			// ArithmeticException
-			setUndefined();
-			return;
+			// some steps may have been added
+			solution = null;
+			throw e;
 		}
+	}
 
-		for (int i = 0; i < dim; i++) {
-			out[i].setPoints(al.get(i));
-			out[i].setDefined(true);
+	private ContinuousOutputModel integrate(double ts0, double[] ys0,
+			double t1) {
+		if (integrator == null) {
+			integrator = new DormandPrince54Integrator(0.001, 0.01, 0.000001,
+					0.0001);
+		}
+		ContinuousOutputModel model = new ContinuousOutputModel();
+		integrator.clearStepHandlers();
+		integrator.addStepHandler(stepHandler);
+		integrator.addStepHandler(model);
+		integrator.integrate(ode, ts0, ys0, t1, new double[dim]);
+		return model;
+	}
+
+	/**
+	 * @return number of step points of the solution strictly before t1
+	 */
+	private int countStepsBefore(double t1) {
+		ArrayList<MyPoint> points = steps.get(0);
+		double direction = Math.signum(t1 - t0);
+		int low = 1;
+		int high = points.size();
+		// first point (t0) is always before t1
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if ((points.get(mid).getX() - t1) * direction < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
 		}
+		return low;
 	}
 
 	private void setUndefined() {
+		solution = null;
 		for (int i = 0; i < out.length; i++) {
 			out[i].setUndefined();
 		}
@@ -170,16 +286,18 @@ public class AlgoNSolveODE extends AlgoElement {
 			}
 			double[] y1 = interpolator.getInterpolatedState();
 			for (int i = 0; i < y1.length; i++) {
-				al.get(i).add(new MyPoint(t, y1[i], SegmentType.LINE_TO));
+				steps.get(i).add(new MyPoint(t, y1[i], SegmentType.LINE_TO));
 			}
 		}
 	};
 
 	private class ODEN implements FirstOrderDifferentialEquations {
 		private GeoList fun1;
+		private double[] input1;
 
 		public ODEN(GeoList fun) {
 			this.fun1 = fun;
+			this.input1 = new double[dim + 1];
 		}
 
 		@Override
@@ -189,7 +307,6 @@ public class AlgoNSolveODE extends AlgoElement {
 
 		@Override
 		public void computeDerivatives(double t, double[] y, double[] yDot) {
-			double[] input1 = new double[dim + 1];
 			input1[0] = t;
 			for (int i = 0; i < dim; i++) {
 				input1[i + 1] = y[i];
@@ -156,6 +156,12 @@ public class AlgoObject extends AlgoElement {
 		}
 	}
 
+	@Override
+	protected boolean canSkipUnchangedUpdate() {
+		// registered in update set of the referenced object
+		return false;
+	}
+
 	/**
 	 * Returns an input array with the text and the referenced geo
 	 */
@@ -0,0 +1,79 @@
+package org.geogebra.common.kernel.algos;
+
+import org.geogebra.common.kernel.geos.GeoBoolean;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.GeoPoint;
+
+/**
+ * Values of algo outputs before compute(), used to detect outputs that did
+ * not change. Only numbers, booleans and points are compared, other outputs
+ * are always considered changed.
+ */
+final class AlgoOutputState {
+
+	private static final int STATE_LENGTH = 3;
+
+	private double[] state = new double[0];
+	private int length;
+
+	/**
+	 * Stores current values of all outputs.
+	 *
+	 * @param algo
+	 *            algorithm
+	 */
+	void store(AlgoElement algo) {
+		length = algo.getOutputLength();
+		if (state.length < length * STATE_LENGTH) {
+			state = new double[length * STATE_LENGTH];
+		}
+		for (int i = 0; i < length; i++) {
+			store(algo.getOutput(i), i * STATE_LENGTH);
+		}
+	}
+
+	private void store(GeoElement geo, int offset) {
+		state[offset] = Double.NaN;
+		state[offset + 1] = Double.NaN;
+		state[offset + 2] = Double.NaN;
+		if (!geo.isDefined()) {
+			return;
+		}
+		if (geo instanceof GeoNumeric) {
+			state[offset] = ((GeoNumeric) geo).getDouble();
+		} else if (geo instanceof GeoBoolean) {
+			state[offset] = ((GeoBoolean) geo).getBoolean() ? 1 : 0;
+		} else if (geo instanceof GeoPoint && !geo.isGeoTurtle()) {
+			GeoPoint point = (GeoPoint) geo;
+			state[offset] = point.x;
+			state[offset + 1] = point.y;
+			state[offset + 2] = point.z;
+		}
+	}
+
+	/**
+	 * @param algo
+	 *            algorithm
+	 * @param i
+	 *            output index
+	 * @return whether i-th output differs from the stored value
+	 */
+	boolean hasChanged(AlgoElement algo, int i) {
+		GeoElement geo = algo.getOutput(i);
+		int offset = i * STATE_LENGTH;
+		if (i >= length || !geo.isDefined()) {
+			return true;
+		}
+		if (geo instanceof GeoNumeric) {
+			return ((GeoNumeric) geo).getDouble() != state[offset];
+		} else if (geo instanceof GeoBoolean) {
+			return (((GeoBoolean) geo).getBoolean() ? 1 : 0) != state[offset];
+		} else if (geo instanceof GeoPoint && !geo.isGeoTurtle()) {
+			GeoPoint point = (GeoPoint) geo;
+			return point.x != state[offset] || point.y != state[offset + 1]
+					|| point.z != state[offset + 2];
+		}
+		return true;
+	}
+}
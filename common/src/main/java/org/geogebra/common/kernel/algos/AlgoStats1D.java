@@ -21,6 +21,7 @@ import org.geogebra.common.kernel.geos.GeoAngle.AngleStyle;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.statistics.NumericColumn;
 
 /**
  * Mean, variance, sum, sum of squares, standard deviation of a list adapted
@@ -187,12 +188,33 @@ public abstract class AlgoStats1D extends AlgoElement {
 		double sumFreq = 0;
 		double frequency = 1;
 		double var, mu;
+		// sum of squared deviations from the mean
+		double sxx = Double.NaN;
 		GeoElement geo, geoFreq, geo2;
 		boolean useMidpoint = false;
 		double n = 0;
 
+		double[] values = null;
+
 		// list of numbers only, no frequencies
-		if (geoList2 == null) {
+		if (geoList2 == null && size == geoList.size()) {
+			NumericColumn column = geoList.getNumericColumn();
+			if (!column.updateNumbers(geoList)) {
+				result.setUndefined();
+				return;
+			}
+			values = column.getValues();
+			sumVal = column.getSumX();
+			sumSquares = column.getSumXX();
+			sxx = column.getSXX();
+			if (stat == STATS_PRODUCT) {
+				product = column.getProduct();
+			}
+			n = size;
+		}
+
+		// truncated list of numbers
+		else if (geoList2 == null) {
 			double val;
 			for (int i = 0; i < size; i++) {
 				geo = geoList.get(i);
@@ -260,6 +282,9 @@ public abstract class AlgoStats1D extends AlgoElement {
 		}
 
 		mu = sumVal / n;
+		if (Double.isNaN(sxx)) {
+			sxx = sumSquares - (sumVal * sumVal) / n;
+		}
 
 		switch (stat) {
 		default:
@@ -268,7 +293,11 @@ public abstract class AlgoStats1D extends AlgoElement {
 		case STATS_MEAN_ABSOLUTE_DEVIATION:
 
 			double sumAbsoluteDeviation = 0;
-			if (geoList2 == null) {
+			if (values != null) {
+				for (int i = 0; i < size; i++) {
+					sumAbsoluteDeviation += Math.abs(mu - values[i]);
+				}
+			} else if (geoList2 == null) {
 				double val;
 				for (int i = 0; i < size; i++) {
 					geo = geoList.get(i);
@@ -311,24 +340,23 @@ public abstract class AlgoStats1D extends AlgoElement {
 			result.setValue(mu);
 			break;
 		case STATS_SD:
-			var = sumSquares / n - mu * mu;
+			var = sxx / n;
 			result.setValue(Math.sqrt(var));
 			break;
 		case STATS_SAMPLE_SD:
-			var = (sumSquares - sumVal * sumVal / n) / (n - 1);
+			var = sxx / (n - 1);
 			result.setValue(Math.sqrt(var));
 			break;
 		case STATS_VARIANCE:
-			var = sumSquares / n - mu * mu;
+			var = sxx / n;
 			result.setValue(var);
 			break;
 		case STATS_SAMPLE_VARIANCE:
-			var = (sumSquares - sumVal * sumVal / n) / (n - 1);
+			var = sxx / (n - 1);
 			result.setValue(var);
 			break;
 		case STATS_SXX:
-			var = sumSquares - (sumVal * sumVal) / n;
-			result.setValue(var);
+			result.setValue(sxx);
 			break;
 		case STATS_SIGMAX:
 			result.setValue(sumVal);
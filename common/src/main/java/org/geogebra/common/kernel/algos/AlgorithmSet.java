@@ -19,14 +19,20 @@ import java.util.NoSuchElementException;
 
 /**
  * Set to store AlgoElement objects for updating.
+ * 
+ * Algorithms are kept in a doubly linked list (update order) and every algo is
+ * mapped to its link, so that lookup, removal and insertion right after a
+ * parent algo take constant time.
  */
 public class AlgorithmSet implements Iterable<AlgoElement> {
 
-	private HashMap<AlgoElement, AlgoElement> hashMap;
+	private HashMap<AlgoElement, Link> hashMap;
 
 	private Link head;
 	private Link tail;
 	private int size;
+	// upper bound for creation IDs in this set, used by addSorted
+	private long maxID = Long.MIN_VALUE;
 
 	/**
 	 * Creates new algorithm set
@@ -69,14 +75,7 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 
 		// empty list?
 		if (getHead() == null) {
-			if (hashMap == null) {
-				hashMap = new HashMap<>();
-			}
-			hashMap.put(algo, algo);
-
-			setHead(new Link(algo, null));
-			tail = getHead();
-			size++;
+			addFirst(algo);
 			return true;
 		}
 
@@ -97,28 +96,18 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 		// check if algo needs to be inserted right after a certain parentAlgo
 		AlgoElement parentAlgo = algo.getUpdateAfterAlgo();
 
+		Link parentLink = parentAlgo == null ? null : hashMap.get(parentAlgo);
+
 		// Standard case: insert at end of list
-		if (parentAlgo == null || parentAlgo == tail.algo
-				|| !contains(parentAlgo)) {
-			tail.next = new Link(algo, null);
-			tail = tail.next;
+		if (parentLink == null) {
+			insertAfter(tail, algo);
 		}
 
 		// Special case: insert in the middle, right after parentAlgo
 		else {
-			// search for parentAlgo
-			Link cur = getHead();
-			while (cur.algo != parentAlgo) {
-				cur = cur.next;
-			}
-
-			// now cur.algo == parentAlgo, insert right afterwards
-			cur.next = new Link(algo, cur.next);
+			insertAfter(parentLink, algo);
 		}
 
-		hashMap.put(algo, algo);
-		size++;
-
 		return true;
 	}
 
@@ -129,14 +118,7 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 
 		// empty list?
 		if (getHead() == null) {
-			if (hashMap == null) {
-				hashMap = new HashMap<>();
-			}
-			hashMap.put(algo, algo);
-
-			setHead(new Link(algo, null));
-			tail = getHead();
-			size++;
+			addFirst(algo);
 			return true;
 		}
 
@@ -157,37 +139,65 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 		// check if algo needs to be inserted right after a certain parentAlgo
 		AlgoElement parentAlgo = algo.getUpdateAfterAlgo();
 
+		Link parentLink = parentAlgo == null ? null : hashMap.get(parentAlgo);
+
 		// Standard case: insert at end of list
 		if (parentAlgo == tail.algo) {
-			tail.next = new Link(algo, null);
-			tail = tail.next;
-		} else if (parentAlgo == null || !contains(parentAlgo)) {
-			Link cur = getHead();
-			while (cur.algo.getID() < algo.getID() && cur.next != null) {
-				cur = cur.next;
+			insertAfter(tail, algo);
+		} else if (parentLink == null) {
+			if (algo.getID() > maxID) {
+				// all algos in this set were created earlier
+				insertAfter(tail, algo);
+			} else {
+				Link cur = getHead();
+				while (cur.algo.getID() < algo.getID() && cur.next != null) {
+					cur = cur.next;
+				}
+				insertAfter(cur, algo);
 			}
-			cur.next = new Link(algo, cur.next);
 		}
 
 		// Special case: insert in the middle, right after parentAlgo
 		else {
-			// search for parentAlgo
-			Link cur = getHead();
-			while (cur.algo != parentAlgo) {
-				cur = cur.next;
-			}
-
-			// now cur.algo == parentAlgo, insert right afterwards
-			cur.next = new Link(algo, cur.next);
+			insertAfter(parentLink, algo);
 		}
 
-		hashMap.put(algo, algo);
-		size++;
-
 		return true;
 
 	}
 
+	private void addFirst(AlgoElement algo) {
+		if (hashMap == null) {
+			hashMap = new HashMap<>();
+		}
+		setHead(new Link(algo, null, null));
+		tail = getHead();
+		hashMap.put(algo, tail);
+		maxID = algo.getID();
+		size++;
+	}
+
+	/**
+	 * Inserts algo right after given link.
+	 * 
+	 * @param cur
+	 *            link of algo preceding the new one
+	 * @param algo
+	 *            algo to be inserted
+	 */
+	private void insertAfter(Link cur, AlgoElement algo) {
+		Link link = new Link(algo, cur, cur.next);
+		if (cur.next == null) {
+			tail = link;
+		} else {
+			cur.next.prev = link;
+		}
+		cur.next = link;
+		hashMap.put(algo, link);
+		maxID = Math.max(maxID, algo.getID());
+		size++;
+	}
+
 	/**
 	 * Inserts all algos of set at the end of this set.
 	 * 
@@ -228,7 +238,7 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 			return false;
 		}
 
-		return hashMap.get(algo) != null;
+		return hashMap.containsKey(algo);
 	}
 
 	/**
@@ -244,36 +254,23 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 			return false;
 		}
 
-		Object remObj = hashMap.remove(algo);
-		if (remObj == null) {
+		Link cur = hashMap.remove(algo);
+		if (cur == null) {
 			return false;
 		}
 
-		Link prev = null;
-		Link cur = getHead();
-		while (cur != null) {
-			// found algo to remove
-			if (cur.algo == algo) {
-				if (prev == null) { // remove from head
-					setHead(cur.next);
-					if (getHead() == null) {
-						tail = null;
-					}
-				} else { // standard case
-					prev.next = cur.next;
-					if (prev.next == null) {
-						tail = prev;
-					}
-				}
-				size--;
-				return true;
-			}
-			// not yet found
-			prev = cur;
-			cur = cur.next;
+		if (cur.prev == null) { // remove from head
+			setHead(cur.next);
+		} else { // standard case
+			cur.prev.next = cur.next;
 		}
-
-		return false;
+		if (cur.next == null) {
+			tail = cur.prev;
+		} else {
+			cur.next.prev = cur.prev;
+		}
+		size--;
+		return true;
 	}
 
 	/**
@@ -353,10 +350,12 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 
 	private static class Link {
 		AlgoElement algo;
+		Link prev;
 		Link next;
 
-		Link(AlgoElement a, Link n) {
+		Link(AlgoElement a, Link p, Link n) {
 			algo = a;
+			prev = p;
 			next = n;
 		}
 	}
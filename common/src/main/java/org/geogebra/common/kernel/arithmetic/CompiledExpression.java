@@ -0,0 +1,402 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.plugin.Operation;
+
+/**
+ * Real valued expression compiled to a tree of primitive evaluators. Unlike
+ * {@link ExpressionNode#evaluateDouble()} evaluation does not create any
+ * objects and does not inspect the structure of the expression.
+ *
+ * Numbers (MyDouble, GeoNumeric) are read when the expression is evaluated,
+ * but the structure is fixed at compile time: the compiled expression must
+ * be discarded when the expression tree changes. Subtrees with unsupported
+ * operations are evaluated by the standard evaluator.
+ *
+ * {@link #evaluate(double[])} is not thread safe; a pure expression (see
+ * {@link #isPure()}) may be shared by threads that pass their own scratch
+ * number to {@link #evaluate(double[], MyDouble)}.
+ */
+public final class CompiledExpression {
+
+	private final Node root;
+	private final FunctionVariable[] fVars;
+	private final double[] singleValue = new double[1];
+	private final MyDouble number;
+	private final boolean pure;
+
+	private CompiledExpression(Node root, FunctionVariable[] fVars,
+			Kernel kernel, boolean pure) {
+		this.root = root;
+		this.fVars = fVars;
+		this.number = new MyDouble(kernel);
+		this.pure = pure;
+	}
+
+	/**
+	 * @param expression
+	 *            expression
+	 * @param fVars
+	 *            function variables
+	 * @return compiled expression or null if the top level operation is not
+	 *         supported
+	 */
+	public static CompiledExpression compile(ExpressionNode expression,
+			FunctionVariable[] fVars) {
+		if (expression == null || fVars == null) {
+			return null;
+		}
+		Compiler compiler = new Compiler(fVars);
+		Node root = compiler.compile(expression);
+		if (root instanceof Fallback) {
+			return null;
+		}
+		return new CompiledExpression(root, fVars, expression.getKernel(),
+				compiler.pure);
+	}
+
+	/**
+	 * @return whether the value only depends on the variable values and on
+	 *         numbers, i.e. no subtree needs the standard evaluator
+	 */
+	public boolean isPure() {
+		return pure;
+	}
+
+	/**
+	 * @param vals
+	 *            values of variables
+	 * @return value of the expression
+	 */
+	public double evaluate(double[] vals) {
+		return evaluate(vals, number);
+	}
+
+	/**
+	 * Same as {@link #evaluate(double[])}, but keeps intermediate results in
+	 * the given number instead of the one owned by this expression.
+	 * 
+	 * @param vals
+	 *            values of variables
+	 * @param scratch
+	 *            number for intermediate results, not used by other threads
+	 * @return value of the expression
+	 */
+	public double evaluate(double[] vals, MyDouble scratch) {
+		if (!pure) {
+			// keep variables in sync for fallback subtrees
+			for (int i = 0; i < fVars.length; i++) {
+				fVars[i].set(vals[i]);
+			}
+		}
+		return root.evaluate(vals, scratch);
+	}
+
+	/**
+	 * @param x
+	 *            value of the (only) variable
+	 * @return value of the expression
+	 */
+	public double evaluate(double x) {
+		singleValue[0] = x;
+		return evaluate(singleValue);
+	}
+
+	private static class Compiler {
+		private final FunctionVariable[] fVars;
+		/** false once a subtree needs the standard evaluator */
+		protected boolean pure = true;
+
+		protected Compiler(FunctionVariable[] fVars) {
+			this.fVars = fVars;
+		}
+
+		protected Node compile(ExpressionValue ev) {
+			if (ev instanceof ExpressionNode) {
+				return compileNode((ExpressionNode) ev);
+			}
+			for (int i = 0; i < fVars.length; i++) {
+				if (ev == fVars[i]) {
+					return new Variable(i);
+				}
+			}
+			// GeoNumeric.evaluateDouble() returns getDouble(), same for
+			// MyDouble and its subclasses
+			if (ev instanceof MyDouble || ev instanceof GeoNumeric) {
+				return new NumberLeaf((NumberValue) ev);
+			}
+			return fallback(ev);
+		}
+
+		private Node compileNode(ExpressionNode node) {
+			if (node.isLeaf()) {
+				return compile(node.getLeft());
+			}
+			Operation op = node.getOperation();
+			switch (op) {
+			case PLUS:
+				return new Plus(compile(node.getLeft()),
+						compile(node.getRight()));
+			case MINUS:
+				return new Minus(compile(node.getLeft()),
+						compile(node.getRight()));
+			case DIVIDE:
+				return new Divide(compile(node.getLeft()),
+						compile(node.getRight()));
+			case MULTIPLY:
+				Node left = compile(node.getLeft());
+				Node right = compile(node.getRight());
+				if (left instanceof Fallback || right instanceof Fallback) {
+					// non-numeric factors need the full evaluator
+					return fallback(node);
+				}
+				return new Multiply(left, right);
+			case POWER:
+				left = compile(node.getLeft());
+				right = compile(node.getRight());
+				if (left instanceof Fallback || right instanceof Fallback) {
+					return fallback(node);
+				}
+				Power power = new Power(left, right, node.getRight());
+				if (power.fraction != null) {
+					// negative base needs the standard evaluator
+					pure = false;
+				}
+				return power;
+			case SIN:
+			case COS:
+			case SQRT:
+				return new MathFunction(op, compile(node.getLeft()));
+			case TAN:
+			case EXP:
+			case LOG:
+			case ABS:
+			case CBRT:
+			case SGN:
+			case COSH:
+			case SINH:
+			case TANH:
+			case ARCSIN:
+			case ARCCOS:
+			case ARCTAN:
+			case LOG10:
+			case LOG2:
+			case ERF:
+			case SQRT_SHORT:
+				Node arg = compile(node.getLeft());
+				if (arg instanceof Fallback) {
+					return fallback(node);
+				}
+				return new NumberFunction(op, arg);
+			default:
+				return fallback(node);
+			}
+		}
+
+		private Node fallback(ExpressionValue ev) {
+			pure = false;
+			return new Fallback(ev);
+		}
+	}
+
+	private static abstract class Node {
+		protected abstract double evaluate(double[] vals, MyDouble number);
+	}
+
+	private static class Variable extends Node {
+		private final int index;
+
+		protected Variable(int index) {
+			this.index = index;
+		}
+
+		@Override
+		protected double evaluate(double[] vals, MyDouble number) {
+			return vals[index];
+		}
+	}
+
+	private static class NumberLeaf extends Node {
+		private final NumberValue value;
+
+		protected NumberLeaf(NumberValue value) {
+			this.value = value;
+		}
+
+		@Override
+		protected double evaluate(double[] vals, MyDouble number) {
+			return value.getDouble();
+		}
+	}
+
+	private static class Fallback extends Node {
+		private final ExpressionValue value;
+
+		protected Fallback(ExpressionValue value) {
+			this.value = value;
+		}
+
+		@Override
+		protected double evaluate(double[] vals, MyDouble number) {
+			return value.evaluateDouble();
+		}
+	}
+
+	private static abstract class Binary extends Node {
+		protected final Node left;
+		protected final Node right;
+
+		protected Binary(Node left, Node right) {
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	private static class Plus extends Binary {
+		protected Plus(Node left, Node right) {
+			super(left, right);
+		}
+
+		@Override
+		protected double evaluate(double[] vals, MyDouble number) {
+			return left.evaluate(vals, number) + right.evaluate(vals, number);
+		}
+	}
+
+	private static class Minus extends Binary {
+		protected Minus(Node left, Node right) {
+			super(left, right);
+		}
+
+		@Override
+		protected double evaluate(double[] vals, MyDouble number) {
+			return left.evaluate(vals, number) - right.evaluate(vals, number);
+		}
+	}
+
+	private static class Multiply extends Binary {
+		protected Multiply(Node left, Node right) {
+			super(left, right);
+		}
+
+		@Override
+		protected double evaluate(double[] vals, MyDouble number) {
+			return left.evaluate(vals, number) * right.evaluate(vals, number);
+		}
+	}
+
+	private static class Divide extends Binary {
+		protected Divide(Node left, Node right) {
+			super(left, right);
+		}
+
+		@Override
+		protected double evaluate(double[] vals, MyDouble number) {
+			return left.evaluate(vals, number) / right.evaluate(vals, number);
+		}
+	}
+
+	private static class Power extends Binary {
+		/** exponent, if it's a fraction (for negative base) */
+		private final ExpressionNode fraction;
+
+		protected Power(Node left, Node right, ExpressionValue exponent) {
+			super(left, right);
+			this.fraction = exponent.isExpressionNode()
+					&& ((ExpressionNode) exponent)
+							.getOperation() == Operation.DIVIDE
+									? (ExpressionNode) exponent : null;
+		}
+
+		@Override
+		protected double evaluate(double[] vals, MyDouble number) {
+			double base = left.evaluate(vals, number);
+			if (base < 0 && fraction != null) {
+				// x^(a/b) := (x^a)^(1/b)
+				return ExpressionNodeEvaluator.negPower(base, fraction);
+			}
+			return Math.pow(base, right.evaluate(vals, number));
+		}
+	}
+
+	/**
+	 * Functions that {@link ExpressionNode#evaluateDouble()} computes by
+	 * plain Math calls.
+	 */
+	private static class MathFunction extends Node {
+		private final Operation op;
+		private final Node arg;
+
+		protected MathFunction(Operation op, Node arg) {
+			this.op = op;
+			this.arg = arg;
+		}
+
+		@Override
+		protected double evaluate(double[] vals, MyDouble number) {
+			double val = arg.evaluate(vals, number);
+			switch (op) {
+			case SIN:
+				return Math.sin(val);
+			case COS:
+				return Math.cos(val);
+			default:
+				return Math.sqrt(val);
+			}
+		}
+	}
+
+	/**
+	 * Functions evaluated by methods of {@link MyDouble} (rounding near
+	 * zero, undefined tan(pi/2), ...) using the scratch number.
+	 */
+	private static class NumberFunction extends Node {
+		private final Operation op;
+		private final Node arg;
+
+		protected NumberFunction(Operation op, Node arg) {
+			this.op = op;
+			this.arg = arg;
+		}
+
+		@Override
+		protected double evaluate(double[] vals, MyDouble number) {
+			number.set(arg.evaluate(vals, number));
+			switch (op) {
+			case TAN:
+				return number.tan().getDouble();
+			case EXP:
+				return number.exp().getDouble();
+			case LOG:
+				return number.log().getDouble();
+			case ABS:
+				return number.abs().getDouble();
+			case CBRT:
+				return number.cbrt().getDouble();
+			case SGN:
+				return number.sgn().getDouble();
+			case COSH:
+				return number.cosh().getDouble();
+			case SINH:
+				return number.sinh().getDouble();
+			case TANH:
+				return number.tanh().getDouble();
+			case ARCSIN:
+				return number.asin(false).getDouble();
+			case ARCCOS:
+				return number.acos(false).getDouble();
+			case ARCTAN:
+				return number.atan(false).getDouble();
+			case LOG10:
+				return number.log10().getDouble();
+			case LOG2:
+				return number.log2().getDouble();
+			case ERF:
+				return number.erf().getDouble();
+			default:
+				return number.sqrt().getDouble();
+			}
+		}
+	}
+}
@@ -219,6 +219,29 @@ public class Function extends FunctionNVar
 
 	}
 
+	/**
+	 * Evaluates this function for several values of x, the expression is
+	 * compiled only once for all of them.
+	 *
+	 * @param xs
+	 *            positions
+	 * @param out
+	 *            output array, f(xs[i]) is stored in out[offset + i * stride]
+	 * @param offset
+	 *            index of first value in output array
+	 * @param stride
+	 *            distance between values in output array
+	 */
+	public void value(double[] xs, double[] out, int offset, int stride) {
+		// subclasses may override value(double)
+		CompiledExpression compiled = getClass() == Function.class
+				&& xs.length > 1 ? compile() : null;
+		for (int i = 0; i < xs.length; i++) {
+			out[offset + i * stride] = compiled == null ? value(xs[i])
+					: compiled.evaluate(xs[i]);
+		}
+	}
+
 	/**
 	 * Returns this function's value at position x. (Note: use this method if
 	 * isBooleanFunction() returns true.
@@ -506,6 +506,20 @@ public class FunctionNVar extends ValidExpression
 		return expression.evaluateDouble();
 	}
 
+	/**
+	 * Compiles the expression for fast evaluation; the result gets invalid
+	 * when the expression is modified.
+	 *
+	 * @return compiled expression, null if this is not a real function or
+	 *         its expression cannot be compiled
+	 */
+	public CompiledExpression compile() {
+		if (isBooleanFunction) {
+			return null;
+		}
+		return CompiledExpression.compile(expression, fVars);
+	}
+
 	/**
 	 * Returns this function's value at position vals. (Note: use this method if
 	 * isBooleanFunction() returns true.
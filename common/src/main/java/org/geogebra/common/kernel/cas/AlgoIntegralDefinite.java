@@ -15,10 +15,8 @@ package org.geogebra.common.kernel.cas;
 import java.util.ArrayList;
 
 import org.apache.commons.math3.analysis.UnivariateFunction;
-import org.apache.commons.math3.analysis.integration.LegendreGaussIntegrator;
 import org.geogebra.common.cas.giac.CASgiac;
 import org.geogebra.common.kernel.Construction;
-import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.algos.AlgoDependentFunction;
 import org.geogebra.common.kernel.algos.AlgoElement;
@@ -41,6 +39,7 @@ import org.geogebra.common.kernel.geos.GeoFunction;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumberValue;
 import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.integration.AdaptiveGaussQuadrature;
 import org.geogebra.common.util.DoubleUtil;
 import org.geogebra.common.util.debug.Log;
 
@@ -67,17 +66,12 @@ public class AlgoIntegralDefinite extends AlgoUsingTempCASalgo
 	private boolean validButUndefined = false;
 
 	// for numerical adaptive GaussQuad integration
-	private static final int FIRST_ORDER = 3;
-	private static final int SECOND_ORDER = 5;
-	private static final int MIN_ITER = 1;
-	private static final int MAX_ITER = 5;
-	private static LegendreGaussIntegrator firstGauss;
-	private static LegendreGaussIntegrator secondGauss;
-	private static int adaptiveGaussQuadCounter = 0;
-	private static final int MAX_GAUSS_QUAD_CALLS = 500;
 	private static final int STANDARD_MULTIPLIER = 1;
 	// freehand functions tend to be less smooth
 	private static final int FREEHAND_MULTIPLIER = 10;
+	// memoizes the last numerical result of standardIntegral
+	private AdaptiveGaussQuadrature quadrature;
+	private IntegrandBatch integrand;
 
 	/**
 	 * @param cons
@@ -549,9 +543,48 @@ public class AlgoIntegralDefinite extends AlgoUsingTempCASalgo
 		// freehand functions aren't generally nice and smooth, so more
 		// iterations may be needed
 		// https://help.geogebra.org/topic/problem-mit-integral-unter-freihandskizze
-		n.setValue(numericIntegration(f, lowerLimit, upperLimit,
-				f.includesFreehandOrData() ? FREEHAND_MULTIPLIER
-						: STANDARD_MULTIPLIER));
+		if (quadrature == null) {
+			quadrature = new AdaptiveGaussQuadrature();
+			integrand = new IntegrandBatch();
+		}
+		try {
+			n.setValue(quadrature.integrate(integrand, f.getUpdateCount(),
+					lowerLimit, upperLimit,
+					f.includesFreehandOrData() ? FREEHAND_MULTIPLIER
+							: STANDARD_MULTIPLIER));
+		} finally {
+			integrand.reset();
+		}
+	}
+
+	/**
+	 * Evaluates f with compiled expression; compiled only when the
+	 * quadrature needs values, i.e. not for memoized results.
+	 */
+	private class IntegrandBatch
+			implements AdaptiveGaussQuadrature.BatchFunction {
+		private boolean compiled;
+
+		@Override
+		public void value(double[] x, double[] y, int length) {
+			if (!compiled) {
+				f.setCompiledEvaluation(true);
+				compiled = true;
+			}
+			for (int i = 0; i < length; i++) {
+				y[i] = f.value(x[i]);
+			}
+		}
+
+		/**
+		 * Switch back to standard evaluation.
+		 */
+		public void reset() {
+			if (compiled) {
+				f.setCompiledEvaluation(false);
+				compiled = false;
+			}
+		}
 	}
 
 	// private MyArbitraryConstant arbconst = new MyArbitraryConstant(this);
@@ -900,81 +933,8 @@ public class AlgoIntegralDefinite extends AlgoUsingTempCASalgo
 	 */
 	public static double numericIntegration(UnivariateFunction ad, double a,
 			double b, int maxMultiplier) {
-		
-		// GGB-2318
-		// f(x) = If(x < 0, 0, x <= 2, x)
-		if (a == b) {
-			return 0;
-		}
-
-		adaptiveGaussQuadCounter = 0;
-		if (a > b) {
-			return -doAdaptiveGaussQuad(ad, b, a, maxMultiplier);
-		}
-		return doAdaptiveGaussQuad(ad, a, b, maxMultiplier);
-
-		// System.out.println("calls: " + adaptiveGaussQuadCounter);
-
-	}
-
-	private static double doAdaptiveGaussQuad(UnivariateFunction fun, double a,
-			double b, int maxMultiplier) {
-		if (++adaptiveGaussQuadCounter > MAX_GAUSS_QUAD_CALLS * maxMultiplier) {
-			return Double.NaN;
-		}
-
-		// init GaussQuad classes for numerical integration
-		if (firstGauss == null) {
-			firstGauss = new LegendreGaussIntegrator(FIRST_ORDER, MIN_ITER,
-					MAX_ITER);
-			secondGauss = new LegendreGaussIntegrator(SECOND_ORDER, MIN_ITER,
-					MAX_ITER);
-		}
-
-		double firstSum = 0;
-		double secondSum = 0;
-
-		boolean error = false;
-
-		// integrate using gauss quadrature
-		try {
-			firstSum = firstGauss.integrate(MAX_GAUSS_QUAD_CALLS, fun, a, b);
-			if (Double.isNaN(firstSum)) {
-				return Double.NaN;
-			}
-			secondSum = secondGauss.integrate(MAX_GAUSS_QUAD_CALLS, fun, a, b);
-			if (Double.isNaN(secondSum)) {
-				return Double.NaN;
-			}
-		} catch (IllegalArgumentException e) {
-			return Double.NaN;
-		} catch (RuntimeException e) {
-			// catches IllegalStateException and ArithmeticException
-			// eg
-			// org.apache.commons.math3.exception.TooManyEvaluationsException:
-			// illegal state: maximal count ({0}) exceeded500: evaluations
-			error = true;
-		}
-
-		// if (!error) Application.debug(a+" "+b+" "+(firstSum - secondSum),
-		// Kernel.isEqual(firstSum, secondSum, Kernel.STANDARD_PRECISION) ? 1 :
-		// 0);
-		// else Application.debug(a+" "+b+" error",1);
-
-		// check if both results are equal
-		boolean equal = !error && DoubleUtil.isEqual(firstSum, secondSum,
-				Kernel.STANDARD_PRECISION);
-
-		if (equal) {
-			// success
-			return secondSum;
-		}
-		double mid = (a + b) / 2;
-		double left = doAdaptiveGaussQuad(fun, a, mid, maxMultiplier);
-		if (Double.isNaN(left)) {
-			return Double.NaN;
-		}
-		return left + doAdaptiveGaussQuad(fun, mid, b, maxMultiplier);
+		return new AdaptiveGaussQuadrature().integrate(
+				AdaptiveGaussQuadrature.batch(ad), a, b, maxMultiplier);
 	}
 
 	@Override
@@ -11,6 +11,7 @@ import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.discrete.delaunay.DelaunayTriangulation;
+import org.geogebra.common.kernel.discrete.delaunay.IncrementalDelaunay;
 import org.geogebra.common.kernel.discrete.delaunay.PointDt;
 import org.geogebra.common.kernel.discrete.delaunay.TriangleDt;
 import org.geogebra.common.kernel.geos.GeoElement;
@@ -24,6 +25,7 @@ import org.geogebra.common.util.debug.Log;
  */
 public class AlgoDelauneyTriangulation extends AlgoDiscrete {
 	private static Comparator<MyLine> lineComparator;
+	private IncrementalDelaunay triangulation = new IncrementalDelaunay();
 
 	/**
 	 * @param cons
@@ -67,7 +69,7 @@ public class AlgoDelauneyTriangulation extends AlgoDiscrete {
 				}
 			}
 
-			DelaunayTriangulation dt = new DelaunayTriangulation(points);
+			DelaunayTriangulation dt = triangulation.update(points);
 
 			if (dt.allCollinear) {
 				locus.setUndefined();
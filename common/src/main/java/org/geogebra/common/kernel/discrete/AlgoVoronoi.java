@@ -2,6 +2,7 @@ package org.geogebra.common.kernel.discrete;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.TreeSet;
 
@@ -11,6 +12,7 @@ import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.discrete.delaunay.DelaunayTriangulation;
+import org.geogebra.common.kernel.discrete.delaunay.IncrementalDelaunay;
 import org.geogebra.common.kernel.discrete.delaunay.PointDt;
 import org.geogebra.common.kernel.discrete.delaunay.TriangleDt;
 import org.geogebra.common.kernel.geos.GeoElement;
@@ -23,6 +25,7 @@ import org.geogebra.common.util.DoubleUtil;
  */
 public class AlgoVoronoi extends AlgoDiscrete {
 	private static Comparator<GPoint2D> pointComparator;
+	private IncrementalDelaunay triangulation = new IncrementalDelaunay();
 
 	/**
 	 * @param cons
@@ -52,14 +55,17 @@ public class AlgoVoronoi extends AlgoDiscrete {
 
 		double[] inhom = new double[2];
 
-		ArrayList<Double> xcoords = new ArrayList<>();
-		ArrayList<Double> ycoords = new ArrayList<>();
+		HashSet<Double> xcoords = new HashSet<>();
+		HashSet<Double> ycoords = new HashSet<>();
 
 		final double delta = 0.0000001;
 
 		// add to TreeSet to remove duplicates (from touching triangles)
 		TreeSet<GPoint2D> pointTree = new TreeSet<>(
 				getPointComparator());
+		// keep list order, so that the triangulation can be updated when
+		// only a few points move
+		ArrayList<GPoint2D> distinctPoints = new ArrayList<>();
 
 		for (int i = 0; i < size; i++) {
 			GeoElement geo = inputList.get(i);
@@ -67,18 +73,18 @@ public class AlgoVoronoi extends AlgoDiscrete {
 				GeoPointND p = (GeoPointND) geo;
 				p.getInhomCoords(inhom);
 
-				pointTree.add(new GPoint2D(inhom[0], inhom[1]));
+				GPoint2D point = new GPoint2D(inhom[0], inhom[1]);
+				if (pointTree.add(point)) {
+					distinctPoints.add(point);
+				}
 
 			}
 		}
 
-		PointDt[] points = new PointDt[pointTree.size()];
+		PointDt[] points = new PointDt[distinctPoints.size()];
 		int indx = 0;
 
-		Iterator<GPoint2D> it3 = pointTree.iterator();
-
-		while (it3.hasNext()) {
-			GPoint2D p = it3.next();
+		for (GPoint2D p : distinctPoints) {
 			double x = p.getX();
 			double y = p.getY();
 
@@ -98,7 +104,7 @@ public class AlgoVoronoi extends AlgoDiscrete {
 
 		}
 
-		DelaunayTriangulation dt = new DelaunayTriangulation(points);
+		DelaunayTriangulation dt = triangulation.update(points);
 
 		if (dt.allCollinear) {
 			locus.setUndefined();
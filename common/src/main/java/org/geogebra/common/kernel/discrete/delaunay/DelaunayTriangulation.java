@@ -1,5 +1,6 @@
 package org.geogebra.common.kernel.discrete.delaunay;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -78,6 +79,11 @@ public class DelaunayTriangulation {
 	private PointDt _bb_min;
 	private PointDt _bb_max;
 
+	/** smaller triangulations are built without point location index */
+	private static final int GRID_INDEX_MIN_POINTS = 64;
+	// start triangles for point location, may be null
+	private GridIndex gridIndex;
+
 	/**
 	 * creates an empty Delaunay Triangulation.
 	 */
@@ -102,11 +108,31 @@ public class DelaunayTriangulation {
 		deletedTriangles = null;
 		addedTriangles = new Vector<>();
 		allCollinear = true;
+		createGridIndex(ps);
 		for (int i = 0; ps != null && i < ps.length && ps[i] != null; i++) {
 			this.insertPoint(ps[i]);
 		}
 	}
 
+	private void createGridIndex(PointDt[] ps) {
+		int n = 0;
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		while (ps != null && n < ps.length && ps[n] != null) {
+			minX = Math.min(minX, ps[n].x());
+			minY = Math.min(minY, ps[n].y());
+			maxX = Math.max(maxX, ps[n].x());
+			maxY = Math.max(maxY, ps[n].y());
+			n++;
+		}
+		if (n >= GRID_INDEX_MIN_POINTS && maxX - minX < Double.MAX_VALUE
+				&& maxY - minY < Double.MAX_VALUE) {
+			gridIndex = new GridIndex(minX, minY, maxX, maxY, n);
+		}
+	}
+
 	/**
 	 * the number of (different) vertices in this triangulation.
 	 *
@@ -173,44 +199,70 @@ public class DelaunayTriangulation {
 	 *            algorithm (2002).
 	 * 
 	 *            By Eyal Roth &amp; Doron Ganel (2009).
+	 * @return whether the point was deleted; points on the convex hull can't
+	 *         be deleted. Also false if some neighbors could not be linked to
+	 *         the new triangles, the triangulation has to be rebuilt then.
 	 */
-	public void deletePoint(PointDt pointToDelete) {
+	public boolean deletePoint(PointDt pointToDelete) {
 
 		// Finding the triangles to delete.
 		Vector<PointDt> pointsVec = findConnectedVertices(pointToDelete, true);
 		if (pointsVec == null) {
-			return;
+			return false;
 		}
 
 		while (pointsVec.size() >= 3) {
 			// Getting a triangle to add, and saving it.
 			TriangleDt triangle = findTriangle(pointsVec, pointToDelete);
-			addedTriangles.add(triangle);
-
 			// Finding the point on the diagonal (pointToDelete,p)
-			PointDt p = findDiagonal(triangle, pointToDelete);
+			PointDt p = triangle == null ? null
+					: findDiagonal(triangle, pointToDelete);
+			if (p == null) {
+				// degenerate neighborhood, triangulation not changed yet
+				addedTriangles.removeAllElements();
+				return false;
+			}
+			addedTriangles.add(triangle);
 
-			for (PointDt tmpP : pointsVec) {
-				if (tmpP.equals(p)) {
-					pointsVec.removeElement(tmpP);
-					break;
-				}
+			if (!pointsVec.removeElement(p)) {
+				addedTriangles.removeAllElements();
+				return false;
 			}
 		}
 		// updating the trangulation
+		_modCount++;
 		deleteUpdate(pointToDelete);
 		for (TriangleDt t : deletedTriangles) {
+			t.removed = true;
 			if (t == startTriangle) {
 				startTriangle = addedTriangles.elementAt(0);
-				break;
 			}
 		}
+		boolean linked = true;
+		for (TriangleDt t : deletedTriangles) {
+			linked = linked && !linksTo(t.abnext, t) && !linksTo(t.bcnext, t)
+					&& !linksTo(t.canext, t);
+		}
+		for (TriangleDt t : addedTriangles) {
+			linked = linked && isLinked(t.abnext) && isLinked(t.bcnext)
+					&& isLinked(t.canext);
+		}
 		_triangles.removeAll(deletedTriangles);
 		_triangles.addAll(addedTriangles);
 		_vertices.remove(pointToDelete);
 		nPoints = nPoints + addedTriangles.size() - deletedTriangles.size();
 		addedTriangles.removeAllElements();
 		deletedTriangles.removeAllElements();
+		return linked;
+	}
+
+	private static boolean linksTo(TriangleDt from, TriangleDt to) {
+		return from != null && !from.removed && (from.abnext == to
+				|| from.bcnext == to || from.canext == to);
+	}
+
+	private static boolean isLinked(TriangleDt t) {
+		return t != null && !t.removed;
 	}
 
 	/**
@@ -776,12 +828,15 @@ public class DelaunayTriangulation {
 	private TriangleDt insertPointSimple(PointDt p) {
 		nPoints++;
 		if (!allCollinear) {
-			TriangleDt t = find(startTriangle, p);
+			TriangleDt t = find(searchStart(p), p);
 			if (t.halfplane) {
 				startTriangle = extendOutside(t, p);
 			} else {
 				startTriangle = extendInside(t, p);
 			}
+			if (gridIndex != null) {
+				gridIndex.put(p, startTriangle);
+			}
 			return startTriangle;
 		}
 
@@ -1043,6 +1098,7 @@ public class DelaunayTriangulation {
 		}
 
 		v._mc = mc;
+		u.removed = true;
 		v.bcnext = t.bcnext;
 		v.abnext.switchneighbors(u, v);
 		v.bcnext.switchneighbors(t, v);
@@ -1089,7 +1145,7 @@ public class DelaunayTriangulation {
 
 		// If triangulation has a spatial index try to use it as the starting
 		// triangle
-		TriangleDt searchTriangle = startTriangle;
+		TriangleDt searchTriangle = searchStart(p);
 
 		// Search for the point's triangle starting from searchTriangle
 		return find(searchTriangle, p);
@@ -1114,6 +1170,16 @@ public class DelaunayTriangulation {
 		return T;
 	}
 
+	private TriangleDt searchStart(PointDt p) {
+		if (gridIndex != null) {
+			TriangleDt t = gridIndex.get(p);
+			if (t != null) {
+				return t;
+			}
+		}
+		return startTriangle;
+	}
+
 	private static TriangleDt find(TriangleDt start, PointDt p) {
 		if (p == null) {
 			return null;
@@ -1488,17 +1554,97 @@ public class DelaunayTriangulation {
 		return this._vertices.iterator();
 	}
 
+	/**
+	 * Checks that neighboring triangles are linked both ways, that no
+	 * triangle has a corner of a neighbor inside its circumcircle and that the
+	 * number of triangles fits the number of vertices.
+	 *
+	 * @return whether this is a valid Delaunay triangulation
+	 */
+	public boolean isValid() {
+		if (allCollinear) {
+			return false;
+		}
+		initTriangles();
+		int finite = 0;
+		int halfplanes = 0;
+		for (TriangleDt t : _triangles) {
+			if (t.halfplane) {
+				halfplanes++;
+				continue;
+			}
+			finite++;
+			if (!isDelaunayNeighbor(t, t.abnext)
+					|| !isDelaunayNeighbor(t, t.bcnext)
+					|| !isDelaunayNeighbor(t, t.canext)) {
+				return false;
+			}
+		}
+		return finite == 2 * size() - 2 - halfplanes;
+	}
+
+	/**
+	 * Checks the triangles around a vertex like {@link #isValid()}, without
+	 * visiting the whole triangulation.
+	 *
+	 * @param p
+	 *            vertex
+	 * @return whether the triangles with corner p and their neighbors are
+	 *         valid; false for vertices on the convex hull
+	 */
+	public boolean isValidAround(PointDt p) {
+		if (allCollinear) {
+			return false;
+		}
+		TriangleDt t = find(p);
+		if (t == null || t.halfplane || !t.isCorner(p)) {
+			return false;
+		}
+		Vector<TriangleDt> around = findTriangleNeighborhood(t, p);
+		if (around == null) {
+			return false;
+		}
+		for (TriangleDt u : around) {
+			if (u.removed || !isDelaunayNeighbor(u, u.abnext)
+					|| !isDelaunayNeighbor(u, u.bcnext)
+					|| !isDelaunayNeighbor(u, u.canext)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isDelaunayNeighbor(TriangleDt t, TriangleDt u) {
+		if (u == null || u.removed || (u.abnext != t && u.bcnext != t
+				&& u.canext != t)) {
+			return false;
+		}
+		return u.halfplane || (!isInsideCircumcircle(t, u.a)
+				&& !isInsideCircumcircle(t, u.b)
+				&& !isInsideCircumcircle(t, u.c));
+	}
+
+	private static boolean isInsideCircumcircle(TriangleDt t, PointDt p) {
+		if (p == t.a || p == t.b || p == t.c) {
+			return false;
+		}
+		// radius is squared
+		double radius2 = t.circum.radius();
+		return radius2 - t.circum.center().distance2(p) > 1E-9 * radius2;
+	}
+
 	private void initTriangles() {
 		if (_modCount == _modCount2) {
 			return;
 		}
 		if (this.size() > 2) {
 			_modCount2 = _modCount;
-			Vector<TriangleDt> front = new Vector<>();
+			ArrayList<TriangleDt> front = new ArrayList<>();
 			_triangles = new Vector<>();
 			front.add(this.startTriangle);
-			while (front.size() > 0) {
-				TriangleDt t = front.remove(0);
+			// queue without removing from the start of the list
+			for (int head = 0; head < front.size(); head++) {
+				TriangleDt t = front.get(head);
 				if (!t._mark) {
 					t._mark = true;
 					_triangles.add(t);
@@ -0,0 +1,99 @@
+package org.geogebra.common.kernel.discrete.delaunay;
+
+/**
+ * Uniform grid that remembers a triangle near each cell. Point location in
+ * {@link DelaunayTriangulation} starts walking from the triangle stored for
+ * the cell of the query point, so that the walk stays short also when points
+ * are not inserted in spatial order.
+ */
+class GridIndex {
+
+	/** how many rings of neighboring cells are checked for empty cells */
+	private static final int MAX_RING = 2;
+
+	private final double minX;
+	private final double minY;
+	private final double cellWidth;
+	private final double cellHeight;
+	private final int columns;
+	private final int rows;
+	private final TriangleDt[] cells;
+
+	/**
+	 * @param minX
+	 *            minimal x-coordinate of the indexed area
+	 * @param minY
+	 *            minimal y-coordinate of the indexed area
+	 * @param maxX
+	 *            maximal x-coordinate of the indexed area
+	 * @param maxY
+	 *            maximal y-coordinate of the indexed area
+	 * @param points
+	 *            expected number of points, there are about two points per
+	 *            cell
+	 */
+	GridIndex(double minX, double minY, double maxX, double maxY,
+			int points) {
+		int side = Math.max(1, (int) Math.sqrt(points / 2.0));
+		this.minX = minX;
+		this.minY = minY;
+		this.columns = side;
+		this.rows = side;
+		this.cellWidth = maxX > minX ? (maxX - minX) / side : 1;
+		this.cellHeight = maxY > minY ? (maxY - minY) / side : 1;
+		this.cells = new TriangleDt[side * side];
+	}
+
+	/**
+	 * @param p
+	 *            point
+	 * @return triangle stored for the cell of p or a nearby cell, null if
+	 *         there is none
+	 */
+	TriangleDt get(PointDt p) {
+		int column = column(p.x());
+		int row = row(p.y());
+		for (int ring = 0; ring <= MAX_RING; ring++) {
+			for (int i = row - ring; i <= row + ring; i++) {
+				if (i < 0 || i >= rows) {
+					continue;
+				}
+				boolean border = i == row - ring || i == row + ring;
+				for (int j = column - ring; j <= column + ring; j++) {
+					if (j < 0 || j >= columns
+							|| !(border || j == column - ring
+									|| j == column + ring)) {
+						continue;
+					}
+					TriangleDt t = cells[i * columns + j];
+					if (t != null && !t.removed) {
+						return t;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param p
+	 *            point
+	 * @param t
+	 *            triangle close to p
+	 */
+	void put(PointDt p, TriangleDt t) {
+		cells[row(p.y()) * columns + column(p.x())] = t;
+	}
+
+	private int column(double x) {
+		return clamp((int) Math.floor((x - minX) / cellWidth), columns);
+	}
+
+	private int row(double y) {
+		return clamp((int) Math.floor((y - minY) / cellHeight), rows);
+	}
+
+	private static int clamp(int index, int length) {
+		return Math.max(0, Math.min(length - 1, index));
+	}
+}
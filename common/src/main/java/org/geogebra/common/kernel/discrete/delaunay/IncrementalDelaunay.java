@@ -0,0 +1,163 @@
+package org.geogebra.common.kernel.discrete.delaunay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Vector;
+
+/**
+ * Delaunay triangulation that is kept between updates of an algo. When only a
+ * few input points were added, removed or moved since the last update, they
+ * are deleted from and inserted into the previous triangulation, which only
+ * flips triangles around them. Otherwise, and whenever the local update fails
+ * (e.g. for points on the convex hull) or leaves an invalid triangulation, all
+ * points are triangulated again.
+ */
+public class IncrementalDelaunay {
+
+	/** more changed points than this are triangulated from scratch */
+	private static final int MAX_CHANGES = 16;
+
+	private DelaunayTriangulation triangulation;
+	/** points of the last update */
+	private PointDt[] previous;
+	/** vertices of the triangulation by exact coordinates */
+	private HashSet<Key> vertices;
+	/** false if some points were merged or given twice */
+	private boolean verticesExact;
+
+	/**
+	 * @param points
+	 *            points, ends at the first null entry (as in
+	 *            {@link DelaunayTriangulation#DelaunayTriangulation(PointDt[])})
+	 * @return triangulation of the points
+	 */
+	public DelaunayTriangulation update(PointDt[] points) {
+		int count = 0;
+		while (count < points.length && points[count] != null) {
+			count++;
+		}
+		if (triangulation != null && verticesExact
+				&& updateLocally(points, count)) {
+			previous = Arrays.copyOf(points, count);
+			return triangulation;
+		}
+		triangulation = new DelaunayTriangulation(points);
+		previous = Arrays.copyOf(points, count);
+		vertices = new HashSet<>();
+		for (int i = 0; i < count; i++) {
+			vertices.add(new Key(points[i]));
+		}
+		verticesExact = triangulation.size() == count
+				&& vertices.size() == count;
+		return triangulation;
+	}
+
+	/**
+	 * Compares the points with the previous ones by index, so moving a point
+	 * is one removal and one addition.
+	 */
+	private boolean updateLocally(PointDt[] points, int count) {
+		if (triangulation.allCollinear) {
+			return false;
+		}
+		ArrayList<PointDt> removed = new ArrayList<>();
+		ArrayList<PointDt> added = new ArrayList<>();
+		for (int i = 0; i < Math.max(count, previous.length); i++) {
+			PointDt old = i < previous.length ? previous[i] : null;
+			PointDt p = i < count ? points[i] : null;
+			if (old != null && p != null && old.x() == p.x()
+					&& old.y() == p.y()) {
+				continue;
+			}
+			if (old != null) {
+				removed.add(old);
+			}
+			if (p != null) {
+				added.add(p);
+			}
+			if (removed.size() + added.size() > MAX_CHANGES) {
+				return false;
+			}
+		}
+		// vertices whose triangles were changed
+		ArrayList<PointDt> touched = new ArrayList<>();
+		try {
+			for (PointDt p : removed) {
+				vertices.remove(new Key(p));
+				if (!addNeighbors(p, touched)
+						|| !triangulation.deletePoint(p)) {
+					return false;
+				}
+			}
+			for (PointDt p : added) {
+				int size = triangulation.size();
+				if (!vertices.add(new Key(p))) {
+					return false;
+				}
+				triangulation.insertPoint(p);
+				if (triangulation.size() != size + 1) {
+					// merged with an existing point
+					return false;
+				}
+				touched.add(p);
+			}
+			for (PointDt p : touched) {
+				if (vertices.contains(new Key(p))
+						&& !triangulation.isValidAround(p)) {
+					// also fails for points on the hull, check everything
+					return triangulation.isValid();
+				}
+			}
+		} catch (RuntimeException e) {
+			// broken neighbor links
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return false if p is on the convex hull and can't be deleted
+	 */
+	private boolean addNeighbors(PointDt p, ArrayList<PointDt> touched) {
+		TriangleDt t = triangulation.find(p);
+		if (t == null || t.isHalfplane() || !t.isCorner(p)) {
+			return false;
+		}
+		Vector<TriangleDt> around = triangulation.findTriangleNeighborhood(t,
+				p);
+		if (around == null) {
+			return false;
+		}
+		for (TriangleDt u : around) {
+			touched.add(u.p1());
+			touched.add(u.p2());
+			touched.add(u.p3());
+		}
+		return true;
+	}
+
+	/**
+	 * Exact coordinates of a point (PointDt compares with tolerance).
+	 */
+	private static class Key {
+		private final double x;
+		private final double y;
+
+		Key(PointDt p) {
+			this.x = p.x();
+			this.y = p.y();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Key && ((Key) o).x == x && ((Key) o).y == y;
+		}
+
+		@Override
+		public int hashCode() {
+			return Double.valueOf(x).hashCode() * 31
+					+ Double.valueOf(y).hashCode();
+		}
+	}
+}
@@ -20,6 +20,7 @@ public class TriangleDt {
 	boolean halfplane = false; // true iff it is an infinite face.
 	// public boolean visitflag;
 	boolean _mark = false; // tag - for bfs algorithms
+	boolean removed = false; // true iff no longer part of the triangulation
 	// private static boolean visitValue=false;
 	// public static int _counter = 0;
 	// public static int _c2 = 0;
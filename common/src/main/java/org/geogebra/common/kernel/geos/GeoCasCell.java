@@ -149,6 +149,8 @@ public class GeoCasCell extends GeoElement
 	private boolean pointList;
 
 	private String tooltip;
+	/** last input sent to the CAS */
+	private String casRequest;
 
 	/**
 	 * Creates new CAS cell
@@ -676,6 +678,7 @@ public class GeoCasCell extends GeoElement
 
 		// make sure computeOutput() knows that input has changed
 		firstComputeOutput = true;
+		casRequest = null;
 
 		if (!isEmpty()) {
 			// make sure we put this casCell into the construction set
@@ -2168,6 +2171,34 @@ public class GeoCasCell extends GeoElement
 		}
 	}
 
+	/**
+	 * @param request
+	 *            input in CAS syntax sent to the CAS for this cell
+	 */
+	public void setCasRequest(String request) {
+		casRequest = request;
+	}
+
+	/**
+	 * @return input in CAS syntax sent to the CAS during last computation of
+	 *         this cell if the cell does not depend on other cells, null
+	 *         otherwise
+	 */
+	public String getIndependentCasRequest() {
+		if (casRequest == null || useAsText || useGeoGebraFallback) {
+			return null;
+		}
+		TreeSet<GeoElement> vars = getGeoElementVariables();
+		if (vars != null) {
+			for (GeoElement var : vars) {
+				if (var.isGeoCasCell()) {
+					return null;
+				}
+			}
+		}
+		return casRequest;
+	}
+
 	/**
 	 * @return whether top level command is Substitute
 	 */
@@ -296,6 +296,10 @@ public abstract class GeoElement extends ConstructionElement
 
 	/** set of all dependent algos sorted in topological order */
 	protected AlgorithmSet algoUpdateSet;
+	// update stamp of last update, see Construction.getUpdateStamp()
+	private long updateStamp = -1;
+	// incremented on every update, see getUpdateCount()
+	private int updateCount = 0;
 
 	/** fill type */
 	protected FillType fillType = FillType.STANDARD;
@@ -3185,6 +3189,7 @@ public abstract class GeoElement extends ConstructionElement
 	 *            whether this was triggered by drag
 	 */
 	public void update(boolean dragging) {
+		markChanged();
 		updateGeo(!cons.isUpdateConstructionRunning(), dragging);
 		maybeUpdateSpecialPoints();
 
@@ -3202,6 +3207,22 @@ public abstract class GeoElement extends ConstructionElement
 		update(false);
 	}
 
+	/**
+	 * Marks this geo as changed in the current update cascade.
+	 */
+	public void markChanged() {
+		updateStamp = cons.getUpdateStamp();
+	}
+
+	/**
+	 * @param stamp
+	 *            update stamp
+	 * @return whether this geo was updated since the stamp was taken
+	 */
+	public boolean hasChangedSince(long stamp) {
+		return updateStamp >= stamp;
+	}
+
 	/**
 	 * Same as update(), but do not notify kernel
 	 * 
@@ -3211,6 +3232,7 @@ public abstract class GeoElement extends ConstructionElement
 	 *            whether this was triggered by drag
 	 */
 	protected final void updateGeo(boolean mayUpdateCas, boolean dragging) {
+		updateCount++;
 
 		if (labelWanted && !isLabelSet()) {
 			// check if this object's label needs to be set
@@ -3235,6 +3257,14 @@ public abstract class GeoElement extends ConstructionElement
 		updateGeo(mayUpdateCas, false);
 	}
 
+	/**
+	 * @return number of updates of this geo; changes whenever the value of
+	 *         this geo may have changed
+	 */
+	public int getUpdateCount() {
+		return updateCount;
+	}
+
 	private void algebraStringsNeedUpdate() {
 		strAlgebraDescriptionNeedsUpdate = true;
 		strAlgebraDescTextOrHTMLneedsUpdate = true;
@@ -3269,7 +3299,17 @@ public abstract class GeoElement extends ConstructionElement
 		} else if (algoUpdateSet != null) {
 			// update all algorithms in the algorithm set of this GeoElement
 			cons.setAlgoSetCurrentlyUpdated(algoUpdateSet);
-			algoUpdateSet.updateAll();
+			if (kernel.isUpdateChangeDetection()) {
+				long outerStamp = cons.startChangeDetection();
+				markChanged();
+				try {
+					algoUpdateSet.updateAll();
+				} finally {
+					cons.stopChangeDetection(outerStamp);
+				}
+			} else {
+				algoUpdateSet.updateAll();
+			}
 			cons.setAlgoSetCurrentlyUpdated(null);
 		}
 	}
@@ -3357,6 +3397,18 @@ public abstract class GeoElement extends ConstructionElement
 		// clear temp set
 		tempSet1.clear();
 
+		// as long as only one geo has dependent algos, its update set is
+		// already sorted and does not need to be copied
+		AlgorithmSet singleUpdateSet = null;
+		boolean merged = false;
+
+		Construction construction = null;
+		long outerStamp = -1;
+		if (geos.get(0).getKernel().isUpdateChangeDetection()) {
+			construction = geos.get(0).getConstruction();
+			outerStamp = construction.startChangeDetection();
+		}
+
 		final int size = geos.size();
 		for (int i = 0; i < size; i++) {
 			final GeoElementND geo = geos.get(i);
@@ -3364,17 +3416,37 @@ public abstract class GeoElement extends ConstructionElement
 			geo.update();
 
 			if ((geo.isIndependent() || geo.isPointOnPath() || updateCascadeAll)
-					&& (geo.hasAlgoUpdateSet())) {
-				// add all dependent algos of geo to the overall algorithm
-				// set
-				geo.getAlgoUpdateSet().addAllToCollection(tempSet1);
+					&& (geo.hasAlgoUpdateSet())
+					&& !geo.getAlgoUpdateSet().isEmpty()) {
+				if (singleUpdateSet == null && !merged) {
+					singleUpdateSet = geo.getAlgoUpdateSet();
+				} else {
+					if (singleUpdateSet != null) {
+						singleUpdateSet.addAllToCollection(tempSet1);
+						singleUpdateSet = null;
+						merged = true;
+					}
+					// add all dependent algos of geo to the overall algorithm
+					// set
+					geo.getAlgoUpdateSet().addAllToCollection(tempSet1);
+				}
 			}
 		}
 
-		// now we have one nice algorithm set that we can update
-		if (tempSet1.size() > 0) {
-			for (AlgoElement algo : tempSet1) {
-				algo.update();
+		try {
+			if (singleUpdateSet != null) {
+				singleUpdateSet.updateAll();
+			}
+
+			// now we have one nice algorithm set that we can update
+			else if (tempSet1.size() > 0) {
+				for (AlgoElement algo : tempSet1) {
+					algo.update();
+				}
+			}
+		} finally {
+			if (construction != null) {
+				construction.stopChangeDetection(outerStamp);
 			}
 		}
 
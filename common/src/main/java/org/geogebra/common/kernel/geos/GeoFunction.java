@@ -35,6 +35,7 @@ import org.geogebra.common.kernel.algos.AlgoDistancePointObject;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.algos.AlgoFunctionFreehand;
 import org.geogebra.common.kernel.algos.AlgoMacroInterface;
+import org.geogebra.common.kernel.arithmetic.CompiledExpression;
 import org.geogebra.common.kernel.arithmetic.Evaluate2Var;
 import org.geogebra.common.kernel.arithmetic.ExpressionNode;
 import org.geogebra.common.kernel.arithmetic.ExpressionNodeConstants.StringType;
@@ -102,6 +103,8 @@ public class GeoFunction extends GeoElement implements VarString, Translateable,
 	/** upper interval bound */
 	protected double intervalMax;
 	private boolean evalSwapped;
+	/** compiled expression used while plotting */
+	private CompiledExpression compiledFun;
 	// parent conditional function
 	// private GeoFunctionConditional parentCondFun = null;
 
@@ -600,10 +603,30 @@ public class GeoFunction extends GeoElement implements VarString, Translateable,
 		if (fun == null || !isDefined) {
 			return Double.NaN;
 		}
+		if (compiledFun != null) {
+			return compiledFun.evaluate(x);
+		}
 
 		return fun.value(x);
 	}
 
+	/**
+	 * Switches to compiled evaluation of the function expression, e.g. for
+	 * plotting. The expression must not change until compiled evaluation is
+	 * switched off again.
+	 * 
+	 * @param compiled
+	 *            whether to use compiled expression
+	 */
+	public void setCompiledEvaluation(boolean compiled) {
+		compiledFun = null;
+		// subclasses of Function (e.g. for composite functions) override
+		// value(), their expression is not what gets evaluated
+		if (compiled && fun != null && fun.getClass() == Function.class) {
+			compiledFun = fun.compile();
+		}
+	}
+
 	/**
 	 * Returns this function's value at position x.
 	 * 
@@ -1391,6 +1414,41 @@ public class GeoFunction extends GeoElement implements VarString, Translateable,
 		}
 	}
 
+	@Override
+	public void evaluateCurve(double[] ts, double[] out) {
+		int valueOffset = evalSwapped ? 0 : 1;
+		for (int i = 0; i < ts.length; i++) {
+			out[2 * i + 1 - valueOffset] = ts[i];
+		}
+		values(ts, out, valueOffset, 2);
+	}
+
+	/**
+	 * Evaluates this function for several values of x.
+	 *
+	 * @param xs
+	 *            positions
+	 * @param out
+	 *            output array, f(xs[i]) is stored in out[offset + i * stride]
+	 * @param offset
+	 *            index of first value in output array
+	 * @param stride
+	 *            distance between values in output array
+	 */
+	public void values(double[] xs, double[] out, int offset, int stride) {
+		if (fun == null || !isDefined) {
+			for (int i = 0; i < xs.length; i++) {
+				out[offset + i * stride] = Double.NaN;
+			}
+		} else if (compiledFun != null || fun.getClass() != Function.class) {
+			for (int i = 0; i < xs.length; i++) {
+				out[offset + i * stride] = value(xs[i]);
+			}
+		} else {
+			fun.value(xs, out, offset, stride);
+		}
+	}
+
 	/**
 	 * Evaluates curvature for function: k(x) = f''/T^3, T = sqrt(1+(f')^2)
 	 * 
@@ -53,6 +53,7 @@ import org.geogebra.common.kernel.kernelND.GeoElementND;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
 import org.geogebra.common.kernel.kernelND.GeoQuadricND;
 import org.geogebra.common.kernel.matrix.Coords;
+import org.geogebra.common.kernel.statistics.NumericColumn;
 import org.geogebra.common.main.Localization;
 import org.geogebra.common.plugin.EuclidianStyleConstants;
 import org.geogebra.common.plugin.GeoClass;
@@ -132,6 +133,10 @@ public class GeoList extends GeoElement
 
 	private boolean wasDefinedWithCurlyBrackets = true;
 
+	private NumericColumn numericColumn;
+	// number of elements removed by addQueue, see NumericColumn
+	private int removedFirstCount = 0;
+
 	/**
 	 * Creates new GeoList, size defaults to 20
 	 *
@@ -740,10 +745,19 @@ public class GeoList extends GeoElement
 	public final void addQueue(final GeoElement geo) {
 		GeoElement first = get(0);
 		remove(first);
+		removedFirstCount++;
 		first.remove();
 		add(geo);
 	}
 
+	/**
+	 * @return number of elements removed from the start of this list by
+	 *         {@link #addQueue(GeoElement)}
+	 */
+	public int getRemovedFirstCount() {
+		return removedFirstCount;
+	}
+
 	/**
 	 * Removes i-th element from this list. Note: this element is not removed
 	 * from the construction.
@@ -810,6 +824,17 @@ public class GeoList extends GeoElement
 		cacheList.ensureCapacity(size);
 	}
 
+	/**
+	 * @return primitive copy of the values in this list shared by statistics
+	 *         algos; needs to be updated before use
+	 */
+	public NumericColumn getNumericColumn() {
+		if (numericColumn == null) {
+			numericColumn = new NumericColumn();
+		}
+		return numericColumn;
+	}
+
 	@Override
 	final public int size() {
 		return elements.size();
@@ -1674,6 +1674,7 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 		private int sw;
 		private int sh;
 		private Rect[][] grid;
+		private ImplicitSampleGrid[] sampleGrids;
 		private Timer timer = Timer.newTimer();
 
 		public WebExperimentalQuadTree() {
@@ -1694,27 +1695,26 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 					return;
 				}
 
-				this.grid = new Rect[sh][sw];
+				// align grid to a lattice so that samples can be reused
+				// after panning / zooming
+				double frx = ImplicitSampleGrid.roundStep(w / sw);
+				double fry = ImplicitSampleGrid.roundStep(h / sh);
+				long col0 = (long) Math.floor(x / frx);
+				long row0 = (long) Math.floor(y / fry);
+				this.sw = Math.max(1, (int) (Math.ceil((x + w) / frx) - col0));
+				this.sh = Math.max(1, (int) (Math.ceil((y + h) / fry) - row0));
 
-				double frx = w / sw;
-				double fry = h / sh;
+				this.grid = new Rect[sh][sw];
 
-				double[] vertices = new double[sw + 1];
 				double[] xcoords = new double[sw + 1];
 				double[] ycoords = new double[sh + 1];
-				double cur, prev;
 
 				for (int i = 0; i <= sw; i++) {
-					xcoords[i] = x + i * frx;
+					xcoords[i] = (col0 + i) * frx;
 				}
 
 				for (int i = 0; i <= sh; i++) {
-					ycoords[i] = y + i * fry;
-				}
-
-				for (int i = 0; i <= sw; i++) {
-					vertices[i] = evaluateImplicitCurve(xcoords[i], ycoords[0],
-							factor);
+					ycoords[i] = (row0 + i) * fry;
 				}
 
 				// initialize grid configuration at the search depth
@@ -1722,20 +1722,21 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 				double dx, dy, fx, fy;
 				// debug = true;
 				timer.reset();
+				double[][] values = getSampleGrid(factor).update(frx, fry,
+						col0, row0, sw + 1, sh + 1,
+						coeffSquarefree == null ? null
+								: coeffSquarefree[factor],
+						getEvaluator(factor));
 				for (i = 1; i <= sh; i++) {
-					prev = evaluateImplicitCurve(xcoords[0], ycoords[i],
-							factor);
 					fy = ycoords[i] - 0.5 * fry;
 					for (j = 1; j <= sw; j++) {
-						cur = evaluateImplicitCurve(xcoords[j], ycoords[i],
-								factor);
 						Rect rect = new Rect(j - 1, i - 1, frx, fry, false);
 						rect.coords.val[0] = xcoords[j - 1];
 						rect.coords.val[1] = ycoords[i - 1];
-						rect.evals[0] = vertices[j - 1];
-						rect.evals[1] = vertices[j];
-						rect.evals[2] = cur;
-						rect.evals[3] = prev;
+						rect.evals[0] = values[i - 1][j - 1];
+						rect.evals[1] = values[i - 1][j];
+						rect.evals[2] = values[i][j];
+						rect.evals[3] = values[i][j - 1];
 						rect.status = edgeConfig(rect);
 						rect.shares = 0xff;
 						fx = xcoords[j] - 0.5 * frx;
@@ -1746,10 +1747,7 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 							rect.singular = true;
 						}
 						this.grid[i - 1][j - 1] = rect;
-						vertices[j - 1] = prev;
-						prev = cur;
 					}
-					vertices[sw] = prev;
 				}
 
 				timer.record();
@@ -1788,6 +1786,26 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 			}
 		}
 
+		private ImplicitSampleGrid getSampleGrid(int factor) {
+			if (sampleGrids == null || sampleGrids.length != factorLength()) {
+				sampleGrids = new ImplicitSampleGrid[factorLength()];
+			}
+			if (sampleGrids[factor] == null) {
+				sampleGrids[factor] = new ImplicitSampleGrid();
+			}
+			return sampleGrids[factor];
+		}
+
+		private ImplicitSampleGrid.Evaluator getEvaluator(final int factor) {
+			return new ImplicitSampleGrid.Evaluator() {
+
+				@Override
+				public double evaluate(double x0, double y0) {
+					return evaluateImplicitCurve(x0, y0, factor);
+				}
+			};
+		}
+
 		public void createTree(Rect r, int depth, int factor) {
 			Rect[] n = r.split(GeoImplicitCurve.this, factor);
 			plot(n[0], depth, factor);
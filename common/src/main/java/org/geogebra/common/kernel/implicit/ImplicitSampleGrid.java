@@ -0,0 +1,145 @@
+package org.geogebra.common.kernel.implicit;
+
+import java.util.Arrays;
+
+import org.geogebra.common.util.ParallelExecutor;
+
+/**
+ * Values of an implicit curve on a lattice of points (k * dx, l * dy). The
+ * spacing is rounded to powers of 2^(1/4), so that values can be reused when
+ * the view is panned or only zoomed slightly. Polynomials are pure functions
+ * of their coefficients, so only for them the values are reused and
+ * evaluated in parallel.
+ */
+class ImplicitSampleGrid {
+
+	/** minimal number of samples for parallel evaluation */
+	private static final int PARALLEL_THRESHOLD = 400;
+	private static final double STEPS_PER_OCTAVE = 4;
+
+	private double dx;
+	private double dy;
+	private long col0;
+	private long row0;
+	private int cols;
+	private int rows;
+	private double[][] values = new double[0][0];
+	/** coefficients the values were computed for */
+	private double[][] coeffs;
+
+	/**
+	 * Evaluates a function in points of the lattice.
+	 */
+	interface Evaluator {
+		/**
+		 * @param x
+		 *            x-coord
+		 * @param y
+		 *            y-coord
+		 * @return function value
+		 */
+		double evaluate(double x, double y);
+	}
+
+	/**
+	 * @param step
+	 *            requested step
+	 * @return step rounded up to power of 2^(1/4)
+	 */
+	static double roundStep(double step) {
+		double exp = Math.ceil(
+				Math.log(step) / Math.log(2) * STEPS_PER_OCTAVE - 1E-9);
+		return Math.pow(2, exp / STEPS_PER_OCTAVE);
+	}
+
+	/**
+	 * Samples given area; values from previous update are reused if the
+	 * spacing did not change.
+	 *
+	 * @param newDx
+	 *            horizontal spacing (rounded by {@link #roundStep(double)})
+	 * @param newDy
+	 *            vertical spacing (rounded by {@link #roundStep(double)})
+	 * @param newCol0
+	 *            index of first column
+	 * @param newRow0
+	 *            index of first row
+	 * @param newCols
+	 *            number of columns
+	 * @param newRows
+	 *            number of rows
+	 * @param newCoeffs
+	 *            polynomial coefficients of the sampled function; null if the
+	 *            function is not a polynomial (no reuse, no parallel
+	 *            evaluation)
+	 * @param evaluator
+	 *            function to sample
+	 * @return values indexed by [row][column]
+	 */
+	double[][] update(double newDx, double newDy, long newCol0, long newRow0,
+			int newCols, int newRows, double[][] newCoeffs,
+			final Evaluator evaluator) {
+		final double[][] newValues = new double[newRows][newCols];
+		final boolean[] rowDone = new boolean[newRows];
+		final boolean canReuse = newCoeffs != null && newDx == dx
+				&& newDy == dy && Arrays.deepEquals(newCoeffs, coeffs);
+		final int[] reusedCols = new int[2];
+		if (canReuse) {
+			// column range of the old grid inside the new one
+			reusedCols[0] = (int) Math.max(0, col0 - newCol0);
+			reusedCols[1] = (int) Math.min(newCols, col0 + cols - newCol0);
+		}
+		for (int i = 0; i < newRows; i++) {
+			long oldRow = newRow0 + i - row0;
+			if (canReuse && oldRow >= 0 && oldRow < rows
+					&& reusedCols[0] < reusedCols[1]) {
+				System.arraycopy(values[(int) oldRow],
+						(int) (newCol0 + reusedCols[0] - col0), newValues[i],
+						reusedCols[0], reusedCols[1] - reusedCols[0]);
+				rowDone[i] = true;
+			}
+		}
+		dx = newDx;
+		dy = newDy;
+		col0 = newCol0;
+		row0 = newRow0;
+		cols = newCols;
+		rows = newRows;
+		coeffs = copy(newCoeffs);
+		final int cols1 = newCols;
+		ParallelExecutor.IndexTask rowTask = new ParallelExecutor.IndexTask() {
+
+			@Override
+			public void run(int i) {
+				double y = (row0 + i) * dy;
+				double[] row = newValues[i];
+				for (int j = 0; j < cols1; j++) {
+					if (!rowDone[i] || j < reusedCols[0]
+							|| j >= reusedCols[1]) {
+						row[j] = evaluator.evaluate((col0 + j) * dx, y);
+					}
+				}
+			}
+		};
+		if (newCoeffs != null && newRows * newCols >= PARALLEL_THRESHOLD) {
+			ParallelExecutor.execute(newRows, rowTask);
+		} else {
+			for (int i = 0; i < newRows; i++) {
+				rowTask.run(i);
+			}
+		}
+		values = newValues;
+		return newValues;
+	}
+
+	private static double[][] copy(double[][] coeffs) {
+		if (coeffs == null) {
+			return null;
+		}
+		double[][] ret = new double[coeffs.length][];
+		for (int i = 0; i < coeffs.length; i++) {
+			ret[i] = coeffs[i] == null ? null : coeffs[i].clone();
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,417 @@
+package org.geogebra.common.kernel.integration;
+
+import org.apache.commons.math3.analysis.UnivariateFunction;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.util.DoubleUtil;
+
+/**
+ * Adaptive Gauss quadrature: an interval is accepted when the 3 point and 5
+ * point Legendre-Gauss rules agree, otherwise it is split in halves. Each rule
+ * is refined as in commons-math LegendreGaussIntegrator (1 to 5 iterations,
+ * at most 500 evaluations), but the nodes of an interval are passed to the
+ * function in one batch.
+ *
+ * The memoizing variant keeps the accepted subintervals of the last result;
+ * when only the limits change, subintervals that are still inside the new
+ * limits are reused and only the rest is integrated.
+ */
+public class AdaptiveGaussQuadrature {
+
+	/** maximal number of accepted or split intervals per integration */
+	public static final int MAX_GAUSS_QUAD_CALLS = 500;
+	private static final int MAX_EVALUATIONS = 500;
+	private static final int MAX_ITERATIONS = 5;
+	private static final double RELATIVE_ACCURACY = 1.0e-6;
+	private static final double ABSOLUTE_ACCURACY = 1.0e-15;
+
+	private static final double[] ABSCISSAS_3 = { -Math.sqrt(0.6), 0.0,
+			Math.sqrt(0.6) };
+	private static final double[] WEIGHTS_3 = { 5.0 / 9.0, 8.0 / 9.0,
+			5.0 / 9.0 };
+	private static final double[] ABSCISSAS_5 = {
+			-Math.sqrt((35.0 + 2.0 * Math.sqrt(70.0)) / 63.0),
+			-Math.sqrt((35.0 - 2.0 * Math.sqrt(70.0)) / 63.0), 0.0,
+			Math.sqrt((35.0 - 2.0 * Math.sqrt(70.0)) / 63.0),
+			Math.sqrt((35.0 + 2.0 * Math.sqrt(70.0)) / 63.0) };
+	private static final double[] WEIGHTS_5 = {
+			(322.0 - 13.0 * Math.sqrt(70.0)) / 900.0,
+			(322.0 + 13.0 * Math.sqrt(70.0)) / 900.0, 128.0 / 225.0,
+			(322.0 + 13.0 * Math.sqrt(70.0)) / 900.0,
+			(322.0 - 13.0 * Math.sqrt(70.0)) / 900.0 };
+
+	/** nodes and values of the first two stages of both rules */
+	private double[] nodes = new double[3 * (3 + 5)];
+	private double[] values = new double[3 * (3 + 5)];
+	/** nodes and values of further stages */
+	private double[] stageNodes = new double[0];
+	private double[] stageValues = new double[0];
+	private int calls;
+	private int maxCalls;
+	/** set when a rule did not converge, the interval needs to be split */
+	private boolean failed;
+	private long evaluationCount;
+
+	// memoized result
+	private boolean memoValid;
+	private int memoVersion;
+	private int memoMultiplier;
+	private double memoLow;
+	private double memoHigh;
+	private double memoValue;
+	/** accepted subintervals of the memoized result, in ascending order */
+	private double[] leafStart = new double[0];
+	private double[] leafEnd = new double[0];
+	private double[] leafValue = new double[0];
+	private int leafCount;
+	// subintervals of the running integration
+	private boolean recording;
+	private double[] newStart = new double[0];
+	private double[] newEnd = new double[0];
+	private double[] newValue = new double[0];
+	private int newCount;
+
+	/**
+	 * Function evaluated in all quadrature nodes of an interval at once.
+	 */
+	public interface BatchFunction {
+		/**
+		 * @param x
+		 *            nodes
+		 * @param y
+		 *            output array for f(x[i])
+		 * @param length
+		 *            number of nodes
+		 */
+		void value(double[] x, double[] y, int length);
+	}
+
+	/**
+	 * @param fun
+	 *            function
+	 * @return batch function evaluating fun in each node
+	 */
+	public static BatchFunction batch(final UnivariateFunction fun) {
+		return new BatchFunction() {
+
+			@Override
+			public void value(double[] x, double[] y, int length) {
+				for (int i = 0; i < length; i++) {
+					y[i] = fun.value(x[i]);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Computes integral of fun in interval a, b.
+	 *
+	 * @param fun
+	 *            function
+	 * @param a
+	 *            lower bound
+	 * @param b
+	 *            upper bound
+	 * @param maxMultiplier
+	 *            multiplier for maximal number of subintervals (to allow more
+	 *            iterations for freehand functions)
+	 * @return integral value, NaN if the quadrature does not converge
+	 */
+	public double integrate(BatchFunction fun, double a, double b,
+			int maxMultiplier) {
+		// GGB-2318
+		// f(x) = If(x < 0, 0, x <= 2, x)
+		if (a == b) {
+			return 0;
+		}
+		start(maxMultiplier, false);
+		if (a > b) {
+			return -adaptive(fun, b, a);
+		}
+		return adaptive(fun, a, b);
+	}
+
+	/**
+	 * Computes integral of fun in interval a, b; the result is reused if the
+	 * function version and the bounds are the same as in the last call. If
+	 * only the bounds changed, subintervals of the last result are reused.
+	 *
+	 * @param fun
+	 *            function
+	 * @param version
+	 *            function version, must change whenever the function changes
+	 * @param a
+	 *            lower bound
+	 * @param b
+	 *            upper bound
+	 * @param maxMultiplier
+	 *            multiplier for maximal number of subintervals (to allow more
+	 *            iterations for freehand functions)
+	 * @return integral value, NaN if the quadrature does not converge
+	 */
+	public double integrate(BatchFunction fun, int version, double a,
+			double b, int maxMultiplier) {
+		if (a == b) {
+			return 0;
+		}
+		double sign = a > b ? -1 : 1;
+		double low = Math.min(a, b);
+		double high = Math.max(a, b);
+		if (!memoValid || version != memoVersion
+				|| maxMultiplier != memoMultiplier) {
+			leafCount = 0;
+		} else if (low == memoLow && high == memoHigh) {
+			return sign * memoValue;
+		}
+		// leaves first .. last - 1 are inside [low, high]
+		int first = 0;
+		while (first < leafCount && leafStart[first] < low) {
+			first++;
+		}
+		int last = first;
+		while (last < leafCount && leafEnd[last] <= high) {
+			last++;
+		}
+
+		start(maxMultiplier, true);
+		double sum;
+		if (first == last) {
+			sum = adaptive(fun, low, high);
+		} else {
+			sum = 0;
+			if (low < leafStart[first]) {
+				sum = adaptive(fun, low, leafStart[first]);
+			}
+			for (int i = first; i < last; i++) {
+				addLeaf(leafStart[i], leafEnd[i], leafValue[i]);
+				sum += leafValue[i];
+			}
+			if (leafEnd[last - 1] < high && !Double.isNaN(sum)) {
+				sum += adaptive(fun, leafEnd[last - 1], high);
+			}
+		}
+		recording = false;
+
+		memoValid = !Double.isNaN(sum);
+		memoVersion = version;
+		memoMultiplier = maxMultiplier;
+		memoLow = low;
+		memoHigh = high;
+		memoValue = sum;
+		swapLeaves();
+		return sign * sum;
+	}
+
+	/**
+	 * Forget the memoized result.
+	 */
+	public void invalidate() {
+		memoValid = false;
+		leafCount = 0;
+	}
+
+	/**
+	 * @return total number of function evaluations
+	 */
+	public long getEvaluationCount() {
+		return evaluationCount;
+	}
+
+	/**
+	 * @return number of subintervals of the memoized result
+	 */
+	public int getSubintervalCount() {
+		return memoValid ? leafCount : 0;
+	}
+
+	private void start(int maxMultiplier, boolean record) {
+		calls = 0;
+		maxCalls = MAX_GAUSS_QUAD_CALLS * maxMultiplier;
+		recording = record;
+		newCount = 0;
+	}
+
+	private double adaptive(BatchFunction fun, double a, double b) {
+		if (++calls > maxCalls) {
+			return Double.NaN;
+		}
+		if (a >= b) {
+			return Double.NaN;
+		}
+
+		double firstSum = 0;
+		double secondSum = 0;
+		failed = false;
+		// integrate using gauss quadrature
+		try {
+			int length = addNodes(nodes, ABSCISSAS_3, a, b, 1, 0);
+			length = addNodes(nodes, ABSCISSAS_3, a, b, 2, length);
+			length = addNodes(nodes, ABSCISSAS_5, a, b, 1, length);
+			length = addNodes(nodes, ABSCISSAS_5, a, b, 2, length);
+			evaluate(fun, nodes, values, length);
+			firstSum = gauss(fun, ABSCISSAS_3, WEIGHTS_3, a, b, 0);
+			if (Double.isNaN(firstSum)) {
+				return Double.NaN;
+			}
+			if (!failed) {
+				secondSum = gauss(fun, ABSCISSAS_5, WEIGHTS_5, a, b,
+						3 * ABSCISSAS_3.length);
+				if (Double.isNaN(secondSum)) {
+					return Double.NaN;
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			return Double.NaN;
+		} catch (RuntimeException e) {
+			// e.g. ArithmeticException
+			failed = true;
+		}
+
+		// check if both results are equal
+		boolean equal = !failed && DoubleUtil.isEqual(firstSum, secondSum,
+				Kernel.STANDARD_PRECISION);
+
+		if (equal) {
+			// success
+			if (recording) {
+				addLeaf(a, b, secondSum);
+			}
+			return secondSum;
+		}
+		double mid = (a + b) / 2;
+		double left = adaptive(fun, a, mid);
+		if (Double.isNaN(left)) {
+			return Double.NaN;
+		}
+		return left + adaptive(fun, mid, b);
+	}
+
+	/**
+	 * Legendre-Gauss rule refined until two stages agree.
+	 *
+	 * @param offset
+	 *            index of the values for stages 1 and 2
+	 * @return integral, sets failed if it does not converge
+	 */
+	private double gauss(BatchFunction fun, double[] abscissas,
+			double[] weights, double a, double b, int offset) {
+		int evaluations = 3 * abscissas.length;
+		double oldt = stage(weights, values, a, b, 1, offset);
+		double[] stageVals = values;
+		int stageOffset = offset + abscissas.length;
+		int n = 2;
+		int iterations = 0;
+		while (true) {
+			if (n > 2) {
+				evaluations += n * abscissas.length;
+				if (evaluations > MAX_EVALUATIONS) {
+					failed = true;
+					return 0;
+				}
+				int length = n * abscissas.length;
+				if (stageNodes.length < length) {
+					stageNodes = new double[2 * length];
+					stageValues = new double[2 * length];
+				}
+				addNodes(stageNodes, abscissas, a, b, n, 0);
+				evaluate(fun, stageNodes, stageValues, length);
+				stageVals = stageValues;
+				stageOffset = 0;
+			}
+			double t = stage(weights, stageVals, a, b, n, stageOffset);
+
+			// estimate error
+			double delta = Math.abs(t - oldt);
+			double limit = Math.max(ABSOLUTE_ACCURACY,
+					RELATIVE_ACCURACY * (Math.abs(oldt) + Math.abs(t)) * 0.5);
+
+			// check convergence
+			if (delta <= limit) {
+				return t;
+			}
+
+			// prepare next iteration
+			double ratio = Math.min(4,
+					Math.pow(delta / limit, 0.5 / abscissas.length));
+			n = Math.max((int) (ratio * n), n + 1);
+			oldt = t;
+			if (++iterations > MAX_ITERATIONS) {
+				failed = true;
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Puts nodes of n-th stage of a rule to the node array.
+	 *
+	 * @return index after the last node
+	 */
+	private static int addNodes(double[] nodes, double[] abscissas, double a,
+			double b, int n, int offset) {
+		double step = (b - a) / n;
+		double halfStep = step / 2.0;
+		double midPoint = a + halfStep;
+		int k = offset;
+		for (int i = 0; i < n; ++i) {
+			for (int j = 0; j < abscissas.length; ++j) {
+				nodes[k++] = midPoint + halfStep * abscissas[j];
+			}
+			midPoint += step;
+		}
+		return k;
+	}
+
+	private void evaluate(BatchFunction fun, double[] x, double[] y,
+			int length) {
+		fun.value(x, y, length);
+		evaluationCount += length;
+	}
+
+	/**
+	 * @return n-th stage integral from values starting at offset
+	 */
+	private static double stage(double[] weights, double[] values, double a,
+			double b, int n, int offset) {
+		double halfStep = (b - a) / n / 2.0;
+		double sum = 0.0;
+		int k = offset;
+		for (int i = 0; i < n; ++i) {
+			for (int j = 0; j < weights.length; ++j) {
+				sum += weights[j] * values[k++];
+			}
+		}
+		return halfStep * sum;
+	}
+
+	private void addLeaf(double start, double end, double value) {
+		if (newCount == newStart.length) {
+			newStart = grow(newStart);
+			newEnd = grow(newEnd);
+			newValue = grow(newValue);
+		}
+		newStart[newCount] = start;
+		newEnd[newCount] = end;
+		newValue[newCount] = value;
+		newCount++;
+	}
+
+	private static double[] grow(double[] array) {
+		double[] ret = new double[Math.max(16, 2 * array.length)];
+		System.arraycopy(array, 0, ret, 0, array.length);
+		return ret;
+	}
+
+	private void swapLeaves() {
+		double[] tmp = leafStart;
+		leafStart = newStart;
+		newStart = tmp;
+		tmp = leafEnd;
+		leafEnd = newEnd;
+		newEnd = tmp;
+		tmp = leafValue;
+		leafValue = newValue;
+		newValue = tmp;
+		leafCount = memoValid ? newCount : 0;
+		newCount = 0;
+	}
+}
@@ -54,6 +54,18 @@ public interface CurveEvaluable {
 	 */
 	void evaluateCurve(double t, double[] out);
 
+	/**
+	 * Evaluates the curve for several parameter values at once. Coords of
+	 * the i-th point are stored in out[i * dim] ... out[i * dim + dim - 1]
+	 * where dim is the length of {@link #newDoubleArray()}.
+	 *
+	 * @param ts
+	 *            parameter values
+	 * @param out
+	 *            array to store the result, length at least ts.length * dim
+	 */
+	void evaluateCurve(double[] ts, double[] out);
+
 	/**
 	 * @param a
 	 *            start parameter
@@ -730,6 +730,14 @@ public abstract class GeoCurveCartesianND extends GeoElement
 
 	}
 
+	@Override
+	public void evaluateCurve(double[] ts, double[] out) {
+		int dim = newDoubleArray().length;
+		for (int i = 0; i < dim; i++) {
+			getFun(i).value(ts, out, i, dim);
+		}
+	}
+
 	/**
 	 * 
 	 * @param points
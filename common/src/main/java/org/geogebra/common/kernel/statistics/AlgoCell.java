@@ -159,6 +159,12 @@ public class AlgoCell extends AlgoElement {
 		}
 	}
 
+	@Override
+	protected boolean canSkipUnchangedUpdate() {
+		// registered in update set of the referenced object
+		return false;
+	}
+
 	/**
 	 * Returns an input array with the text and the referenced geo
 	 */
@@ -296,6 +296,12 @@ public class AlgoCellRange extends AlgoElement {
 		geoList.update();
 	}
 
+	@Override
+	protected boolean canSkipUnchangedUpdate() {
+		// registered in update sets of the cells
+		return false;
+	}
+
 	@Override
 	final public String getDefinition(StringTemplate tpl) {
 		return toStringOutput;
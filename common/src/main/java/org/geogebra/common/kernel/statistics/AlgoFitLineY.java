@@ -19,9 +19,6 @@ import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoLine;
 import org.geogebra.common.kernel.geos.GeoList;
-import org.geogebra.common.kernel.geos.GeoPoint;
-import org.geogebra.common.kernel.kernelND.GeoPointND;
-import org.geogebra.common.kernel.matrix.Coords;
 import org.geogebra.common.util.DoubleUtil;
 
 /**
@@ -90,42 +87,15 @@ public class AlgoFitLineY extends AlgoElement {
 			return;
 		}
 
-		double sigmax = 0;
-		double sigmay = 0;
-		double sigmaxx = 0;
-		// double sigmayy=0; not needed
-		double sigmaxy = 0;
-
-		for (int i = 0; i < size; i++) {
-			GeoElement geo = geoList.get(i);
-			if (geo.isGeoPoint()) {
-				double x;
-				double y;
-				if (geo.isGeoElement3D()) {
-					Coords coords = ((GeoPointND) geo).getInhomCoordsInD3();
-					if (!DoubleUtil.isZero(coords.getZ())) {
-						g.setUndefined();
-						return;
-					}
-					x = coords.getX();
-					y = coords.getY();
-				} else {
-					double[] xy = new double[2];
-					((GeoPoint) geo).getInhomCoords(xy);
-					x = xy[0];
-					y = xy[1];
-				}
-
-				sigmax += x;
-				sigmay += y;
-				sigmaxx += x * x;
-				sigmaxy += x * y;
-				// sigmayy+=y*y; not needed
-			} else {
-				g.setUndefined();
-				return;
-			}
+		NumericColumn column = geoList.getNumericColumn();
+		if (!column.updatePoints(geoList) || !column.isPlanar()) {
+			g.setUndefined();
+			return;
 		}
+
+		double sigmax = column.getSumX();
+		double sigmay = column.getSumY();
+
 		// y on x regression line
 		// (y - sigmay / n) = (Sxy / Sxx)*(x - sigmax / n)
 		// rearranged to eliminate all divisions
@@ -135,8 +105,9 @@ public class AlgoFitLineY extends AlgoElement {
 		// (g.x)x + (g.y)y + g.z = 0
 
 		// more accurate, see #5230
-		double Sxy = sigmaxy - sigmax * sigmay / size;
-		double Sxx = sigmaxx - sigmax * sigmax / size;
+		// centered sums are kept up to date by the column
+		double Sxy = column.getSXY();
+		double Sxx = column.getSXX();
 		double mux = sigmax / size;
 		double muy = sigmay / size;
 
@@ -14,12 +14,9 @@ package org.geogebra.common.kernel.statistics;
 
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.algos.AlgoElement;
-import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumeric;
-import org.geogebra.common.kernel.kernelND.GeoPointND;
-import org.geogebra.common.kernel.matrix.Coords;
 
 /**
  * Mean, covariance, sum, sum of squares, etc from two lists or a list of points
@@ -146,12 +143,9 @@ public abstract class AlgoStats2D extends AlgoElement {
 
 	@Override
 	final public void compute() {
-		double sumx = 0;
-		double sumy = 0;
-		double sumxx = 0;
-		double sumxy = 0;
-		double sumyy = 0;
-		double valx, valy;
+		double sumx, sumy, sumxx, sumxy, sumyy;
+		// sums of (products of) deviations from the means
+		double sxx, syy, sxy;
 		int sizex = geoListx.size();
 		int sizey = sizex;
 		if (mode == MODE_DOUBLELIST) {
@@ -162,44 +156,40 @@ public abstract class AlgoStats2D extends AlgoElement {
 				return;
 			}
 
+			NumericColumn columnx = geoListx.getNumericColumn();
+			NumericColumn columny = geoListy.getNumericColumn();
+			if (!columnx.updateNumbers(geoListx)
+					|| !columny.updateNumbers(geoListy)) {
+				result.setUndefined();
+				return;
+			}
+			sumx = columnx.getSumX();
+			sumxx = columnx.getSumXX();
+			sumy = columny.getSumX();
+			sumyy = columny.getSumXX();
+			double[] valx = columnx.getValues();
+			double[] valy = columny.getValues();
+			sumxy = 0;
 			for (int i = 0; i < sizex; i++) {
-				GeoElement geox = geoListx.get(i);
-				GeoElement geoy = geoListy.get(i);
-				if (geox instanceof NumberValue
-						&& geoy instanceof NumberValue) {
-					valx = geox.evaluateDouble();
-					valy = geoy.evaluateDouble();
-					sumx += valx;
-					sumy += valy;
-					sumxx += valx * valx;
-					sumyy += valy * valy;
-					sumxy += valx * valy;
-				} else {
-					result.setUndefined();
-					return;
-				}
+				sumxy += valx[i] * valy[i];
 			}
+			sxx = columnx.getSXX();
+			syy = columny.getSXX();
+			sxy = sumxy - sumx * sumy / sizex;
 		} else { // MODE_LISTOFPOINTS
-			for (int i = 0; i < sizex; i++) {
-				GeoElement geo = geoListx.get(i);
-				if (geo.isGeoPoint()) {
-					Coords coords = ((GeoPointND) geo).getInhomCoordsInD3();
-					double x = coords.getX();
-					double y = coords.getY();
-
-					valx = x;
-					valy = y;
-					sumx += valx;
-					sumy += valy;
-					sumxx += valx * valx;
-					sumyy += valy * valy;
-					sumxy += valx * valy;
-				} else {
-					result.setUndefined();
-					return;
-				}
+			NumericColumn column = geoListx.getNumericColumn();
+			if (!column.updatePoints(geoListx)) {
+				result.setUndefined();
+				return;
 			}
-
+			sumx = column.getSumX();
+			sumy = column.getSumY();
+			sumxx = column.getSumXX();
+			sumyy = column.getSumYY();
+			sumxy = column.getSumXY();
+			sxx = column.getSXX();
+			syy = column.getSYY();
+			sxy = column.getSXY();
 		}
 
 		double mux = sumx / sizex;
@@ -217,7 +207,7 @@ public abstract class AlgoStats2D extends AlgoElement {
 			result.setValue(muy);
 			break;
 		case STATS_COVARIANCE:
-			result.setValue(sumxy / sizex - mux * muy);
+			result.setValue(sxy / sizex);
 			break;
 		case STATS_SIGMAXY:
 			result.setValue(sumxy);
@@ -229,33 +219,31 @@ public abstract class AlgoStats2D extends AlgoElement {
 			result.setValue(sumyy);
 			break;
 		case STATS_SXX:
-			result.setValue(sumxx - sumx * sumx / sizex);
+			result.setValue(sxx);
 			break;
 		case STATS_SYY:
-			result.setValue(sumyy - sumy * sumy / sizex);
+			result.setValue(syy);
 			break;
 		case STATS_SXY:
-			result.setValue(sumxy - sumx * sumy / sizex);
+			result.setValue(sxy);
 			break;
 		case STATS_PMCC:
-			result.setValue((sumxy * sizex - sumx * sumy)
-					/ Math.sqrt((sumxx * sizex - sumx * sumx)
-							* (sumyy * sizex - sumy * sumy)));
+			result.setValue(sxy / Math.sqrt(sxx * syy));
 			break;
 		case STATS_SAMPLESDX:
-			var = (sumxx - sumx * sumx / sizex) / (sizex - 1);
+			var = sxx / (sizex - 1);
 			result.setValue(Math.sqrt(var));
 			break;
 		case STATS_SAMPLESDY:
-			var = (sumyy - sumy * sumy / sizey) / (sizey - 1);
+			var = syy / (sizey - 1);
 			result.setValue(Math.sqrt(var));
 			break;
 		case STATS_SDX:
-			var = (sumxx - sumx * sumx / sizex) / sizex;
+			var = sxx / sizex;
 			result.setValue(Math.sqrt(var));
 			break;
 		case STATS_SDY:
-			var = (sumyy - sumy * sumy / sizey) / sizey;
+			var = syy / sizey;
 			result.setValue(Math.sqrt(var));
 			break;
 		}
@@ -0,0 +1,492 @@
+package org.geogebra.common.kernel.statistics;
+
+import java.util.Arrays;
+
+import org.geogebra.common.kernel.arithmetic.NumberValue;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.kernel.kernelND.GeoPointND;
+import org.geogebra.common.kernel.matrix.Coords;
+import org.geogebra.common.util.DoubleUtil;
+
+/**
+ * Values of a list of numbers or points in primitive arrays. The sorted view
+ * and the aggregates are kept between updates and shared by all algos using
+ * the same list, so changing one element of a long list only moves that value
+ * in the sorted view instead of copying and sorting the whole list again.
+ *
+ * Sums and centered moments are updated in O(1) per changed, appended or
+ * removed value (Welford's method). Elements removed from the start of the
+ * list by {@link GeoList#addQueue(GeoElement)} are recognized, so that
+ * logging into a list of limited length doesn't make all values look
+ * changed. The aggregates are computed from scratch after a number of
+ * incremental updates that exceeds the size of the list, which bounds the
+ * rounding error, or when values are not finite.
+ *
+ * Obtain via {@link GeoList#getNumericColumn()} and call
+ * {@link #updateNumbers(GeoList)} or {@link #updatePoints(GeoList)} at the
+ * start of each compute().
+ */
+public final class NumericColumn {
+
+	/** with more changed values the sorted view is sorted again */
+	private static final int MAX_SORTED_UPDATES = 16;
+	/** incremental updates allowed on top of list size before recomputing */
+	private static final int MIN_INCREMENTAL_UPDATES = 64;
+
+	private static final int NONE = 0;
+	private static final int NUMBERS = 1;
+	private static final int POINTS = 2;
+
+	private int type = NONE;
+	private int size;
+	private double[] x = new double[0];
+	private double[] y = new double[0];
+	private boolean planar;
+	private boolean hasNaN;
+	/** value of list's removed element counter at last update */
+	private int removedFirst;
+
+	private double[] sorted = new double[0];
+	private boolean sortedValid;
+	private final double[] sortedRemoved = new double[MAX_SORTED_UPDATES];
+	private final double[] sortedAdded = new double[MAX_SORTED_UPDATES];
+	private int sortedRemovedCount;
+	private int sortedAddedCount;
+
+	private boolean statsValid;
+	private int statsCount;
+	private int incrementalUpdates;
+	private double sumX;
+	private double sumXX;
+	private double sumY;
+	private double sumYY;
+	private double sumXY;
+	private double meanX;
+	private double meanY;
+	private double m2X;
+	private double m2Y;
+	private double cXY;
+	private boolean productValid;
+	private double product;
+
+	private final double[] xy = new double[2];
+
+	/**
+	 * Reads the values of a list of numbers.
+	 *
+	 * @param list
+	 *            list of numbers
+	 * @return false if some element is not a number
+	 */
+	public boolean updateNumbers(GeoList list) {
+		int n = startUpdate(list, NUMBERS);
+		for (int i = 0; i < n; i++) {
+			GeoElement geo = list.get(i);
+			if (!(geo instanceof NumberValue)) {
+				type = NONE;
+				return false;
+			}
+			setValue(i, geo.evaluateDouble(), 0);
+		}
+		finishUpdate(n);
+		return true;
+	}
+
+	/**
+	 * Reads the inhomogeneous coordinates of a list of points.
+	 *
+	 * @param list
+	 *            list of points
+	 * @return false if some element is not a point
+	 */
+	public boolean updatePoints(GeoList list) {
+		int n = startUpdate(list, POINTS);
+		planar = true;
+		for (int i = 0; i < n; i++) {
+			GeoElement geo = list.get(i);
+			if (!geo.isGeoPoint()) {
+				type = NONE;
+				return false;
+			}
+			if (geo.isGeoElement3D()) {
+				Coords coords = ((GeoPointND) geo).getInhomCoordsInD3();
+				if (!DoubleUtil.isZero(coords.getZ())) {
+					planar = false;
+				}
+				setValue(i, coords.getX(), coords.getY());
+			} else {
+				((GeoPoint) geo).getInhomCoords(xy);
+				setValue(i, xy[0], xy[1]);
+			}
+		}
+		finishUpdate(n);
+		return true;
+	}
+
+	/**
+	 * Resets the column if the type changed, drops values removed from the
+	 * start of the list and makes room for new values.
+	 *
+	 * @return list size
+	 */
+	private int startUpdate(GeoList list, int newType) {
+		int removedCount = list.getRemovedFirstCount() - removedFirst;
+		removedFirst = list.getRemovedFirstCount();
+		if (type != newType) {
+			type = newType;
+			size = 0;
+			sortedValid = false;
+			statsValid = false;
+			productValid = false;
+		} else if (removedCount > 0 && removedCount <= size) {
+			for (int i = 0; i < removedCount; i++) {
+				removeValue(x[i], y[i]);
+			}
+			size -= removedCount;
+			System.arraycopy(x, removedCount, x, 0, size);
+			System.arraycopy(y, removedCount, y, 0, size);
+		}
+		int n = list.size();
+		if (x.length < n) {
+			int capacity = Math.max(n, x.length + x.length / 2);
+			x = Arrays.copyOf(x, capacity);
+			y = Arrays.copyOf(y, capacity);
+		}
+		// sorted view is only maintained for numbers
+		if (type != NUMBERS) {
+			sortedValid = false;
+		}
+		hasNaN = false;
+		return n;
+	}
+
+	private void setValue(int i, double valX, double valY) {
+		if (Double.isNaN(valX)) {
+			hasNaN = true;
+		}
+		if (i >= size) {
+			x[i] = valX;
+			y[i] = valY;
+			size++;
+			addValue(valX, valY);
+			return;
+		}
+		if (Double.compare(x[i], valX) == 0
+				&& Double.compare(y[i], valY) == 0) {
+			return;
+		}
+		removeValue(x[i], y[i]);
+		x[i] = valX;
+		y[i] = valY;
+		addValue(valX, valY);
+	}
+
+	private void finishUpdate(int n) {
+		while (size > n) {
+			size--;
+			removeValue(x[size], y[size]);
+		}
+		if (incrementalUpdates > size + MIN_INCREMENTAL_UPDATES) {
+			statsValid = false;
+		}
+		if (hasNaN) {
+			sortedValid = false;
+		} else if (sortedValid) {
+			applySortedChanges();
+		}
+		sortedRemovedCount = 0;
+		sortedAddedCount = 0;
+	}
+
+	private void addValue(double valX, double valY) {
+		productValid = false;
+		if (sortedValid) {
+			if (sortedAddedCount < MAX_SORTED_UPDATES && !Double.isNaN(valX)) {
+				sortedAdded[sortedAddedCount++] = valX;
+			} else {
+				sortedValid = false;
+			}
+		}
+		if (!statsValid) {
+			return;
+		}
+		if (!isFinite(valX) || !isFinite(valY)) {
+			statsValid = false;
+			return;
+		}
+		incrementalUpdates++;
+		statsCount++;
+		double dx = valX - meanX;
+		double dy = valY - meanY;
+		meanX += dx / statsCount;
+		meanY += dy / statsCount;
+		m2X += dx * (valX - meanX);
+		m2Y += dy * (valY - meanY);
+		cXY += dx * (valY - meanY);
+		sumX += valX;
+		sumXX += valX * valX;
+		sumY += valY;
+		sumYY += valY * valY;
+		sumXY += valX * valY;
+	}
+
+	private void removeValue(double valX, double valY) {
+		productValid = false;
+		if (sortedValid) {
+			if (sortedRemovedCount < MAX_SORTED_UPDATES
+					&& !Double.isNaN(valX)) {
+				sortedRemoved[sortedRemovedCount++] = valX;
+			} else {
+				sortedValid = false;
+			}
+		}
+		if (!statsValid) {
+			return;
+		}
+		if (!isFinite(valX) || !isFinite(valY) || statsCount <= 1) {
+			statsValid = false;
+			return;
+		}
+		incrementalUpdates++;
+		statsCount--;
+		// inverse of the steps in addValue
+		double dx = valX - meanX;
+		double dy = valY - meanY;
+		meanX -= dx / statsCount;
+		meanY -= dy / statsCount;
+		m2X -= dx * (valX - meanX);
+		m2Y -= dy * (valY - meanY);
+		cXY -= (valX - meanX) * dy;
+		sumX -= valX;
+		sumXX -= valX * valX;
+		sumY -= valY;
+		sumYY -= valY * valY;
+		sumXY -= valX * valY;
+	}
+
+	private static boolean isFinite(double val) {
+		return !Double.isNaN(val) && !Double.isInfinite(val);
+	}
+
+	/**
+	 * Removes old values from the sorted view and inserts new ones, moving
+	 * the values in between by one position.
+	 */
+	private void applySortedChanges() {
+		int sortedSize = size + sortedRemovedCount - sortedAddedCount;
+		for (int k = 0; k < sortedRemovedCount; k++) {
+			double old = sortedRemoved[k];
+			int pos = lowerBound(old, sortedSize);
+			if (pos >= sortedSize || Double.compare(sorted[pos], old) != 0) {
+				// not found, should not happen
+				sortedValid = false;
+				return;
+			}
+			sortedSize--;
+			System.arraycopy(sorted, pos + 1, sorted, pos, sortedSize - pos);
+		}
+		if (sorted.length < size) {
+			sorted = Arrays.copyOf(sorted, x.length);
+		}
+		for (int k = 0; k < sortedAddedCount; k++) {
+			double val = sortedAdded[k];
+			int pos = lowerBound(val, sortedSize);
+			System.arraycopy(sorted, pos, sorted, pos + 1, sortedSize - pos);
+			sorted[pos] = val;
+			sortedSize++;
+		}
+	}
+
+	private int lowerBound(double val, int sortedSize) {
+		int low = 0;
+		int high = sortedSize;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (Double.compare(sorted[mid], val) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return number of values
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return numbers or x-coordinates, only the first {@link #size()}
+	 *         entries are valid; must not be modified
+	 */
+	public double[] getValues() {
+		return x;
+	}
+
+	/**
+	 * @return y-coordinates, only the first {@link #size()} entries are
+	 *         valid; must not be modified
+	 */
+	public double[] getYValues() {
+		return y;
+	}
+
+	/**
+	 * @return numbers or x-coordinates in ascending order, only the first
+	 *         {@link #size()} entries are valid; must not be modified
+	 */
+	public double[] getSorted() {
+		if (!sortedValid) {
+			if (sorted.length < size) {
+				sorted = new double[x.length];
+			}
+			System.arraycopy(x, 0, sorted, 0, size);
+			Arrays.sort(sorted, 0, size);
+			sortedValid = true;
+		}
+		return sorted;
+	}
+
+	/**
+	 * @return whether all points have zero z-coordinate
+	 */
+	public boolean isPlanar() {
+		return planar;
+	}
+
+	private void updateStats() {
+		if (statsValid) {
+			return;
+		}
+		double sx = 0;
+		double sxx = 0;
+		double sy = 0;
+		double syy = 0;
+		double sxy = 0;
+		for (int i = 0; i < size; i++) {
+			sx += x[i];
+			sxx += x[i] * x[i];
+		}
+		if (type == POINTS) {
+			for (int i = 0; i < size; i++) {
+				sy += y[i];
+				syy += y[i] * y[i];
+				sxy += x[i] * y[i];
+			}
+		}
+		sumX = sx;
+		sumXX = sxx;
+		sumY = sy;
+		sumYY = syy;
+		sumXY = sxy;
+		meanX = size == 0 ? 0 : sx / size;
+		meanY = size == 0 ? 0 : sy / size;
+		double mx = 0;
+		double my = 0;
+		double cxy = 0;
+		for (int i = 0; i < size; i++) {
+			double dx = x[i] - meanX;
+			mx += dx * dx;
+		}
+		if (type == POINTS) {
+			for (int i = 0; i < size; i++) {
+				double dy = y[i] - meanY;
+				my += dy * dy;
+				cxy += (x[i] - meanX) * dy;
+			}
+		}
+		m2X = mx;
+		m2Y = my;
+		cXY = cxy;
+		statsCount = size;
+		incrementalUpdates = 0;
+		statsValid = true;
+	}
+
+	/**
+	 * @return sum of numbers or x-coordinates
+	 */
+	public double getSumX() {
+		updateStats();
+		return sumX;
+	}
+
+	/**
+	 * @return sum of squares of numbers or x-coordinates
+	 */
+	public double getSumXX() {
+		updateStats();
+		return sumXX;
+	}
+
+	/**
+	 * @return sum of y-coordinates
+	 */
+	public double getSumY() {
+		updateStats();
+		return sumY;
+	}
+
+	/**
+	 * @return sum of squares of y-coordinates
+	 */
+	public double getSumYY() {
+		updateStats();
+		return sumYY;
+	}
+
+	/**
+	 * @return sum of x*y over all points
+	 */
+	public double getSumXY() {
+		updateStats();
+		return sumXY;
+	}
+
+	/**
+	 * @return sum of squared deviations of numbers or x-coordinates from
+	 *         their mean (Sxx)
+	 */
+	public double getSXX() {
+		updateStats();
+		return Math.max(0, m2X);
+	}
+
+	/**
+	 * @return sum of squared deviations of y-coordinates from their mean
+	 *         (Syy)
+	 */
+	public double getSYY() {
+		updateStats();
+		return Math.max(0, m2Y);
+	}
+
+	/**
+	 * @return sum of products of deviations of coordinates from their means
+	 *         (Sxy)
+	 */
+	public double getSXY() {
+		updateStats();
+		return cXY;
+	}
+
+	/**
+	 * @return product of numbers
+	 */
+	public double getProduct() {
+		if (!productValid) {
+			double p = 1;
+			for (int i = 0; i < size; i++) {
+				p *= x[i];
+			}
+			product = p;
+			productValid = true;
+		}
+		return product;
+	}
+}
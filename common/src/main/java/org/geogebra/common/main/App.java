@@ -1,5 +1,6 @@
 package org.geogebra.common.main;
 
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -4885,6 +4886,16 @@ public abstract class App implements UpdateSelection, AppInterface, EuclidianHos
 		// needs to be implemented in subclasses
 	}
 
+	/**
+	 * @param ext
+	 *            extension
+	 * @return stream for an export file, null if exports are only written as
+	 *         strings with {@link #exportStringToFile(String, String)}
+	 */
+	public OutputStream getExportFileStream(String ext) {
+		return null;
+	}
+
 	/**
 	 * handle image as appropriate
 	 * web: show in lightbox
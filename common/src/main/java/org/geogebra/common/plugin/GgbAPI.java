@@ -26,6 +26,7 @@ import org.geogebra.common.kernel.GeoGebraCasInterface;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.Locateable;
 import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.arithmetic.Command;
 import org.geogebra.common.kernel.arithmetic.Traversing.CommandCollector;
 import org.geogebra.common.kernel.commands.AlgebraProcessor;
@@ -46,6 +47,8 @@ import org.geogebra.common.kernel.geos.Traceable;
 import org.geogebra.common.kernel.kernelND.GeoAxisND;
 import org.geogebra.common.kernel.kernelND.GeoConicND;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.kernel.kernelND.GeoPointND;
+import org.geogebra.common.kernel.kernelND.GeoVectorND;
 import org.geogebra.common.kernel.matrix.Coords;
 import org.geogebra.common.kernel.scripting.CmdSetCoords;
 import org.geogebra.common.kernel.scripting.CmdSetValue;
@@ -94,6 +97,10 @@ public abstract class GgbAPI implements JavaScriptAPI {
 	protected AlgebraProcessor algebraprocessor = null;
 	/** application */
 	protected App app = null;
+	/** objects changed in a batch, to be updated together */
+	private final ArrayList<GeoElement> batchGeos = new ArrayList<>();
+	/** algos to update at the end of a batch */
+	private TreeSet<AlgoElement> batchAlgos;
 
 	/**
 	 * Returns reference to Construction
@@ -1221,6 +1228,11 @@ public abstract class GgbAPI implements JavaScriptAPI {
 	 */
 	@Override
 	public synchronized double getValue(String objName) {
+		// plain number: skip parsing the name
+		GeoElement numeric = kernel.lookupLabel(objName);
+		if (numeric instanceof GeoNumeric) {
+			return ((GeoNumeric) numeric).getDouble();
+		}
 		GeoNumberValue geo = kernel.getAlgebraProcessor()
 				.evaluateToNumeric(objName, ErrorHelper.silent());
 		if (geo == null) {
@@ -1270,6 +1282,258 @@ public abstract class GgbAPI implements JavaScriptAPI {
 				new GeoNumeric(cons, y));
 	}
 
+	/**
+	 * Returns a handle to the object with the given name, to be used with the
+	 * methods below that skip label lookup. The handle is no longer valid once
+	 * the object is deleted or redefined.
+	 * 
+	 * @param objName
+	 *            object name
+	 * @return object, null if not found
+	 */
+	public synchronized GeoElement getHandle(String objName) {
+		return kernel.lookupLabel(objName);
+	}
+
+	/**
+	 * Like {@link #getValue(String)}, without label lookup for numbers.
+	 * 
+	 * @param geo
+	 *            handle from {@link #getHandle(String)}
+	 * @return value of the object, 0 if it does not have a value
+	 */
+	public synchronized double getValue(GeoElement geo) {
+		if (geo == null || !geo.isLabelSet()) {
+			return 0;
+		}
+		if (geo instanceof GeoNumeric) {
+			return ((GeoNumeric) geo).getDouble();
+		}
+		return getValue(geo.getLabelSimple());
+	}
+
+	/**
+	 * Like {@link #setValue(String, double)}, without label lookup.
+	 * 
+	 * @param geo
+	 *            handle from {@link #getHandle(String)}
+	 * @param x
+	 *            value
+	 */
+	public synchronized void setValue(GeoElement geo, double x) {
+		if (setValueNoUpdate(geo, x)) {
+			geo.updateRepaint();
+		}
+	}
+
+	/**
+	 * Like {@link #setCoords(String, double, double)}, without label lookup.
+	 * 
+	 * @param geo
+	 *            handle from {@link #getHandle(String)}
+	 * @param x
+	 *            x-coord
+	 * @param y
+	 *            y-coord
+	 */
+	public synchronized void setCoords(GeoElement geo, double x, double y) {
+		if (setCoordsNoUpdate(geo, x, y)) {
+			geo.updateRepaint();
+		}
+	}
+
+	/**
+	 * @param objNames
+	 *            object names
+	 * @return values as returned by {@link #getValue(String)}
+	 */
+	public synchronized double[] getValues(String[] objNames) {
+		double[] values = new double[objNames.length];
+		for (int i = 0; i < objNames.length; i++) {
+			values[i] = getValue(objNames[i]);
+		}
+		return values;
+	}
+
+	/**
+	 * @param geos
+	 *            handles from {@link #getHandle(String)}
+	 * @return values as returned by {@link #getValue(String)}
+	 */
+	public synchronized double[] getValues(GeoElement[] geos) {
+		double[] values = new double[geos.length];
+		for (int i = 0; i < geos.length; i++) {
+			values[i] = getValue(geos[i]);
+		}
+		return values;
+	}
+
+	/**
+	 * Sets values of several objects like {@link #setValue(String, double)},
+	 * then updates dependent objects of all numbers at once and repaints once.
+	 * 
+	 * @param objNames
+	 *            object names
+	 * @param values
+	 *            values
+	 */
+	public synchronized void setValues(String[] objNames, double[] values) {
+		GeoElement[] geos = new GeoElement[objNames.length];
+		for (int i = 0; i < objNames.length; i++) {
+			geos[i] = kernel.lookupLabel(objNames[i]);
+		}
+		setValues(geos, values);
+	}
+
+	/**
+	 * Sets values of several objects like {@link #setValue(String, double)},
+	 * then updates dependent objects of all numbers at once and repaints once.
+	 * 
+	 * @param geos
+	 *            handles from {@link #getHandle(String)}
+	 * @param values
+	 *            values
+	 */
+	public synchronized void setValues(GeoElement[] geos, double[] values) {
+		boolean repaint = startBatch();
+		try {
+			for (int i = 0; i < geos.length; i++) {
+				if (setValueNoUpdate(geos[i], values[i])) {
+					batchGeos.add(geos[i]);
+				}
+			}
+		} finally {
+			endBatch(repaint);
+		}
+	}
+
+	/**
+	 * Sets coordinates of several objects like
+	 * {@link #setCoords(String, double, double)}, then updates dependent
+	 * objects of all points at once and repaints once.
+	 * 
+	 * @param objNames
+	 *            object names
+	 * @param x
+	 *            x-coords
+	 * @param y
+	 *            y-coords
+	 */
+	public synchronized void setCoords(String[] objNames, double[] x,
+			double[] y) {
+		GeoElement[] geos = new GeoElement[objNames.length];
+		for (int i = 0; i < objNames.length; i++) {
+			geos[i] = kernel.lookupLabel(objNames[i]);
+		}
+		setCoords(geos, x, y);
+	}
+
+	/**
+	 * Sets coordinates of several objects like
+	 * {@link #setCoords(String, double, double)}, then updates dependent
+	 * objects of all points at once and repaints once.
+	 * 
+	 * @param geos
+	 *            handles from {@link #getHandle(String)}
+	 * @param x
+	 *            x-coords
+	 * @param y
+	 *            y-coords
+	 */
+	public synchronized void setCoords(GeoElement[] geos, double[] x,
+			double[] y) {
+		boolean repaint = startBatch();
+		try {
+			for (int i = 0; i < geos.length; i++) {
+				if (setCoordsNoUpdate(geos[i], x[i], y[i])) {
+					batchGeos.add(geos[i]);
+				}
+			}
+		} finally {
+			endBatch(repaint);
+		}
+	}
+
+	/**
+	 * @param geo
+	 *            object
+	 * @param x
+	 *            value
+	 * @return whether the value was set and the object still needs update;
+	 *         other objects are updated by SetValue
+	 */
+	private boolean setValueNoUpdate(GeoElement geo, double x) {
+		if (geo == null || !geo.isLabelSet() || !geo.isIndependent()) {
+			return false;
+		}
+		if (geo.isGeoNumeric()) {
+			((GeoNumeric) geo).setValue(x);
+			return true;
+		}
+		CmdSetValue.setValue2(geo, new GeoNumeric(kernel.getConstruction(), x));
+		return false;
+	}
+
+	/**
+	 * @param geo
+	 *            object
+	 * @param x
+	 *            x-coord
+	 * @param y
+	 *            y-coord
+	 * @return whether the coords were set and the object still needs update;
+	 *         other objects are updated by SetCoords
+	 */
+	private static boolean setCoordsNoUpdate(GeoElement geo, double x,
+			double y) {
+		if (geo == null || !geo.isLabelSet()) {
+			return false;
+		}
+		if (geo.isMoveable() && geo.isGeoPoint()) {
+			((GeoPointND) geo).setCoords(x, y, 1);
+			return true;
+		}
+		if (geo.isMoveable() && geo.isGeoVector()) {
+			((GeoVectorND) geo).setCoords(x, y, 0);
+			return true;
+		}
+		CmdSetCoords.setCoords(geo, x, y);
+		return false;
+	}
+
+	/**
+	 * Stops repainting until {@link #endBatch(boolean)}.
+	 * 
+	 * @return whether repainting was active
+	 */
+	private boolean startBatch() {
+		boolean repaint = kernel.isNotifyRepaintActive();
+		kernel.setNotifyRepaintActive(false);
+		batchGeos.clear();
+		return repaint;
+	}
+
+	/**
+	 * Updates all changed objects and their dependent objects at once, then
+	 * repaints.
+	 * 
+	 * @param repaint
+	 *            whether repainting was active before the batch
+	 */
+	private void endBatch(boolean repaint) {
+		try {
+			if (!batchGeos.isEmpty()) {
+				if (batchAlgos == null) {
+					batchAlgos = new TreeSet<>();
+				}
+				GeoElement.updateCascade(batchGeos, batchAlgos, false);
+			}
+		} finally {
+			batchGeos.clear();
+			kernel.setNotifyRepaintActive(repaint);
+		}
+	}
+
 	/**
 	 * Turns the repainting of all views on or off.
 	 */
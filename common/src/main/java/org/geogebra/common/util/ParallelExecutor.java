@@ -0,0 +1,73 @@
+package org.geogebra.common.util;
+
+import org.geogebra.common.factories.UtilFactory;
+
+/**
+ * Runs independent, side effect free tasks concurrently where the platform
+ * supports threads (JRE); on other platforms tasks run on the calling thread.
+ */
+public abstract class ParallelExecutor {
+
+	/**
+	 * Task executed once for every index of a range.
+	 */
+	public interface IndexTask {
+		/**
+		 * @param index
+		 *            index in range
+		 */
+		void run(int index);
+	}
+
+	/**
+	 * @return number of worker threads
+	 */
+	public abstract int getParallelism();
+
+	/**
+	 * Runs task for all indices 0 .. count-1, returns when all are done.
+	 * 
+	 * @param count
+	 *            number of indices
+	 * @param task
+	 *            task
+	 */
+	protected abstract void executeAll(int count, IndexTask task);
+
+	/**
+	 * @return executor provided by the platform, null if tasks need to run
+	 *         on the calling thread
+	 */
+	public static ParallelExecutor get() {
+		UtilFactory factory = UtilFactory.getPrototype();
+		return factory == null ? null : factory.getParallelExecutor();
+	}
+
+	/**
+	 * @return whether tasks may run on more than one thread
+	 */
+	public static boolean isAvailable() {
+		ParallelExecutor executor = get();
+		return executor != null && executor.getParallelism() > 1;
+	}
+
+	/**
+	 * Runs task for all indices 0 .. count-1, in parallel if possible. The
+	 * task must not modify shared state (including the construction).
+	 * 
+	 * @param count
+	 *            number of indices
+	 * @param task
+	 *            task
+	 */
+	public static void execute(int count, IndexTask task) {
+		ParallelExecutor executor = get();
+		if (executor == null || count < 2 || executor.getParallelism() < 2) {
+			for (int i = 0; i < count; i++) {
+				task.run(i);
+			}
+		} else {
+			executor.executeAll(count, task);
+		}
+	}
+}
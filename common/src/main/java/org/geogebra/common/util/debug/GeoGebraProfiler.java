@@ -15,6 +15,7 @@ public class GeoGebraProfiler {
 	private static volatile int algebra;
 	private static volatile int event;
 	private static volatile int cascades;
+	private static volatile int skippedAlgos;
 
 	private static volatile long algebraTime;
 	private static volatile long eventTime;
@@ -31,7 +32,9 @@ public class GeoGebraProfiler {
 					+ "Average duration of one drag event: "
 					+ ((float) dragTime / (float) drags) + " ms \n" + "Number of repaints: "
 					+ repaints + "\n" + "Average duration of one repaint: "
-					+ ((float) repaintTime / repaints) + " ms");
+					+ ((float) repaintTime / repaints) + " ms\n"
+					+ "Average number of skipped algos per drag event: "
+					+ ((float) skippedAlgos / drags));
 		}
 	}
 
@@ -89,6 +92,16 @@ public class GeoGebraProfiler {
 		}
 	}
 
+	/**
+	 * @param count
+	 *            number of algos skipped by change detection in a cascade
+	 */
+	public static void addSkippedAlgos(int count) {
+		synchronized (lock) {
+			skippedAlgos += count;
+		}
+	}
+
 	/**
 	 * @param time
 	 *            algebra update duration
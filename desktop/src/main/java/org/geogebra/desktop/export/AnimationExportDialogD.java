@@ -23,6 +23,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
 
 import org.geogebra.common.euclidian3D.EuclidianView3DInterface;
 import org.geogebra.common.kernel.geos.AnimationExportSlider;
@@ -75,6 +76,15 @@ public class AnimationExportDialogD extends JDialog {
 
 	private JProgressBar progressBar;
 
+	/**
+	 * Encoder of the running export, null before export.
+	 */
+	private AnimatedGifEncoder gifEncoder;
+
+	private volatile int framesCaptured;
+
+	private volatile int framesWritten;
+
 	/**
 	 * Construct dialog.
 	 * 
@@ -170,6 +180,9 @@ public class AnimationExportDialogD extends JDialog {
 		cancelButton.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent e) {
+				if (gifEncoder != null) {
+					gifEncoder.cancel();
+				}
 				setVisible(false);
 			}
 		});
@@ -349,35 +362,66 @@ public class AnimationExportDialogD extends JDialog {
 			val = min;
 		}
 
-		final AnimatedGifEncoder gifEncoder = new AnimatedGifEncoder();
-		gifEncoder.setQuality(1);
-		gifEncoder.start(file);
+		final AnimatedGifEncoder encoder = new AnimatedGifEncoder();
+		final File gifFile = file;
+		gifEncoder = encoder;
+		framesCaptured = 0;
+		framesWritten = 0;
+		encoder.setQuality(1);
+		encoder.setProgressListener(new AnimatedGifEncoder.ProgressListener() {
+
+			@Override
+			public void onProgress(int written, int added) {
+				framesWritten = written;
+				showProgress();
+			}
+		});
+		encoder.start(file);
 
-		gifEncoder.setDelay(timeBetweenFrames); // miliseconds
+		encoder.setDelay(timeBetweenFrames); // miliseconds
 		if (cbLoop.isSelected()) {
-			gifEncoder.setRepeat(0);
+			encoder.setRepeat(0);
 		}
 		FrameCollector collector = new FrameCollector() {
 
 			@Override
 			public void addFrame(BufferedImage img) {
-				gifEncoder.addFrame(img);
-				progressBar.setValue(progressBar.getValue() + 1);
-				progressBar.paint(progressBar.getGraphics());
+				framesCaptured++;
+				encoder.addFrame(img);
+				showProgress();
 			}
 
 			@Override
 			public void finish() {
-				gifEncoder.finish();
-				setVisible(false);
-
+				// remaining frames are encoded in background, can be cancelled
+				AnimationExportDialogD.this.setEnabled(true);
+				cancelButton.setEnabled(true);
+				Thread thread = new Thread(new Runnable() {
+
+					@Override
+					public void run() {
+						encoder.finish();
+						SwingUtilities.invokeLater(new Runnable() {
+
+							@Override
+							public void run() {
+								if (encoder.isCancelled() && gifFile != null) {
+									gifFile.delete();
+								}
+								setVisible(false);
+							}
+						});
+					}
+				}, "GIF export");
+				thread.start();
 			}
 		};
 		// hide dialog
 		// setVisible(false);
 
 		app.setWaitCursor();
-		progressBar.setMaximum(n);
+		// each frame is captured, then written
+		progressBar.setMaximum(2 * n);
 		progressBar.setMinimum(0);
 		try {
 			app.exportAnimatedGIF(app.getActiveEuclidianView(), collector, num,
@@ -390,4 +434,23 @@ public class AnimationExportDialogD extends JDialog {
 			app.setDefaultCursor();
 		}
 	}
+
+	/**
+	 * Shows captured and written frames, may be called from any thread.
+	 */
+	protected void showProgress() {
+		if (!SwingUtilities.isEventDispatchThread()) {
+			SwingUtilities.invokeLater(new Runnable() {
+
+				@Override
+				public void run() {
+					showProgress();
+				}
+			});
+			return;
+		}
+		progressBar.setValue(framesCaptured + framesWritten);
+		// event thread may be busy capturing frames
+		progressBar.paint(progressBar.getGraphics());
+	}
 }
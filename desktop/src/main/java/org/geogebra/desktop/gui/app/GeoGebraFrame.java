@@ -960,8 +960,12 @@ public class GeoGebraFrame extends JFrame
 						final int delay = Integer.parseInt(
 								"".equals(delayStr) ? "10" : delayStr);
 
+						// "global" to quantize only the first frame
+						String palette = args.getStringValue("palette");
+
 						final AnimatedGifEncoder gifEncoder = new AnimatedGifEncoder();
 						gifEncoder.setQuality(1);
+						gifEncoder.setGlobalPalette("global".equals(palette));
 						gifEncoder.start(new File(filename + ".gif"));
 
 						gifEncoder.setDelay(delay); // miliseconds
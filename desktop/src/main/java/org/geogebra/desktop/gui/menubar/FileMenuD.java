@@ -14,7 +14,9 @@ import javax.swing.KeyStroke;
 import org.geogebra.common.export.pstricks.GeoGebraToAsymptote;
 import org.geogebra.common.geogebra3D.euclidian3D.printer3D.FormatCollada;
 import org.geogebra.common.geogebra3D.euclidian3D.printer3D.FormatColladaHTML;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.FormatOBJ;
 import org.geogebra.common.geogebra3D.euclidian3D.printer3D.FormatSTL;
+import org.geogebra.common.geogebra3D.euclidian3D.printer3D.FormatSTLBinary;
 import org.geogebra.common.move.events.BaseEvent;
 import org.geogebra.common.move.ggtapi.TubeAvailabilityCheckEvent;
 import org.geogebra.common.move.views.EventRenderable;
@@ -46,8 +48,8 @@ class FileMenuD extends BaseMenu implements EventRenderable {
 			loadAction, loadURLAction, exportWorksheet, shareAction,
 			exportGraphicAction, exportAnimationAction, exportPgfAction,
 			exportPSTricksAction, exportAsymptoteAction, exportPDFaction,
-			exportSTLaction, exportColladaAction, exportColladaHTMLAction,
-			exportObjAction;
+			exportSTLaction, exportSTLBinaryAction, exportColladaAction,
+			exportColladaHTMLAction, exportObjAction;
 	/** load from MAT item */
 	JMenuItem loadURLMenuItem;
 	/** share item */
@@ -170,6 +172,8 @@ class FileMenuD extends BaseMenu implements EventRenderable {
 		mi = submenu.add(exportAsymptoteAction);
 		if (app.isPrerelease()) {
 			mi = submenu.add(exportSTLaction);
+			mi = submenu.add(exportSTLBinaryAction);
+			mi = submenu.add(exportObjAction);
 		}
 		if (app.is3D()) {
 			mi = submenu.add(exportColladaAction);
@@ -584,6 +588,34 @@ class FileMenuD extends BaseMenu implements EventRenderable {
 					}
 				}
 			};
+			exportSTLBinaryAction = new AbstractAction(
+					"STL (binary)" + Unicode.ELLIPSIS, app.getEmptyIcon()) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public void actionPerformed(ActionEvent e) {
+					try {
+						app.setExport3D(new FormatSTLBinary());
+					} catch (Exception ex) {
+						ex.printStackTrace();
+						Log.debug("Problem exporting to STL");
+					}
+				}
+			};
+			exportObjAction = new AbstractAction("OBJ" + Unicode.ELLIPSIS,
+					app.getEmptyIcon()) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public void actionPerformed(ActionEvent e) {
+					try {
+						app.setExport3D(new FormatOBJ());
+					} catch (Exception ex) {
+						ex.printStackTrace();
+						Log.debug("Problem exporting to OBJ");
+					}
+				}
+			};
 		}
 
 		if (app.is3D()) {
@@ -5,10 +5,19 @@ import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Class AnimatedGifEncoder - Encodes a GIF file consisting of one or more
@@ -25,6 +34,10 @@ import java.io.OutputStream;
  *     e.finish();
  * </pre>
  * 
+ * Color quantization and LZW encoding of frames run on a thread pool while
+ * next frames are added; encoded frames are written in the order they were
+ * added.
+ * 
  * No copyright asserted on the source code of this class. May be used for any
  * purpose, however, refer to the Unisys LZW patent for restrictions on use of
  * the associated LZWEncoder class. Please forward any corrections to
@@ -37,14 +50,16 @@ import java.io.OutputStream;
 
 public class AnimatedGifEncoder {
 
+	private static final int COLOR_DEPTH = 8; // number of bit planes
+
+	private static final int PAL_SIZE = 7; // color table size (bits-1)
+
 	protected int width; // image size
 
 	protected int height;
 
 	protected Color transparent = null; // transparent color if given
 
-	protected int transIndex; // transparent index in color table
-
 	protected int repeat = -1; // no repeat
 
 	protected int delay = 0; // frame delay (hundredths)
@@ -53,29 +68,51 @@ public class AnimatedGifEncoder {
 
 	protected OutputStream out;
 
-	protected BufferedImage image; // current frame
+	protected int dispose = -1; // disposal code (-1 = use default)
+
+	protected boolean closeStream = false; // close stream when finished
+
+	protected boolean firstFrame = true;
 
-	protected byte[] pixels; // BGR byte array from frame
+	protected boolean sizeSet = false; // if false, get size from first frame
 
-	protected byte[] indexedPixels; // converted frame indexed to palette
+	protected int sample = 10; // default sample interval for quantizer
 
-	protected int colorDepth; // number of bit planes
+	protected boolean globalPalette = false; // one palette for all frames
 
-	protected byte[] colorTab; // RGB palette
+	// threads for quantization and encoding, 1 = encode on caller's thread
+	protected int threads = Runtime.getRuntime().availableProcessors();
 
-	protected boolean[] usedEntry = new boolean[256]; // active palette entries
+	private ExecutorService executor;
 
-	protected int palSize = 7; // color table size (bits-1)
+	// frames being encoded, in order
+	private ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
 
-	protected int dispose = -1; // disposal code (-1 = use default)
+	private Future<Palette> sharedPalette; // palette of first frame if global
 
-	protected boolean closeStream = false; // close stream when finished
+	private int framesAdded;
 
-	protected boolean firstFrame = true;
+	private int framesWritten;
 
-	protected boolean sizeSet = false; // if false, get size from first frame
+	private volatile boolean cancelled;
 
-	protected int sample = 10; // default sample interval for quantizer
+	private ProgressListener progressListener;
+
+	/**
+	 * Listener for encoding progress.
+	 */
+	public interface ProgressListener {
+		/**
+		 * Called on the thread that writes the output, i.e. the one calling
+		 * <code>addFrame()</code> or <code>finish()</code>.
+		 * 
+		 * @param written
+		 *            number of frames written to the output
+		 * @param added
+		 *            number of frames added so far
+		 */
+		void onProgress(int written, int added);
+	}
 
 	/**
 	 * Sets the delay time between each frame, or changes it for subsequent
@@ -131,55 +168,145 @@ public class AnimatedGifEncoder {
 	}
 
 	/**
-	 * Adds next GIF frame. The frame is not written immediately, but is
-	 * actually deferred until the next frame is received so that timing data
-	 * can be inserted. Invoking <code>finish()</code> flushes all frames. If
-	 * <code>setSize</code> was not invoked, the size of the first image is used
-	 * for all subsequent frames.
+	 * Sets whether the palette of the first frame is used for all frames.
+	 * Subsequent frames are then only mapped to that palette, which is much
+	 * faster than quantizing each frame and makes the file smaller, but colors
+	 * that don't appear in the first frame are approximated. Must be invoked
+	 * before the first image is added.
+	 * 
+	 * @param global
+	 *            true to use one palette for all frames
+	 */
+	public void setGlobalPalette(boolean global) {
+		if (firstFrame) {
+			globalPalette = global;
+		}
+	}
+
+	/**
+	 * Sets the number of threads used for quantization and encoding. Must be
+	 * invoked before <code>start()</code>. Default is the number of available
+	 * processors.
+	 * 
+	 * @param n
+	 *            number of threads, 1 to encode frames in
+	 *            <code>addFrame()</code>
+	 */
+	public void setThreads(int n) {
+		if (!started) {
+			threads = Math.max(n, 1);
+		}
+	}
+
+	/**
+	 * @param listener
+	 *            listener notified each time a frame is written
+	 */
+	public void setProgressListener(ProgressListener listener) {
+		this.progressListener = listener;
+	}
+
+	/**
+	 * Adds next GIF frame. The frame is quantized and encoded in the
+	 * background and written once all previous frames are written; if too many
+	 * frames are pending, waits for the oldest one. Invoking
+	 * <code>finish()</code> flushes all frames. If <code>setSize</code> was
+	 * not invoked, the size of the first image is used for all subsequent
+	 * frames.
 	 * 
 	 * @param im
-	 *            BufferedImage containing frame to write.
+	 *            BufferedImage containing frame to write, may be reused by the
+	 *            caller after this returns.
 	 * @return true if successful.
 	 */
 	public boolean addFrame(BufferedImage im) {
-		if ((im == null) || !started) {
+		if ((im == null) || !started || cancelled) {
 			return false;
 		}
+		if (!sizeSet) {
+			// use first frame's size
+			setSize(im.getWidth(), im.getHeight());
+		}
+		// convert to correct format if necessary
+		byte[] pixels = getImagePixels(im);
+		if (firstFrame && globalPalette) {
+			sharedPalette = run(new PaletteTask(pixels, sample));
+		}
+		Frame frame = new Frame(pixels, firstFrame);
+		firstFrame = false;
+		framesAdded++;
+		pending.add(run(frame));
+		// keep the number of pixel arrays in memory bounded
+		return writePending(2 * threads);
+	}
+
+	private <T> Future<T> run(Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(task);
+		if (executor == null) {
+			future.run();
+		} else {
+			executor.execute(future);
+		}
+		return future;
+	}
+
+	/**
+	 * Writes encoded frames in order while the oldest one is done or more than
+	 * maxPending frames are pending.
+	 * 
+	 * @param maxPending
+	 *            maximal number of frames left pending
+	 * @return false if a frame failed or the export was cancelled
+	 */
+	private boolean writePending(int maxPending) {
 		boolean ok = true;
-		try {
-			if (!sizeSet) {
-				// use first frame's size
-				setSize(im.getWidth(), im.getHeight());
-			}
-			image = im;
-			getImagePixels(); // convert to correct format if necessary
-			analyzePixels(); // build color table & map pixels
-			if (firstFrame) {
-				writeLSD(); // logical screen descriptior
-				writePalette(); // global color table
-				if (repeat >= 0) {
-					// use NS app extension to indicate reps
-					writeNetscapeExt();
+		while (!pending.isEmpty() && !cancelled
+				&& (pending.size() > maxPending || pending.peek().isDone())) {
+			try {
+				byte[] frame = pending.poll().get();
+				if (frame != null) {
+					out.write(frame);
+					framesWritten++;
+					if (progressListener != null) {
+						progressListener.onProgress(framesWritten,
+								framesAdded);
+					}
 				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			} catch (ExecutionException e) {
+				e.getCause().printStackTrace();
+				ok = false;
+			} catch (IOException e) {
+				e.printStackTrace();
+				ok = false;
 			}
-			writeGraphicCtrlExt(); // write graphic control extension
-			writeImageDesc(); // image descriptor
-			if (!firstFrame) {
-				writePalette(); // local color table
-			}
-			writePixels(); // encode and write pixel data
-			firstFrame = false;
-		} catch (IOException e) {
-			e.printStackTrace();
-			ok = false;
 		}
+		return ok && !cancelled;
+	}
+
+	/**
+	 * Stops the export: frames are not encoded any more, and pending
+	 * <code>addFrame()</code> or <code>finish()</code> return false without
+	 * waiting for all frames. May be invoked from any thread; the output is
+	 * incomplete and still needs <code>finish()</code> to be closed.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
 
-		return ok;
+	/**
+	 * @return whether the export was cancelled
+	 */
+	public boolean isCancelled() {
+		return cancelled;
 	}
 
 	/**
-	 * Flushes any pending data and closes output file. If writing to an
-	 * OutputStream, the stream is not closed.
+	 * Waits for all frames to be written, then flushes any pending data and
+	 * closes output file. If writing to an OutputStream, the stream is not
+	 * closed.
 	 * 
 	 * @return true if succesful
 	 */
@@ -187,10 +314,17 @@ public class AnimatedGifEncoder {
 		if (!started) {
 			return false;
 		}
-		boolean ok = true;
+		boolean ok = writePending(0);
 		started = false;
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+		pending.clear();
 		try {
-			out.write(0x3b); // gif trailer
+			if (!cancelled) {
+				out.write(0x3b); // gif trailer
+			}
 			out.flush();
 			if (closeStream) {
 				out.close();
@@ -201,16 +335,12 @@ public class AnimatedGifEncoder {
 		}
 
 		// reset for subsequent use
-		transIndex = 0;
 		out = null;
-		image = null;
-		pixels = null;
-		indexedPixels = null;
-		colorTab = null;
+		sharedPalette = null;
 		closeStream = false;
 		firstFrame = true;
 
-		return ok;
+		return ok && !cancelled;
 	}
 
 	/**
@@ -283,12 +413,27 @@ public class AnimatedGifEncoder {
 		boolean ok = true;
 		closeStream = false;
 		out = os;
+		cancelled = false;
+		framesAdded = 0;
+		framesWritten = 0;
 		try {
-			writeString("GIF89a"); // header
+			writeString(out, "GIF89a"); // header
 		} catch (IOException e) {
 			e.printStackTrace();
 			ok = false;
 		}
+		if (ok && threads > 1 && executor == null) {
+			executor = Executors.newFixedThreadPool(threads,
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "GIF encoder");
+							// don't keep the app alive if finish() is missing
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+		}
 		return started = ok;
 	}
 
@@ -325,48 +470,180 @@ public class AnimatedGifEncoder {
 		return started = ok;
 	}
 
+	/**
+	 * Reduced palette of a frame.
+	 */
+	private static class Palette {
+		// only read after process(), so it can be shared between threads
+		NeuQuant quantizer;
+
+		byte[] colorTab; // RGB palette
+	}
+
 	/**
 	 * Analyzes image colors and creates color map.
 	 */
-	protected void analyzePixels() {
-		int len = pixels.length;
-		int nPix = len / 3;
-		indexedPixels = new byte[nPix];
-		NeuQuant nq = new NeuQuant(pixels, len, sample);
-		// initialize quantizer
-		colorTab = nq.process(); // create reduced palette
-		// convert map from BGR to RGB
-		for (int i = 0; i < colorTab.length; i += 3) {
-			byte temp = colorTab[i];
-			colorTab[i] = colorTab[i + 2];
-			colorTab[i + 2] = temp;
-			usedEntry[i / 3] = false;
+	private static class PaletteTask implements Callable<Palette> {
+		private byte[] pixels;
+		private int sampleFactor;
+
+		protected PaletteTask(byte[] pixels, int sampleFactor) {
+			this.pixels = pixels;
+			this.sampleFactor = sampleFactor;
 		}
-		// map image pixels to new palette
-		int k = 0;
-		for (int i = 0; i < nPix; i++) {
-			int index = nq.map(pixels[k++] & 0xff, pixels[k++] & 0xff,
-					pixels[k++] & 0xff);
-			usedEntry[index] = true;
-			indexedPixels[i] = (byte) index;
+
+		@Override
+		public Palette call() {
+			Palette palette = new Palette();
+			palette.quantizer = new NeuQuant(pixels, pixels.length,
+					sampleFactor);
+			// create reduced palette
+			palette.colorTab = palette.quantizer.process();
+			// convert map from BGR to RGB
+			byte[] colorTab = palette.colorTab;
+			for (int i = 0; i < colorTab.length; i += 3) {
+				byte temp = colorTab[i];
+				colorTab[i] = colorTab[i + 2];
+				colorTab[i + 2] = temp;
+			}
+			return palette;
+		}
+	}
+
+	/**
+	 * Quantizes and encodes one frame, with the settings at the time it was
+	 * added.
+	 */
+	private class Frame implements Callable<byte[]> {
+		private byte[] pixels; // BGR byte array from frame
+		private boolean first;
+		private Future<Palette> palette; // global palette, null for local
+		private int frameSample;
+		private int frameDelay;
+		private int frameDispose;
+		private Color frameTransparent;
+		private int frameRepeat;
+
+		protected Frame(byte[] pixels, boolean first) {
+			this.pixels = pixels;
+			this.first = first;
+			this.palette = sharedPalette;
+			this.frameSample = sample;
+			this.frameDelay = delay;
+			this.frameDispose = dispose;
+			this.frameTransparent = transparent;
+			this.frameRepeat = repeat;
+		}
+
+		/**
+		 * @return bytes of this frame, null if cancelled
+		 */
+		@Override
+		public byte[] call() throws Exception {
+			if (cancelled) {
+				return null;
+			}
+			Palette pal = palette == null
+					? new PaletteTask(pixels, frameSample).call()
+					: palette.get();
+			// map image pixels to new palette
+			int nPix = pixels.length / 3;
+			byte[] indexedPixels = new byte[nPix];
+			boolean[] usedEntry = new boolean[256]; // active palette entries
+			int k = 0;
+			for (int i = 0; i < nPix; i++) {
+				int index = pal.quantizer.map(pixels[k++] & 0xff,
+						pixels[k++] & 0xff, pixels[k++] & 0xff);
+				usedEntry[index] = true;
+				indexedPixels[i] = (byte) index;
+			}
+			pixels = null;
+			if (cancelled) {
+				return null;
+			}
+			// get closest match to transparent color if specified
+			int transIndex = 0;
+			if (frameTransparent != null) {
+				transIndex = findClosest(pal.colorTab, usedEntry,
+						frameTransparent);
+			}
+
+			ByteArrayOutputStream os = new ByteArrayOutputStream(
+					nPix / 4 + 3 * 256);
+			if (first) {
+				writeLSD(os); // logical screen descriptior
+				writePalette(os, pal.colorTab); // global color table
+				if (frameRepeat >= 0) {
+					// use NS app extension to indicate reps
+					writeNetscapeExt(os, frameRepeat);
+				}
+			}
+			writeGraphicCtrlExt(os, transIndex); // graphic control extension
+			boolean localPalette = !first && palette == null;
+			writeImageDesc(os, localPalette); // image descriptor
+			if (localPalette) {
+				writePalette(os, pal.colorTab); // local color table
+			}
+			// encode and write pixel data
+			LZWEncoder encoder = new LZWEncoder(width, height, indexedPixels,
+					COLOR_DEPTH);
+			encoder.encode(os);
+			return os.toByteArray();
 		}
-		pixels = null;
-		colorDepth = 8;
-		palSize = 7;
-		// get closest match to transparent color if specified
-		if (transparent != null) {
-			transIndex = findClosest(transparent);
+
+		/**
+		 * Writes Graphic Control Extension
+		 * 
+		 * @param os
+		 *            output
+		 * @param transIndex
+		 *            transparent index in color table
+		 * @throws IOException
+		 */
+		private void writeGraphicCtrlExt(OutputStream os, int transIndex)
+				throws IOException {
+			os.write(0x21); // extension introducer
+			os.write(0xf9); // GCE label
+			os.write(4); // data block size
+			int transp, disp;
+			if (frameTransparent == null) {
+				transp = 0;
+				disp = 0; // dispose = no action
+			} else {
+				transp = 1;
+				disp = 2; // force clear if using transparent color
+			}
+			if (frameDispose >= 0) {
+				disp = frameDispose & 7; // user override
+			}
+			disp <<= 2;
+
+			// packed fields
+			os.write( // 1:3 reserved
+					disp | // 4:6 disposal
+					// 7 user input - 0 = none
+					transp); // 8 transparency flag
+
+			writeShort(os, frameDelay); // delay x 1/100 sec
+			os.write(transIndex); // transparent color index
+			os.write(0); // block terminator
 		}
 	}
 
 	/**
 	 * Returns index of palette color closest to c
 	 * 
+	 * @param colorTab
+	 *            RGB palette
+	 * @param usedEntry
+	 *            active palette entries
 	 * @param c
+	 *            color
 	 * @return index of color closest to c in euclidean RGB space
 	 * 
 	 */
-	protected int findClosest(Color c) {
+	protected static int findClosest(byte[] colorTab, boolean[] usedEntry,
+			Color c) {
 		if (colorTab == null) {
 			return -1;
 		}
@@ -392,9 +669,13 @@ public class AnimatedGifEncoder {
 	}
 
 	/**
-	 * Extracts image pixels into byte array "pixels"
+	 * Extracts image pixels into a new byte array
+	 * 
+	 * @param image
+	 *            frame
+	 * @return BGR byte array from frame
 	 */
-	protected void getImagePixels() {
+	protected byte[] getImagePixels(BufferedImage image) {
 		int w = image.getWidth();
 		int h = image.getHeight();
 		int type = image.getType();
@@ -405,148 +686,131 @@ public class AnimatedGifEncoder {
 					BufferedImage.TYPE_3BYTE_BGR);
 			Graphics2D g = temp.createGraphics();
 			g.drawImage(image, 0, 0, null);
-			image = temp;
-		}
-		pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
-	}
-
-	/**
-	 * Writes Graphic Control Extension
-	 * 
-	 * @throws IOException
-	 */
-	protected void writeGraphicCtrlExt() throws IOException {
-		out.write(0x21); // extension introducer
-		out.write(0xf9); // GCE label
-		out.write(4); // data block size
-		int transp, disp;
-		if (transparent == null) {
-			transp = 0;
-			disp = 0; // dispose = no action
-		} else {
-			transp = 1;
-			disp = 2; // force clear if using transparent color
+			g.dispose();
+			return ((DataBufferByte) temp.getRaster().getDataBuffer())
+					.getData();
 		}
-		if (dispose >= 0) {
-			disp = dispose & 7; // user override
-		}
-		disp <<= 2;
-
-		// packed fields
-		out.write( // 1:3 reserved
-				disp | // 4:6 disposal
-				// 7 user input - 0 = none
-				transp); // 8 transparency flag
-
-		writeShort(delay); // delay x 1/100 sec
-		out.write(transIndex); // transparent color index
-		out.write(0); // block terminator
+		// the caller may draw next frame in the same image
+		return ((DataBufferByte) image.getRaster().getDataBuffer()).getData()
+				.clone();
 	}
 
 	/**
 	 * Writes Image Descriptor
 	 * 
+	 * @param os
+	 *            output
+	 * @param localPalette
+	 *            whether a local color table follows
 	 * @throws IOException
 	 */
-	protected void writeImageDesc() throws IOException {
-		out.write(0x2c); // image separator
-		writeShort(0); // image position x,y = 0,0
-		writeShort(0);
-		writeShort(width); // image size
-		writeShort(height);
+	protected void writeImageDesc(OutputStream os, boolean localPalette)
+			throws IOException {
+		os.write(0x2c); // image separator
+		writeShort(os, 0); // image position x,y = 0,0
+		writeShort(os, 0);
+		writeShort(os, width); // image size
+		writeShort(os, height);
 		// packed fields
-		if (firstFrame) {
+		if (!localPalette) {
 			// no LCT - GCT is used for first (or only) frame
-			out.write(0);
+			os.write(0);
 		} else {
 			// specify normal LCT
-			out.write(0x80 | // 1 local color table 1=yes
+			os.write(0x80 | // 1 local color table 1=yes
 					0 | // 2 interlace - 0=no
 					0 | // 3 sorted - 0=no
 					0 | // 4-5 reserved
-					palSize); // 6-8 size of color table
+					PAL_SIZE); // 6-8 size of color table
 		}
 	}
 
 	/**
 	 * Writes Logical Screen Descriptor
 	 * 
+	 * @param os
+	 *            output
 	 * @throws IOException
 	 */
-	protected void writeLSD() throws IOException {
+	protected void writeLSD(OutputStream os) throws IOException {
 		// logical screen size
-		writeShort(width);
-		writeShort(height);
+		writeShort(os, width);
+		writeShort(os, height);
 		// packed fields
-		out.write((0x80 | // 1 : global color table flag = 1 (gct used)
+		os.write((0x80 | // 1 : global color table flag = 1 (gct used)
 				0x70 | // 2-4 : color resolution = 7
 				0x00 | // 5 : gct sort flag = 0
-				palSize)); // 6-8 : gct size
+				PAL_SIZE)); // 6-8 : gct size
 
-		out.write(0); // background color index
-		out.write(0); // pixel aspect ratio - assume 1:1
+		os.write(0); // background color index
+		os.write(0); // pixel aspect ratio - assume 1:1
 	}
 
 	/**
 	 * Writes Netscape application extension to define repeat count.
 	 * 
+	 * @param os
+	 *            output
+	 * @param repeatCount
+	 *            loop count (extra iterations, 0=repeat forever)
 	 * @throws IOException
 	 */
-	protected void writeNetscapeExt() throws IOException {
-		out.write(0x21); // extension introducer
-		out.write(0xff); // app extension label
-		out.write(11); // block size
-		writeString("NETSCAPE" + "2.0"); // app id + auth code
-		out.write(3); // sub-block size
-		out.write(1); // loop sub-block id
-		writeShort(repeat); // loop count (extra iterations, 0=repeat forever)
-		out.write(0); // block terminator
+	protected static void writeNetscapeExt(OutputStream os, int repeatCount)
+			throws IOException {
+		os.write(0x21); // extension introducer
+		os.write(0xff); // app extension label
+		os.write(11); // block size
+		writeString(os, "NETSCAPE" + "2.0"); // app id + auth code
+		os.write(3); // sub-block size
+		os.write(1); // loop sub-block id
+		writeShort(os, repeatCount); // loop count
+		os.write(0); // block terminator
 	}
 
 	/**
 	 * Writes color table
 	 * 
+	 * @param os
+	 *            output
+	 * @param colorTab
+	 *            RGB palette
 	 * @throws IOException
 	 */
-	protected void writePalette() throws IOException {
-		out.write(colorTab, 0, colorTab.length);
+	protected static void writePalette(OutputStream os, byte[] colorTab)
+			throws IOException {
+		os.write(colorTab, 0, colorTab.length);
 		int n = (3 * 256) - colorTab.length;
 		for (int i = 0; i < n; i++) {
-			out.write(0);
+			os.write(0);
 		}
 	}
 
-	/**
-	 * Encodes and writes pixel data
-	 * 
-	 * @throws IOException
-	 */
-	protected void writePixels() throws IOException {
-		LZWEncoder encoder = new LZWEncoder(width, height, indexedPixels,
-				colorDepth);
-		encoder.encode(out);
-	}
-
 	/**
 	 * Write 16-bit value to output stream, LSB first
 	 * 
+	 * @param os
+	 *            output
 	 * @param value
 	 * @throws IOException
 	 */
-	protected void writeShort(int value) throws IOException {
-		out.write(value & 0xff);
-		out.write((value >> 8) & 0xff);
+	protected static void writeShort(OutputStream os, int value)
+			throws IOException {
+		os.write(value & 0xff);
+		os.write((value >> 8) & 0xff);
 	}
 
 	/**
 	 * Writes string to output stream
 	 * 
+	 * @param os
+	 *            output
 	 * @param s
 	 * @throws IOException
 	 */
-	protected void writeString(String s) throws IOException {
+	protected static void writeString(OutputStream os, String s)
+			throws IOException {
 		for (int i = 0; i < s.length(); i++) {
-			out.write((byte) s.charAt(i));
+			os.write((byte) s.charAt(i));
 		}
 	}
 }
@@ -34,7 +34,8 @@ import org.geogebra.desktop.io.MyXMLioD;
 
 /**
  * UndoManager handles undo information for a Construction. It uses an undo info
- * list with construction snapshots in temporary files.
+ * list with construction snapshots in memory (only changed elements are
+ * stored) or in temporary files.
  * 
  * @author Markus Hohenwarter
  */
@@ -53,6 +54,7 @@ public class UndoManagerD extends UndoManager {
 	public UndoManagerD(Construction cons, boolean sync) {
 		super(cons);
 		this.sync = sync;
+		setDeltaStorage(true);
 	}
 
 	private void execute(Runnable undoSaveAction) {
@@ -98,8 +100,10 @@ public class UndoManagerD extends UndoManager {
 			public Object run() {
 				try {
 					// perform the security-sensitive operation here
-					// save to file
-					AppState appStateToAdd = new FileAppState(undoXML);
+					// save to memory or file
+					AppState appStateToAdd = isDeltaStorage()
+							? createDeltaAppState(undoXML.toString())
+							: new FileAppState(undoXML);
 
 					// insert undo info
 					UndoCommand command = new UndoCommand(appStateToAdd);
@@ -133,10 +137,6 @@ public class UndoManagerD extends UndoManager {
 		InputStream is = null;
 
 		try {
-			// load from file
-			File tempFile = ((FileAppState) info).getFile();
-			is = new FileInputStream(tempFile);
-
 			// make sure objects are displayed in the correct View
 			app.setActiveView(App.VIEW_EUCLIDIAN);
 
@@ -170,7 +170,14 @@ public class UndoManagerD extends UndoManager {
 
 			// load undo info
 			app.getScriptManager().disableListeners();
-			((MyXMLioD) construction.getXMLio()).readZipFromMemory(is);
+			if (info instanceof FileAppState) {
+				// load from file
+				File tempFile = ((FileAppState) info).getFile();
+				is = new FileInputStream(tempFile);
+				((MyXMLioD) construction.getXMLio()).readZipFromMemory(is);
+			} else {
+				loadXMLState(info);
+			}
 			if (changed) {
 				listSelModel.setAnchorSelectionIndex(anchorIndex);
 				listSelModel.setLeadSelectionIndex(leadIndex);
@@ -53,6 +53,7 @@ import java.awt.event.WindowEvent;
 import java.awt.event.WindowListener;
 import java.awt.image.BufferedImage;
 import java.awt.image.MemoryImageSource;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
@@ -64,6 +65,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
@@ -137,6 +139,7 @@ import org.geogebra.common.io.layout.DockPanelData;
 import org.geogebra.common.io.layout.Perspective;
 import org.geogebra.common.io.layout.PerspectiveDecoder;
 import org.geogebra.common.javax.swing.GImageIcon;
+import org.geogebra.common.jre.cas.CasResultFileStore;
 import org.geogebra.common.jre.factory.FormatFactoryJre;
 import org.geogebra.common.jre.gui.MyImageJre;
 import org.geogebra.common.jre.headless.AppDI;
@@ -758,6 +761,7 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 					+ "  --settingsFile=PATH|FILENAME\tload/save settings from/in a local file\n"
 					+ "  --resetSettings\treset current settings\n"
 					+ "  --regressionFile=FILENAME\texport textual representations of dependent objects, then exit\n"
+					+ "  --casCache=FILENAME\tkeep CAS results in a file for next sessions\n"
 					+ "  --versionCheckAllow=SETTING\tallow version check (on/off or true/false for single launch)\n"
 					+ "  --logLevel=LEVEL\tset logging level (EMERGENCY|ALERT|CRITICAL|ERROR|WARN|NOTICE|INFO|DEBUG|TRACE)\n"
 					+ "  --logFile=FILENAME\tset log file\n"
@@ -1278,6 +1282,18 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 		if (args.containsArg("regressionFile")) {
 			this.regressionFileName = args.getStringValue("regressionFile");
 		}
+		if (args.containsArg("casCache")) {
+			final CasResultFileStore casStore = new CasResultFileStore(
+					new File(args.getStringValue("casCache")));
+			kernel.getCasCache().setStore(casStore);
+			// write results collected since the last flush
+			Runtime.getRuntime().addShutdownHook(new Thread() {
+				@Override
+				public void run() {
+					casStore.close();
+				}
+			});
+		}
 		if (args.containsArg("prover")) {
 			String[] proverOptions = args.getStringValue("prover").split(",");
 			for (int i = 0; i < proverOptions.length; i++) {
@@ -5252,6 +5268,20 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 			e.printStackTrace();
 		}
 	}
+
+	@Override
+	public OutputStream getExportFileStream(String ext) {
+		String fileName = "test." + ext;
+		try {
+			OutputStream out = new BufferedOutputStream(
+					new FileOutputStream(fileName));
+			Log.debug("Export to " + fileName);
+			return out;
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
 	
 	@Override
 	public void handleImageExport(String base64image) {
@@ -6,10 +6,16 @@ import org.mozilla.javascript.ClassShutter;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Context.ClassShutterSetter;
 import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.Scriptable;
 
 public class CallJavaScript {
 
+	/**
+	 * Sandboxed context of each thread, kept between scripts
+	 */
+	private static final ThreadLocal<Context> contexts = new ThreadLocal<>();
+
 	/**
 	 * Evaluates the global script for the current construction and returns a
 	 * scope object for this script.
@@ -19,68 +25,101 @@ public class CallJavaScript {
 	 */
 	public static Scriptable evalGlobalScript(App app) {
 
-		ContextFactory.initGlobal(SandboxContextFactory.getInstance());
-
 		// create new scope
-		Context cx = Context.enter();
+		Context cx = enterContext();
 
-		Scriptable scope = cx.initStandardObjects();
-
-		ClassShutterSetter setter = cx.getClassShutterSetter();
-		if (setter != null) {
-			setter.setClassShutter(sandboxClassShutter);
+		try {
+			Scriptable scope = cx.initStandardObjects();
+
+			// Initialize GgbApi functions, eg ggbApplet.evalCommand()
+			GeoGebraGlobal.initStandardObjects(app, scope, null, false);
+
+			// Evaluate the global string
+			try {
+				cx.evaluateString(scope,
+						app.getKernel().getLibraryJavaScript(),
+						app.getLocalization().getMenu("ErrorAtLine"), 1, null);
+			} catch (Throwable t) {
+
+			}
+			return scope;
+		} finally {
+			Context.exit();
 		}
 
-		// Initialize GgbApi functions, eg ggbApplet.evalCommand()
-		GeoGebraGlobal.initStandardObjects(app, scope, null, false);
+	}
 
-		// Evaluate the global string
+	/**
+	 * Compiles a local script so that it can be run several times.
+	 * 
+	 * @param app
+	 *            application
+	 * @param script
+	 *            script source
+	 * @return compiled script
+	 */
+	public static Script compileScript(App app, String script) {
+		Context cx = enterContext();
 		try {
-			cx.evaluateString(scope,
-					app.getKernel().getLibraryJavaScript(),
+			return cx.compileString(script,
 					app.getLocalization().getMenu("ErrorAtLine"), 1, null);
-		} catch (Throwable t) {
-
+		} finally {
+			Context.exit();
 		}
-		Context.exit();
-		return scope;
-
 	}
 
 	/**
-	 * Evaluates a local script using the global scope from the current
+	 * Runs a local script using the global scope from the current
 	 * construction.
 	 * 
 	 * @param app
+	 *            application
 	 * @param script
+	 *            compiled script
 	 * @param arg
+	 *            argument
 	 */
-	public static void evalScript(App app, String script, String arg) {
+	public static void evalScript(App app, Script script, String arg) {
 
 		// get the global scope for the current construction
 		Scriptable globalScope = ((ScriptManagerD) app.getScriptManager())
 				.getGlobalScopeMap().get(app.getKernel().getConstruction());
 
-		Context cx = Context.enter();
+		Context cx = enterContext();
+
+		try {
+			// Create a new scope that shares the global scope
+			Scriptable newScope = cx.newObject(globalScope);
+			newScope.setPrototype(globalScope);
+			newScope.setParentScope(null);
+
+			// Evaluate the script.
+			script.exec(cx, newScope);
+		} finally {
+			Context.exit();
+		}
 
-		cx.initStandardObjects();
+	}
 
+	/**
+	 * Enters the sandboxed context of this thread, created on first use.
+	 * 
+	 * @return context, to be exited by caller
+	 */
+	private static Context enterContext() {
+		ContextFactory factory = SandboxContextFactory.getInstance();
+		ContextFactory.initGlobal(factory);
+		Context cx = factory.enterContext(contexts.get());
+		if (contexts.get() == null) {
+			contexts.set(cx);
+		}
+
+		// only possible once per context
 		ClassShutterSetter setter = cx.getClassShutterSetter();
 		if (setter != null) {
 			setter.setClassShutter(sandboxClassShutter);
 		}
-
-		// Create a new scope that shares the global scope
-		Scriptable newScope = cx.newObject(globalScope);
-		newScope.setPrototype(globalScope);
-		newScope.setParentScope(null);
-
-		// Evaluate the script.
-		cx.evaluateString(newScope, script,
-				app.getLocalization().getMenu("ErrorAtLine"), 1, null);
-
-		Context.exit();
-
+		return cx;
 	}
 
 	private static final SandboxClassShutter sandboxClassShutter = new SandboxClassShutter();
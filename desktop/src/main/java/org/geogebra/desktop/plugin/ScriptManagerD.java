@@ -1,19 +1,87 @@
 package org.geogebra.desktop.plugin;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.geogebra.common.jre.plugin.ScriptManagerJre;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.main.App;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.Scriptable;
 
 public class ScriptManagerD extends ScriptManagerJre {
 
+	/** number of compiled scripts kept */
+	private static final int MAX_COMPILED_SCRIPTS = 256;
+
 	protected HashMap<Construction, Scriptable> globalScopeMap;
 
+	/** compiled scripts by source, least recently used first */
+	private final LinkedHashMap<String, ScriptStats> compiledScripts;
+
+	/**
+	 * Compiled script with its timings.
+	 */
+	public static class ScriptStats {
+		private final Script script;
+		private final long compileTime;
+		private int runs;
+		private long runTime;
+
+		/**
+		 * @param script
+		 *            compiled script
+		 * @param compileTime
+		 *            compilation time in ns
+		 */
+		ScriptStats(Script script, long compileTime) {
+			this.script = script;
+			this.compileTime = compileTime;
+		}
+
+		/**
+		 * @return number of runs
+		 */
+		public int getRuns() {
+			return runs;
+		}
+
+		/**
+		 * @return total time of all runs in ms
+		 */
+		public double getRunTime() {
+			return runTime / 1E6;
+		}
+
+		/**
+		 * @return compilation time in ms
+		 */
+		public double getCompileTime() {
+			return compileTime / 1E6;
+		}
+
+		@Override
+		public String toString() {
+			return runs + " runs in " + getRunTime() + "ms, compiled in "
+					+ getCompileTime() + "ms";
+		}
+	}
+
 	public ScriptManagerD(App app) {
 		super(app);
 		globalScopeMap = new HashMap<>();
+		compiledScripts = new LinkedHashMap<String, ScriptStats>(16, 0.75f,
+				true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<String, ScriptStats> eldest) {
+				return size() > MAX_COMPILED_SCRIPTS;
+			}
+		};
 	}
 
 	public HashMap<Construction, Scriptable> getGlobalScopeMap() {
@@ -31,11 +99,55 @@ public class ScriptManagerD extends ScriptManagerJre {
 		globalScopeMap.put(app.getKernel().getConstruction(), globalScope);
 	}
 
+	/**
+	 * Runs a script in the global scope of current construction. Scripts are
+	 * compiled on first run and kept, so that update scripts run for each
+	 * frame of an animation are not parsed again.
+	 * 
+	 * @param app
+	 *            application
+	 * @param script
+	 *            script source
+	 * @param arg
+	 *            argument
+	 */
 	public void evalJavaScript(App app, String script, String arg) {
 		if (globalScopeMap.get(app.getKernel().getConstruction()) == null) {
 			setGlobalScript();
 		}
 
-		CallJavaScript.evalScript(app, script, arg);
+		ScriptStats stats;
+		synchronized (compiledScripts) {
+			stats = compiledScripts.get(script);
+		}
+		if (stats == null) {
+			long start = System.nanoTime();
+			Script compiled = CallJavaScript.compileScript(app, script);
+			stats = new ScriptStats(compiled, System.nanoTime() - start);
+			synchronized (compiledScripts) {
+				compiledScripts.put(script, stats);
+			}
+		}
+
+		long start = System.nanoTime();
+		try {
+			CallJavaScript.evalScript(app, stats.script, arg);
+		} finally {
+			synchronized (compiledScripts) {
+				stats.runs++;
+				stats.runTime += System.nanoTime() - start;
+			}
+		}
+	}
+
+	/**
+	 * @return timings of recently run scripts by source, most recently used
+	 *         last
+	 */
+	public Map<String, ScriptStats> getScriptStats() {
+		synchronized (compiledScripts) {
+			return Collections.unmodifiableMap(
+					new LinkedHashMap<>(compiledScripts));
+		}
 	}
 }
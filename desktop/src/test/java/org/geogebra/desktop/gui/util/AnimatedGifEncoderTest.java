@@ -0,0 +1,126 @@
+package org.geogebra.desktop.gui.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+
+public class AnimatedGifEncoderTest {
+
+	private static final int FRAMES = 30;
+
+	/**
+	 * Encodes frames drawn in the same image, like the 3D view export does.
+	 */
+	private static byte[] encode(AnimatedGifEncoder encoder, int frames) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		encoder.setQuality(1);
+		encoder.setDelay(100);
+		encoder.setRepeat(0);
+		assertTrue(encoder.start(out));
+		BufferedImage image = new BufferedImage(200, 150,
+				BufferedImage.TYPE_3BYTE_BGR);
+		Graphics2D g = image.createGraphics();
+		for (int i = 0; i < frames; i++) {
+			for (int x = 0; x < 200; x += 10) {
+				g.setColor(new Color(x, 255 - x, (i * 8) % 256));
+				g.fillRect(x, 0, 10, 150);
+			}
+			g.setColor(Color.BLACK);
+			g.fillOval(5 * i, 50, 40, 40);
+			assertTrue(encoder.addFrame(image));
+		}
+		assertTrue(encoder.finish());
+		return out.toByteArray();
+	}
+
+	private static int countFrames(byte[] gif) throws IOException {
+		ImageReader reader = ImageIO.getImageReadersByFormatName("gif")
+				.next();
+		ImageInputStream in = ImageIO
+				.createImageInputStream(new ByteArrayInputStream(gif));
+		reader.setInput(in);
+		int frames = reader.getNumImages(true);
+		for (int i = 0; i < frames; i++) {
+			reader.read(i);
+		}
+		return frames;
+	}
+
+	@Test
+	public void parallelEncodingShouldKeepFrameOrder() throws IOException {
+		Stopwatch stopwatch = new Stopwatch();
+		AnimatedGifEncoder sequential = new AnimatedGifEncoder();
+		sequential.setThreads(1);
+		stopwatch.start();
+		byte[] expected = encode(sequential, FRAMES);
+		long sequentialTime = stopwatch.stop();
+
+		AnimatedGifEncoder parallel = new AnimatedGifEncoder();
+		parallel.setThreads(4);
+		stopwatch.start();
+		byte[] actual = encode(parallel, FRAMES);
+		long parallelTime = stopwatch.stop();
+
+		assertArrayEquals(expected, actual);
+		assertEquals(FRAMES, countFrames(actual));
+		Log.debug(FRAMES + " frames: " + sequentialTime + "ms sequential, "
+				+ parallelTime + "ms on 4 threads");
+	}
+
+	@Test
+	public void globalPaletteShouldSkipLocalColorTables() throws IOException {
+		byte[] local = encode(new AnimatedGifEncoder(), FRAMES);
+		AnimatedGifEncoder encoder = new AnimatedGifEncoder();
+		encoder.setGlobalPalette(true);
+		byte[] global = encode(encoder, FRAMES);
+		assertEquals(FRAMES, countFrames(global));
+		Log.debug("local " + local.length + " global " + global.length);
+		assertTrue(global.length < local.length);
+	}
+
+	@Test
+	public void progressShouldBeReportedInOrder() {
+		final int[] lastWritten = { 0 };
+		AnimatedGifEncoder encoder = new AnimatedGifEncoder();
+		encoder.setProgressListener(
+				new AnimatedGifEncoder.ProgressListener() {
+					@Override
+					public void onProgress(int written, int added) {
+						assertEquals(lastWritten[0] + 1, written);
+						assertTrue(written <= added);
+						lastWritten[0] = written;
+					}
+				});
+		encode(encoder, FRAMES);
+		assertEquals(FRAMES, lastWritten[0]);
+	}
+
+	@Test
+	public void cancelledExportShouldFail() {
+		AnimatedGifEncoder encoder = new AnimatedGifEncoder();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		encoder.start(out);
+		BufferedImage image = new BufferedImage(20, 20,
+				BufferedImage.TYPE_INT_RGB);
+		assertTrue(encoder.addFrame(image));
+		encoder.cancel();
+		assertFalse(encoder.addFrame(image));
+		assertFalse(encoder.finish());
+	}
+}
@@ -0,0 +1,108 @@
+package org.geogebra.desktop.kernel;
+
+import org.geogebra.common.kernel.DeltaAppState;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.UndoManager;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.geogebra.desktop.main.LocalizationD;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class UndoManagerDTest {
+
+	private static AppDNoGui app;
+	private static Kernel kernel;
+
+	@BeforeClass
+	public static void setup() {
+		app = new AppDNoGui(new LocalizationD(3), true);
+		kernel = app.getKernel();
+	}
+
+	/**
+	 * Start each test with empty construction and undo list
+	 */
+	@Before
+	public void clear() {
+		kernel.clearConstruction(true);
+		app.setUndoActive(true);
+		kernel.initUndoInfo();
+	}
+
+	@Test
+	public void undoPointsShouldBeStoredAsDeltas() {
+		UndoManager undoManager = kernel.getConstruction().getUndoManager();
+		Assert.assertTrue(undoManager instanceof UndoManagerD);
+		Assert.assertTrue(undoManager.isDeltaStorage());
+		add("A=(1,1)");
+		kernel.storeUndoInfo();
+		Assert.assertTrue(
+				undoManager.getCurrentUndoInfo() instanceof DeltaAppState);
+	}
+
+	@Test
+	public void undoShouldReloadChangedPoints() {
+		add("A=(1,1)");
+		add("B=(5,5)");
+		add("C=(0,3)");
+		add("M=Midpoint(A,B)");
+		kernel.storeUndoInfo();
+		GeoPoint pointA = move("A", 2, 2);
+		GeoPoint pointB = move("B", 6, 8);
+		GeoElement pointC = lookup("C");
+		kernel.storeUndoInfo();
+
+		kernel.undo();
+		// elements were updated in place, not recreated
+		Assert.assertSame(pointA, lookup("A"));
+		Assert.assertSame(pointB, lookup("B"));
+		Assert.assertSame(pointC, lookup("C"));
+		assertCoords("A", 1, 1);
+		assertCoords("B", 5, 5);
+		assertCoords("M", 3, 3);
+
+		kernel.redo();
+		Assert.assertSame(pointA, lookup("A"));
+		assertCoords("A", 2, 2);
+		assertCoords("B", 6, 8);
+		assertCoords("M", 4, 5);
+	}
+
+	@Test
+	public void undoShouldRemoveNewElements() {
+		add("A=(1,1)");
+		kernel.storeUndoInfo();
+		add("B=A+(1,0)");
+		kernel.storeUndoInfo();
+		kernel.undo();
+		Assert.assertNotNull(lookup("A"));
+		Assert.assertNull(lookup("B"));
+		kernel.redo();
+		assertCoords("B", 2, 1);
+	}
+
+	private static void add(String command) {
+		kernel.getAlgebraProcessor().processAlgebraCommand(command, false);
+	}
+
+	private static GeoElement lookup(String label) {
+		return kernel.lookupLabel(label);
+	}
+
+	private static GeoPoint move(String label, double x, double y) {
+		GeoPoint point = (GeoPoint) lookup(label);
+		point.setCoords(x, y, 1);
+		point.updateCascade();
+		return point;
+	}
+
+	private static void assertCoords(String label, double x, double y) {
+		GeoPoint point = (GeoPoint) lookup(label);
+		Assert.assertEquals(x, point.getInhomX(), Kernel.MIN_PRECISION);
+		Assert.assertEquals(y, point.getInhomY(), Kernel.MIN_PRECISION);
+	}
+}
@@ -0,0 +1,62 @@
+package org.geogebra.desktop.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.geogebra.common.kernel.commands.AlgebraTest;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.geogebra.desktop.plugin.ScriptManagerD.ScriptStats;
+import org.junit.Before;
+import org.junit.Test;
+import org.mozilla.javascript.EvaluatorException;
+
+public class ScriptManagerDTest {
+
+	private AppDNoGui app;
+	private ScriptManagerD manager;
+
+	@Before
+	public void setup() {
+		app = AlgebraTest.createApp();
+		manager = new ScriptManagerD(app);
+		app.setScriptManager(manager);
+	}
+
+	@Test
+	public void scriptShouldBeCompiledOnce() {
+		String script = "var s = 0; for (var i = 0; i < 10; i++) { s += i; }";
+		for (int i = 0; i < 100; i++) {
+			manager.evalJavaScript(app, script, null);
+		}
+		assertEquals(1, manager.getScriptStats().size());
+		ScriptStats stats = manager.getScriptStats().get(script);
+		assertEquals(100, stats.getRuns());
+		assertTrue(stats.getCompileTime() > 0);
+	}
+
+	@Test
+	public void failingScriptShouldNotBeCached() {
+		for (int i = 0; i < 2; i++) {
+			try {
+				manager.evalJavaScript(app, "var a = ;", null);
+				fail("syntax error expected");
+			} catch (EvaluatorException e) {
+				// expected
+			}
+		}
+		assertTrue(manager.getScriptStats().isEmpty());
+	}
+
+	@Test
+	public void variablesShouldStayLocal() {
+		manager.evalJavaScript(app, "var local = 1;", null);
+		try {
+			manager.evalJavaScript(app, "if (local) { throw 'leaked'; }",
+					null);
+			fail("local is not defined");
+		} catch (RuntimeException e) {
+			assertTrue(e.getMessage().contains("local"));
+		}
+	}
+}